@@ -20,7 +20,9 @@ package com.vaticle.typedb.core.common.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
 
@@ -38,6 +40,18 @@ public class CommonCache<KEY, VALUE> {
         cache = Caffeine.newBuilder().maximumSize(size).expireAfterAccess(timeoutMinutes, MINUTES).build();
     }
 
+    public CommonCache(long maximumWeight, ToIntBiFunction<KEY, VALUE> weigher) {
+        this(maximumWeight, weigher, (key, value) -> {});
+    }
+
+    public CommonCache(long maximumWeight, ToIntBiFunction<KEY, VALUE> weigher, BiConsumer<KEY, VALUE> onEviction) {
+        cache = Caffeine.newBuilder().maximumWeight(maximumWeight).<KEY, VALUE>weigher(weigher::applyAsInt)
+                .expireAfterAccess(CACHE_TIMEOUT_MINUTES, MINUTES)
+                .<KEY, VALUE>removalListener((key, value, cause) -> {
+                    if (cause.wasEvicted()) onEviction.accept(key, value);
+                }).build();
+    }
+
     public VALUE get(KEY key, Function<KEY, VALUE> function) {
         return cache.get(key, function);
     }
@@ -50,6 +64,14 @@ public class CommonCache<KEY, VALUE> {
 
     public VALUE getIfPresent(KEY key) { return cache.getIfPresent(key); }
 
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long weight() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
     public void clear() {
         cache.invalidateAll();
     }
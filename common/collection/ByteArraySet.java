@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.common.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.INTEGER_SIZE;
+
+/**
+ * A set of byte arrays which copies its elements back to back into pages of its own, and finds them through an
+ * open-addressed table of their positions in those pages. An element costs its own bytes, a length, and two table
+ * slots, rather than an object per element and an entry object per slot.
+ *
+ * Pages start small and double in size up to MAX_PAGE_SIZE, so that small sets stay small.
+ */
+public class ByteArraySet {
+
+    private static final int MIN_PAGE_SIZE = 256;
+    private static final int MAX_PAGE_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<byte[]> pages;
+    private byte[] page;
+    private int pageOffset;
+    private long pagesSize;
+    private long[] positions;
+    private int[] hashes;
+    private int size;
+
+    public ByteArraySet() {
+        this.pages = new ArrayList<>();
+        this.positions = new long[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    public boolean add(byte[] bytes) {
+        int hash = hash(bytes);
+        int slot = slot(bytes, hash);
+        if (positions[slot] != 0) return false;
+        positions[slot] = write(bytes) + 1;
+        hashes[slot] = hash;
+        if (++size > positions.length / 2) grow();
+        return true;
+    }
+
+    public boolean contains(byte[] bytes) {
+        return positions[slot(bytes, hash(bytes))] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of bytes held by the pages and the table of this set
+     */
+    public long memoryUsage() {
+        return pagesSize + (long) positions.length * Long.BYTES + (long) hashes.length * Integer.BYTES;
+    }
+
+    /**
+     * @return the slot holding the given bytes, or the empty slot they would be held in
+     */
+    private int slot(byte[] bytes, int hash) {
+        int mask = positions.length - 1;
+        int slot = hash & mask;
+        while (positions[slot] != 0 && (hashes[slot] != hash || !isWrittenAt(positions[slot] - 1, bytes))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldPositions = positions;
+        int[] oldHashes = hashes;
+        positions = new long[oldPositions.length * 2];
+        hashes = new int[oldHashes.length * 2];
+        int mask = positions.length - 1;
+        for (int i = 0; i < oldPositions.length; i++) {
+            if (oldPositions[i] == 0) continue;
+            int slot = oldHashes[i] & mask;
+            while (positions[slot] != 0) slot = (slot + 1) & mask;
+            positions[slot] = oldPositions[i];
+            hashes[slot] = oldHashes[i];
+        }
+    }
+
+    /**
+     * @return the position of the written bytes, as the index of their page in the upper half,
+     * and their offset in that page in the lower half
+     */
+    private long write(byte[] bytes) {
+        int length = INTEGER_SIZE + bytes.length;
+        if (page == null || pageOffset + length > page.length) {
+            int pageSize = page == null ? MIN_PAGE_SIZE : Math.min(page.length * 2, MAX_PAGE_SIZE);
+            page = new byte[Math.max(pageSize, length)];
+            pages.add(page);
+            pagesSize += page.length;
+            pageOffset = 0;
+        }
+        long position = ((long) (pages.size() - 1) << 32) | pageOffset;
+        page[pageOffset] = (byte) (bytes.length >> 24);
+        page[pageOffset + 1] = (byte) (bytes.length >> 16);
+        page[pageOffset + 2] = (byte) (bytes.length >> 8);
+        page[pageOffset + 3] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, page, pageOffset + INTEGER_SIZE, bytes.length);
+        pageOffset += length;
+        return position;
+    }
+
+    private boolean isWrittenAt(long position, byte[] bytes) {
+        byte[] written = pages.get((int) (position >>> 32));
+        int offset = (int) position;
+        int length = ((written[offset] & 0xff) << 24) | ((written[offset + 1] & 0xff) << 16) |
+                ((written[offset + 2] & 0xff) << 8) | (written[offset + 3] & 0xff);
+        if (length != bytes.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (written[offset + INTEGER_SIZE + i] != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    private static int hash(byte[] bytes) {
+        int hash = Arrays.hashCode(bytes);
+        return hash ^ (hash >>> 16);
+    }
+}
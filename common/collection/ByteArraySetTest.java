@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.common.collection;
+
+import org.junit.Test;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.join;
+import static com.vaticle.typedb.core.common.collection.Bytes.longToBytes;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+public class ByteArraySetTest {
+
+    @Test
+    public void test_added_arrays_are_contained_once() {
+        ByteArraySet set = new ByteArraySet();
+        assertTrue(set.add(new byte[]{1, 2, 3}));
+        assertTrue(set.add(new byte[]{1, 2}));
+        assertTrue(set.add(new byte[]{}));
+        assertFalse(set.add(new byte[]{1, 2, 3}));
+        assertFalse(set.add(new byte[]{}));
+
+        assertTrue(set.contains(new byte[]{1, 2, 3}));
+        assertTrue(set.contains(new byte[]{1, 2}));
+        assertTrue(set.contains(new byte[]{}));
+        assertFalse(set.contains(new byte[]{1}));
+        assertFalse(set.contains(new byte[]{1, 2, 3, 4}));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void test_arrays_are_kept_across_pages_and_resizing() {
+        ByteArraySet set = new ByteArraySet();
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set.add(join(longToBytes(i), longToBytes(i * 31))));
+        }
+        assertTrue(set.add(new byte[2 << 20]));
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set.contains(join(longToBytes(i), longToBytes(i * 31))));
+            assertFalse(set.contains(join(longToBytes(i), longToBytes(i * 31 + 1))));
+        }
+        assertTrue(set.contains(new byte[2 << 20]));
+        assertEquals(100_001, set.size());
+    }
+}
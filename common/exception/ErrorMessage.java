@@ -123,6 +123,14 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Database(3, "Database with the name '%s' has been deleted.");
         public static final Database DATABASE_CLOSED =
                 new Database(4, "Attempted to open a new session from the database '%s' that has been closed.");
+        public static final Database BACKUP_SCHEMA_LOCK_TIMEOUT =
+                new Database(5, "Could not back up the database '%s', as a schema session may have been left open.");
+        public static final Database BACKUP_NOT_FOUND =
+                new Database(6, "There is no completed backup at '%s'.");
+        public static final Database BACKUP_EXISTS =
+                new Database(7, "The backup '%s' already exists.");
+        public static final Database BACKUP_CORRUPTED =
+                new Database(8, "The backed up file '%s' does not match its checksum.");
 
         private static final String codePrefix = "DBS";
         private static final String messagePrefix = "Invalid Database Operations";
@@ -181,6 +189,8 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Transaction(15, "The transaction type '%s' was not recognised.");
         public static final Transaction DATA_ACQUIRE_LOCK_TIMEOUT =
                 new Transaction(16, "Could not acquire lock for data transaction. A schema session may have been left open.");
+        public static final Transaction PREPARED_QUERY_SESSION_MISMATCH =
+                new Transaction(17, "The prepared query can only be answered in the session it was prepared in.");
 
         private static final String codePrefix = "TXN";
         private static final String messagePrefix = "Invalid Transaction Operation";
@@ -224,6 +234,10 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Pattern(15, "The type variable '%s' has multiple 'regex' constraints.");
         public static final Pattern UNSATISFIABLE_PATTERN =
                 new Pattern(16, "The pattern '%s' can never be satisfied the current schema, specifically due to '%s'.");
+        public static final Pattern UNRECOGNISED_BOUND_VALUE =
+                new Pattern(17, "The prepared query has no variable '%s' to bind a value to.");
+        public static final Pattern INVALID_BOUND_VALUE =
+                new Pattern(18, "The variable '%s' cannot be bound to the value '%s', as only attribute variables can be bound to a boolean, long, double, string or datetime value.");
 
         private static final String codePrefix = "QRY";
         private static final String messagePrefix = "Invalid Query Pattern";
@@ -526,14 +540,6 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Reasoner(2, "Reverse unification failed because a concept for identifier '%s' was not found in the provided map '%s'.");
         public static final Reasoner RESOLUTION_TERMINATED =
                 new Reasoner(3, "Resolution is terminated.");
-        public static final Reasoner REASONER_TRACING_CANNOT_BE_TOGGLED_PER_QUERY =
-                new Reasoner(4, "Reasoner tracing cannot be enabled/disabled per query. Try using Transaction options instead.");
-        public static final Reasoner REASONER_TRACING_HAS_NOT_BEEN_INITIALISED =
-                new Reasoner(5, "Attempted to get the resolution tracer before it has been initialised.");
-        public static final Reasoner REASONER_TRACING_CALL_TO_FINISH_BEFORE_START =
-                new Reasoner(6, "Reasoner tracing has been instructed to finish without being started. Start the tracer before any resolution takes place.");
-        public static final Reasoner REASONER_TRACING_CALL_TO_WRITE_BEFORE_START =
-                new Reasoner(7, "Reasoner tracing has been instructed to write without being started. Start the tracer before any resolution takes place.");
 
         private static final String codePrefix = "RSN";
         private static final String messagePrefix = "Reasoner Error";
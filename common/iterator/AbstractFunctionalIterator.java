@@ -20,6 +20,7 @@ package com.vaticle.typedb.core.common.iterator;
 
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -51,6 +52,12 @@ public abstract class AbstractFunctionalIterator<T> implements FunctionalIterato
         return new DistinctIterator<>(this, duplicates);
     }
 
+    @Override
+    public FunctionalIterator<T> distinct(Function<T, byte[]> encoder, Function<byte[], T> decoder, long memoryBudget,
+                                          Path spillDir) {
+        return new SpillingDistinctIterator<>(this, encoder, decoder, memoryBudget, spillDir);
+    }
+
     @Override
     public <U> FunctionalIterator<U> map(Function<T, U> mappingFn) {
         return new MappedIterator<>(this, mappingFn);
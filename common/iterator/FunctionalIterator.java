@@ -20,6 +20,7 @@ package com.vaticle.typedb.core.common.iterator;
 
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -35,6 +36,8 @@ public interface FunctionalIterator<T> extends Iterator<T> {
 
     FunctionalIterator<T> distinct(Set<T> duplicates);
 
+    FunctionalIterator<T> distinct(Function<T, byte[]> encoder, Function<byte[], T> decoder, long memoryBudget, Path spillDir);
+
     <U> FunctionalIterator<U> map(Function<T, U> mappingFn);
 
     <U> FunctionalIterator<U> flatMap(Function<T, FunctionalIterator<U>> flatMappingFn);
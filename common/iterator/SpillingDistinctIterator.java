@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.common.iterator;
+
+import com.vaticle.typedb.core.common.collection.ByteArraySet;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+
+/**
+ * Removes duplicates from an iterator within a budget of memory. Elements are deduplicated on their encodings, which
+ * are held back to back in a {@code ByteArraySet}, and are returned as soon as they are first seen.
+ *
+ * Once the encodings held exceed the budget, no more are held. The encodings that are not held are written to one of
+ * a number of partition files by their hash instead, and once the iterator is exhausted, each partition is
+ * deduplicated and decoded in turn. A partition that exceeds the budget on its own is partitioned again by a
+ * different hash, until the maximum depth is reached. The partition files are written to the given directory, and
+ * are deleted once they are read, or once the iterator is recycled.
+ */
+class SpillingDistinctIterator<T> extends AbstractFunctionalIterator<T> {
+
+    private static final int PARTITIONS = 16;
+    private static final int MAX_DEPTH = 4;
+
+    private final FunctionalIterator<T> iterator;
+    private final Function<T, byte[]> encoder;
+    private final Function<byte[], T> decoder;
+    private final long memoryBudget;
+    private final Path spillDir;
+    private final int depth;
+    private ByteArraySet consumed;
+    private Partitions partitions;
+    private FunctionalIterator<FunctionalIterator<byte[]>> spilled;
+    private SpillingDistinctIterator<byte[]> partition;
+    private T next;
+
+    SpillingDistinctIterator(FunctionalIterator<T> iterator, Function<T, byte[]> encoder,
+                             Function<byte[], T> decoder, long memoryBudget, Path spillDir) {
+        this(iterator, encoder, decoder, memoryBudget, spillDir, 0);
+    }
+
+    private SpillingDistinctIterator(FunctionalIterator<T> iterator, Function<T, byte[]> encoder,
+                                     Function<byte[], T> decoder, long memoryBudget, Path spillDir, int depth) {
+        this.iterator = iterator;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.memoryBudget = memoryBudget;
+        this.spillDir = spillDir;
+        this.depth = depth;
+        this.consumed = new ByteArraySet();
+        this.partitions = null;
+        this.spilled = null;
+        this.partition = null;
+        this.next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return (next != null) || fetch();
+    }
+
+    private boolean fetch() {
+        while (iterator.hasNext()) {
+            T element = iterator.next();
+            byte[] encoding = encoder.apply(element);
+            if (partitions != null) {
+                if (!consumed.contains(encoding)) partitions.write(encoding);
+            } else if (consumed.add(encoding)) {
+                if (consumed.memoryUsage() > memoryBudget) partitions = new Partitions(spillDir, depth);
+                next = element;
+                return true;
+            }
+        }
+        if (partitions == null) return false;
+        if (spilled == null) {
+            // the spilled encodings are not held, so they cannot be duplicates of the elements already returned
+            consumed = null;
+            spilled = partitions.read();
+        }
+        int partitionDepth = depth + 1;
+        long partitionBudget = partitionDepth < MAX_DEPTH ? memoryBudget : Long.MAX_VALUE;
+        while (partition == null || !partition.hasNext()) {
+            if (!spilled.hasNext()) return false;
+            partition = new SpillingDistinctIterator<>(spilled.next(), Function.identity(), Function.identity(),
+                                                       partitionBudget, spillDir, partitionDepth);
+        }
+        next = decoder.apply(partition.next());
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Deletes every partition file, including those of the partition being read, which spills to files of its own
+     */
+    @Override
+    public void recycle() {
+        iterator.recycle();
+        if (partition != null) partition.recycle();
+        if (partitions != null) partitions.delete();
+    }
+
+    private static class Partitions {
+
+        private final Path directory;
+        private final int depth;
+        private final Path[] files;
+        private final DataOutputStream[] outputs;
+
+        private Partitions(Path directory, int depth) {
+            this.directory = directory;
+            this.depth = depth;
+            this.files = new Path[PARTITIONS];
+            this.outputs = new DataOutputStream[PARTITIONS];
+        }
+
+        private void write(byte[] encoding) {
+            int partition = Math.floorMod(hash(encoding, depth), PARTITIONS);
+            try {
+                if (outputs[partition] == null) {
+                    Files.createDirectories(directory);
+                    files[partition] = Files.createTempFile(directory, "distinct-", ".partition");
+                    outputs[partition] = new DataOutputStream(new BufferedOutputStream(
+                            Files.newOutputStream(files[partition])
+                    ));
+                }
+                outputs[partition].writeInt(encoding.length);
+                outputs[partition].write(encoding);
+            } catch (IOException e) {
+                throw TypeDBException.of(e);
+            }
+        }
+
+        private FunctionalIterator<FunctionalIterator<byte[]>> read() {
+            List<FunctionalIterator<byte[]>> partitions = new ArrayList<>();
+            try {
+                for (int i = 0; i < PARTITIONS; i++) {
+                    if (outputs[i] == null) continue;
+                    outputs[i].close();
+                    outputs[i] = null;
+                    partitions.add(new PartitionIterator(files[i]));
+                }
+            } catch (IOException e) {
+                throw TypeDBException.of(e);
+            }
+            return iterate(partitions);
+        }
+
+        private void delete() {
+            try {
+                for (int i = 0; i < PARTITIONS; i++) {
+                    if (outputs[i] != null) outputs[i].close();
+                    if (files[i] != null) Files.deleteIfExists(files[i]);
+                }
+            } catch (IOException e) {
+                throw TypeDBException.of(e);
+            }
+        }
+
+        /**
+         * Mixes the hash of an encoding with the depth of its partitions, so that the encodings of a single
+         * partition are spread across all partitions of the next depth.
+         */
+        private static int hash(byte[] encoding, int depth) {
+            int hash = Arrays.hashCode(encoding) ^ (depth * 0x9E3779B9);
+            hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+            hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    private static class PartitionIterator extends AbstractFunctionalIterator<byte[]> {
+
+        private final Path file;
+        private DataInputStream input;
+        private byte[] next;
+        private boolean isExhausted;
+
+        private PartitionIterator(Path file) {
+            this.file = file;
+            this.input = null;
+            this.next = null;
+            this.isExhausted = false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (next != null) || fetch();
+        }
+
+        private boolean fetch() {
+            if (isExhausted) return false;
+            try {
+                if (input == null) input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+                byte[] encoding = new byte[input.readInt()];
+                input.readFully(encoding);
+                next = encoding;
+                return true;
+            } catch (EOFException e) {
+                isExhausted = true;
+                recycle();
+                return false;
+            } catch (IOException e) {
+                throw TypeDBException.of(e);
+            }
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            byte[] result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void recycle() {
+            try {
+                if (input != null) input.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw TypeDBException.of(e);
+            }
+        }
+    }
+}
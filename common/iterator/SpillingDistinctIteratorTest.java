@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.common.iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.bytesToLong;
+import static com.vaticle.typedb.core.common.collection.Bytes.longToBytes;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class SpillingDistinctIteratorTest {
+
+    @Rule
+    public TemporaryFolder spillDir = new TemporaryFolder();
+
+    private static List<Long> duplicated(int distinct, int copies) {
+        List<Long> elements = new ArrayList<>();
+        for (int copy = 0; copy < copies; copy++) {
+            for (long i = 0; i < distinct; i++) elements.add((i * 7919) % distinct);
+        }
+        return elements;
+    }
+
+    private static void assertDistinct(FunctionalIterator<Long> iterator, int distinct) {
+        Set<Long> seen = new HashSet<>();
+        while (iterator.hasNext()) assertTrue(seen.add(iterator.next()));
+        assertEquals(distinct, seen.size());
+        for (long i = 0; i < distinct; i++) assertTrue(seen.contains(i));
+    }
+
+    @Test
+    public void test_distinct_within_budget() {
+        FunctionalIterator<Long> iterator = iterate(duplicated(1_000, 3))
+                .distinct(i -> longToBytes(i), b -> bytesToLong(b), Long.MAX_VALUE,
+                          spillDir.getRoot().toPath());
+        assertDistinct(iterator, 1_000);
+    }
+
+    @Test
+    public void test_distinct_when_spilled() {
+        FunctionalIterator<Long> iterator = iterate(duplicated(100_000, 3))
+                .distinct(i -> longToBytes(i), b -> bytesToLong(b), 64 * 1024,
+                          spillDir.getRoot().toPath());
+        assertDistinct(iterator, 100_000);
+    }
+
+    @Test
+    public void test_distinct_when_partitions_are_spilled() {
+        FunctionalIterator<Long> iterator = iterate(duplicated(100_000, 2))
+                .distinct(i -> longToBytes(i), b -> bytesToLong(b), 1,
+                          spillDir.getRoot().toPath());
+        assertDistinct(iterator, 100_000);
+    }
+
+    @Test
+    public void test_spill_files_are_deleted_when_exhausted() {
+        FunctionalIterator<Long> iterator = iterate(duplicated(100_000, 2))
+                .distinct(i -> longToBytes(i), b -> bytesToLong(b), 1, spillDir.getRoot().toPath());
+        assertDistinct(iterator, 100_000);
+        assertSpillDirEmpty();
+    }
+
+    @Test
+    public void test_spill_files_are_deleted_when_recycled_early() {
+        FunctionalIterator<Long> iterator = iterate(duplicated(100_000, 2))
+                .distinct(i -> longToBytes(i), b -> bytesToLong(b), 1, spillDir.getRoot().toPath());
+        for (int i = 0; i < 50_000; i++) iterator.next();
+        iterator.recycle();
+        assertSpillDirEmpty();
+    }
+
+    private void assertSpillDirEmpty() {
+        File[] files = spillDir.getRoot().listFiles();
+        assertEquals(0, files == null ? 0 : files.length);
+    }
+}
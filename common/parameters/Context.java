@@ -22,6 +22,7 @@ import com.vaticle.typedb.common.collection.Either;
 import com.vaticle.typeql.lang.query.TypeQLQuery;
 
 import javax.annotation.Nullable;
+import java.util.Optional;
 
 import static com.vaticle.typedb.core.common.parameters.Arguments.Query.Producer.INCREMENTAL;
 
@@ -81,6 +82,7 @@ public class Context<PARENT extends Context<?, ?>, OPTIONS extends Options<?, ?>
     public static class Query extends Context<Context.Transaction, Options.Query> {
 
         private Either<Arguments.Query.Producer, Long> producerCtx;
+        private volatile String profile;
         private static final Either<Arguments.Query.Producer, Long> DEFAULT_PRODUCER = Either.first(INCREMENTAL);
 
         public Query(Transaction context, Options.Query options) {
@@ -101,5 +103,18 @@ public class Context<PARENT extends Context<?, ?>, OPTIONS extends Options<?, ?>
             this.producerCtx = producerCtx;
             return this;
         }
+
+        /**
+         * @return the resolution profile of this query, once its reasoning has finished, if it was run
+         * with inference tracing enabled
+         */
+        public Optional<String> profile() {
+            return Optional.ofNullable(profile);
+        }
+
+        public Query profile(String profile) {
+            this.profile = profile;
+            return this;
+        }
     }
 }
@@ -24,7 +24,6 @@ import java.nio.file.Path;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
-import static com.vaticle.typedb.core.common.exception.ErrorMessage.Reasoner.REASONER_TRACING_CANNOT_BE_TOGGLED_PER_QUERY;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Reasoner.REASONING_CANNOT_BE_TOGGLED_PER_QUERY;
 
 public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options<?, ?>> {
@@ -39,6 +38,10 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static final boolean DEFAULT_QUERY_READ_PREFETCH = true;
     public static final boolean DEFAULT_QUERY_WRITE_PREFETCH = false;
     public static final boolean DEFAULT_READ_ANY_REPLICA = false;
+    public static final int DEFAULT_READ_SNAPSHOT_STALENESS_MILLIS = 0;
+    public static final boolean DEFAULT_MATERIALISE_INFERENCE = false;
+    public static final long DEFAULT_QUERY_CACHE_SIZE = 0L;
+    public static final long DEFAULT_REASONER_CACHE_SIZE = 64L * 1024 * 1024;
 
     private PARENT parent;
     private Boolean infer = null;
@@ -49,7 +52,11 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     private Integer sessionIdlTimeoutMillis = null;
     private Integer schemaLockAcquireTimeoutMillis = null;
     private Boolean readAnyReplica = null;
+    private Integer readSnapshotStalenessMillis = null;
     protected Boolean prefetch = null;
+    protected Boolean materialiseInference = null;
+    protected Long queryCacheSize = null;
+    protected Long reasonerCacheSize = null;
     protected Path typeDBDir = null;
     protected Path dataDir = null;
     protected Path logsDir = null;
@@ -72,6 +79,10 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * Whether the resolution of reasoning queries is profiled, logging the work done by each
+     * resolver at debug level once a query completes.
+     */
     public boolean traceInference() {
         if (traceInference != null) return traceInference;
         else if (parent != null) return parent.traceInference();
@@ -149,6 +160,55 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * The maximum age of a shared snapshot that a read transaction may be opened on.
+     * Read transactions opened within this window of each other share a single data
+     * snapshot, instead of each taking their own. Zero disables the sharing.
+     */
+    public int readSnapshotStalenessMillis() {
+        if (readSnapshotStalenessMillis != null) return readSnapshotStalenessMillis;
+        else if (parent != null) return parent.readSnapshotStalenessMillis();
+        else return DEFAULT_READ_SNAPSHOT_STALENESS_MILLIS;
+    }
+
+    public SELF readSnapshotStalenessMillis(int readSnapshotStalenessMillis) {
+        this.readSnapshotStalenessMillis = readSnapshotStalenessMillis;
+        return getThis();
+    }
+
+    /**
+     * Whether the conclusions of rules are written to the database by every data commit,
+     * instead of being inferred by the reasoner when queried. This is a property of the
+     * database, and can only be set on its options.
+     */
+    public boolean materialiseInference() {
+        if (materialiseInference != null) return materialiseInference;
+        else if (parent != null) return parent.materialiseInference();
+        else return DEFAULT_MATERIALISE_INFERENCE;
+    }
+
+    /**
+     * The number of bytes that the answers of read queries may take up in the query cache of a
+     * database. Zero disables the cache. This is a property of the database, and can only be set
+     * on its options.
+     */
+    public long queryCacheSize() {
+        if (queryCacheSize != null) return queryCacheSize;
+        else if (parent != null) return parent.queryCacheSize();
+        else return DEFAULT_QUERY_CACHE_SIZE;
+    }
+
+    /**
+     * The number of bytes that the answers of reasoning queries may take up in the reasoner cache
+     * of a database. Zero disables the cache. This is a property of the database, and can only be
+     * set on its options.
+     */
+    public long reasonerCacheSize() {
+        if (reasonerCacheSize != null) return reasonerCacheSize;
+        else if (parent != null) return parent.reasonerCacheSize();
+        else return DEFAULT_REASONER_CACHE_SIZE;
+    }
+
     public Path typeDBDir() {
         if (typeDBDir != null) return typeDBDir;
         else if (parent != null) return parent.typeDBDir();
@@ -192,6 +252,21 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
             this.logsDir = logsDir;
             return this;
         }
+
+        public Database materialiseInference(boolean materialiseInference) {
+            this.materialiseInference = materialiseInference;
+            return this;
+        }
+
+        public Database queryCacheSize(long queryCacheSize) {
+            this.queryCacheSize = queryCacheSize;
+            return this;
+        }
+
+        public Database reasonerCacheSize(long reasonerCacheSize) {
+            this.reasonerCacheSize = reasonerCacheSize;
+            return this;
+        }
     }
 
     public static class Session extends Options<Database, Session> {
@@ -239,11 +314,6 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
             throw TypeDBException.of(REASONING_CANNOT_BE_TOGGLED_PER_QUERY);
         }
 
-        @Override
-        public Query traceInference(boolean traceInference) {
-            throw TypeDBException.of(REASONER_TRACING_CANNOT_BE_TOGGLED_PER_QUERY);
-        }
-
         public Query prefetch(boolean prefetch) {
             this.prefetch = prefetch;
             return this;
@@ -49,7 +49,7 @@ public class ConceptMap implements Answer {
 
     private final Map<Retrievable, ? extends Concept> concepts;
     private final Explainables explainables;
-    private final int hash;
+    private int hash;
 
     public ConceptMap() {
         this(new HashMap<>());
@@ -62,7 +62,6 @@ public class ConceptMap implements Answer {
     public ConceptMap(Map<Retrievable, ? extends Concept> concepts, Explainables explainables) {
         this.concepts = concepts;
         this.explainables = explainables;
-        this.hash = Objects.hash(this.concepts, this.explainables);
     }
 
     public FunctionalIterator<Pair<Retrievable, Concept>> iterator() {
@@ -174,6 +173,8 @@ public class ConceptMap implements Answer {
 
     @Override
     public int hashCode() {
+        // computed on first use, as most answers are streamed to the client without ever being hashed
+        if (hash == 0) hash = Objects.hash(concepts, explainables);
         return hash;
     }
 
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.concept.answer;
+
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.concept.Concept;
+import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes answers as compact byte arrays, and decodes them back through a concept manager. An answer is encoded as
+ * its variables, each as an index into the variables the codec has seen so far, with the IID of its thing or the
+ * label of its type, in the order of their indices, so that equal answers have equal encodings under the same codec.
+ * Indices and lengths are written as varints, so neither is bounded below the size of an int.
+ *
+ * Only answers without explainables can be encoded, as their explainables take part in their equality.
+ */
+public class ConceptMapCodec {
+
+    private static final byte TYPE = 0;
+    private static final byte THING = 1;
+
+    private final ConceptManager conceptMgr;
+    private final Map<Retrievable, Integer> indices;
+    private final List<Retrievable> variables;
+
+    /**
+     * Creates a codec that only encodes answers, such as to compare them with each other
+     */
+    public ConceptMapCodec() {
+        this(null);
+    }
+
+    public ConceptMapCodec(@Nullable ConceptManager conceptMgr) {
+        this.conceptMgr = conceptMgr;
+        this.indices = new HashMap<>();
+        this.variables = new ArrayList<>();
+    }
+
+    public byte[] encode(ConceptMap conceptMap) {
+        assert conceptMap.explainables().isEmpty();
+        Concept[] concepts = new Concept[variables.size() + conceptMap.concepts().size()];
+        conceptMap.forEach((id, concept) -> concepts[index(id)] = concept);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < concepts.length; i++) {
+            if (concepts[i] == null) continue;
+            write(bytes, i);
+            if (concepts[i].isThing()) {
+                bytes.write(THING);
+                write(bytes, concepts[i].asThing().getIID());
+            } else {
+                Label label = concepts[i].asType().getLabel();
+                bytes.write(TYPE);
+                write(bytes, label.name().getBytes(UTF_8));
+                write(bytes, label.scope().orElse("").getBytes(UTF_8));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    public ConceptMap decode(byte[] encoding) {
+        assert conceptMgr != null;
+        ByteBuffer bytes = ByteBuffer.wrap(encoding);
+        Map<Retrievable, Concept> concepts = new HashMap<>();
+        while (bytes.hasRemaining()) {
+            Retrievable id = variables.get(readVarint(bytes));
+            if (bytes.get() == THING) {
+                concepts.put(id, conceptMgr.getThing(read(bytes)));
+            } else {
+                String name = new String(read(bytes), UTF_8);
+                String scope = new String(read(bytes), UTF_8);
+                concepts.put(id, conceptMgr.getType(scope.isEmpty() ? Label.of(name) : Label.of(name, scope)));
+            }
+        }
+        return new ConceptMap(concepts);
+    }
+
+    private int index(Retrievable id) {
+        return indices.computeIfAbsent(id, i -> {
+            variables.add(i);
+            return variables.size() - 1;
+        });
+    }
+
+    /**
+     * Writes a non-negative value as an unsigned varint, 7 bits to a byte, least significant first
+     */
+    private static void write(ByteArrayOutputStream bytes, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes.write(value);
+    }
+
+    private static void write(ByteArrayOutputStream bytes, byte[] value) {
+        write(bytes, value.length);
+        bytes.write(value, 0, value.length);
+    }
+
+    private static int readVarint(ByteBuffer bytes) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static byte[] read(ByteBuffer bytes) {
+        byte[] value = new byte[readVarint(bytes)];
+        bytes.get(value);
+        return value;
+    }
+}
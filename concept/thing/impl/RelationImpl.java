@@ -101,7 +101,7 @@ public class RelationImpl extends ThingImpl implements Relation {
         super.delete();
     }
 
-    void deleteIfNoPlayer() {
+    public void deleteIfNoPlayer() {
         if (!vertex.outs().edge(RELATING).to().hasNext()) this.delete();
     }
 
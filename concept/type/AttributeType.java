@@ -205,6 +205,16 @@ public interface AttributeType extends ThingType {
 
         Pattern getRegex();
 
+        /**
+         * Switches the trigram index of this type on or off. This is only available through the Java API, as
+         * TypeQL has no syntax for it. Switching it on indexes every committed instance within this schema
+         * transaction, which buffers all of their trigrams until it commits, so it is best done before the type
+         * has many instances.
+         */
+        void setTextIndexed(boolean isTextIndexed);
+
+        boolean isTextIndexed();
+
         Attribute.String put(java.lang.String value);
 
         Attribute.String put(java.lang.String value, boolean isInferred);
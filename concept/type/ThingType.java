@@ -37,6 +37,8 @@ public interface ThingType extends Type {
 
     FunctionalIterator<? extends Thing> getInstances();
 
+    void deleteInstances();
+
     void setAbstract();
 
     void unsetAbstract();
@@ -799,6 +799,19 @@ public abstract class AttributeTypeImpl extends ThingTypeImpl implements Attribu
             return vertex.regex();
         }
 
+        @Override
+        public void setTextIndexed(boolean isTextIndexed) {
+            if (isTextIndexed == vertex.isTextIndexed()) return;
+            if (isTextIndexed) graphMgr.data().indexTrigrams(vertex);
+            else graphMgr.data().deleteTrigrams(vertex);
+            vertex.isTextIndexed(isTextIndexed);
+        }
+
+        @Override
+        public boolean isTextIndexed() {
+            return vertex.isTextIndexed();
+        }
+
         @Override
         public Attribute.String put(java.lang.String value) {
             return put(value, false);
@@ -895,6 +908,11 @@ public abstract class AttributeTypeImpl extends ThingTypeImpl implements Attribu
             public void unsetRegex() {
                 throw exception(TypeDBException.of(ROOT_TYPE_MUTATION));
             }
+
+            @Override
+            public void setTextIndexed(boolean isTextIndexed) {
+                throw exception(TypeDBException.of(ROOT_TYPE_MUTATION));
+            }
         }
     }
 
@@ -399,6 +399,25 @@ public abstract class ThingTypeImpl extends TypeImpl implements ThingType {
         vertex.delete();
     }
 
+    /**
+     * Deletes all instances of this type and its subtypes, through range deletions in storage.
+     *
+     * Instances that this transaction already holds are deleted one by one first, as they may
+     * carry uncommitted changes. Relations of other types that lose their last role player are
+     * deleted as they would be when deleting the instances individually.
+     */
+    @Override
+    public void deleteInstances() {
+        validateIsNotDeleted();
+        getSubtypes().filter(t -> !t.isAbstract()).map(t -> t.vertex).toList().forEach(type -> {
+            graphMgr.data().vertices().filter(v -> v.type().equals(type) && !v.isInferred()).toList()
+                    .forEach(v -> {
+                        if (!v.isDeleted()) ThingImpl.of(v).delete();
+                    });
+            graphMgr.data().deleteAll(type).forEach(relation -> RelationImpl.of(relation).deleteIfNoPlayer());
+        });
+    }
+
     @Override
     void validateDelete() {
         super.validateDelete();
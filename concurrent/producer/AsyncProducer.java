@@ -57,6 +57,11 @@ public class AsyncProducer<T> implements FunctionalProducer<T> {
         return new AsyncProducer<>(iterators.map(iter -> iter.map(mappingFn)), parallelisation);
     }
 
+    @Override
+    public <U> AsyncProducer<U> mapIterators(Function<FunctionalIterator<T>, FunctionalIterator<U>> mappingFn) {
+        return new AsyncProducer<>(iterators.map(mappingFn), parallelisation);
+    }
+
     @Override
     public AsyncProducer<T> filter(Predicate<T> predicate) {
         return new AsyncProducer<>(iterators.map(iter -> iter.filter(predicate)), parallelisation);
@@ -97,8 +102,9 @@ public class AsyncProducer<T> implements FunctionalProducer<T> {
         }
     }
 
-    private synchronized void transition(Queue<T> queue, FunctionalIterator<T> iterator, int unfulfilled, Executor executor) {
-        if (!iterator.hasNext()) {
+    private synchronized void transition(Queue<T> queue, FunctionalIterator<T> iterator, boolean hasNext,
+                                         int unfulfilled, Executor executor) {
+        if (!hasNext) {
             if (runningJobs.remove(iterator) != null && iterators.hasNext()) compensate(queue, unfulfilled, executor);
             else if (!runningJobs.isEmpty() && unfulfilled > 0) distribute(queue, unfulfilled, executor);
             else if (runningJobs.isEmpty()) done(queue);
@@ -126,7 +132,8 @@ public class AsyncProducer<T> implements FunctionalProducer<T> {
                     queue.put(iterator.next());
                 }
             }
-            if (!isDone.get()) transition(queue, iterator, unfulfilled, executor);
+            // an iterator may have to find its next answer to know if it has one, which must not hold up the producer
+            if (!isDone.get()) transition(queue, iterator, iterator.hasNext(), unfulfilled, executor);
         } catch (Throwable e) {
             done(queue, e);
         }
@@ -45,6 +45,11 @@ public class BaseProducer<T> implements FunctionalProducer<T> {
         return new BaseProducer<>(iterator.map(mappingFn));
     }
 
+    @Override
+    public <U> BaseProducer<U> mapIterators(Function<FunctionalIterator<T>, FunctionalIterator<U>> mappingFn) {
+        return new BaseProducer<>(mappingFn.apply(iterator));
+    }
+
     @Override
     public BaseProducer<T> filter(Predicate<T> predicate) {
         return new BaseProducer<>(iterator.filter(predicate));
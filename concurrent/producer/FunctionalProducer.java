@@ -18,6 +18,8 @@
 
 package com.vaticle.typedb.core.concurrent.producer;
 
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -25,6 +27,11 @@ public interface FunctionalProducer<T> extends Producer<T> {
 
     <U> FunctionalProducer<U> map(Function<T, U> mappingFn);
 
+    /**
+     * Apply a function to each of the iterators that answers are produced from, such as to decorate them
+     */
+    <U> FunctionalProducer<U> mapIterators(Function<FunctionalIterator<T>, FunctionalIterator<U>> mappingFn);
+
     FunctionalProducer<T> filter(Predicate<T> predicate);
 
     FunctionalProducer<T> distinct();
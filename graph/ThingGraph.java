@@ -30,7 +30,9 @@ import com.vaticle.typedb.core.graph.common.KeyGenerator;
 import com.vaticle.typedb.core.graph.common.StatisticsBytes;
 import com.vaticle.typedb.core.graph.common.Storage;
 import com.vaticle.typedb.core.graph.iid.EdgeIID;
-import com.vaticle.typedb.core.graph.iid.IID;
+import com.vaticle.typedb.core.graph.edge.impl.ThingEdgeImpl;
+import com.vaticle.typedb.core.graph.iid.IndexIID;
+import com.vaticle.typedb.core.graph.iid.InfixIID;
 import com.vaticle.typedb.core.graph.iid.PrefixIID;
 import com.vaticle.typedb.core.graph.iid.VertexIID;
 import com.vaticle.typedb.core.graph.vertex.AttributeVertex;
@@ -40,9 +42,14 @@ import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.graph.vertex.impl.AttributeVertexImpl;
 import com.vaticle.typedb.core.graph.vertex.impl.ThingVertexImpl;
 
+import javax.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -52,6 +59,7 @@ import java.util.stream.Stream;
 import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.pair;
 import static com.vaticle.typedb.common.util.Objects.className;
+import static com.vaticle.typedb.core.common.collection.Bytes.bytesHavePrefix;
 import static com.vaticle.typedb.core.common.collection.Bytes.bytesToLong;
 import static com.vaticle.typedb.core.common.collection.Bytes.join;
 import static com.vaticle.typedb.core.common.collection.Bytes.longToBytes;
@@ -60,18 +68,27 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILL
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingWrite.ILLEGAL_STRING_SIZE;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.common.iterator.Iterators.link;
+import static com.vaticle.typedb.core.common.iterator.Iterators.loop;
 import static com.vaticle.typedb.core.common.iterator.Iterators.tree;
+import static com.vaticle.typedb.core.graph.common.Encoding.Edge.Type.OWNS_KEY;
 import static com.vaticle.typedb.core.graph.common.Encoding.Edge.Type.SUB;
 import static com.vaticle.typedb.core.graph.common.Encoding.Prefix.VERTEX_ATTRIBUTE_TYPE;
 import static com.vaticle.typedb.core.graph.common.Encoding.Prefix.VERTEX_ENTITY_TYPE;
 import static com.vaticle.typedb.core.graph.common.Encoding.Prefix.VERTEX_RELATION_TYPE;
 import static com.vaticle.typedb.core.graph.common.Encoding.Statistics.JobOperation.CREATED;
 import static com.vaticle.typedb.core.graph.common.Encoding.Statistics.JobOperation.DELETED;
+import static com.vaticle.typedb.core.graph.common.Encoding.Statistics.JobType.ATTRIBUTE_VERTEX;
+import static com.vaticle.typedb.core.graph.common.Encoding.Statistics.JobType.HAS_EDGE;
 import static com.vaticle.typedb.core.graph.common.Encoding.Status.BUFFERED;
 import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.STRING_MAX_SIZE;
 import static com.vaticle.typedb.core.graph.common.Encoding.Vertex.Thing.ATTRIBUTE;
+import static com.vaticle.typedb.core.graph.common.Encoding.Vertex.Thing.RELATION;
+import static com.vaticle.typedb.core.graph.common.Encoding.Vertex.Thing.ROLE;
 import static com.vaticle.typedb.core.graph.common.StatisticsBytes.attributeCountJobKey;
 import static com.vaticle.typedb.core.graph.common.StatisticsBytes.attributeCountedKey;
+import static com.vaticle.typedb.core.graph.common.StatisticsBytes.countJobPrefix;
+import static com.vaticle.typedb.core.graph.common.StatisticsBytes.countedPrefix;
+import static com.vaticle.typedb.core.graph.common.StatisticsBytes.hasEdgeCountPrefix;
 import static com.vaticle.typedb.core.graph.common.StatisticsBytes.hasEdgeCountJobKey;
 import static com.vaticle.typedb.core.graph.common.StatisticsBytes.hasEdgeCountKey;
 import static com.vaticle.typedb.core.graph.common.StatisticsBytes.hasEdgeCountedKey;
@@ -83,11 +100,15 @@ import static com.vaticle.typedb.core.graph.iid.VertexIID.Thing.generate;
 
 public class ThingGraph {
 
+    private static final int DELETE_ALL_BATCH_SIZE = 1_000;
+
     private final Storage.Data storage;
     private final TypeGraph typeGraph;
     private final KeyGenerator.Data.Buffered keyGenerator;
     private final ConcurrentMap<VertexIID.Thing, ThingVertex> thingsByIID;
     private final ConcurrentMap<VertexIID.Type, ConcurrentSet<ThingVertex>> thingsByTypeIID;
+    private final ConcurrentSet<VertexIID.Type> modifiedTypes;
+    private final ConcurrentSet<VertexIID.Type> deletedTypes;
     private final AttributesByIID attributesByIID;
     private final Statistics statistics;
     private boolean isModified;
@@ -98,6 +119,8 @@ public class ThingGraph {
         keyGenerator = new KeyGenerator.Data.Buffered();
         thingsByIID = new ConcurrentHashMap<>();
         thingsByTypeIID = new ConcurrentHashMap<>();
+        modifiedTypes = new ConcurrentSet<>();
+        deletedTypes = new ConcurrentSet<>();
         attributesByIID = new AttributesByIID();
         statistics = new Statistics(typeGraph, storage);
     }
@@ -175,7 +198,10 @@ public class ThingGraph {
         ThingVertex vertex = new ThingVertexImpl.Buffered(this, iid, isInferred);
         thingsByIID.put(iid, vertex);
         thingsByTypeIID.computeIfAbsent(typeVertex.iid(), t -> new ConcurrentSet<>()).add(vertex);
-        if (!isInferred) statistics.vertexCreated(typeVertex.iid());
+        if (!isInferred) {
+            statistics.vertexCreated(typeVertex.iid());
+            modifiedTypes.add(typeVertex.iid());
+        }
         return vertex;
     }
 
@@ -201,6 +227,79 @@ public class ThingGraph {
         else return link(thingsByTypeIID.get(typeVertex.iid()).iterator(), storageIterator).distinct();
     }
 
+    /**
+     * Iterates the attributes of the given types, which all hold the given sorted value type, whose values lie
+     * between the given sorted value bytes, inclusively, by seeking through the attribute index. Attributes that
+     * are not yet committed are not in the index, so all of them are returned and left to be filtered by value.
+     */
+    public FunctionalIterator<AttributeVertex<?>> getInRange(Set<TypeVertex> types, Encoding.ValueType valueType,
+                                                             @Nullable byte[] from, @Nullable byte[] to) {
+        assert storage.isOpen() && valueType.isSorted();
+        assert iterate(types).allMatch(type -> type.isAttributeType() && type.valueType() == valueType);
+
+        Set<VertexIID.Type> typeIIDs = iterate(types).map(TypeVertex::iid).toSet();
+        byte[] prefix = IndexIID.Attribute.prefix(valueType, new byte[0]);
+        FunctionalIterator<AttributeVertex<?>> storageIterator = storage.iterate(
+                prefix, from == null ? prefix : IndexIID.Attribute.prefix(valueType, from),
+                to == null ? null : IndexIID.Attribute.prefix(valueType, to),
+                (key, value) -> typeIIDs.contains(VertexIID.Type.extract(key, key.length - VertexIID.Type.LENGTH))
+                        ? convert(VertexIID.Attribute.of(value)) : null
+        ).noNulls();
+        List<ThingVertex> buffered = new ArrayList<>();
+        typeIIDs.forEach(iid -> {
+            if (thingsByTypeIID.containsKey(iid)) buffered.addAll(thingsByTypeIID.get(iid));
+        });
+        if (buffered.isEmpty()) return storageIterator;
+        else return link(iterate(buffered).map(ThingVertex::asAttribute), storageIterator).distinct();
+    }
+
+    /**
+     * Iterates the attributes of a text-indexed string type whose values contain every one of the given trigrams,
+     * by seeking through the trigram index. Like the attribute index, the trigram index only holds committed
+     * attributes, so all attributes of the type written in this transaction are returned too.
+     */
+    public FunctionalIterator<AttributeVertex<?>> getContaining(TypeVertex type, Set<String> trigrams) {
+        assert storage.isOpen() && type.isAttributeType() && type.isTextIndexed() && !trigrams.isEmpty();
+        List<String> others = new ArrayList<>(trigrams);
+        String first = others.remove(others.size() - 1);
+        FunctionalIterator<AttributeVertex<?>> storageIterator = storage.iterate(
+                IndexIID.Trigram.prefix(type.iid(), first), (key, value) -> IndexIID.Trigram.extractAttribute(key)
+        ).filter(iid -> iterate(others).allMatch(
+                trigram -> storage.get(IndexIID.Trigram.of(type.iid(), trigram, iid).bytes()) != null
+        )).map(this::convert);
+        if (!thingsByTypeIID.containsKey(type.iid())) return storageIterator;
+        else return link(iterate(thingsByTypeIID.get(type.iid())).map(ThingVertex::asAttribute), storageIterator).distinct();
+    }
+
+    /**
+     * Indexes the trigrams of the committed instances of a string type, when the type becomes text-indexed.
+     * Instances that are not yet committed are indexed as they are committed.
+     */
+    public void indexTrigrams(TypeVertex type) {
+        assert storage.isOpen() && type.isAttributeType() && type.valueType() == Encoding.ValueType.STRING;
+        storage.iterate(
+                join(type.iid().bytes(), Encoding.Edge.ISA.in().bytes()),
+                (key, value) -> EdgeIID.InwardsISA.of(key).end().asAttribute().asString()
+        ).forEachRemaining(iid -> indexTrigrams(type.iid(), iid));
+    }
+
+    public void indexTrigrams(VertexIID.Type type, VertexIID.Attribute.String attribute) {
+        for (String trigram : IndexIID.Trigram.trigrams(attribute.value())) {
+            storage.putUntracked(IndexIID.Trigram.of(type, trigram, attribute).bytes());
+        }
+    }
+
+    public void deleteTrigrams(TypeVertex type) {
+        assert storage.isOpen() && type.isAttributeType();
+        storage.deletePrefix(IndexIID.Trigram.prefix(type.iid()));
+    }
+
+    public void deleteTrigrams(VertexIID.Type type, VertexIID.Attribute.String attribute) {
+        for (String trigram : IndexIID.Trigram.trigrams(attribute.value())) {
+            storage.deleteUntracked(IndexIID.Trigram.of(type, trigram, attribute).bytes());
+        }
+    }
+
     public AttributeVertex<Boolean> get(TypeVertex type, boolean value) {
         assert storage.isOpen();
         assert type.isAttributeType();
@@ -286,6 +385,7 @@ public class ThingGraph {
         if (!isInferred && (isNewVertex[0] || vertex.isInferred())) {
             vertex.isInferred(false);
             statistics.attributeVertexCreated(vertex.iid());
+            modifiedTypes.add(type.iid());
         }
         return vertex;
     }
@@ -309,6 +409,7 @@ public class ThingGraph {
         if (!isInferred && (isNewVertex[0] || vertex.isInferred())) {
             vertex.isInferred(false);
             statistics.attributeVertexCreated(vertex.iid());
+            modifiedTypes.add(type.iid());
         }
 
         return vertex;
@@ -332,6 +433,7 @@ public class ThingGraph {
         if (!isInferred && (isNewVertex[0] || vertex.isInferred())) {
             vertex.isInferred(false);
             statistics.attributeVertexCreated(vertex.iid());
+            modifiedTypes.add(type.iid());
         }
         return vertex;
     }
@@ -366,6 +468,7 @@ public class ThingGraph {
         if (!isInferred && (isNewVertex[0] || vertex.isInferred())) {
             vertex.isInferred(false);
             statistics.attributeVertexCreated(vertex.iid());
+            modifiedTypes.add(type.iid());
         }
         return vertex;
     }
@@ -389,6 +492,7 @@ public class ThingGraph {
         if (!isInferred && (isNewVertex[0] || vertex.isInferred())) {
             vertex.isInferred(false);
             statistics.attributeVertexCreated(vertex.iid());
+            modifiedTypes.add(type.iid());
         }
         return vertex;
     }
@@ -399,7 +503,10 @@ public class ThingGraph {
         if (thingsByTypeIID.containsKey(vertex.type().iid())) {
             thingsByTypeIID.get(vertex.type().iid()).remove(vertex);
         }
-        if (!vertex.isInferred()) statistics.attributeVertexDeleted(vertex.iid());
+        if (!vertex.isInferred()) {
+            statistics.attributeVertexDeleted(vertex.iid());
+            typeDeleted(vertex.type().iid());
+        }
     }
 
     public void delete(ThingVertex vertex) {
@@ -409,13 +516,202 @@ public class ThingGraph {
             if (thingsByTypeIID.containsKey(vertex.type().iid())) {
                 thingsByTypeIID.get(vertex.type().iid()).remove(vertex);
             }
-            if (!vertex.isInferred()) statistics.vertexDeleted(vertex.type().iid());
+            if (!vertex.isInferred()) {
+                statistics.vertexDeleted(vertex.type().iid());
+                typeDeleted(vertex.type().iid());
+            }
+            if (vertex.status() != BUFFERED && vertex.iid().encoding() == RELATION) unsetInferred(vertex.iid());
         } else delete(vertex.asAttribute());
     }
 
-    public void setModified(IID iid) {
+    /**
+     * Deletes all persisted instances of a type by deleting the key ranges they occupy,
+     * instead of writing a tombstone for every vertex and edge.
+     *
+     * The vertices, their edges, the type's ISA edges, and the statistics keys and
+     * inference flags of its instances each lie in a single prefix range. Only what lies outside those ranges
+     * is deleted individually: the other side of every edge to a vertex of another type,
+     * the attribute index, and the roles that the instances play or relate. Statistics
+     * are adjusted in aggregate.
+     *
+     * Vertices of the type that are held by this graph must be deleted beforehand, as
+     * their buffered changes would otherwise be committed into the deleted ranges.
+     *
+     * @param type the type whose instances are deleted
+     * @return the relations of other types that lost a role player
+     */
+    public Set<ThingVertex> deleteAll(TypeVertex type) {
+        assert storage.isOpen() && !type.isAbstract();
+        assert vertices().noneMatch(v -> v.type().equals(type) && !v.isInferred());
+        byte[] instances = join(type.encoding().instance().prefix().bytes(), type.iid().bytes());
+        byte[] isaEdges = join(type.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        Set<VertexIID.Thing> roles = new HashSet<>();
+        Set<VertexIID.Thing> relations = new HashSet<>();
+        Set<VertexIID.Thing> keyOwners = isOwnedAsKey(type) ? new HashSet<>() : null;
+        List<VertexIID.Attribute<?>> attributes = new ArrayList<>();
+        long count = 0;
+
+        FunctionalIterator<VertexIID.Thing> iids = storage.iterate(isaEdges, (key, value) -> EdgeIID.InwardsISA.of(key).end());
+        while (iids.hasNext()) {
+            VertexIID.Thing iid = iids.next();
+            deleteEdgesToOtherTypes(iid, instances, roles, relations, keyOwners);
+            if (!iid.isAttribute()) count++;
+            else {
+                storage.deleteUntracked(IndexIID.Attribute.of(iid.asAttribute()).bytes());
+                attributes.add(iid.asAttribute());
+                if (attributes.size() == DELETE_ALL_BATCH_SIZE) {
+                    count += countedAttributes(attributes);
+                    attributes.clear();
+                }
+            }
+        }
+        if (!attributes.isEmpty()) count += countedAttributes(attributes);
+        roles.forEach(role -> deleteRole(role, instances, relations));
+
+        storage.deletePrefix(instances);
+        storage.deletePrefix(isaEdges);
+        storage.deletePrefix(countedPrefix(instances));
+        storage.deletePrefix(countJobPrefix(HAS_EDGE, instances));
+        if (type.isAttributeType()) storage.deletePrefix(countJobPrefix(ATTRIBUTE_VERTEX, instances));
+        storage.deletePrefix(join(IndexIID.Inferred.prefix().bytes(), instances));
+        if (type.isAttributeType() && type.isTextIndexed()) deleteTrigrams(type);
+        statistics.instancesDeleted(type.iid(), count);
+        typeDeleted(type.iid());
+
+        thingsByIID.keySet().removeIf(iid -> bytesHavePrefix(iid.bytes(), instances));
+        thingsByTypeIID.remove(type.iid());
+        if (type.isAttributeType()) {
+            attributesByIID.forValueType(type.valueType()).keySet().removeIf(iid -> bytesHavePrefix(iid.bytes(), instances));
+        }
+        if (keyOwners != null) keyOwners.forEach(owner -> convert(owner).setModified());
+        return iterate(relations).map(iid -> get(iid)).filter(Objects::nonNull).toSet();
+    }
+
+    private boolean isOwnedAsKey(TypeVertex type) {
+        return type.isAttributeType() && loop(type, Objects::nonNull, t -> t.outs().edge(SUB).to().firstOrNull())
+                .anyMatch(t -> t.ins().edge(OWNS_KEY).from().hasNext());
+    }
+
+    private void deleteEdgesToOtherTypes(VertexIID.Thing iid, byte[] instances, Set<VertexIID.Thing> roles,
+                                         Set<VertexIID.Thing> relations, @Nullable Set<VertexIID.Thing> keyOwners) {
+        for (Encoding.Edge.Thing encoding : Encoding.Edge.Thing.values()) {
+            for (Encoding.Infix infix : list(encoding.out(), encoding.in())) {
+                FunctionalIterator<EdgeIID.Thing> edges = storage.iterate(
+                        join(iid.bytes(), InfixIID.Thing.of(infix).bytes()), (key, value) -> EdgeIID.Thing.of(key)
+                );
+                while (edges.hasNext()) {
+                    EdgeIID.Thing edge = edges.next();
+                    VertexIID.Thing adjacent = edge.end();
+                    if (bytesHavePrefix(adjacent.bytes(), instances)) continue;
+                    if (adjacent.encoding() == ROLE) {
+                        roles.add(adjacent);
+                    } else {
+                        deleteAdjacentSide(edge);
+                        if (encoding == Encoding.Edge.Thing.ROLEPLAYER && !edge.isOutwards()) relations.add(adjacent);
+                        else if (encoding == Encoding.Edge.Thing.HAS && !edge.isOutwards()) {
+                            statistics.hasEdgeDeleted(adjacent, iid.asAttribute());
+                            unsetInferred(adjacent, iid);
+                            if (keyOwners != null) keyOwners.add(adjacent);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void deleteRole(VertexIID.Thing role, byte[] instances, Set<VertexIID.Thing> relations) {
+        FunctionalIterator<EdgeIID.Thing> edges = storage.iterate(role.bytes(), (key, value) -> key)
+                .filter(key -> key.length > role.bytes().length).map(EdgeIID.Thing::of);
+        while (edges.hasNext()) {
+            EdgeIID.Thing edge = edges.next();
+            storage.deleteUntracked(edge.bytes());
+            if (!bytesHavePrefix(edge.end().bytes(), instances)) {
+                deleteAdjacentSide(edge);
+                if (edge.encoding() == Encoding.Edge.Thing.RELATING) relations.add(edge.end());
+            }
+        }
+        storage.deleteTracked(role.bytes());
+        storage.deleteUntracked(EdgeIID.InwardsISA.of(role.type(), role).bytes());
+        statistics.vertexDeleted(role.type());
+        typeDeleted(role.type());
+        thingsByIID.remove(role);
+    }
+
+    private void deleteAdjacentSide(EdgeIID.Thing edge) {
+        ThingEdgeImpl.Persisted persisted = new ThingEdgeImpl.Persisted(this, edge);
+        EdgeIID.Thing adjacentSide = edge.isOutwards() ? persisted.inIID() : persisted.outIID();
+        if (adjacentSide.isOutwards()) storage.deleteTracked(adjacentSide.bytes());
+        else storage.deleteUntracked(adjacentSide.bytes());
+        typeDeleted(adjacentSide.start().type());
+
+        ThingVertex adjacent = adjacentSide.start().isAttribute()
+                ? attributesByIID.forValueType(adjacentSide.start().asAttribute().valueType()).get(adjacentSide.start())
+                : thingsByIID.get(adjacentSide.start());
+        if (adjacent != null && adjacentSide.isOutwards()) adjacent.outs().remove(persisted);
+        else if (adjacent != null) adjacent.ins().remove(persisted);
+    }
+
+    private long countedAttributes(List<VertexIID.Attribute<?>> attributes) {
+        return iterate(storage.get(iterate(attributes).map(StatisticsBytes::attributeCountedKey).toList()))
+                .filter(Objects::nonNull).count();
+    }
+
+    public void edgeDeleted(Encoding.Edge.Thing encoding, VertexIID.Thing from, VertexIID.Thing to) {
+        typeDeleted(from.type());
+        typeDeleted(to.type());
+        if (encoding == Encoding.Edge.Thing.HAS) unsetInferred(from, to);
+    }
+
+    /**
+     * Flags a persisted relation as a materialised inference, so that it is only matched by queries that infer
+     */
+    public void setInferred(VertexIID.Thing relation) {
+        storage.putUntracked(IndexIID.Inferred.relation(relation).bytes());
+    }
+
+    /**
+     * Flags a persisted ownership of an attribute as a materialised inference, so that it is only matched
+     * by queries that infer
+     */
+    public void setInferred(VertexIID.Thing owner, VertexIID.Thing attribute) {
+        storage.putUntracked(IndexIID.Inferred.has(owner, attribute).bytes());
+    }
+
+    public void unsetInferred(VertexIID.Thing relation) {
+        storage.deleteUntracked(IndexIID.Inferred.relation(relation).bytes());
+    }
+
+    public void unsetInferred(VertexIID.Thing owner, VertexIID.Thing attribute) {
+        storage.deleteUntracked(IndexIID.Inferred.has(owner, attribute).bytes());
+    }
+
+    public boolean isInferred(VertexIID.Thing relation) {
+        return storage.get(IndexIID.Inferred.relation(relation).bytes()) != null;
+    }
+
+    public boolean isInferred(VertexIID.Thing owner, VertexIID.Thing attribute) {
+        return storage.get(IndexIID.Inferred.has(owner, attribute).bytes()) != null;
+    }
+
+    /**
+     * @return true if any persisted fact is flagged as a materialised inference
+     */
+    public boolean hasInferred() {
+        FunctionalIterator<byte[]> flags = storage.iterate(IndexIID.Inferred.prefix().bytes(), (key, value) -> key);
+        boolean hasInferred = flags.hasNext();
+        flags.recycle();
+        return hasInferred;
+    }
+
+    private void typeDeleted(VertexIID.Type type) {
+        modifiedTypes.add(type);
+        deletedTypes.add(type);
+    }
+
+    public void setModified(VertexIID.Thing iid) {
         assert storage.isOpen();
         if (!isModified) isModified = true;
+        modifiedTypes.add(iid.type());
         storage.trackModified(iid.bytes());
     }
 
@@ -423,9 +719,25 @@ public class ThingGraph {
         return isModified;
     }
 
+    /**
+     * @return the labels of the types whose instances, or their edges, were written to
+     */
+    public Set<Label> modifiedTypes() {
+        return iterate(modifiedTypes).map(iid -> typeGraph.convert(iid).properLabel()).toSet();
+    }
+
+    /**
+     * @return the labels of the types whose instances, or their edges, were deleted
+     */
+    public Set<Label> deletedTypes() {
+        return iterate(deletedTypes).map(iid -> typeGraph.convert(iid).properLabel()).toSet();
+    }
+
     public void clear() {
         thingsByIID.clear();
         thingsByTypeIID.clear();
+        modifiedTypes.clear();
+        deletedTypes.clear();
         attributesByIID.clear();
         statistics.clear();
     }
@@ -529,7 +841,6 @@ public class ThingGraph {
 
     public static class Statistics {
 
-        private static final int COUNT_JOB_BATCH_SIZE = 10_000;
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexTransitiveCount;
         private final ConcurrentMap<VertexIID.Type, Long> deltaVertexCount;
@@ -538,6 +849,7 @@ public class ThingGraph {
         private final ConcurrentMap<VertexIID.Attribute<?>, Encoding.Statistics.JobOperation> attributeVertexCountJobs;
         private final ConcurrentMap<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.JobOperation> hasEdgeCountJobs;
         private boolean needsBackgroundCounting;
+        private long committedCountJobs;
         private final TypeGraph typeGraph;
         private final Storage.Data storage;
         private final long snapshot;
@@ -623,6 +935,10 @@ public class ThingGraph {
             return needsBackgroundCounting;
         }
 
+        public long committedCountJobs() {
+            return committedCountJobs;
+        }
+
         public void vertexCreated(VertexIID.Type typeIID) {
             deltaVertexCount.compute(typeIID, (k, v) -> (v == null ? 0 : v) + 1);
         }
@@ -651,6 +967,31 @@ public class ThingGraph {
             needsBackgroundCounting = true;
         }
 
+        /**
+         * Adjusts the counts of a type whose persisted instances were all deleted at once,
+         * together with the counts of their ownerships, which are dropped in aggregate.
+         *
+         * @param typeIID     the type whose instances were deleted
+         * @param vertexCount the number of counted instances that were deleted
+         */
+        private void instancesDeleted(VertexIID.Type typeIID, long vertexCount) {
+            if (vertexCount > 0) deltaVertexCount.compute(typeIID, (k, v) -> (v == null ? 0 : v) - vertexCount);
+            long hasEdgeTotal = 0;
+            for (Pair<byte[], Long> hasEdgeCount : storage.iterate(
+                    hasEdgeCountPrefix(typeIID), (key, value) -> pair(key, bytesToLongOrZero(value))).toList()) {
+                storage.mergeUntracked(hasEdgeCount.first(), longToBytes(-hasEdgeCount.second()));
+                hasEdgeTotal += hasEdgeCount.second();
+            }
+            if (hasEdgeTotal == 0) return;
+            if (typeIID.encoding().prefix() == VERTEX_ENTITY_TYPE) {
+                storage.mergeUntracked(hasEdgeTotalCountKey(typeGraph.rootEntityType().iid()), longToBytes(-hasEdgeTotal));
+            } else if (typeIID.encoding().prefix() == VERTEX_RELATION_TYPE) {
+                storage.mergeUntracked(hasEdgeTotalCountKey(typeGraph.rootRelationType().iid()), longToBytes(-hasEdgeTotal));
+            } else if (typeIID.encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
+                storage.mergeUntracked(hasEdgeTotalCountKey(typeGraph.rootAttributeType().iid()), longToBytes(-hasEdgeTotal));
+            }
+        }
+
         private long vertexCount(VertexIID.Type typeIID, boolean isTransitive) {
             return persistedVertexCount(typeIID, isTransitive) + deltaVertexCount(typeIID);
         }
@@ -728,6 +1069,8 @@ public class ThingGraph {
                     storage.mergeUntracked(vertexTransitiveCountKey(typeGraph.rootRelationType().iid()), longToBytes(delta));
                 } else if (typeIID.encoding().prefix() == Encoding.Prefix.VERTEX_ROLE_TYPE) {
                     storage.mergeUntracked(vertexTransitiveCountKey(typeGraph.rootRoleType().iid()), longToBytes(delta));
+                } else if (typeIID.encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
+                    storage.mergeUntracked(vertexTransitiveCountKey(typeGraph.rootAttributeType().iid()), longToBytes(delta));
                 }
             });
             attributeVertexCountJobs.forEach((attIID, countWorkValue) -> storage.putTracked(
@@ -736,6 +1079,7 @@ public class ThingGraph {
             hasEdgeCountJobs.forEach((hasEdge, countWorkValue) -> storage.putTracked(
                     hasEdgeCountJobKey(IIDMap.getOrDefault(hasEdge.first(), hasEdge.first()), hasEdge.second()), countWorkValue.bytes(), false
             ));
+            committedCountJobs = attributeVertexCountJobs.size() + hasEdgeCountJobs.size();
             if (!deltaVertexCount.isEmpty()) {
                 storage.mergeUntracked(snapshotKey(), longToBytes(1));
             }
@@ -750,70 +1094,78 @@ public class ThingGraph {
             hasEdgeCountJobs.clear();
         }
 
-        public boolean processCountJobs() {
-            FunctionalIterator<CountJob> countJobs = storage.iterate(StatisticsBytes.countJobKey(), CountJob::of);
-            for (long processed = 0; processed < COUNT_JOB_BATCH_SIZE && countJobs.hasNext(); processed++) {
-                CountJob countJob = countJobs.next();
+        public FunctionalIterator<CountJob> countJobs() {
+            return storage.iterate(StatisticsBytes.countJobKey(), CountJob::of);
+        }
+
+        /**
+         * Processes the given count jobs, and deletes them from storage.
+         *
+         * The counted keys of all the jobs are looked up in a single batched read.
+         * If count jobs are processed by concurrent transactions, then the jobs that
+         * share a counted key must always be processed by the same transaction.
+         *
+         * @param countJobs the count jobs to process
+         */
+        public void processCountJobs(List<CountJob> countJobs) {
+            List<byte[]> counted = storage.get(iterate(countJobs).map(CountJob::countedKey).toList());
+            for (int i = 0; i < countJobs.size(); i++) {
+                CountJob countJob = countJobs.get(i);
+                boolean isCounted = counted.get(i) != null;
                 if (countJob instanceof CountJob.Attribute) {
-                    processAttributeCountJob(countJob);
+                    processAttributeCountJob(countJob, isCounted);
                 } else if (countJob instanceof CountJob.HasEdge) {
-                    processHasEdgeCountJob(countJob);
+                    processHasEdgeCountJob(countJob, isCounted);
                 } else {
                     assert false;
                 }
                 storage.deleteTracked(countJob.key());
             }
             storage.mergeUntracked(snapshotKey(), longToBytes(1));
-            return countJobs.hasNext();
         }
 
-        private void processAttributeCountJob(CountJob countJob) {
+        private void processAttributeCountJob(CountJob countJob, boolean isCounted) {
             VertexIID.Attribute<?> attIID = countJob.asAttribute().attIID();
             if (countJob.value() == CREATED) {
-                processAttributeCreatedCountJob(attIID);
+                processAttributeCreatedCountJob(attIID, isCounted);
             } else if (countJob.value() == DELETED) {
-                processAttributeDeletedCountJob(attIID);
+                processAttributeDeletedCountJob(attIID, isCounted);
             } else {
                 assert false;
             }
         }
 
-        private void processAttributeCreatedCountJob(VertexIID.Attribute<?> attIID) {
-            byte[] countedKey = attributeCountedKey(attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted == null) {
+        private void processAttributeCreatedCountJob(VertexIID.Attribute<?> attIID, boolean isCounted) {
+            if (!isCounted) {
                 storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(1));
                 storage.mergeUntracked(vertexTransitiveCountKey(typeGraph.rootAttributeType().iid()), longToBytes(1));
-                storage.putTracked(countedKey);
+                storage.putTracked(attributeCountedKey(attIID));
             }
         }
 
-        private void processAttributeDeletedCountJob(VertexIID.Attribute<?> attIID) {
-            byte[] countedKey = attributeCountedKey(attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted != null) {
+        private void processAttributeDeletedCountJob(VertexIID.Attribute<?> attIID, boolean isCounted) {
+            if (isCounted) {
                 storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(-1));
                 storage.mergeUntracked(vertexTransitiveCountKey(typeGraph.rootAttributeType().iid()), longToBytes(-1));
-                storage.putTracked(countedKey);
+                storage.putTracked(attributeCountedKey(attIID));
             }
         }
 
-        private void processHasEdgeCountJob(CountJob countJob) {
+        private void processHasEdgeCountJob(CountJob countJob, boolean isCounted) {
             VertexIID.Thing thingIID = countJob.asHasEdge().thingIID();
             VertexIID.Attribute<?> attIID = countJob.asHasEdge().attIID();
             if (countJob.value() == CREATED) {
-                processHasEdgeCreatedCountJob(thingIID, attIID);
+                processHasEdgeCreatedCountJob(thingIID, attIID, isCounted);
             } else if (countJob.value() == DELETED) {
-                processHasEdgeDeletedCountJob(thingIID, attIID);
+                processHasEdgeDeletedCountJob(thingIID, attIID, isCounted);
             } else {
                 assert false;
             }
         }
 
-        private void processHasEdgeCreatedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
+        private void processHasEdgeCreatedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID, boolean isCounted) {
             byte[] countedKey = hasEdgeCountedKey(thingIID, attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted == null) {
+            if (!isCounted) {
                 storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(1));
                 if (thingIID.type().encoding().prefix() == VERTEX_ENTITY_TYPE) {
                     storage.mergeUntracked(hasEdgeTotalCountKey(typeGraph.rootEntityType().iid()), longToBytes(1));
@@ -826,10 +1178,9 @@ public class ThingGraph {
             }
         }
 
-        private void processHasEdgeDeletedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
+        private void processHasEdgeDeletedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID, boolean isCounted) {
             byte[] countedKey = hasEdgeCountedKey(thingIID, attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted != null) {
+            if (isCounted) {
                 storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(-1));
                 if (thingIID.type().encoding().prefix() == VERTEX_ENTITY_TYPE) {
                     storage.mergeUntracked(hasEdgeTotalCountKey(typeGraph.rootEntityType().iid()), longToBytes(-1));
@@ -881,6 +1232,8 @@ public class ThingGraph {
                 return value;
             }
 
+            public abstract byte[] countedKey();
+
             public Attribute asAttribute() {
                 throw TypeDBException.of(ILLEGAL_CAST, className(this.getClass()), className(Attribute.class));
             }
@@ -901,6 +1254,11 @@ public class ThingGraph {
                     return attIID;
                 }
 
+                @Override
+                public byte[] countedKey() {
+                    return attributeCountedKey(attIID);
+                }
+
                 @Override
                 public Attribute asAttribute() {
                     return this;
@@ -926,6 +1284,11 @@ public class ThingGraph {
                     return attIID;
                 }
 
+                @Override
+                public byte[] countedKey() {
+                    return hasEdgeCountedKey(thingIID, attIID);
+                }
+
                 @Override
                 public HasEdge asHasEdge() {
                     return this;
@@ -48,6 +48,7 @@ public class Encoding {
 
     public static final String ROCKS_DATA = "data";
     public static final String ROCKS_SCHEMA = "schema";
+    public static final String ROCKS_SPILL = "spill";
 
     public enum Key {
         PERSISTED(0, true),
@@ -154,6 +155,9 @@ public class Encoding {
         INDEX_TYPE(0, PrefixType.INDEX),
         INDEX_RULE(10, PrefixType.INDEX),
         INDEX_ATTRIBUTE(20, PrefixType.INDEX),
+        INDEX_MATERIALISED(30, PrefixType.INDEX),
+        INDEX_INFERRED(31, PrefixType.INDEX),
+        INDEX_TRIGRAM(40, PrefixType.INDEX),
         STATISTICS_THINGS(50, PrefixType.STATISTICS),
         STATISTICS_COUNT_JOB(51, PrefixType.STATISTICS),
         STATISTICS_COUNTED(52, PrefixType.STATISTICS),
@@ -173,6 +177,9 @@ public class Encoding {
                 pair(INDEX_TYPE.key, INDEX_TYPE),
                 pair(INDEX_RULE.key, INDEX_RULE),
                 pair(INDEX_ATTRIBUTE.key, INDEX_ATTRIBUTE),
+                pair(INDEX_MATERIALISED.key, INDEX_MATERIALISED),
+                pair(INDEX_INFERRED.key, INDEX_INFERRED),
+                pair(INDEX_TRIGRAM.key, INDEX_TRIGRAM),
                 pair(STATISTICS_THINGS.key, STATISTICS_THINGS),
                 pair(STATISTICS_COUNT_JOB.key, STATISTICS_COUNT_JOB),
                 pair(STATISTICS_COUNTED.key, STATISTICS_COUNTED),
@@ -254,6 +261,7 @@ public class Encoding {
         PROPERTY_THEN(6),
         PROPERTY_VALUE(7),
         PROPERTY_VALUE_REF(8),
+        PROPERTY_TEXT_INDEXED(9),
         EDGE_ISA_IN(-40), // EDGE_ISA_OUT does not exist by design
         EDGE_SUB_OUT(50),
         EDGE_SUB_IN(-50),
@@ -284,6 +292,7 @@ public class Encoding {
                 pair(PROPERTY_THEN.key, PROPERTY_THEN),
                 pair(PROPERTY_VALUE.key, PROPERTY_VALUE),
                 pair(PROPERTY_VALUE_REF.key, PROPERTY_VALUE_REF),
+                pair(PROPERTY_TEXT_INDEXED.key, PROPERTY_TEXT_INDEXED),
                 pair(EDGE_ISA_IN.key, EDGE_ISA_IN),
                 pair(EDGE_SUB_OUT.key, EDGE_SUB_OUT),
                 pair(EDGE_SUB_IN.key, EDGE_SUB_IN),
@@ -344,6 +353,7 @@ public class Encoding {
         SCOPE(Infix.PROPERTY_SCOPE),
         ABSTRACT(Infix.PROPERTY_ABSTRACT),
         REGEX(Infix.PROPERTY_REGEX),
+        TEXT_INDEXED(Infix.PROPERTY_TEXT_INDEXED),
         VALUE_TYPE(Infix.PROPERTY_VALUE_TYPE),
         VALUE_REF(Infix.PROPERTY_VALUE_REF),
         VALUE(Infix.PROPERTY_VALUE),
@@ -464,6 +474,13 @@ public class Encoding {
             return isKeyable;
         }
 
+        /**
+         * @return true if the attribute index orders the values of this value type by value
+         */
+        public boolean isSorted() {
+            return this == LONG || this == DOUBLE || this == DATETIME;
+        }
+
         public Set<ValueType> assignables() {
             return ASSIGNABLES.get(this);
         }
@@ -820,7 +837,10 @@ public class Encoding {
         enum Prefix {
             TYPE(Encoding.Prefix.INDEX_TYPE),
             RULE(Encoding.Prefix.INDEX_RULE),
-            ATTRIBUTE(Encoding.Prefix.INDEX_ATTRIBUTE);
+            ATTRIBUTE(Encoding.Prefix.INDEX_ATTRIBUTE),
+            MATERIALISED(Encoding.Prefix.INDEX_MATERIALISED),
+            INFERRED(Encoding.Prefix.INDEX_INFERRED),
+            TRIGRAM(Encoding.Prefix.INDEX_TRIGRAM);
 
             private final Encoding.Prefix prefix;
 
@@ -25,9 +25,12 @@ import com.vaticle.typedb.core.graph.iid.PrefixIID;
 import com.vaticle.typedb.core.graph.iid.StructureIID;
 import com.vaticle.typedb.core.graph.iid.VertexIID;
 
+import javax.annotation.concurrent.NotThreadSafe;
 import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -192,6 +195,29 @@ public class KeyGenerator {
             return longToSortedBytes(key);
         }
 
+        /**
+         * Reserves a contiguous range of {@code size} keys for the given type in a single
+         * atomic operation, so that the caller can hand out keys from the range without
+         * touching the shared counter again.
+         *
+         * @param typeIID   of the type to reserve keys for
+         * @param typeLabel of the type to reserve keys for, used for error reporting
+         * @param size      the number of keys to reserve
+         * @return the reserved {@code Range} of keys
+         */
+        Range reserve(VertexIID.Type typeIID, Label typeLabel, int size) {
+            long start;
+            long end;
+            if ((start = thingKeys.computeIfAbsent(typeIID, k -> new AtomicLong(initialValue)).getAndAdd((long) delta * size)) >= LONG_MAX_VALUE
+                    || start <= LONG_MIN_VALUE
+                    || (end = start + (long) delta * size) >= LONG_MAX_VALUE
+                    || end <= LONG_MIN_VALUE) {
+                thingKeys.get(typeIID).addAndGet(-1L * delta * size);
+                throw TypeDBException.of(MAX_INSTANCE_REACHED, typeLabel, LONG_MAX_VALUE);
+            }
+            return new Range(start, end, delta);
+        }
+
         public byte[] serialise() {
             ByteArrayOutputStream bytes = new ByteArrayOutputStream();
             byte[] thingKeysSize = intToBytes(thingKeys.size());
@@ -220,22 +246,100 @@ public class KeyGenerator {
             assert pos == bytes.length;
         }
 
+        @NotThreadSafe
+        static class Range {
+
+            private final long end;
+            private final int delta;
+            private long next;
+
+            Range(long start, long end, int delta) {
+                this.next = start;
+                this.end = end;
+                this.delta = delta;
+            }
+
+            boolean hasNext() {
+                return delta > 0 ? next < end : next > end;
+            }
+
+            long next() {
+                assert hasNext();
+                long key = next;
+                next += delta;
+                return key;
+            }
+        }
+
+        /**
+         * Generates buffered keys for a single transaction. Since a transaction may
+         * insert in parallel, every thread reserves its own range of keys per type,
+         * so that the threads do not contend on the counter of a hot type.
+         */
         public static class Buffered extends Data {
 
+            private static final int RANGE_SIZE = 128;
+            private final ThreadLocal<Map<VertexIID.Type, Range>> ranges;
+
             public Buffered() {
                 super(BUFFERED.initialValue(), BUFFERED.isIncrement() ? 1 : -1);
+                ranges = ThreadLocal.withInitial(HashMap::new);
+            }
+
+            @Override
+            public byte[] forThing(VertexIID.Type typeIID, Label typeLabel) {
+                Map<VertexIID.Type, Range> threadRanges = ranges.get();
+                Range range = threadRanges.get(typeIID);
+                if (range == null || !range.hasNext()) {
+                    range = reserve(typeIID, typeLabel, RANGE_SIZE);
+                    threadRanges.put(typeIID, range);
+                }
+                return longToSortedBytes(range.next());
             }
         }
 
         public static class Persisted extends Data {
 
+            private static final int RANGE_SIZE = 1024;
+            private final ConcurrentMap<VertexIID.Type, ConcurrentLinkedQueue<Range>> released;
+
             public Persisted() {
                 super(PERSISTED.initialValue(), PERSISTED.isIncrement() ? 1 : -1);
+                released = new ConcurrentHashMap<>();
+            }
+
+            /**
+             * Leases a range of keys for the given type to a single transaction.
+             *
+             * Ranges that have been released by previous transactions are handed out
+             * first, so that keys are not wasted by transactions that create few things.
+             *
+             * @param typeIID   of the type to lease keys for
+             * @param typeLabel of the type to lease keys for, used for error reporting
+             * @return a {@code Range} of keys that is owned by the caller until it is released
+             */
+            Range lease(VertexIID.Type typeIID, Label typeLabel) {
+                ConcurrentLinkedQueue<Range> releasedRanges = released.get(typeIID);
+                Range range;
+                if (releasedRanges != null && (range = releasedRanges.poll()) != null) return range;
+                else return reserve(typeIID, typeLabel, RANGE_SIZE);
+            }
+
+            void release(VertexIID.Type typeIID, Range range) {
+                if (range.hasNext()) released.computeIfAbsent(typeIID, t -> new ConcurrentLinkedQueue<>()).add(range);
             }
 
+            /**
+             * Synchronises the next key of every type with the last key in storage.
+             *
+             * Keys are leased in ranges, and ranges that were not returned before the
+             * database was closed leave gaps in the keys of a type. We therefore always
+             * continue from the highest key in storage, and never attempt to fill gaps.
+             */
             public void sync(Storage.Schema schemaStorage, Storage.Data dataStorage) {
                 Encoding.Vertex.Thing[] thingsWithGeneratedIID = new Encoding.Vertex.Thing[]{ENTITY, RELATION, ROLE};
 
+                released.clear();
                 for (Encoding.Vertex.Thing thingEncoding : thingsWithGeneratedIID) {
                     byte[] typeEncoding = Encoding.Vertex.Type.of(thingEncoding).prefix().bytes();
                     FunctionalIterator<byte[]> typeIterator = schemaStorage.iterate(typeEncoding, (iid, value) -> iid)
@@ -252,5 +356,39 @@ public class KeyGenerator {
                 }
             }
         }
+
+        /**
+         * Generates persisted keys for a single transaction, from ranges of keys
+         * leased from the database-wide {@code Persisted} key generator. The unused
+         * remainder of every range is returned to the database when the transaction
+         * closes.
+         */
+        @NotThreadSafe
+        public static class Leased extends Data {
+
+            private final Persisted persisted;
+            private final Map<VertexIID.Type, Range> ranges;
+
+            public Leased(Persisted persisted) {
+                super(PERSISTED.initialValue(), PERSISTED.isIncrement() ? 1 : -1);
+                this.persisted = persisted;
+                this.ranges = new HashMap<>();
+            }
+
+            @Override
+            public byte[] forThing(VertexIID.Type typeIID, Label typeLabel) {
+                Range range = ranges.get(typeIID);
+                if (range == null || !range.hasNext()) {
+                    range = persisted.lease(typeIID, typeLabel);
+                    ranges.put(typeIID, range);
+                }
+                return longToSortedBytes(range.next());
+            }
+
+            public void release() {
+                ranges.forEach(persisted::release);
+                ranges.clear();
+            }
+        }
     }
 }
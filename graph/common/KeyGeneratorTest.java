@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.graph.common;
+
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.graph.iid.VertexIID;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.sortedBytesToLong;
+import static com.vaticle.typedb.core.graph.common.Encoding.Prefix.VERTEX_ENTITY_TYPE;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+public class KeyGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 10_000;
+    private static final Label PERSON = Label.of("person");
+    private static final VertexIID.Type PERSON_IID = VertexIID.Type.of(new byte[]{VERTEX_ENTITY_TYPE.key(), 0, 1});
+
+    private static void generateConcurrently(Supplier<Runnable> jobs) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+            Runnable job = jobs.get();
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                job.run();
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+    }
+
+    @Test
+    public void test_buffered_keys_are_unique_across_threads() throws InterruptedException {
+        KeyGenerator.Data.Buffered generator = new KeyGenerator.Data.Buffered();
+        Set<Long> keys = ConcurrentHashMap.newKeySet();
+        generateConcurrently(() -> () -> {
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                assertTrue(keys.add(sortedBytesToLong(generator.forThing(PERSON_IID, PERSON))));
+            }
+        });
+        assertEquals(THREADS * KEYS_PER_THREAD, keys.size());
+    }
+
+    @Test
+    public void test_leased_keys_are_unique_across_transactions() throws InterruptedException {
+        KeyGenerator.Data.Persisted persisted = new KeyGenerator.Data.Persisted();
+        Set<Long> keys = ConcurrentHashMap.newKeySet();
+        generateConcurrently(() -> () -> {
+            // every transaction creates a few keys, and returns the rest of its range on close
+            for (int txn = 0; txn < KEYS_PER_THREAD / 10; txn++) {
+                KeyGenerator.Data.Leased leased = new KeyGenerator.Data.Leased(persisted);
+                for (int i = 0; i < 10; i++) {
+                    assertTrue(keys.add(sortedBytesToLong(leased.forThing(PERSON_IID, PERSON))));
+                }
+                leased.release();
+            }
+        });
+        assertEquals(THREADS * KEYS_PER_THREAD, keys.size());
+    }
+
+    @Test
+    public void test_released_ranges_are_reissued_before_new_ranges() {
+        KeyGenerator.Data.Persisted persisted = new KeyGenerator.Data.Persisted();
+        KeyGenerator.Data.Leased first = new KeyGenerator.Data.Leased(persisted);
+        long firstKey = sortedBytesToLong(first.forThing(PERSON_IID, PERSON));
+        first.release();
+
+        KeyGenerator.Data.Leased second = new KeyGenerator.Data.Leased(persisted);
+        long secondKey = sortedBytesToLong(second.forThing(PERSON_IID, PERSON));
+        assertEquals(firstKey + 1, secondKey);
+
+        KeyGenerator.Data.Leased third = new KeyGenerator.Data.Leased(persisted);
+        long thirdKey = sortedBytesToLong(third.forThing(PERSON_IID, PERSON));
+        assertFalse(thirdKey == secondKey + 1);
+        second.release();
+        third.release();
+    }
+}
@@ -45,6 +45,13 @@ public class StatisticsBytes {
                 attTypeIID.bytes());
     }
 
+    public static byte[] hasEdgeCountPrefix(VertexIID.Type thingTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                thingTypeIID.bytes(),
+                Encoding.Statistics.Infix.HAS_EDGE_COUNT.bytes());
+    }
+
     public static byte[] hasEdgeTotalCountKey(VertexIID.Type thingTypeIID) {
         return join(
                 Encoding.Prefix.STATISTICS_THINGS.bytes(),
@@ -88,6 +95,21 @@ public class StatisticsBytes {
         );
     }
 
+    public static byte[] countJobPrefix(Encoding.Statistics.JobType jobType, byte[] thingIIDPrefix) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
+                jobType.bytes(),
+                thingIIDPrefix
+        );
+    }
+
+    public static byte[] countedPrefix(byte[] thingIIDPrefix) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNTED.bytes(),
+                thingIIDPrefix
+        );
+    }
+
     public static byte[] snapshotKey() {
         return Encoding.Prefix.STATISTICS_SNAPSHOT.bytes();
     }
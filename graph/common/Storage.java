@@ -22,6 +22,8 @@ import com.vaticle.typedb.core.common.exception.ErrorMessage;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.function.BiFunction;
 
 import static com.vaticle.typedb.common.util.Objects.className;
@@ -33,10 +35,19 @@ public interface Storage {
 
     byte[] get(byte[] key);
 
+    List<byte[]> get(List<byte[]> keys);
+
     byte[] getLastKey(byte[] prefix);
 
     <G> FunctionalIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor);
 
+    /**
+     * Iterate the keys that begin with the given prefix, starting from the first key at or after {@code from},
+     * until the first key that sorts after every key that begins with {@code to}, or to the end of the prefix
+     * if {@code to} is null.
+     */
+    <G> FunctionalIterator<G> iterate(byte[] prefix, byte[] from, @Nullable byte[] to, BiFunction<byte[], byte[], G> constructor);
+
     void deleteUntracked(byte[] key);
 
     void putUntracked(byte[] key);
@@ -76,6 +87,8 @@ public interface Storage {
 
         void deleteTracked(byte[] key);
 
+        void deletePrefix(byte[] prefix);
+
         void trackModified(byte[] bytes);
 
         void trackModified(byte[] bytes, boolean checkConsistency);
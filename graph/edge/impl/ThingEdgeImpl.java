@@ -156,6 +156,7 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                 if (!(from.status().equals(BUFFERED)) && !(to.status().equals(BUFFERED))) {
                     graph.storage().deleteTracked(outIID().bytes());
                     graph.storage().deleteUntracked(inIID().bytes());
+                    if (!isInferred) graph.edgeDeleted(encoding, from.iid(), to.iid());
                 }
                 if (encoding == Encoding.Edge.Thing.HAS && !isInferred) {
                     graph.stats().hasEdgeDeleted(from.iid(), to.iid().asAttribute());
@@ -321,6 +322,7 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                 to().ins().remove(this);
                 graph.storage().deleteTracked(this.outIID.bytes());
                 graph.storage().deleteUntracked(this.inIID.bytes());
+                graph.edgeDeleted(encoding, fromIID, toIID);
                 if (encoding == Encoding.Edge.Thing.HAS && !isInferred) {
                     graph.stats().hasEdgeDeleted(fromIID, toIID.asAttribute());
                 }
@@ -23,9 +23,15 @@ import com.vaticle.typedb.core.graph.common.Encoding;
 
 import javax.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.vaticle.typedb.core.common.collection.Bytes.DOUBLE_SIZE;
 import static com.vaticle.typedb.core.common.collection.Bytes.LONG_SIZE;
+import static com.vaticle.typedb.core.common.collection.Bytes.SHORT_SIZE;
 import static com.vaticle.typedb.core.common.collection.Bytes.booleanToByte;
 import static com.vaticle.typedb.core.common.collection.Bytes.byteToBoolean;
 import static com.vaticle.typedb.core.common.collection.Bytes.bytesToDateTime;
@@ -37,6 +43,8 @@ import static com.vaticle.typedb.core.common.collection.Bytes.longToSortedBytes;
 import static com.vaticle.typedb.core.common.collection.Bytes.sortedBytesToDouble;
 import static com.vaticle.typedb.core.common.collection.Bytes.sortedBytesToLong;
 import static com.vaticle.typedb.core.common.collection.Bytes.stringToBytes;
+import static com.vaticle.typedb.core.common.collection.Bytes.unsignedBytesToShort;
+import static com.vaticle.typedb.core.common.collection.Bytes.unsignedShortToBytes;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.STRING_ENCODING;
 import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.TIME_ZONE_ID;
@@ -229,6 +237,14 @@ public abstract class IndexIID extends IID {
             return new Attribute(join(Encoding.Index.Prefix.ATTRIBUTE.prefix().bytes(), valueType, value, typeIID));
         }
 
+        /**
+         * Returns the key that the index entries of attributes of a value type begin with, followed by the given
+         * sorted value bytes, which bounds a range of attribute values of that type.
+         */
+        public static byte[] prefix(Encoding.ValueType valueType, byte[] sortedValue) {
+            return join(Encoding.Index.Prefix.ATTRIBUTE.prefix().bytes(), valueType.bytes(), sortedValue);
+        }
+
         public static Attribute of(boolean value, VertexIID.Type typeIID) {
             return newAttributeIndex(Encoding.ValueType.BOOLEAN.bytes(), new byte[]{booleanToByte(value)}, typeIID.bytes);
         }
@@ -255,6 +271,14 @@ public abstract class IndexIID extends IID {
             return newAttributeIndex(Encoding.ValueType.DATETIME.bytes(), dateTimeToBytes(value, TIME_ZONE_ID), typeIID.bytes);
         }
 
+        public static Attribute of(VertexIID.Attribute<?> attIID) {
+            byte[] bytes = attIID.bytes();
+            return newAttributeIndex(
+                    copyOfRange(bytes, VertexIID.Attribute.VALUE_TYPE_INDEX, VertexIID.Attribute.VALUE_INDEX),
+                    copyOfRange(bytes, VertexIID.Attribute.VALUE_INDEX, bytes.length), attIID.type().bytes
+            );
+        }
+
         @Override
         public String toString() {
             if (readableString == null) {
@@ -289,4 +313,180 @@ public abstract class IndexIID extends IID {
             return readableString;
         }
     }
+
+    /**
+     * Records a fact that was written to the database as the conclusion of a rule, by the
+     * rule's label, followed by the IID of the relation, or the IIDs of the owner and the
+     * attribute. The prefix alone holds the fingerprint of the rules the facts were
+     * concluded from.
+     */
+    public static class Materialised extends IndexIID {
+
+        Materialised(byte[] bytes) {
+            super(bytes);
+        }
+
+        public static Materialised of(byte[] bytes) {
+            return new Materialised(bytes);
+        }
+
+        public static Materialised rules() {
+            return new Materialised(prefix().bytes());
+        }
+
+        public static Materialised rule(String label) {
+            byte[] labelBytes = label.getBytes(STRING_ENCODING);
+            return new Materialised(join(prefix().bytes(), unsignedShortToBytes(labelBytes.length), labelBytes));
+        }
+
+        public static Materialised relation(String rule, VertexIID.Thing relation) {
+            return new Materialised(join(rule(rule).bytes, relation.bytes));
+        }
+
+        public static Materialised has(String rule, VertexIID.Thing owner, VertexIID.Thing attribute) {
+            return new Materialised(join(rule(rule).bytes, owner.bytes, attribute.bytes));
+        }
+
+        public static Encoding.Prefix prefix() {
+            return Encoding.Index.Prefix.MATERIALISED.prefix();
+        }
+
+        private int thingsIndex() {
+            return PrefixIID.LENGTH + SHORT_SIZE +
+                    unsignedBytesToShort(copyOfRange(bytes, PrefixIID.LENGTH, PrefixIID.LENGTH + SHORT_SIZE));
+        }
+
+        public String rule() {
+            return bytesToString(copyOfRange(bytes, PrefixIID.LENGTH + SHORT_SIZE, thingsIndex()), STRING_ENCODING);
+        }
+
+        /**
+         * @return the IID of the concluded relation, or the IIDs of the owner and the concluded attribute
+         */
+        public List<VertexIID.Thing> things() {
+            List<VertexIID.Thing> things = new ArrayList<>(2);
+            int index = thingsIndex();
+            while (index < bytes.length) {
+                VertexIID.Thing thing = VertexIID.Thing.extract(bytes, index);
+                things.add(thing);
+                index += thing.bytes.length;
+            }
+            return things;
+        }
+
+        @Override
+        public String toString() {
+            if (readableString == null) {
+                if (bytes.length == PrefixIID.LENGTH) {
+                    readableString = "[" + PrefixIID.LENGTH + ": " + Encoding.Index.Prefix.MATERIALISED.toString() + "]";
+                } else {
+                    readableString = "[" + PrefixIID.LENGTH + ": " + Encoding.Index.Prefix.MATERIALISED.toString() + "]" +
+                            "[" + (thingsIndex() - PrefixIID.LENGTH) + ": " + rule() + "]" +
+                            "[" + (bytes.length - thingsIndex()) + ": " + things() + "]";
+                }
+            }
+            return readableString;
+        }
+    }
+
+    /**
+     * Flags a persisted fact as a materialised inference, as the IID of the concluded relation, or the IIDs
+     * of the owner and the concluded attribute, whichever rules concluded it.
+     */
+    public static class Inferred extends IndexIID {
+
+        Inferred(byte[] bytes) {
+            super(bytes);
+        }
+
+        public static Inferred relation(VertexIID.Thing relation) {
+            return new Inferred(join(prefix().bytes(), relation.bytes));
+        }
+
+        public static Inferred has(VertexIID.Thing owner, VertexIID.Thing attribute) {
+            return new Inferred(join(prefix().bytes(), owner.bytes, attribute.bytes));
+        }
+
+        public static Encoding.Prefix prefix() {
+            return Encoding.Index.Prefix.INFERRED.prefix();
+        }
+
+        @Override
+        public String toString() {
+            if (readableString == null) {
+                readableString = "[" + PrefixIID.LENGTH + ": " + Encoding.Index.Prefix.INFERRED.toString() + "]" +
+                        "[" + (bytes.length - PrefixIID.LENGTH) + ": " +
+                        VertexIID.Thing.extract(bytes, PrefixIID.LENGTH) + "]";
+            }
+            return readableString;
+        }
+    }
+
+    /**
+     * Indexes a string attribute of a text-indexed type by every distinct trigram of its value, as the type's IID,
+     * followed by the trigram, followed by the IID of the attribute. Trigrams are case-folded the way that
+     * {@code String.regionMatches} ignores case, and hold each of their 3 characters in 2 bytes.
+     */
+    public static class Trigram extends IndexIID {
+
+        public static final int LENGTH = 3;
+        static final int TRIGRAM_INDEX = PrefixIID.LENGTH + VertexIID.Type.LENGTH;
+        static final int ATTRIBUTE_INDEX = TRIGRAM_INDEX + LENGTH * SHORT_SIZE;
+
+        Trigram(byte[] bytes) {
+            super(bytes);
+        }
+
+        public static Trigram of(VertexIID.Type type, String trigram, VertexIID.Attribute<?> attribute) {
+            return new Trigram(join(prefix(type, trigram), attribute.bytes));
+        }
+
+        public static byte[] prefix(VertexIID.Type type) {
+            return join(Encoding.Index.Prefix.TRIGRAM.bytes(), type.bytes);
+        }
+
+        public static byte[] prefix(VertexIID.Type type, String trigram) {
+            assert trigram.length() == LENGTH;
+            byte[] trigramBytes = new byte[LENGTH * SHORT_SIZE];
+            for (int i = 0; i < LENGTH; i++) {
+                char c = trigram.charAt(i);
+                trigramBytes[i * SHORT_SIZE] = (byte) (c >> 8);
+                trigramBytes[i * SHORT_SIZE + 1] = (byte) c;
+            }
+            return join(prefix(type), trigramBytes);
+        }
+
+        /**
+         * @return the distinct case-folded trigrams of a string, which are none if it is shorter than a trigram
+         */
+        public static Set<String> trigrams(String value) {
+            if (value.length() < LENGTH) return Collections.emptySet();
+            char[] folded = new char[value.length()];
+            for (int i = 0; i < folded.length; i++) {
+                folded[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+            }
+            Set<String> trigrams = new HashSet<>();
+            for (int i = 0; i <= folded.length - LENGTH; i++) trigrams.add(new String(folded, i, LENGTH));
+            return trigrams;
+        }
+
+        public static VertexIID.Attribute<?> extractAttribute(byte[] bytes) {
+            return VertexIID.Attribute.extract(bytes, ATTRIBUTE_INDEX);
+        }
+
+        @Override
+        public String toString() {
+            if (readableString == null) {
+                StringBuilder trigram = new StringBuilder();
+                for (int i = TRIGRAM_INDEX; i < ATTRIBUTE_INDEX; i += SHORT_SIZE) {
+                    trigram.append((char) (((bytes[i] & 0xFF) << 8) | (bytes[i + 1] & 0xFF)));
+                }
+                readableString = "[" + PrefixIID.LENGTH + ": " + Encoding.Index.Prefix.TRIGRAM.toString() + "]" +
+                        "[" + VertexIID.Type.LENGTH + ": " + VertexIID.Type.extract(bytes, PrefixIID.LENGTH).toString() + "]" +
+                        "[" + (ATTRIBUTE_INDEX - TRIGRAM_INDEX) + ": " + trigram + "]" +
+                        "[" + (bytes.length - ATTRIBUTE_INDEX) + ": " + extractAttribute(bytes).toString() + "]";
+            }
+            return readableString;
+        }
+    }
 }
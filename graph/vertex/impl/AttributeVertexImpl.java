@@ -97,6 +97,7 @@ public abstract class AttributeVertexImpl<VALUE> extends ThingVertexImpl impleme
 
     void deleteVertexFromIndex() {
         graph.storage().deleteUntracked(index().bytes());
+        if (isString() && type().isTextIndexed()) graph.deleteTrigrams(type().iid(), attributeIID.asString());
     }
 
     @Override
@@ -132,6 +133,7 @@ public abstract class AttributeVertexImpl<VALUE> extends ThingVertexImpl impleme
             graph.storage().putUntracked(attributeIID.bytes());
             graph.storage().putUntracked(EdgeIID.InwardsISA.of(type().iid(), iid).bytes());
             graph.storage().putUntracked(index().bytes(), attributeIID.bytes());
+            if (isString() && type().isTextIndexed()) graph.indexTrigrams(type().iid(), attributeIID.asString());
         }
         graph.setModified(iid);
         // TODO: we should make use of attribute indexes to look up attributes by value (without type) quickly
@@ -20,6 +20,7 @@ package com.vaticle.typedb.core.logic;
 
 import com.vaticle.typedb.core.common.cache.CommonCache;
 import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.logic.resolvable.Unifier;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 
@@ -30,18 +31,23 @@ public class LogicCache {
 
     private CommonCache<Traversal, Map<Identifier.Variable.Retrievable, Set<Label>>> typeResolverCache;
     private CommonCache<String, Rule> ruleCache;
+    private CommonCache<String, Map<Rule, Set<Unifier>>> unifierCache;
 
     public LogicCache() {
         this.ruleCache = new CommonCache<>();
         this.typeResolverCache = new CommonCache<>();
+        this.unifierCache = new CommonCache<>();
     }
 
     public LogicCache(int size, int timeOutMinutes) {
         this.ruleCache = new CommonCache<>(size, timeOutMinutes);
         this.typeResolverCache = new CommonCache<>(size, timeOutMinutes);
+        this.unifierCache = new CommonCache<>(size, timeOutMinutes);
     }
 
     public CommonCache<Traversal, Map<Identifier.Variable.Retrievable, Set<Label>>> resolver() { return typeResolverCache; }
 
     CommonCache<String, Rule> rule() { return ruleCache; }
+
+    CommonCache<String, Map<Rule, Set<Unifier>>> unifiers() { return unifierCache; }
 }
@@ -25,6 +25,7 @@ import com.vaticle.typedb.core.common.util.StringBuilders;
 import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.graph.structure.RuleStructure;
+import com.vaticle.typedb.core.logic.resolvable.Unifier;
 import com.vaticle.typedb.core.logic.tool.TypeResolver;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
 import com.vaticle.typeql.lang.pattern.Conjunction;
@@ -38,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.vaticle.typedb.common.collection.Collections.list;
@@ -53,6 +55,7 @@ public class LogicManager {
     private final GraphManager graphMgr;
     private final ConceptManager conceptMgr;
     private final TypeResolver typeResolver;
+    private final Materialiser materialiser;
     private LogicCache logicCache;
 
     public LogicManager(GraphManager graphMgr, ConceptManager conceptMgr, TraversalEngine traversalEng, LogicCache logicCache) {
@@ -60,6 +63,7 @@ public class LogicManager {
         this.conceptMgr = conceptMgr;
         this.logicCache = logicCache;
         this.typeResolver = new TypeResolver(logicCache, traversalEng, conceptMgr);
+        this.materialiser = new Materialiser(this, graphMgr, conceptMgr, traversalEng);
     }
 
     GraphManager graph() { return graphMgr; }
@@ -68,14 +72,20 @@ public class LogicManager {
         return typeResolver;
     }
 
+    public Materialiser materialiser() {
+        return materialiser;
+    }
+
     public void deleteAndInvalidateRule(Rule rule) {
         rule.delete();
         logicCache.rule().invalidate(rule.getLabel());
+        logicCache.unifiers().clear();
     }
 
     public Rule putRule(String label, Conjunction<? extends Pattern> when, ThingVariable<?> then) {
         Rule rule = getRule(label);
         if (rule != null) deleteAndInvalidateRule(rule);
+        logicCache.unifiers().clear();
         return logicCache.rule().get(label, l -> Rule.of(label, when, then, graphMgr, conceptMgr, this));
     }
 
@@ -99,6 +109,17 @@ public class LogicManager {
         return graphMgr.schema().rules().conclusions().concludesEdgeTo(graphMgr.schema().getType(attributeType)).map(this::fromStructure);
     }
 
+    /**
+     * Get the rules that may conclude a concludable, with the unifiers of the concludable with each of their
+     * conclusions, from those computed for any concludable with the same key in this schema
+     *
+     * @param concludableKey the constraints of a concludable, and the types resolved for its variables
+     * @param unify          computes the applicable rules and unifiers if they are not held yet
+     */
+    public Map<Rule, Set<Unifier>> applicableRules(String concludableKey, Function<String, Map<Rule, Set<Unifier>>> unify) {
+        return logicCache.unifiers().get(concludableKey, unify);
+    }
+
     private FunctionalIterator<Rule> rulesWithNegations() {
         return rules().filter(rule -> !rule.when().negations().isEmpty());
     }
@@ -111,6 +132,7 @@ public class LogicManager {
      */
     public void revalidateAndReindexRules() {
         logicCache.rule().clear();
+        logicCache.unifiers().clear();
 
         // re-validate all rules are valid
         rules().forEachRemaining(rule -> rule.validate(this, conceptMgr));
@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.logic;
+
+import com.vaticle.typedb.common.collection.Either;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.Iterators;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.concept.Concept;
+import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.thing.Attribute;
+import com.vaticle.typedb.core.concept.thing.Thing;
+import com.vaticle.typedb.core.concept.thing.impl.ThingImpl;
+import com.vaticle.typedb.core.concept.type.Type;
+import com.vaticle.typedb.core.graph.GraphManager;
+import com.vaticle.typedb.core.graph.common.Storage;
+import com.vaticle.typedb.core.graph.iid.IndexIID;
+import com.vaticle.typedb.core.graph.iid.VertexIID;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.Negation;
+import com.vaticle.typedb.core.pattern.variable.ThingVariable;
+import com.vaticle.typedb.core.pattern.variable.TypeVariable;
+import com.vaticle.typedb.core.traversal.TraversalEngine;
+import com.vaticle.typedb.core.traversal.common.Identifier;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.vaticle.typedb.common.collection.Collections.list;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.STRING_ENCODING;
+import static com.vaticle.typedb.core.graph.common.Encoding.Vertex.Thing.ROLE;
+import static java.util.Comparator.comparing;
+
+/**
+ * Writes the conclusions of rules to the database when a data transaction commits, so that
+ * reasoning queries can be answered by traversal alone.
+ *
+ * Conclusions are computed to a fixpoint in rounds, by semi-naive evaluation. Every round only
+ * evaluates the conditions of a rule for the answers that bind one of its variables to a thing in
+ * the delta of the round before. The delta of the first round holds the things the transaction
+ * inserted, or added or removed an edge of, as any answer that did not hold before the transaction
+ * binds one of them. The delta of every following round holds the facts the round before concluded.
+ * A rule that negates a type the transaction deleted from is evaluated in full, as its new answers
+ * need not bind anything the transaction wrote to. Every concluded fact is recorded against the
+ * rule that concluded it, and flagged as inferred in the graph, so that it is only matched by
+ * queries that infer.
+ *
+ * Deletions are maintained by deleting and rederiving (DRed). The facts of every rule whose
+ * conditions depend on a deleted type, or negate an inserted type, are over-deleted, together
+ * with the facts of the rules that depend on those, transitively. Every over-deleted fact is then
+ * rederived if any rule that concludes its type still has an answer that binds the concepts of
+ * the fact, and the rederived facts join the delta of the round, which propagates them. A round
+ * that concludes facts of a type that a rule negates over-deletes the facts of that rule as well.
+ *
+ * A derivation may join the writes of two transactions that commit concurrently, which neither
+ * sees from its own snapshot. Every rule that a commit evaluates or retracts the facts of is
+ * therefore claimed as an exclusive write, so that of two concurrent commits that evaluate the
+ * same rule, the second fails, as any such derivation is evaluated by the same rule in both.
+ *
+ * The facts are stored with a fingerprint of the rules they were concluded from. Once the
+ * rules change, the fingerprint no longer matches, and the next commit retracts every fact
+ * and concludes them again. Until then, queries are answered by the reasoner.
+ */
+public class Materialiser {
+
+    private final LogicManager logicMgr;
+    private final GraphManager graphMgr;
+    private final ConceptManager conceptMgr;
+    private final TraversalEngine traversalEng;
+    private final Map<Rule, List<List<Thing>>> concluded;
+    private final Map<Rule, Set<Label>> conditionTypes;
+    private final Map<Rule, Set<Label>> negatedTypes;
+    private final Map<Rule, Set<Label>> conclusionTypes;
+    private byte[] fingerprint;
+
+    Materialiser(LogicManager logicMgr, GraphManager graphMgr, ConceptManager conceptMgr, TraversalEngine traversalEng) {
+        this.logicMgr = logicMgr;
+        this.graphMgr = graphMgr;
+        this.conceptMgr = conceptMgr;
+        this.traversalEng = traversalEng;
+        this.concluded = new HashMap<>();
+        this.conditionTypes = new HashMap<>();
+        this.negatedTypes = new HashMap<>();
+        this.conclusionTypes = new HashMap<>();
+    }
+
+    /**
+     * @return true if the facts held in the database were concluded from the current rules
+     */
+    public boolean isCurrent() {
+        return Arrays.equals(storage().get(IndexIID.Materialised.rules().bytes()), fingerprint());
+    }
+
+    /**
+     * Concludes the facts that follow from the writes of the transaction, and retracts those
+     * that no longer hold. Must be called before the writes are committed to the graph.
+     */
+    public void materialise() {
+        List<Rule> rules = logicMgr.rules().toList();
+        Set<Label> types = new HashSet<>();
+        Set<Thing> delta = new HashSet<>();
+        if (!isCurrent()) {
+            retractAll();
+            storage().trackExclusiveCreate(IndexIID.Materialised.rules().bytes());
+            storage().putUntracked(IndexIID.Materialised.rules().bytes(), fingerprint());
+            for (Rule rule : rules) {
+                claim(rule);
+                conclude(rule, answers(rule.when()), types, delta);
+            }
+        } else {
+            Set<Label> modified = graphMgr.data().modifiedTypes();
+            Set<Label> deleted = graphMgr.data().deletedTypes();
+            Set<Thing> written = graphMgr.data().vertices()
+                    .filter(v -> v.isModified() && !v.isDeleted() && !v.isInferred() && !v.encoding().equals(ROLE))
+                    .<Thing>map(ThingImpl::of).toSet();
+            Map<Rule, Set<ConceptMap>> rederivable = overDelete(rules, deleted, modified);
+            for (Rule rule : rules) {
+                if (intersects(negatedTypes(rule), deleted)) {
+                    claim(rule);
+                    conclude(rule, answers(rule.when()), types, delta);
+                } else if (intersects(conditionTypes(rule), modified)) {
+                    claim(rule);
+                    conclude(rule, answers(rule, written), types, delta);
+                }
+            }
+            rederive(rederivable, types, delta);
+        }
+        while (!delta.isEmpty()) {
+            Set<Label> previousTypes = types;
+            Set<Thing> previous = delta;
+            types = new HashSet<>();
+            delta = new HashSet<>();
+            rederive(overDelete(rules, Collections.emptySet(), previousTypes), types, delta);
+            for (Rule rule : rules) {
+                if (intersects(conditionTypes(rule), previousTypes)) {
+                    claim(rule);
+                    conclude(rule, answers(rule, previous), types, delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records every fact concluded by this transaction against the rule that concluded it, and
+     * flags it as inferred in the graph. Must be called after the writes are committed to the
+     * graph, once the concluded concepts hold the IIDs they are persisted with.
+     */
+    public void record() {
+        concluded.forEach((rule, facts) -> facts.forEach(fact -> {
+            VertexIID.Thing first = VertexIID.Thing.of(fact.get(0).getIID());
+            IndexIID.Materialised key;
+            if (fact.size() == 1) {
+                key = IndexIID.Materialised.relation(rule.getLabel(), first);
+                graphMgr.data().setInferred(first);
+            } else {
+                VertexIID.Thing attribute = VertexIID.Thing.of(fact.get(1).getIID());
+                key = IndexIID.Materialised.has(rule.getLabel(), first, attribute);
+                graphMgr.data().setInferred(first, attribute);
+            }
+            storage().putTracked(key.bytes());
+        }));
+        concluded.clear();
+    }
+
+    /**
+     * Claims a rule as written to by this transaction, so that it cannot be committed concurrently
+     * with another transaction that evaluates the same rule, or retracts its facts
+     */
+    private void claim(Rule rule) {
+        storage().trackExclusiveCreate(IndexIID.Materialised.rule(rule.getLabel()).bytes());
+    }
+
+    /**
+     * Over-deletes the facts of the rules that depend on the deleted types, or that negate the
+     * inserted types, together with the facts of the rules that depend on those, transitively.
+     *
+     * @return for every rule that may rederive an over-deleted fact, the bounds under which its
+     * conditions rederive each such fact
+     */
+    private Map<Rule, Set<ConceptMap>> overDelete(List<Rule> rules, Set<Label> deleted, Set<Label> inserted) {
+        Set<Rule> retracted = new HashSet<>();
+        Deque<Rule> retracting = new ArrayDeque<>();
+        for (Rule rule : rules) {
+            if (intersects(conditionTypes(rule), deleted) || intersects(negatedTypes(rule), inserted)) {
+                retracted.add(rule);
+                retracting.add(rule);
+            }
+        }
+        Map<Rule, Set<ConceptMap>> rederivable = new HashMap<>();
+        while (!retracting.isEmpty()) {
+            Rule rule = retracting.pop();
+            claim(rule);
+            retract(rule, rules, rederivable);
+            for (Rule dependent : rules) {
+                if (intersects(conditionTypes(dependent), conclusionTypes(rule)) && retracted.add(dependent)) {
+                    retracting.add(dependent);
+                }
+            }
+        }
+        return rederivable;
+    }
+
+    private void rederive(Map<Rule, Set<ConceptMap>> rederivable, Set<Label> types, Set<Thing> delta) {
+        rederivable.forEach((rule, bounds) -> {
+            claim(rule);
+            for (ConceptMap bound : bounds) {
+                if (iterate(bound.concepts().values()).noneMatch(c -> c.isThing() && c.asThing().isDeleted())) {
+                    conclude(rule, answers(bound(rule.when(), bound)), types, delta);
+                }
+            }
+        });
+    }
+
+    /**
+     * Inserts the conclusions of the given answers to the conditions of a rule, collecting the types
+     * of the facts that were newly concluded, and the relation or attribute that each of them concludes
+     */
+    private void conclude(Rule rule, FunctionalIterator<ConceptMap> answers, Set<Label> types, Set<Thing> delta) {
+        for (ConceptMap answer : answers.toList()) {
+            Optional<Map<Identifier.Variable, Concept>> conclusion = rule.conclusion().insert(answer, traversalEng, conceptMgr);
+            if (!conclusion.isPresent()) continue;
+            for (Concept concept : conclusion.get().values()) {
+                if (concept.isThing()) types.add(concept.asThing().getType().getLabel());
+                else types.add(concept.asType().getLabel());
+            }
+            List<Thing> fact = fact(rule.conclusion(), conclusion.get());
+            concluded.computeIfAbsent(rule, r -> new ArrayList<>()).add(fact);
+            delta.add(fact.get(fact.size() - 1));
+        }
+    }
+
+    /**
+     * Semi-naive evaluation: any answer that depends on a fact concluded by the previous round binds the
+     * relation or attribute it concludes to some variable of the conditions, so the conditions only need
+     * to be evaluated once for each such variable bound to each such concept.
+     */
+    private FunctionalIterator<ConceptMap> answers(Rule rule, Set<Thing> delta) {
+        return iterate(delta).filter(thing -> !thing.isDeleted()).flatMap(
+                thing -> iterate(rule.when().variables())
+                        .filter(var -> var.isThing() && var.resolvedTypes().contains(thing.getType().getLabel()))
+                        .flatMap(var -> answers(bound(rule.when(), var.asThing().id(), thing)))
+        );
+    }
+
+    private List<Thing> fact(Rule.Conclusion conclusion, Map<Identifier.Variable, Concept> concepts) {
+        if (conclusion.isRelation()) {
+            return list(concepts.get(conclusion.asRelation().relation().owner().id()).asThing());
+        } else if (conclusion.isHas()) {
+            return list(concepts.get(conclusion.asHas().has().owner().id()).asThing(),
+                        concepts.get(conclusion.asHas().has().attribute().id()).asThing());
+        } else {
+            throw TypeDBException.of(ILLEGAL_STATE);
+        }
+    }
+
+    private void retract(Rule rule, List<Rule> rules, Map<Rule, Set<ConceptMap>> rederivable) {
+        List<List<Thing>> facts = concluded.remove(rule);
+        if (facts != null) facts.forEach(fact -> retract(fact, rules, rederivable));
+        FunctionalIterator<IndexIID.Materialised> keys = storage().iterate(
+                IndexIID.Materialised.rule(rule.getLabel()).bytes(), (key, value) -> IndexIID.Materialised.of(key)
+        );
+        retract(keys.toList(), rules, rederivable);
+    }
+
+    private void retractAll() {
+        concluded.values().forEach(facts -> facts.forEach(fact -> retract(fact, list(), new HashMap<>())));
+        concluded.clear();
+        byte[] prefix = IndexIID.Materialised.prefix().bytes();
+        retract(storage().iterate(prefix, (key, value) -> IndexIID.Materialised.of(key))
+                        .filter(key -> key.bytes().length > prefix.length).toList(), list(), new HashMap<>());
+    }
+
+    /**
+     * Retracts the facts recorded under the given keys, unless they are no longer flagged as inferred,
+     * as they were deleted or asserted since
+     */
+    private void retract(List<IndexIID.Materialised> keys, List<Rule> rules, Map<Rule, Set<ConceptMap>> rederivable) {
+        for (IndexIID.Materialised key : keys) {
+            List<VertexIID.Thing> iids = key.things();
+            boolean isInferred = iids.size() == 1
+                    ? graphMgr.data().isInferred(iids.get(0))
+                    : graphMgr.data().isInferred(iids.get(0), iids.get(1));
+            if (isInferred) {
+                List<Thing> fact = new ArrayList<>();
+                for (VertexIID.Thing iid : iids) {
+                    Thing thing = conceptMgr.getThing(iid.bytes());
+                    if (thing != null) fact.add(thing);
+                }
+                if (fact.size() == iids.size()) retract(fact, rules, rederivable);
+            }
+            storage().deleteTracked(key.bytes());
+        }
+    }
+
+    /**
+     * Retracts a fact, after collecting the bounds under which each of the given rules that
+     * concludes its type would conclude it again
+     */
+    private void retract(List<Thing> fact, List<Rule> rules, Map<Rule, Set<ConceptMap>> rederivable) {
+        if (iterate(fact).anyMatch(Thing::isDeleted)) return;
+        Label type = fact.get(fact.size() - 1).getType().getLabel();
+        for (Rule rule : rules) {
+            if (conclusionTypes(rule).contains(type)) {
+                rederivable.computeIfAbsent(rule, r -> new HashSet<>()).add(rederivationBounds(rule, fact));
+            }
+        }
+        retract(fact);
+    }
+
+    /**
+     * @return the concepts of a fact bound to the variables that the conditions of the rule share with
+     * its conclusion, where they can be told apart, so that the conditions are only evaluated for the
+     * answers that may conclude the fact again
+     */
+    private ConceptMap rederivationBounds(Rule rule, List<Thing> fact) {
+        Map<Identifier.Variable.Retrievable, Concept> bounds = new HashMap<>();
+        Rule.Conclusion conclusion = rule.conclusion();
+        if (conclusion.isHas() && fact.size() == 2) {
+            bounds.put(conclusion.asHas().has().owner().id(), fact.get(0));
+            bounds.put(conclusion.asHas().has().attribute().id(), fact.get(1));
+        } else if (conclusion.isRelation() && fact.size() == 1) {
+            Map<Label, List<Thing>> players = new HashMap<>();
+            fact.get(0).asRelation().getPlayersByRoleType().forEach(
+                    (role, things) -> players.computeIfAbsent(role.getLabel(), r -> new ArrayList<>()).addAll(things)
+            );
+            Map<Label, List<ThingVariable>> variables = new HashMap<>();
+            conclusion.asRelation().relation().players().forEach(player -> player.roleType()
+                    .flatMap(TypeVariable::label).ifPresent(label -> variables.computeIfAbsent(
+                            label.properLabel(), r -> new ArrayList<>()).add(player.player())
+                    ));
+            variables.forEach((role, vars) -> {
+                List<Thing> things = players.getOrDefault(role, list());
+                if (vars.size() == 1 && things.size() == 1) bounds.put(vars.get(0).id(), things.get(0));
+            });
+        }
+        bounds.keySet().removeIf(id -> rule.when().variable(id) == null);
+        return new ConceptMap(bounds);
+    }
+
+    private void retract(List<Thing> fact) {
+        if (fact.size() == 1) {
+            fact.get(0).delete();
+        } else {
+            Thing owner = fact.get(0);
+            Attribute attribute = fact.get(1).asAttribute();
+            if (owner.getHas(attribute.getType()).anyMatch(attribute::equals)) owner.unsetHas(attribute);
+        }
+    }
+
+    private FunctionalIterator<ConceptMap> answers(Conjunction conjunction) {
+        if (!conjunction.isCoherent()) return Iterators.empty();
+        FunctionalIterator<ConceptMap> answers = traversalEng.iterator(conjunction.traversal()).map(conceptMgr::conceptMap);
+        if (conjunction.negations().isEmpty()) return answers;
+        return answers.filter(answer -> iterate(conjunction.negations()).noneMatch(
+                negation -> iterate(negation.disjunction().conjunctions()).anyMatch(c -> answers(bound(c, answer)).hasNext())
+        ));
+    }
+
+    private Conjunction bound(Conjunction conjunction, ConceptMap bounds) {
+        Conjunction newClone = conjunction.clone();
+        newClone.bound(bounds.toMap(Type::getLabel, Thing::getIID));
+        return newClone;
+    }
+
+    private Conjunction bound(Conjunction conjunction, Identifier.Variable.Retrievable id, Thing thing) {
+        Map<Identifier.Variable.Retrievable, Either<Label, byte[]>> bounds = new HashMap<>();
+        bounds.put(id, Either.second(thing.getIID()));
+        Conjunction newClone = conjunction.clone();
+        newClone.bound(bounds);
+        return newClone;
+    }
+
+    private Set<Label> conditionTypes(Rule rule) {
+        return conditionTypes.computeIfAbsent(rule, r -> types(list(r.when()), true));
+    }
+
+    private Set<Label> negatedTypes(Rule rule) {
+        return negatedTypes.computeIfAbsent(rule, r -> types(list(r.when()), false));
+    }
+
+    private Set<Label> conclusionTypes(Rule rule) {
+        return conclusionTypes.computeIfAbsent(rule, r -> types(list(r.then()), true));
+    }
+
+    /**
+     * @return the types of the variables in the given conjunctions, and in the conjunctions negated
+     * within them, or only those negated within them
+     */
+    private static Set<Label> types(List<Conjunction> conjunctions, boolean includePositive) {
+        Set<Label> types = new HashSet<>();
+        Deque<Conjunction> pending = new ArrayDeque<>(conjunctions);
+        Set<Conjunction> negated = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Conjunction conjunction = pending.pop();
+            if (includePositive || negated.contains(conjunction)) {
+                iterate(conjunction.variables()).flatMap(v -> iterate(v.resolvedTypes())).forEachRemaining(types::add);
+            }
+            for (Negation negation : conjunction.negations()) {
+                negated.addAll(negation.disjunction().conjunctions());
+                pending.addAll(negation.disjunction().conjunctions());
+            }
+        }
+        return types;
+    }
+
+    private static boolean intersects(Set<Label> types, Set<Label> others) {
+        return iterate(others).anyMatch(types::contains);
+    }
+
+    private byte[] fingerprint() {
+        if (fingerprint == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                logicMgr.rules().stream().sorted(comparing(Rule::getLabel)).forEach(rule -> digest.update(
+                        (rule.getLabel() + rule.getWhenPreNormalised() + rule.getThenPreNormalised()).getBytes(STRING_ENCODING)
+                ));
+                fingerprint = digest.digest();
+            } catch (NoSuchAlgorithmException e) {
+                throw TypeDBException.of(e);
+            }
+        }
+        return fingerprint;
+    }
+
+    private Storage.Data storage() {
+        return graphMgr.data().storage();
+    }
+}
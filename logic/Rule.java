@@ -330,6 +330,17 @@ public class Rule {
         public abstract FunctionalIterator<Map<Identifier.Variable, Concept>> materialise(ConceptMap whenConcepts, TraversalEngine traversalEng,
                                                                                           ConceptManager conceptMgr);
 
+        /**
+         * Insert the `then` of the rule as persisted data, if it does not already hold. Used when inference is materialised
+         *
+         * @param whenConcepts - the concepts that satisfy the `when` of the rule. All named `then` variables must be in this map
+         * @param traversalEng - used to perform a traversal to find preexisting conclusions
+         * @param conceptMgr   - used to insert the conclusion if it doesn't already exist
+         * @return - the concepts of the inserted conclusion, or nothing if the conclusion already held
+         */
+        public abstract Optional<Map<Identifier.Variable, Concept>> insert(ConceptMap whenConcepts, TraversalEngine traversalEng,
+                                                                           ConceptManager conceptMgr);
+
         public Rule rule() { return rule; }
 
         public abstract Optional<ThingVariable> generating();
@@ -468,7 +479,6 @@ public class Rule {
             @Override
             public FunctionalIterator<Map<Identifier.Variable, Concept>> materialise(ConceptMap whenConcepts, TraversalEngine traversalEng,
                                                                                      ConceptManager conceptMgr) {
-                Identifier.Variable relationTypeIdentifier = isa().type().id();
                 RelationType relationType = relationType(whenConcepts, conceptMgr);
                 Set<RolePlayer> players = new HashSet<>();
                 relation().players().forEach(rp -> players.add(new RolePlayer(rp, relationType, whenConcepts)));
@@ -477,29 +487,35 @@ public class Rule {
                 );
 
                 if (existingRelations.hasNext()) {
-                    return existingRelations.map(rel -> {
-                        Map<Identifier.Variable, Concept> thenConcepts = new HashMap<>();
-                        thenConcepts.put(relationTypeIdentifier, relationType);
-                        thenConcepts.put(isa().owner().id(), rel);
-                        players.forEach(rp -> {
-                            thenConcepts.putIfAbsent(rp.roleTypeIdentifier, rp.roleType);
-                            thenConcepts.putIfAbsent(rp.playerIdentifier, rp.player);
-                        });
-                        return thenConcepts;
-                    });
+                    return existingRelations.map(rel -> thenConcepts(relationType, rel, players));
                 } else {
-                    Map<Identifier.Variable, Concept> thenConcepts = new HashMap<>();
-                    thenConcepts.put(relationTypeIdentifier, relationType);
-                    com.vaticle.typedb.core.concept.thing.Relation relation = insertRelation(relationType, players);
-                    thenConcepts.put(isa().owner().id(), relation);
-                    players.forEach(rp -> {
-                        thenConcepts.putIfAbsent(rp.roleTypeIdentifier, rp.roleType);
-                        thenConcepts.putIfAbsent(rp.playerIdentifier, rp.player);
-                    });
-                    return Iterators.single(thenConcepts);
+                    return Iterators.single(thenConcepts(relationType, insertRelation(relationType, players, true), players));
                 }
             }
 
+            @Override
+            public Optional<Map<Identifier.Variable, Concept>> insert(ConceptMap whenConcepts, TraversalEngine traversalEng,
+                                                                      ConceptManager conceptMgr) {
+                RelationType relationType = relationType(whenConcepts, conceptMgr);
+                Set<RolePlayer> players = new HashSet<>();
+                relation().players().forEach(rp -> players.add(new RolePlayer(rp, relationType, whenConcepts)));
+                if (matchRelation(relationType, players, traversalEng, conceptMgr).hasNext()) return Optional.empty();
+                return Optional.of(thenConcepts(relationType, insertRelation(relationType, players, false), players));
+            }
+
+            private Map<Identifier.Variable, Concept> thenConcepts(RelationType relationType,
+                                                                   com.vaticle.typedb.core.concept.thing.Relation relation,
+                                                                   Set<RolePlayer> players) {
+                Map<Identifier.Variable, Concept> thenConcepts = new HashMap<>();
+                thenConcepts.put(isa().type().id(), relationType);
+                thenConcepts.put(isa().owner().id(), relation);
+                players.forEach(rp -> {
+                    thenConcepts.putIfAbsent(rp.roleTypeIdentifier, rp.roleType);
+                    thenConcepts.putIfAbsent(rp.playerIdentifier, rp.player);
+                });
+                return thenConcepts;
+            }
+
             @Override
             public Optional<ThingVariable> generating() {
                 return Optional.of(relation.owner());
@@ -547,9 +563,10 @@ public class Rule {
                 return this;
             }
 
-            private com.vaticle.typedb.core.concept.thing.Relation insertRelation(RelationType relationType, Set<RolePlayer> players) {
-                com.vaticle.typedb.core.concept.thing.Relation relation = relationType.create(true);
-                players.forEach(rp -> relation.addPlayer(rp.roleType, rp.player, true));
+            private com.vaticle.typedb.core.concept.thing.Relation insertRelation(RelationType relationType, Set<RolePlayer> players,
+                                                                                  boolean isInferred) {
+                com.vaticle.typedb.core.concept.thing.Relation relation = relationType.create(isInferred);
+                players.forEach(rp -> relation.addPlayer(rp.roleType, rp.player, isInferred));
                 return relation;
             }
 
@@ -680,10 +697,26 @@ public class Rule {
                                                                                          ConceptManager conceptMgr) {
                     Identifier.Variable.Retrievable ownerId = has().owner().id();
                     assert whenConcepts.contains(ownerId) && whenConcepts.get(ownerId).isThing();
-                    Map<Identifier.Variable, Concept> thenConcepts = new HashMap<>();
                     Thing owner = whenConcepts.get(ownerId.reference().asName()).asThing();
-                    Attribute attribute = putAttribute(conceptMgr);
+                    Attribute attribute = putAttribute(conceptMgr, true);
                     owner.setHas(attribute, true);
+                    return Iterators.single(thenConcepts(owner, attribute, conceptMgr));
+                }
+
+                @Override
+                public Optional<Map<Identifier.Variable, Concept>> insert(ConceptMap whenConcepts, TraversalEngine traversalEng,
+                                                                          ConceptManager conceptMgr) {
+                    Identifier.Variable.Retrievable ownerId = has().owner().id();
+                    assert whenConcepts.contains(ownerId) && whenConcepts.get(ownerId).isThing();
+                    Thing owner = whenConcepts.get(ownerId.reference().asName()).asThing();
+                    Attribute attribute = putAttribute(conceptMgr, false);
+                    if (owner.getHas(attribute.getType()).anyMatch(attribute::equals)) return Optional.empty();
+                    owner.setHas(attribute, false);
+                    return Optional.of(thenConcepts(owner, attribute, conceptMgr));
+                }
+
+                private Map<Identifier.Variable, Concept> thenConcepts(Thing owner, Attribute attribute, ConceptManager conceptMgr) {
+                    Map<Identifier.Variable, Concept> thenConcepts = new HashMap<>();
                     TypeVariable declaredType = has().attribute().isa().get().type();
                     Identifier.Variable declaredTypeId = declaredType.id();
                     AttributeType attrType = conceptMgr.getAttributeType(declaredType.label().get().properLabel().name());
@@ -691,7 +724,7 @@ public class Rule {
                     thenConcepts.put(declaredTypeId, attrType);
                     thenConcepts.put(has().attribute().id(), attribute);
                     thenConcepts.put(has().owner().id(), owner);
-                    return Iterators.single(thenConcepts);
+                    return thenConcepts;
                 }
 
                 @Override
@@ -759,7 +792,7 @@ public class Rule {
                     return value;
                 }
 
-                private Attribute putAttribute(ConceptManager conceptMgr) {
+                private Attribute putAttribute(ConceptManager conceptMgr, boolean isInferred) {
                     assert has().attribute().isa().isPresent()
                             && has().attribute().isa().get().type().label().isPresent()
                             && has().attribute().value().size() == 1
@@ -768,11 +801,11 @@ public class Rule {
                     AttributeType attrType = conceptMgr.getAttributeType(attributeTypeLabel.name());
                     assert attrType != null;
                     ValueConstraint<?> value = has().attribute().value().iterator().next();
-                    if (attrType.isDateTime()) return attrType.asDateTime().put(value.asDateTime().value(), true);
-                    else if (attrType.isBoolean()) return attrType.asBoolean().put(value.asBoolean().value(), true);
-                    else if (attrType.isDouble()) return attrType.asDouble().put(value.asDouble().value(), true);
-                    else if (attrType.isLong()) return attrType.asLong().put(value.asLong().value(), true);
-                    else if (attrType.isString()) return attrType.asString().put(value.asString().value(), true);
+                    if (attrType.isDateTime()) return attrType.asDateTime().put(value.asDateTime().value(), isInferred);
+                    else if (attrType.isBoolean()) return attrType.asBoolean().put(value.asBoolean().value(), isInferred);
+                    else if (attrType.isDouble()) return attrType.asDouble().put(value.asDouble().value(), isInferred);
+                    else if (attrType.isLong()) return attrType.asLong().put(value.asLong().value(), isInferred);
+                    else if (attrType.isString()) return attrType.asString().put(value.asString().value(), isInferred);
                     else throw TypeDBException.of(ILLEGAL_STATE);
                 }
 
@@ -812,6 +845,23 @@ public class Rule {
                     return Iterators.single(thenConcepts);
                 }
 
+                @Override
+                public Optional<Map<Identifier.Variable, Concept>> insert(ConceptMap whenConcepts, TraversalEngine traversalEng,
+                                                                          ConceptManager conceptMgr) {
+                    Identifier.Variable.Retrievable ownerId = has().owner().id();
+                    assert whenConcepts.contains(ownerId) && whenConcepts.get(ownerId).isThing();
+                    Thing owner = whenConcepts.get(ownerId).asThing();
+                    assert whenConcepts.contains(has().attribute().id())
+                            && whenConcepts.get(has().attribute().id()).isAttribute();
+                    Attribute attribute = whenConcepts.get(has().attribute().id()).asAttribute();
+                    if (owner.getHas(attribute.getType()).anyMatch(attribute::equals)) return Optional.empty();
+                    owner.setHas(attribute, false);
+                    Map<Identifier.Variable, Concept> thenConcepts = new HashMap<>();
+                    thenConcepts.put(has().attribute().id(), attribute);
+                    thenConcepts.put(has().owner().id(), owner);
+                    return Optional.of(thenConcepts);
+                }
+
                 @Override
                 public Optional<ThingVariable> generating() {
                     return Optional.empty();
@@ -49,6 +49,7 @@ import com.vaticle.typeql.lang.common.TypeQLToken;
 import com.vaticle.typeql.lang.pattern.variable.Reference;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -109,7 +110,9 @@ public abstract class Concludable extends Resolvable<Conjunction> {
     public FunctionalIterator<Rule> getApplicableRules(ConceptManager conceptMgr, LogicManager logicMgr) {
         if (applicableRules == null) {
             synchronized (this) {
-                if (applicableRules == null) applicableRules = applicableRules(conceptMgr, logicMgr);
+                if (applicableRules == null) {
+                    applicableRules = logicMgr.applicableRules(unifierKey(), k -> applicableRules(conceptMgr, logicMgr));
+                }
             }
         }
         // This gives a deterministic ordering to the applicable rules, which is important for testing.
@@ -117,6 +120,20 @@ public abstract class Concludable extends Resolvable<Conjunction> {
                                          .collect(Collectors.toList()));
     }
 
+    /**
+     * The unifiers of a concludable with the rule conclusions depend only on its constraints, its variable
+     * identifiers, and the types resolved for its variables, so concludables that agree on all of these share them.
+     */
+    private String unifierKey() {
+        List<String> key = new ArrayList<>();
+        for (Variable variable : pattern().variables()) {
+            key.add(variable.id() + variable.resolvedTypes().stream().map(Label::scopedName).sorted().collect(Collectors.toList()).toString());
+            variable.constraints().forEach(constraint -> key.add(constraint.toString()));
+        }
+        Collections.sort(key);
+        return getClass().getSimpleName() + key;
+    }
+
     abstract Map<Rule, Set<Unifier>> applicableRules(ConceptManager conceptMgr, LogicManager logicMgr);
 
     abstract FunctionalIterator<Unifier> unify(Rule.Conclusion conclusion, ConceptManager conceptMgr);
@@ -37,6 +37,7 @@ import com.vaticle.typeql.lang.pattern.Conjunctable;
 import com.vaticle.typeql.lang.pattern.variable.BoundVariable;
 
 import javax.annotation.Nullable;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -53,6 +54,7 @@ import java.util.stream.Collectors;
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
 import static com.vaticle.typedb.common.collection.Collections.set;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.INVALID_BOUND_VALUE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.UNBOUNDED_NEGATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingRead.CONTRADICTORY_BOUND_VARIABLE;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
@@ -61,6 +63,7 @@ import static com.vaticle.typeql.lang.common.TypeQLToken.Char.CURLY_OPEN;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.NEW_LINE;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.SEMICOLON;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.SPACE;
+import static com.vaticle.typeql.lang.common.TypeQLToken.Predicate.Equality.EQ;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.stream.Collectors.toSet;
@@ -71,16 +74,22 @@ public class Conjunction implements Pattern, Cloneable {
     private final Map<Identifier.Variable, Variable> variableMap;
     private final Set<Variable> variableSet;
     private final Set<Negation> negations;
+    private final Map<Retrievable, Object> values;
     private final int hash;
 
     private boolean isCoherent;
     private boolean isBounded;
 
     public Conjunction(Set<Variable> variables, Set<Negation> negations) {
+        this(variables, negations, Collections.emptyMap());
+    }
+
+    private Conjunction(Set<Variable> variables, Set<Negation> negations, Map<Retrievable, Object> values) {
         this.variableSet = unmodifiableSet(variables);
         this.variableMap = parseToMap(variables);
         this.negations = unmodifiableSet(negations);
-        this.hash = Objects.hash(variables, negations);
+        this.values = unmodifiableMap(values);
+        this.hash = Objects.hash(variables, negations, values);
         this.isCoherent = true;
         this.isBounded = false;
     }
@@ -141,6 +150,66 @@ public class Conjunction implements Pattern, Cloneable {
         isBounded = true;
     }
 
+    /**
+     * Constrains each of the given attribute variables to be equal to a value, as if the value had been written in the
+     * query, so that a query that is parsed once can be answered for many values.
+     */
+    public void boundValues(Map<Retrievable, Object> values) {
+        variableSet.forEach(var -> {
+            if (var.id().isRetrievable() && values.containsKey(var.id().asRetrievable())) {
+                Object value = values.get(var.id().asRetrievable());
+                if (!var.isThing()) throw TypeDBException.of(INVALID_BOUND_VALUE, var.reference(), value);
+                ThingVariable thing = var.asThing();
+                if (value instanceof Boolean) thing.valueBoolean(EQ, (Boolean) value);
+                else if (value instanceof Long || value instanceof Integer) thing.valueLong(EQ, ((Number) value).longValue());
+                else if (value instanceof Double || value instanceof Float) thing.valueDouble(EQ, ((Number) value).doubleValue());
+                else if (value instanceof String) thing.valueString(EQ, (String) value);
+                else if (value instanceof LocalDateTime) thing.valueDateTime(EQ, (LocalDateTime) value);
+                else throw TypeDBException.of(INVALID_BOUND_VALUE, var.reference(), value);
+            }
+        });
+        negations.forEach(negation -> negation.disjunction().conjunctions().forEach(conj -> conj.boundValues(values)));
+    }
+
+    /**
+     * @return a copy of this conjunction, sharing its type-resolved variables, whose traversals bind each of the given
+     * attribute variables to a value as a traversal parameter, so that a pattern that is resolved once can be answered
+     * for many values without changing it
+     */
+    public Conjunction bindValues(Map<Retrievable, Object> values) {
+        Map<Retrievable, Object> bound = new HashMap<>();
+        variableSet.forEach(var -> {
+            if (var.id().isRetrievable() && values.containsKey(var.id().asRetrievable())) {
+                Object value = values.get(var.id().asRetrievable());
+                if (!var.isThing() || !isBindable(value)) {
+                    throw TypeDBException.of(INVALID_BOUND_VALUE, var.reference(), value);
+                }
+                bound.put(var.id().asRetrievable(), value);
+            }
+        });
+        Conjunction conjunction = new Conjunction(
+                variableSet, iterate(negations).map(n -> new Negation(n.disjunction().bindValues(values))).toSet(), bound
+        );
+        conjunction.isCoherent = isCoherent;
+        conjunction.isBounded = isBounded;
+        return conjunction;
+    }
+
+    private static boolean isBindable(Object value) {
+        return value instanceof Boolean || value instanceof Long || value instanceof Integer ||
+                value instanceof Double || value instanceof Float || value instanceof String ||
+                value instanceof LocalDateTime;
+    }
+
+    private static void bindValue(Traversal traversal, Retrievable id, Object value) {
+        if (value instanceof Boolean) traversal.predicate(id, EQ, (Boolean) value);
+        else if (value instanceof Long || value instanceof Integer) traversal.predicate(id, EQ, ((Number) value).longValue());
+        else if (value instanceof Double || value instanceof Float) traversal.predicate(id, EQ, ((Number) value).doubleValue());
+        else if (value instanceof String) traversal.predicate(id, EQ, (String) value);
+        else if (value instanceof LocalDateTime) traversal.predicate(id, EQ, (LocalDateTime) value);
+        else throw TypeDBException.of(ILLEGAL_STATE);
+    }
+
     public Variable variable(Identifier.Variable identifier) {
         return variableMap.get(identifier);
     }
@@ -160,6 +229,7 @@ public class Conjunction implements Pattern, Cloneable {
     public Traversal traversal(Set<? extends Retrievable> filter) {
         Traversal traversal = new Traversal();
         variableSet.forEach(variable -> variable.addTo(traversal));
+        values.forEach((id, value) -> bindValue(traversal, id, value));
         assert iterate(filter).allMatch(variableMap::containsKey);
         traversal.filter(filter);
         return traversal;
@@ -184,7 +254,7 @@ public class Conjunction implements Pattern, Cloneable {
     @Override
     public Conjunction clone() {
         return new Conjunction(VariableCloner.cloneFromConjunction(this).variables(),
-                               iterate(this.negations).map(Negation::clone).toSet());
+                               iterate(this.negations).map(Negation::clone).toSet(), values);
     }
 
     @Override
@@ -209,7 +279,8 @@ public class Conjunction implements Pattern, Cloneable {
         Conjunction that = (Conjunction) obj;
         // TODO: This doesn't work! It doesn't compare constraints
         return (this.variableSet.equals(that.variables()) &&
-                this.negations.equals(that.negations()));
+                this.negations.equals(that.negations()) &&
+                this.values.equals(that.values));
     }
 
     @Override
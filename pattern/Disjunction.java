@@ -20,10 +20,12 @@ package com.vaticle.typedb.core.pattern;
 
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.ThreadTrace;
 import com.vaticle.typedb.core.pattern.variable.VariableRegistry;
+import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typeql.lang.pattern.Conjunctable;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
@@ -65,6 +67,14 @@ public class Disjunction implements Pattern, Cloneable {
         return conjunctions;
     }
 
+    /**
+     * @return a copy of this disjunction whose conjunctions bind the given attribute variables to values, wherever
+     * they are used
+     */
+    public Disjunction bindValues(Map<Identifier.Variable.Retrievable, Object> values) {
+        return new Disjunction(iterate(conjunctions).map(conjunction -> conjunction.bindValues(values)).toList());
+    }
+
     public boolean isCoherent() {
         return iterate(conjunctions).allMatch(Conjunction::isCoherent);
     }
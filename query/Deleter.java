@@ -23,22 +23,32 @@ import com.vaticle.typedb.core.common.exception.ErrorMessage;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concept.thing.Attribute;
 import com.vaticle.typedb.core.concept.thing.Relation;
 import com.vaticle.typedb.core.concept.thing.Thing;
 import com.vaticle.typedb.core.concept.type.RoleType;
 import com.vaticle.typedb.core.concept.type.ThingType;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.pattern.constraint.thing.HasConstraint;
+import com.vaticle.typedb.core.pattern.constraint.thing.IsaConstraint;
+import com.vaticle.typedb.core.pattern.constraint.type.LabelConstraint;
 import com.vaticle.typedb.core.pattern.variable.ThingVariable;
+import com.vaticle.typedb.core.pattern.variable.TypeVariable;
+import com.vaticle.typedb.core.pattern.variable.Variable;
 import com.vaticle.typedb.core.pattern.variable.VariableRegistry;
 import com.vaticle.typedb.core.reasoner.Reasoner;
 import com.vaticle.typeql.lang.pattern.variable.Reference;
 import com.vaticle.typeql.lang.query.TypeQLDelete;
+import com.vaticle.typeql.lang.query.TypeQLMatch;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
@@ -59,18 +69,24 @@ public class Deleter {
 
     private static final String TRACE_PREFIX = "deleter.";
 
+    private final ConceptManager conceptMgr;
     private final Matcher matcher;
     private final Set<ThingVariable> variables;
+    private final Label deletedType;
     private final Context.Query context;
 
-    public Deleter(Matcher matcher, Set<ThingVariable> variables, Context.Query context) {
+    public Deleter(ConceptManager conceptMgr, Matcher matcher, Set<ThingVariable> variables,
+                   @Nullable Label deletedType, Context.Query context) {
+        this.conceptMgr = conceptMgr;
         this.matcher = matcher;
         this.variables = variables;
+        this.deletedType = deletedType;
         this.context = context;
         this.context.producer(Either.first(EXHAUSTIVE));
     }
 
-    public static Deleter create(Reasoner reasoner, TypeQLDelete query, Context.Query context) {
+    public static Deleter create(Reasoner reasoner, ConceptManager conceptMgr, TypeQLDelete query,
+                                 Context.Query context) {
         try (FactoryTracingThreadStatic.ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "create")) {
             VariableRegistry registry = VariableRegistry.createFromThings(query.variables(), false);
             iterate(registry.types()).filter(t -> !t.reference().isLabel()).forEachRemaining(t -> {
@@ -79,14 +95,52 @@ public class Deleter {
 
             assert query.match().namedVariablesUnbound().containsAll(query.namedVariablesUnbound());
             Matcher matcher = Matcher.create(reasoner, query.match().get(query.namedVariablesUnbound()));
-            return new Deleter(matcher, registry.things(), context);
+            Label deletedType = deletesAllInstances(query.match(), registry.things()).orElse(null);
+            return new Deleter(conceptMgr, matcher, registry.things(), deletedType, context);
         }
     }
 
+    /**
+     * Find the type whose instances are all deleted by a query of the form
+     * {@code match $x isa T; delete $x isa T;}, where nothing else is matched or deleted,
+     * so that they can be deleted through range deletions rather than one at a time.
+     */
+    private static Optional<Label> deletesAllInstances(TypeQLMatch match, Set<ThingVariable> deleted) {
+        if (deleted.size() != 1 || match.modifiers().limit().isPresent() || match.modifiers().offset().isPresent()) {
+            return Optional.empty();
+        }
+        ThingVariable deletedVar = deleted.iterator().next();
+        Optional<Label> label = isaLabelOnly(deletedVar);
+        if (!label.isPresent()) return Optional.empty();
+
+        Disjunction disjunction = Disjunction.create(match.conjunction().normalise());
+        if (disjunction.conjunctions().size() != 1) return Optional.empty();
+        Conjunction conjunction = disjunction.conjunctions().get(0);
+        if (!conjunction.negations().isEmpty() || conjunction.variables().size() != 2) return Optional.empty();
+        List<ThingVariable> things = iterate(conjunction.variables()).filter(Variable::isThing)
+                .map(Variable::asThing).toList();
+        if (things.size() != 1 || !things.get(0).reference().equals(deletedVar.reference())) return Optional.empty();
+        else if (!isaLabelOnly(things.get(0)).equals(label)) return Optional.empty();
+        else return label;
+    }
+
+    private static Optional<Label> isaLabelOnly(ThingVariable var) {
+        if (var.constraints().size() != 1 || !var.isa().isPresent()) return Optional.empty();
+        IsaConstraint isa = var.isa().get();
+        TypeVariable type = isa.type();
+        if (isa.isExplicit() || type.constraints().size() != 1) return Optional.empty();
+        return type.label().map(LabelConstraint::properLabel);
+    }
+
     public void execute() {
         try (FactoryTracingThreadStatic.ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "execute")) {
-            List<ConceptMap> matches = matcher.execute(context).toList();
-            matches.forEach(matched -> new Operation(matched, variables).execute());
+            ThingType type = deletedType != null ? conceptMgr.getThingType(deletedType.name()) : null;
+            if (type != null) {
+                type.deleteInstances();
+            } else {
+                List<ConceptMap> matches = matcher.execute(context).toList();
+                matches.forEach(matched -> new Operation(matched, variables).execute());
+            }
         }
     }
 
@@ -30,20 +30,27 @@ import com.vaticle.typedb.core.concept.answer.NumericGroup;
 import com.vaticle.typedb.core.concept.thing.Attribute;
 import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.reasoner.Reasoner;
+import com.vaticle.typedb.core.reasoner.ReasonerCache;
+import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typeql.lang.common.TypeQLArg;
 import com.vaticle.typeql.lang.common.TypeQLToken;
+import com.vaticle.typeql.lang.pattern.Conjunctable;
 import com.vaticle.typeql.lang.pattern.variable.Reference;
 import com.vaticle.typeql.lang.pattern.variable.UnboundVariable;
 import com.vaticle.typeql.lang.query.TypeQLMatch;
 import com.vaticle.typeql.lang.query.builder.Sortable;
 
 import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -55,6 +62,7 @@ import static com.vaticle.typedb.common.collection.Collections.set;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.UNRECOGNISED_BOUND_VALUE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingRead.AGGREGATE_ATTRIBUTE_NOT_NUMBER;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingRead.INVALID_THING_CASTING;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingRead.SORT_ATTRIBUTE_NOT_COMPARABLE;
@@ -71,6 +79,7 @@ public class Matcher {
     private final Reasoner reasoner;
     private final TypeQLMatch query;
     private final Disjunction disjunction;
+    private final boolean isResolved;
     private final Context.Query context;
 
     public Matcher(Reasoner reasoner, TypeQLMatch query) {
@@ -78,9 +87,15 @@ public class Matcher {
     }
 
     public Matcher(Reasoner reasoner, TypeQLMatch query, @Nullable Context.Query context) {
+        this(reasoner, query, Disjunction.create(query.conjunction().normalise()), false, context);
+    }
+
+    private Matcher(Reasoner reasoner, TypeQLMatch query, Disjunction disjunction, boolean isResolved,
+                    @Nullable Context.Query context) {
         this.reasoner = reasoner;
         this.query = query;
-        this.disjunction = Disjunction.create(query.conjunction().normalise());
+        this.disjunction = disjunction;
+        this.isResolved = isResolved;
         this.context = context;
         if (context != null) {
             Either<Arguments.Query.Producer, Long> prodCtx;
@@ -100,6 +115,11 @@ public class Matcher {
         return new Matcher(reasoner, query, context);
     }
 
+    public static Matcher create(Reasoner reasoner, Prepared prepared, Map<String, ?> values,
+                                 Context.Query context) {
+        return prepared.matcher(reasoner, values, context);
+    }
+
     public static Matcher.Aggregator create(Reasoner reasoner, TypeQLMatch.Aggregate query, Context.Query context) {
         Matcher matcher = new Matcher(reasoner, query.match());
         return new Aggregator(matcher, query, context);
@@ -116,13 +136,96 @@ public class Matcher {
         return new Group.Aggregator(group, query);
     }
 
+    /**
+     * @return the disjunction answered by this matcher, which has been type-resolved once it has been executed
+     */
+    Disjunction disjunction() {
+        return disjunction;
+    }
+
     public FunctionalIterator<ConceptMap> execute() {
         assert context != null;
         return execute(context);
     }
 
+    /**
+     * A match query that is prepared once in a session, and answered many times in its transactions for different
+     * values of its placeholders. A placeholder is a named attribute variable that is bound to a value for each
+     * execution, such as {@code $name} in {@code match $p isa person, has name $name;}.
+     *
+     * The query is parsed, normalised and type-resolved once, and its values are bound as traversal parameters, so
+     * every execution builds the same traversal structures and reuses their plans. The resolved pattern is kept for as
+     * long as the reasoner cache it was resolved with, which a schema commit replaces, so the first execution after a
+     * schema commit resolves it again. A query that may reason is answered from its constraints alone, so its values
+     * are written into a fresh copy of the pattern instead, which is resolved for every execution.
+     */
+    public static class Prepared {
+
+        private final UUID session;
+        private final TypeQLMatch query;
+        private final com.vaticle.typeql.lang.pattern.Disjunction<com.vaticle.typeql.lang.pattern.Conjunction<Conjunctable>> normalised;
+        private Disjunction resolved;
+        private WeakReference<ReasonerCache> resolvedWith;
+
+        private Prepared(UUID session, TypeQLMatch query) {
+            this.session = session;
+            this.query = query;
+            this.normalised = query.conjunction().normalise();
+            this.resolvedWith = new WeakReference<>(null);
+        }
+
+        public static Prepared of(UUID session, TypeQLMatch query) {
+            return new Prepared(session, query);
+        }
+
+        public UUID session() {
+            return session;
+        }
+
+        public TypeQLMatch query() {
+            return query;
+        }
+
+        private synchronized Disjunction resolved(Reasoner reasoner) {
+            if (resolvedWith.get() != reasoner.cache()) {
+                Disjunction disjunction = Disjunction.create(normalised);
+                reasoner.resolveTypes(disjunction);
+                resolved = disjunction;
+                resolvedWith = new WeakReference<>(reasoner.cache());
+            }
+            return resolved;
+        }
+
+        private Matcher matcher(Reasoner reasoner, Map<String, ?> values, Context.Query context) {
+            Disjunction resolved = resolved(reasoner);
+            Map<Identifier.Variable.Retrievable, Object> bounds = bounds(resolved, values);
+            if (reasoner.mayReason(resolved, context)) {
+                Disjunction disjunction = Disjunction.create(normalised);
+                disjunction.conjunctions().forEach(conj -> conj.boundValues(bounds));
+                return new Matcher(reasoner, query, disjunction, false, context);
+            } else {
+                return new Matcher(reasoner, query, resolved.bindValues(bounds), true, context);
+            }
+        }
+
+        private static Map<Identifier.Variable.Retrievable, Object> bounds(Disjunction disjunction,
+                                                                           Map<String, ?> values) {
+            Map<Identifier.Variable.Retrievable, Object> bounds = new HashMap<>();
+            values.forEach((name, value) -> {
+                Identifier.Variable.Name id = Identifier.Variable.of(Reference.name(name));
+                if (iterate(disjunction.conjunctions()).noneMatch(conj -> conj.identifiers().contains(id))) {
+                    throw TypeDBException.of(UNRECOGNISED_BOUND_VALUE, id);
+                }
+                bounds.put(id, value);
+            });
+            return bounds;
+        }
+    }
+
     FunctionalIterator<ConceptMap> execute(Context.Query context) {
-        FunctionalIterator<ConceptMap> answers = reasoner.execute(disjunction, query.modifiers(), context);
+        FunctionalIterator<ConceptMap> answers = isResolved
+                ? reasoner.executeResolved(disjunction, query.modifiers(), context)
+                : reasoner.execute(disjunction, query.modifiers(), context);
         // TODO: we should remove these and handle them in the traversal engine or reasoner ONLY. Currently in reasoner already
         if (query.modifiers().sort().isPresent()) answers = sort(answers, query.modifiers().sort().get());
         if (query.modifiers().offset().isPresent()) answers = answers.offset(query.modifiers().offset().get());
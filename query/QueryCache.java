@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.query;
+
+import com.vaticle.typedb.common.collection.ConcurrentSet;
+import com.vaticle.typedb.core.common.cache.CommonCache;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+
+/**
+ * Holds the answers of read queries across transactions, in the serialised form in which they
+ * were first streamed, for as long as the data they were read from does not change. A query
+ * answered from the cache is neither traversed nor built into a response again.
+ *
+ * Tables are keyed by the normalised query and the options that change its answers, and are
+ * invalidated by commits in the same way as the tables of the ReasonerCache: a commit drops the
+ * tables that depend on the types it writes to before its writes become visible, and a table is
+ * only served to a transaction if none of the types it depends on were written to between the
+ * snapshot it was computed at and the snapshot of the transaction. The cache is bounded by the
+ * total size of the answers it holds, and evicts the least recently used tables first.
+ */
+public class QueryCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryCache.class);
+    private static final int TABLE_FRACTION = 8;
+    private static final int ANSWER_OVERHEAD = 16;
+
+    private final long capacity;
+    private final CommonCache<String, Table> tables;
+    private final ConcurrentMap<Label, Long> lastModified;
+    private final ConcurrentMap<Label, Integer> committing;
+    private final ConcurrentMap<Label, ConcurrentSet<String>> dependents;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public QueryCache(long capacity) {
+        this.capacity = capacity;
+        this.tables = new CommonCache<>(Math.max(capacity, 0L), (query, table) -> table.size, this::evicted);
+        this.lastModified = new ConcurrentHashMap<>();
+        this.committing = new ConcurrentHashMap<>();
+        this.dependents = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong(0);
+        this.misses = new AtomicLong(0);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    Optional<List<byte[]>> get(String query, long snapshot) {
+        assert isEnabled();
+        Table table = tables.getIfPresent(query);
+        if (table == null || !table.isValidAt(snapshot)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(table.answers);
+    }
+
+    Recorder recorder(String query, Set<Label> dependencies, long snapshot) {
+        assert isEnabled();
+        return new Recorder(query, dependencies, snapshot);
+    }
+
+    /**
+     * Drops the answer tables that depend on the types a commit is about to write to, before
+     * its writes become visible. Until the commit calls {@link #committed}, no table that
+     * depends on these types is served or stored.
+     *
+     * @param modifiedTypes the types the commit writes to
+     */
+    public void invalidate(Set<Label> modifiedTypes) {
+        if (!isEnabled()) return;
+        for (Label type : modifiedTypes) {
+            committing.merge(type, 1, Integer::sum);
+            ConcurrentSet<String> queries = dependents.remove(type);
+            if (queries != null) queries.forEach(tables::invalidate);
+        }
+    }
+
+    /**
+     * Records the end of a commit that was given to {@link #invalidate}.
+     *
+     * @param modifiedTypes the types the commit wrote to
+     * @param snapshot the sequence number the commit was written at, or null if it failed
+     */
+    public void committed(Set<Label> modifiedTypes, @Nullable Long snapshot) {
+        if (!isEnabled()) return;
+        for (Label type : modifiedTypes) {
+            if (snapshot != null) lastModified.merge(type, snapshot, Math::max);
+            committing.computeIfPresent(type, (t, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void evicted(String query, Table table) {
+        table.dependencies.forEach(type -> dependents.computeIfPresent(type, (t, queries) -> {
+            queries.remove(query);
+            return queries.isEmpty() ? null : queries;
+        }));
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public double hitRate() {
+        long hits = this.hits.get(), requests = hits + misses.get();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    /**
+     * @return the number of bytes taken up by the answers of the tables held by the cache
+     */
+    public long memoryUsage() {
+        return tables.weight();
+    }
+
+    public long size() {
+        return tables.size();
+    }
+
+    private long lastModified(Set<Label> types) {
+        long last = 0L;
+        for (Label type : types) {
+            if (committing.containsKey(type)) return Long.MAX_VALUE;
+            last = Math.max(last, lastModified.getOrDefault(type, 0L));
+        }
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryCache {tables: %d, bytes: %d/%d, hits: %d, misses: %d, hit rate: %.3f}",
+                size(), memoryUsage(), capacity, hits(), misses(), hitRate());
+    }
+
+    private class Table {
+
+        private final Set<Label> dependencies;
+        private final long snapshot;
+        private final List<byte[]> answers;
+        private final int size;
+
+        private Table(Set<Label> dependencies, long snapshot, List<byte[]> answers, int size) {
+            this.dependencies = dependencies;
+            this.snapshot = snapshot;
+            this.answers = answers;
+            this.size = size;
+        }
+
+        private boolean isValidAt(long snapshot) {
+            return lastModified(dependencies) <= Math.min(this.snapshot, snapshot);
+        }
+    }
+
+    /**
+     * Records the serialised answers of a single read query as they are streamed, and holds them
+     * once the query has been completely answered, unless they cannot be shared or do not fit.
+     */
+    public class Recorder {
+
+        private final String query;
+        private final Set<Label> dependencies;
+        private final long snapshot;
+        private List<byte[]> answers;
+        private long size;
+
+        private Recorder(String query, Set<Label> dependencies, long snapshot) {
+            this.query = query;
+            this.dependencies = dependencies;
+            this.snapshot = snapshot;
+            this.answers = new ArrayList<>();
+            this.size = query.length();
+        }
+
+        public void record(ConceptMap answer, byte[] serialised) {
+            if (answers == null) return;
+            size += serialised.length + ANSWER_OVERHEAD;
+            if (size > Math.min(capacity / TABLE_FRACTION, Integer.MAX_VALUE) || iterate(answer.concepts().values())
+                    .anyMatch(concept -> concept.isThing() && concept.asThing().isInferred())) {
+                answers = null;
+            } else {
+                answers.add(serialised);
+            }
+        }
+
+        public void complete() {
+            if (answers == null || lastModified(dependencies) > snapshot) return;
+            tables.put(query, new Table(dependencies, snapshot, answers, (int) size));
+            dependencies.forEach(type -> dependents.computeIfAbsent(type, t -> new ConcurrentSet<>()).add(query));
+            answers = null;
+            if (LOG.isDebugEnabled()) LOG.debug(QueryCache.this.toString());
+        }
+    }
+}
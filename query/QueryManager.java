@@ -19,8 +19,11 @@
 package com.vaticle.typedb.core.query;
 
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.ThreadTrace;
+import com.vaticle.typedb.common.collection.Pair;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
@@ -39,11 +42,19 @@ import com.vaticle.typeql.lang.query.TypeQLUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.PREPARED_QUERY_SESSION_MISMATCH;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.SESSION_DATA_VIOLATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.SESSION_SCHEMA_VIOLATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.TRANSACTION_DATA_READ_VIOLATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.TRANSACTION_SCHEMA_READ_VIOLATION;
+import static java.util.Collections.emptyMap;
 
 public class QueryManager {
 
@@ -54,12 +65,19 @@ public class QueryManager {
     private final LogicManager logicMgr;
     private final Reasoner reasoner;
     private final ConceptManager conceptMgr;
+    private final QueryCache queryCache;
+    private final long snapshot;
+    private final UUID session;
     private final Context.Query defaultContext;
 
-    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction context) {
+    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner,
+                        QueryCache queryCache, long snapshot, UUID session, Context.Transaction context) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
         this.reasoner = reasoner;
+        this.queryCache = queryCache;
+        this.snapshot = snapshot;
+        this.session = session;
         this.defaultContext = new Context.Query(context, new Options.Query());
     }
 
@@ -75,8 +93,97 @@ public class QueryManager {
         }
     }
 
+    public Optional<List<byte[]>> cached(TypeQLMatch query) {
+        return cached(query, defaultContext);
+    }
+
+    /**
+     * @return the serialised answers to the given query, as they were streamed by an earlier transaction,
+     * if they are held by the query cache and still hold at the snapshot of this transaction
+     */
+    public Optional<List<byte[]>> cached(TypeQLMatch query, Context.Query context) {
+        if (!mayCache(context)) return Optional.empty();
+        return queryCache.get(cacheKey(query, context), snapshot);
+    }
+
+    public Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> matchRecorded(TypeQLMatch query) {
+        return matchRecorded(query, defaultContext);
+    }
+
+    /**
+     * Answers the given query as {@link #match} does, together with a recorder of its serialised answers, which
+     * holds them in the query cache once all of them have been streamed, if the query may be cached. The recorder
+     * depends on the types that the query was resolved to in order to answer it.
+     */
+    public Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> matchRecorded(TypeQLMatch query,
+                                                                                            Context.Query context) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_recorded")) {
+            return recorded(Matcher.create(reasoner, query, context), query, context);
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    /**
+     * Answers the given prepared query, without any bound values, as {@link #matchRecorded(TypeQLMatch, Context.Query)}
+     * answers the query it was prepared from.
+     */
+    public Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> matchRecorded(Matcher.Prepared query,
+                                                                                            Context.Query context) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_prepared_recorded")) {
+            if (!query.session().equals(session)) throw TypeDBException.of(PREPARED_QUERY_SESSION_MISMATCH);
+            return recorded(Matcher.create(reasoner, query, emptyMap(), context), query.query(), context);
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    private Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> recorded(Matcher matcher,
+                                                                                        TypeQLMatch query,
+                                                                                        Context.Query context) {
+        FunctionalIterator<ConceptMap> answers = matcher.execute().onError(conceptMgr::exception);
+        if (!mayCache(context)) return new Pair<>(answers, Optional.empty());
+        Set<Label> dependencies = reasoner.dependencies(matcher.disjunction());
+        return new Pair<>(answers, Optional.of(queryCache.recorder(cacheKey(query, context), dependencies, snapshot)));
+    }
+
+    private boolean mayCache(Context.Query context) {
+        return queryCache.isEnabled() && context.transactionType().isRead() &&
+                !context.options().explain() && !context.options().traceInference();
+    }
+
+    private static String cacheKey(TypeQLMatch query, Context.Query context) {
+        return (context.options().infer() ? "infer " : "") + query;
+    }
+
+    public Matcher.Prepared prepare(TypeQLMatch query) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "prepare")) {
+            return Matcher.Prepared.of(session, query);
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    public FunctionalIterator<ConceptMap> match(Matcher.Prepared query, Map<String, ?> values) {
+        return match(query, values, defaultContext);
+    }
+
+    public FunctionalIterator<ConceptMap> match(Matcher.Prepared query, Map<String, ?> values,
+                                                Context.Query context) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_prepared")) {
+            if (!query.session().equals(session)) throw TypeDBException.of(PREPARED_QUERY_SESSION_MISMATCH);
+            return Matcher.create(reasoner, query, values, context).execute().onError(conceptMgr::exception);
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
     public FunctionalIterator<Explanation> explain(long explainableId) {
-        return reasoner.explain(explainableId, defaultContext);
+        return explain(explainableId, defaultContext);
+    }
+
+    public FunctionalIterator<Explanation> explain(long explainableId, Context.Query context) {
+        return reasoner.explain(explainableId, context);
     }
 
     public Numeric match(TypeQLMatch.Aggregate query) {
@@ -137,7 +244,7 @@ public class QueryManager {
         if (context.sessionType().isSchema()) throw conceptMgr.exception(SESSION_SCHEMA_VIOLATION);
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "delete")) {
-            Deleter.create(reasoner, query, context).execute();
+            Deleter.create(reasoner, conceptMgr, query, context).execute();
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -17,6 +17,7 @@
 
 package com.vaticle.typedb.core.reasoner;
 
+import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concurrent.actor.Actor;
@@ -29,7 +30,6 @@ import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Top.Explai
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerStateImpl;
 import com.vaticle.typedb.core.reasoner.resolution.answer.Explanation;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
-import com.vaticle.typedb.core.reasoner.resolution.framework.ResolutionTracer;
 import com.vaticle.typedb.core.reasoner.resolution.resolver.RootResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +42,9 @@ public class ExplanationProducer implements Producer<Explanation> {
     private static final Logger LOG = LoggerFactory.getLogger(ExplanationProducer.class);
 
     private final ExplainablesManager explainablesManager;
+    private final Context.Query context;
     private final Options.Query options;
+    private final ResolverRegistry registry;
     private final Actor.Driver<RootResolver.Explain> explainer;
     private final Request explainRequest;
     private final int computeSize;
@@ -54,10 +56,11 @@ public class ExplanationProducer implements Producer<Explanation> {
 
     private Queue<Explanation> queue;
 
-    public ExplanationProducer(Conjunction conjunction, ConceptMap bounds, Options.Query options,
+    public ExplanationProducer(Conjunction conjunction, ConceptMap bounds, Context.Query context,
                                ResolverRegistry registry, ExplainablesManager explainablesManager) {
         this.explainablesManager = explainablesManager;
-        this.options = options;
+        this.context = context;
+        this.options = context.options();
         this.queue = null;
         this.iteration = 0;
         this.requiresReiteration = false;
@@ -65,10 +68,11 @@ public class ExplanationProducer implements Producer<Explanation> {
         this.required = new AtomicInteger();
         this.processing = new AtomicInteger();
         this.computeSize = options.parallel() ? Executors.PARALLELISATION_FACTOR : 1;
+        this.registry = registry;
         this.explainer = registry.explainer(conjunction, this::requestAnswered, this::requestFailed, this::exception);
         Root.Explain downstream = new AnswerStateImpl.TopImpl.ExplainImpl.InitialImpl(bounds, explainer, false).toDownstream();
         this.explainRequest = Request.create(explainer, downstream);
-        if (options.traceInference()) ResolutionTracer.initialise(options.logsDir());
+        if (options.traceInference()) registry.profiler().start(explainer);
     }
 
     @Override
@@ -85,13 +89,11 @@ public class ExplanationProducer implements Producer<Explanation> {
     }
 
     private void requestExplanation() {
-        if (options.traceInference()) ResolutionTracer.get().start();
         explainer.execute(explainer -> explainer.receiveRequest(explainRequest, iteration));
     }
 
     // note: root resolver calls this single-threaded, so is threads safe
     private void requestAnswered(Explain.Finished explainedAnswer) {
-        if (options.traceInference()) ResolutionTracer.get().finish();
         if (explainedAnswer.requiresReiteration()) requiresReiteration = true;
         Explanation explanation = explainedAnswer.explanation();
         explainablesManager.setAndRecordExplainables(explanation.conditionAnswer());
@@ -103,10 +105,10 @@ public class ExplanationProducer implements Producer<Explanation> {
     // note: root resolver calls this single-threaded, so is threads safe
     private void requestFailed(int iteration) {
         LOG.trace("Failed to find answer to request in iteration: " + iteration);
-        if (options.traceInference()) ResolutionTracer.get().finish();
         if (!done && iteration == this.iteration && !mustReiterate()) {
             // query is completely terminated
             done = true;
+            finishProfile();
             queue.done();
             required.set(0);
             return;
@@ -119,6 +121,14 @@ public class ExplanationProducer implements Producer<Explanation> {
         }
     }
 
+    private void finishProfile() {
+        if (options.traceInference()) {
+            String profile = registry.profiler().finish(explainer).toString();
+            context.profile(profile);
+            LOG.info("Resolution profile of {}:\n{}", explainer.name(), profile);
+        }
+    }
+
     private boolean mustReiterate() {
         return requiresReiteration;
     }
@@ -133,9 +143,9 @@ public class ExplanationProducer implements Producer<Explanation> {
     }
 
     private void exception(Throwable e) {
-        if (options.traceInference()) ResolutionTracer.get().finish();
         if (!done) {
             done = true;
+            finishProfile();
             required.set(0);
             queue.done(e);
         }
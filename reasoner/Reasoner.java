@@ -25,17 +25,24 @@ import com.vaticle.typedb.core.common.iterator.Iterators;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Label;
-import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.answer.ConceptMapCodec;
 import com.vaticle.typedb.core.concept.thing.Thing;
 import com.vaticle.typedb.core.concept.type.Type;
+import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
 import com.vaticle.typedb.core.concurrent.producer.Producer;
 import com.vaticle.typedb.core.concurrent.producer.Producers;
+import com.vaticle.typedb.core.graph.ThingGraph;
+import com.vaticle.typedb.core.graph.iid.VertexIID;
 import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.logic.Rule;
 import com.vaticle.typedb.core.pattern.Conjunction;
 import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.pattern.Negation;
+import com.vaticle.typedb.core.pattern.constraint.thing.HasConstraint;
+import com.vaticle.typedb.core.pattern.constraint.thing.ValueConstraint;
+import com.vaticle.typedb.core.pattern.variable.ThingVariable;
 import com.vaticle.typedb.core.pattern.variable.Variable;
 import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
 import com.vaticle.typedb.core.reasoner.resolution.answer.Explanation;
@@ -46,15 +53,20 @@ import com.vaticle.typeql.lang.query.TypeQLMatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.set;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.UNSATISFIABLE_PATTERN;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
-import static com.vaticle.typedb.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
+import static com.vaticle.typedb.core.common.iterator.Iterators.link;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.PARALLELISATION_FACTOR;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.actor;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.async1;
@@ -63,22 +75,27 @@ import static com.vaticle.typedb.core.concurrent.producer.Producers.produce;
 public class Reasoner {
 
     private static final Logger LOG = LoggerFactory.getLogger(Reasoner.class);
+    private static final int MAX_ANTI_JOIN_SIZE = 100_000;
+    private static final long DISTINCT_MEMORY_BUDGET = 64L * 1024 * 1024;
 
     private final TraversalEngine traversalEng;
     private final ConceptManager conceptMgr;
     private final LogicManager logicMgr;
     private final ResolverRegistry resolverRegistry;
     private final ExplainablesManager explainablesManager;
-    private final Context.Query defaultContext;
+    private final ReasonerCache reasonerCache;
+    private final long snapshot;
+    private final Path spillDir;
 
-    public Reasoner(ConceptManager conceptMgr, LogicManager logicMgr,
-                    TraversalEngine traversalEng, Context.Transaction context) {
+    public Reasoner(ConceptManager conceptMgr, LogicManager logicMgr, TraversalEngine traversalEng,
+                    ReasonerCache reasonerCache, long snapshot, Path spillDir, Context.Transaction context) {
         this.conceptMgr = conceptMgr;
         this.traversalEng = traversalEng;
         this.logicMgr = logicMgr;
-        this.defaultContext = new Context.Query(context, new Options.Query());
-        this.defaultContext.producer(Either.first(EXHAUSTIVE));
-        this.resolverRegistry = new ResolverRegistry(actor(), traversalEng, conceptMgr, logicMgr, defaultContext.options().traceInference());
+        this.reasonerCache = reasonerCache;
+        this.snapshot = snapshot;
+        this.spillDir = spillDir;
+        this.resolverRegistry = new ResolverRegistry(actor(), traversalEng, conceptMgr, logicMgr);
         this.explainablesManager = new ExplainablesManager();
     }
 
@@ -86,9 +103,23 @@ public class Reasoner {
         return resolverRegistry;
     }
 
-    private boolean mayReason(Disjunction disjunction, Context.Query context) {
+    /**
+     * @return the cache of reasoning results of this transaction's database, which is replaced when the schema changes
+     * and is not shared by schema transactions, so that results derived from the schema can be kept alongside it
+     */
+    public ReasonerCache cache() {
+        return reasonerCache;
+    }
+
+    public void resolveTypes(Disjunction disjunction) {
+        logicMgr.typeResolver().resolve(disjunction);
+    }
+
+    public boolean mayReason(Disjunction disjunction, Context.Query context) {
         if (!context.options().infer() || context.transactionType().isWrite() || !logicMgr.rules().hasNext()) {
             return false;
+        } else if (context.options().materialiseInference() && logicMgr.materialiser().isCurrent()) {
+            return false;
         }
         return mayReason(disjunction);
     }
@@ -108,8 +139,17 @@ public class Reasoner {
     }
 
     public FunctionalIterator<ConceptMap> execute(Disjunction disjunction, TypeQLMatch.Modifiers modifiers, Context.Query context) {
-        logicMgr.typeResolver().resolve(disjunction);
+        resolveTypes(disjunction);
+        return executeResolved(disjunction, modifiers, context);
+    }
 
+    /**
+     * Answers a disjunction whose types have already been resolved, such as the cached pattern of a prepared query.
+     * The reasoner answers a conjunction from its constraints alone, so a disjunction whose values are bound as
+     * traversal parameters may only be given here if it does not reason.
+     */
+    public FunctionalIterator<ConceptMap> executeResolved(Disjunction disjunction, TypeQLMatch.Modifiers modifiers,
+                                                          Context.Query context) {
         if (!disjunction.isCoherent()) {
             Set<Conjunction> causes = incoherentConjunctions(disjunction);
             throw TypeDBException.of(UNSATISFIABLE_PATTERN, disjunction, causes);
@@ -137,70 +177,219 @@ public class Reasoner {
 
     private FunctionalIterator<ConceptMap> executeReasoner(Disjunction disjunction, TypeQLMatch.Modifiers modifiers,
                                                            Context.Query context) {
+        ReasonerCache.Recorder recorder = null;
+        if (reasonerCache.isEnabled() && !context.options().explain() && !context.options().traceInference()) {
+            String query = disjunction.toString() + modifiers.filter();
+            Optional<List<ConceptMap>> answers = reasonerCache.get(query, snapshot, conceptMgr);
+            if (answers.isPresent()) return iterate(answers.get());
+            recorder = reasonerCache.recorder(query, dependencies(disjunction), snapshot);
+        }
         ReasonerProducer producer = disjunction.conjunctions().size() == 1
-                ? new ReasonerProducer(disjunction.conjunctions().get(0), modifiers, context.options(), resolverRegistry, explainablesManager)
-                : new ReasonerProducer(disjunction, modifiers, context.options(), resolverRegistry, explainablesManager);
+                ? new ReasonerProducer(disjunction.conjunctions().get(0), modifiers, context, resolverRegistry, explainablesManager, recorder)
+                : new ReasonerProducer(disjunction, modifiers, context, resolverRegistry, explainablesManager, recorder);
         return produce(producer, context.producer(), async1());
     }
 
+    /**
+     * @return the types whose instances the answers to the given pattern may depend on, through
+     * the pattern itself, or through the conditions of any rule it may trigger, transitively
+     */
+    public Set<Label> dependencies(Disjunction disjunction) {
+        Set<Label> types = new HashSet<>();
+        Set<Rule> rules = new HashSet<>();
+        Deque<Conjunction> conjunctions = new ArrayDeque<>(disjunction.conjunctions());
+        while (!conjunctions.isEmpty()) {
+            Conjunction conj = conjunctions.pop();
+            iterate(conj.variables()).flatMap(v -> iterate(v.resolvedTypes())).filter(types::add).forEachRemaining(
+                    type -> link(logicMgr.rulesConcluding(type), logicMgr.rulesConcludingHas(type))
+                            .filter(rules::add).forEachRemaining(rule -> conjunctions.add(rule.when()))
+            );
+            conj.negations().forEach(negation -> conjunctions.addAll(negation.disjunction().conjunctions()));
+        }
+        return types;
+    }
+
     private FunctionalIterator<ConceptMap> executeTraversal(Disjunction disjunction, Context.Query context,
                                                             Set<Identifier.Variable.Name> filter) {
+        boolean excludeInferred = excludesInferred(context);
         FunctionalIterator<ConceptMap> answers;
         FunctionalIterator<Conjunction> conjs = iterate(disjunction.conjunctions());
-        if (!context.options().parallel()) answers = conjs.flatMap(conj -> iterator(conj, filter, context));
-        else answers = produce(conjs.map(c -> producer(c, filter, context)).toList(), context.producer(), async1());
-        if (disjunction.conjunctions().size() > 1) answers = answers.distinct();
+        if (!context.options().parallel()) answers = conjs.flatMap(conj -> iterator(conj, filter, excludeInferred));
+        else answers = produce(conjs.map(c -> producer(c, filter, context, excludeInferred)).toList(), context.producer(), async1());
+        if (disjunction.conjunctions().size() > 1) answers = distinct(answers);
+        else if (context.options().parallel() && !isLimited(context) && (excludeInferred ||
+                !disjunction.conjunctions().get(0).negations().isEmpty())) answers = distinct(answers);
         return answers;
     }
 
+    /**
+     * Facts flagged as inferred are only matched by queries that infer, once they are materialised
+     * from the current rules.
+     */
+    private boolean excludesInferred(Context.Query context) {
+        if (context.options().infer() && context.options().materialiseInference() && logicMgr.materialiser().isCurrent()) {
+            return false;
+        }
+        return traversalEng.graph().data().hasInferred();
+    }
+
+    /**
+     * @return true if the answer matches a relation, or an ownership, that is flagged as inferred
+     */
+    private boolean isInferred(Conjunction conjunction, ConceptMap answer) {
+        ThingGraph graph = traversalEng.graph().data();
+        for (Variable var : conjunction.variables()) {
+            if (!var.isThing()) continue;
+            ThingVariable thing = var.asThing();
+            VertexIID.Thing iid = VertexIID.Thing.of(answer.get(thing.id()).asThing().getIID());
+            if (thing.relation().isPresent() && graph.isInferred(iid)) return true;
+            for (HasConstraint has : thing.has()) {
+                VertexIID.Thing attribute = VertexIID.Thing.of(answer.get(has.attribute().id()).asThing().getIID());
+                if (graph.isInferred(iid, attribute)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deduplicates answers on their IID encodings, which are spilled to the database's spill directory
+     * once they exceed a memory budget.
+     */
+    private FunctionalIterator<ConceptMap> distinct(FunctionalIterator<ConceptMap> answers) {
+        ConceptMapCodec codec = new ConceptMapCodec(conceptMgr);
+        return answers.distinct(codec::encode, codec::decode, DISTINCT_MEMORY_BUDGET, spillDir);
+    }
+
     private Producer<ConceptMap> producer(Conjunction conjunction, Set<Identifier.Variable.Name> filter,
-                                          Context.Query context) {
-        if (conjunction.negations().isEmpty()) {
+                                          Context.Query context, boolean excludeInferred) {
+        if (conjunction.negations().isEmpty() && !excludeInferred) {
             return traversalEng.producer(
                     conjunction.traversal(filter), context.producer(), PARALLELISATION_FACTOR
             ).map(conceptMgr::conceptMap);
         } else {
-            return traversalEng.producer(
+            List<AntiJoin> antiJoins = antiJoins(conjunction, excludeInferred);
+            FunctionalProducer<ConceptMap> answers = traversalEng.producer(
                     conjunction.traversal(), context.producer(), PARALLELISATION_FACTOR
-            ).map(conceptMgr::conceptMap).filter(answer -> !iterate(conjunction.negations()).flatMap(
-                    negation -> iterator(negation.disjunction(), answer)
-            ).hasNext()).map(answer -> answer.filter(filter)).distinct();
+            ).map(conceptMgr::conceptMap).filter(answer -> !(excludeInferred && isInferred(conjunction, answer)) &&
+                    iterate(antiJoins).noneMatch(antiJoin -> antiJoin.excludes(answer))
+            ).map(answer -> answer.filter(filter));
+            // the answers of an unlimited producer are deduplicated once they are consumed, where they can be spilled
+            return isLimited(context) ? answers.distinct() : answers;
         }
     }
 
-    private FunctionalIterator<ConceptMap> iterator(Disjunction disjunction, ConceptMap bounds) {
-        return iterate(disjunction.conjunctions()).flatMap(c -> iterator(c, bounds));
+    private static boolean isLimited(Context.Query context) {
+        return context.producer().isSecond();
     }
 
-    private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, ConceptMap bounds) {
-        return iterator(bound(conjunction, bounds), set(), defaultContext);
+    private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, ConceptMap bounds, boolean excludeInferred) {
+        return iterator(bound(conjunction, bounds), set(), excludeInferred);
     }
 
+    /**
+     * Conjunctions with negations, or whose answers must exclude inferred facts, are traversed for all of their
+     * variables, to be checked before they are filtered
+     */
     private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, Set<Identifier.Variable.Name> filter,
-                                                    Context.Query context) {
+                                                    boolean excludeInferred) {
         if (!conjunction.isCoherent()) return Iterators.empty();
-        if (conjunction.negations().isEmpty()) {
+        if (conjunction.negations().isEmpty() && !excludeInferred) {
             return traversalEng.iterator(conjunction.traversal(filter)).map(conceptMgr::conceptMap);
         } else {
-            return traversalEng.iterator(conjunction.traversal()).map(conceptMgr::conceptMap).filter(
-                    ans -> !iterate(conjunction.negations()).flatMap(n -> iterator(n.disjunction(), ans)).hasNext()
-            ).map(conceptMap -> conceptMap.filter(filter)).distinct();
+            List<AntiJoin> antiJoins = antiJoins(conjunction, excludeInferred);
+            return distinct(traversalEng.iterator(conjunction.traversal()).map(conceptMgr::conceptMap).filter(
+                    ans -> !(excludeInferred && isInferred(conjunction, ans)) &&
+                            iterate(antiJoins).noneMatch(antiJoin -> antiJoin.excludes(ans))
+            ).map(conceptMap -> conceptMap.filter(filter)));
         }
     }
 
+    private List<AntiJoin> antiJoins(Conjunction conjunction, boolean excludeInferred) {
+        ThingGraph.Statistics statistics = traversalEng.graph().data().stats();
+        long answers = answers(conjunction, statistics, true);
+        return iterate(conjunction.negations()).flatMap(negation -> iterate(negation.disjunction().conjunctions()))
+                .map(negated -> new AntiJoin(conjunction, negated, answers(negated, statistics, false) <= answers, excludeInferred))
+                .toList();
+    }
+
+    /**
+     * Estimate the number of answers to a conjunction, as the instance count of its largest variable,
+     * or, for a negated conjunction, of its most selective variable
+     */
+    private long answers(Conjunction conjunction, ThingGraph.Statistics statistics, boolean largest) {
+        Stream<Long> instances = iterate(conjunction.variables()).filter(Variable::isThing)
+                .map(v -> instances(v.asThing(), statistics)).stream();
+        return (largest ? instances.max(Long::compare) : instances.min(Long::compare)).orElse(0L);
+    }
+
+    private static long instances(ThingVariable variable, ThingGraph.Statistics statistics) {
+        if (variable.iid().isPresent() || iterate(variable.value()).anyMatch(ValueConstraint::isValueIdentity)) return 1;
+        return statistics.thingVertexSum(variable.resolvedTypes());
+    }
+
     private Conjunction bound(Conjunction conjunction, ConceptMap bounds) {
         Conjunction newClone = conjunction.clone();
         newClone.bound(bounds.toMap(Type::getLabel, Thing::getIID));
         return newClone;
     }
 
-    public FunctionalIterator<Explanation> explain(long explainableId, Context.Query defaultContext) {
+    public FunctionalIterator<Explanation> explain(long explainableId, Context.Query context) {
         Conjunction explainableConjunction = explainablesManager.getConjunction(explainableId);
         ConceptMap explainableBounds = explainablesManager.getBounds(explainableId);
         return Producers.produce(
-                list(new ExplanationProducer(explainableConjunction, explainableBounds, defaultContext.options(), resolverRegistry, explainablesManager)),
+                list(new ExplanationProducer(explainableConjunction, explainableBounds, context, resolverRegistry, explainablesManager)),
                 Either.first(Arguments.Query.Producer.INCREMENTAL),
                 async1()
         );
     }
+
+    /**
+     * Filters out the answers to a conjunction that satisfy one of the conjunctions of its negations.
+     *
+     * When the negated conjunction is not expected to have more answers than the conjunction, it is evaluated
+     * once, over the variables it shares with the conjunction, and its answers are held to be looked up by every
+     * answer to the conjunction. Otherwise, or if it turns out to have more than MAX_ANTI_JOIN_SIZE answers, it
+     * is evaluated again for every answer to the conjunction, bound to that answer.
+     */
+    private class AntiJoin {
+
+        private final Conjunction negated;
+        private final Set<Identifier.Variable.Name> shared;
+        private volatile Set<ConceptMap> answers;
+        private final boolean excludeInferred;
+        private volatile boolean isNested;
+
+        private AntiJoin(Conjunction conjunction, Conjunction negated, boolean isHashed, boolean excludeInferred) {
+            this.negated = negated;
+            this.excludeInferred = excludeInferred;
+            this.shared = iterate(negated.identifiers()).filter(id -> id.isName() && conjunction.identifiers().contains(id))
+                    .map(Identifier.Variable::asName).toSet();
+            this.isNested = !isHashed;
+        }
+
+        private boolean excludes(ConceptMap answer) {
+            if (!isNested && answers == null) evaluate();
+            if (isNested) return iterator(negated, answer, excludeInferred).hasNext();
+            else return answers.contains(answer.filter(shared));
+        }
+
+        private synchronized void evaluate() {
+            if (isNested || answers != null) return;
+            Set<ConceptMap> evaluated = new HashSet<>();
+            FunctionalIterator<ConceptMap> iterator = iterator(negated, shared, excludeInferred);
+            while (iterator.hasNext()) {
+                if (evaluated.size() == MAX_ANTI_JOIN_SIZE) {
+                    iterator.recycle();
+                    isNested = true;
+                    return;
+                }
+                evaluated.add(iterator.next().filter(shared));
+                if (shared.isEmpty()) {
+                    iterator.recycle();
+                    break;
+                }
+            }
+            answers = evaluated;
+        }
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.reasoner;
+
+import com.vaticle.typedb.common.collection.ConcurrentSet;
+import com.vaticle.typedb.common.collection.Either;
+import com.vaticle.typedb.core.common.cache.CommonCache;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.concept.Concept;
+import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.thing.Thing;
+import com.vaticle.typedb.core.concept.type.Type;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+
+/**
+ * Holds the complete answers of reasoning queries across transactions, for as long as the
+ * data they were inferred from does not change.
+ *
+ * Every answer table records the types that its query, and the rules it may trigger,
+ * depend on. A commit drops the tables that depend on the types it writes to before its
+ * writes become visible, and no such table is served or stored until the commit has
+ * recorded the sequence number it committed at. A table is only served to a transaction
+ * if none of its types were written to between the snapshot it was computed at and the
+ * snapshot of the transaction, in either direction.
+ *
+ * Only answers made up of persisted concepts are held, as inferred concepts only exist
+ * in the transaction that inferred them. The cache is bounded by the estimated size of the
+ * answers it holds, as the QueryCache is, and evicts the least recently used tables first.
+ */
+public class ReasonerCache {
+
+    private static final int TABLE_FRACTION = 8;
+    private static final int ANSWER_OVERHEAD = 48;
+    private static final int CONCEPT_OVERHEAD = 64;
+
+    private final long capacity;
+    private final CommonCache<String, Table> tables;
+    private final ConcurrentMap<Label, Long> lastModified;
+    private final ConcurrentMap<Label, Integer> committing;
+    private final ConcurrentMap<Label, ConcurrentSet<String>> dependents;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public ReasonerCache(long capacity) {
+        this.capacity = capacity;
+        this.tables = new CommonCache<>(Math.max(capacity, 0L), (query, table) -> table.size, this::evicted);
+        this.lastModified = new ConcurrentHashMap<>();
+        this.committing = new ConcurrentHashMap<>();
+        this.dependents = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong(0);
+        this.misses = new AtomicLong(0);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    Optional<List<ConceptMap>> get(String query, long snapshot, ConceptManager conceptMgr) {
+        assert isEnabled();
+        Table table = tables.getIfPresent(query);
+        if (table == null || !table.isValidAt(snapshot)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        List<ConceptMap> answers = new ArrayList<>(table.answers.size());
+        for (Map<Retrievable, Either<Label, byte[]>> answer : table.answers) {
+            Map<Retrievable, Concept> concepts = new HashMap<>();
+            for (Map.Entry<Retrievable, Either<Label, byte[]>> entry : answer.entrySet()) {
+                Concept concept = entry.getValue().isFirst()
+                        ? conceptMgr.getType(entry.getValue().first())
+                        : conceptMgr.getThing(entry.getValue().second());
+                if (concept == null) {
+                    misses.incrementAndGet();
+                    return Optional.empty();
+                }
+                concepts.put(entry.getKey(), concept);
+            }
+            answers.add(new ConceptMap(concepts));
+        }
+        hits.incrementAndGet();
+        return Optional.of(answers);
+    }
+
+    Recorder recorder(String query, Set<Label> dependencies, long snapshot) {
+        assert isEnabled();
+        return new Recorder(query, dependencies, snapshot);
+    }
+
+    /**
+     * Drops the answer tables that depend on the types a commit is about to write to, before
+     * its writes become visible. Until the commit calls {@link #committed}, no table that
+     * depends on these types is served or stored.
+     *
+     * @param modifiedTypes the types the commit writes to
+     */
+    public void invalidate(Set<Label> modifiedTypes) {
+        if (!isEnabled()) return;
+        for (Label type : modifiedTypes) {
+            committing.merge(type, 1, Integer::sum);
+            ConcurrentSet<String> queries = dependents.remove(type);
+            if (queries != null) queries.forEach(tables::invalidate);
+        }
+    }
+
+    /**
+     * Records the end of a commit that was given to {@link #invalidate}.
+     *
+     * @param modifiedTypes the types the commit wrote to
+     * @param snapshot the sequence number the commit was written at, or null if it failed
+     */
+    public void committed(Set<Label> modifiedTypes, @Nullable Long snapshot) {
+        if (!isEnabled()) return;
+        for (Label type : modifiedTypes) {
+            if (snapshot != null) lastModified.merge(type, snapshot, Math::max);
+            committing.computeIfPresent(type, (t, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void evicted(String query, Table table) {
+        table.dependencies.forEach(type -> dependents.computeIfPresent(type, (t, queries) -> {
+            queries.remove(query);
+            return queries.isEmpty() ? null : queries;
+        }));
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the estimated number of bytes taken up by the answers of the tables held by the cache
+     */
+    public long memoryUsage() {
+        return tables.weight();
+    }
+
+    private long lastModified(Set<Label> types) {
+        long last = 0L;
+        for (Label type : types) {
+            if (committing.containsKey(type)) return Long.MAX_VALUE;
+            last = Math.max(last, lastModified.getOrDefault(type, 0L));
+        }
+        return last;
+    }
+
+    private class Table {
+
+        private final Set<Label> dependencies;
+        private final long snapshot;
+        private final List<Map<Retrievable, Either<Label, byte[]>>> answers;
+        private final int size;
+
+        private Table(Set<Label> dependencies, long snapshot,
+                      List<Map<Retrievable, Either<Label, byte[]>>> answers, int size) {
+            this.dependencies = dependencies;
+            this.snapshot = snapshot;
+            this.answers = answers;
+            this.size = size;
+        }
+
+        private boolean isValidAt(long snapshot) {
+            return lastModified(dependencies) <= Math.min(this.snapshot, snapshot);
+        }
+    }
+
+    /**
+     * Records the answers of a single reasoning query as they are produced, and holds them
+     * once the query has been completely answered, unless they cannot be shared.
+     */
+    class Recorder {
+
+        private final String query;
+        private final Set<Label> dependencies;
+        private final long snapshot;
+        private List<Map<Retrievable, Either<Label, byte[]>>> answers;
+        private long size;
+
+        private Recorder(String query, Set<Label> dependencies, long snapshot) {
+            this.query = query;
+            this.dependencies = dependencies;
+            this.snapshot = snapshot;
+            this.answers = new ArrayList<>();
+            this.size = query.length();
+        }
+
+        void record(ConceptMap answer) {
+            if (answers == null) return;
+            if (iterate(answer.concepts().values())
+                    .anyMatch(concept -> concept.isThing() && concept.asThing().isInferred())) {
+                answers = null;
+                return;
+            }
+            Map<Retrievable, Either<Label, byte[]>> recorded = answer.toMap(Type::getLabel, Thing::getIID);
+            size += ANSWER_OVERHEAD;
+            for (Either<Label, byte[]> concept : recorded.values()) {
+                size += CONCEPT_OVERHEAD;
+                size += concept.isFirst() ? concept.first().scopedName().length() : concept.second().length;
+            }
+            if (size > Math.min(capacity / TABLE_FRACTION, Integer.MAX_VALUE)) answers = null;
+            else answers.add(recorded);
+        }
+
+        void complete() {
+            if (answers == null || lastModified(dependencies) > snapshot) return;
+            tables.put(query, new Table(dependencies, snapshot, answers, (int) size));
+            dependencies.forEach(type -> dependents.computeIfAbsent(type, t -> new ConcurrentSet<>()).add(query));
+            answers = null;
+        }
+    }
+}
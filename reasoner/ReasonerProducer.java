@@ -17,6 +17,7 @@
 
 package com.vaticle.typedb.core.reasoner;
 
+import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concurrent.actor.Actor;
@@ -29,7 +30,6 @@ import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial.Co
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Top.Match.Finished;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerStateImpl.TopImpl.MatchImpl.InitialImpl;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
-import com.vaticle.typedb.core.reasoner.resolution.framework.ResolutionTracer;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Resolver;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typeql.lang.pattern.variable.UnboundVariable;
@@ -37,6 +37,7 @@ import com.vaticle.typeql.lang.query.TypeQLMatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.List;
 import java.util.Set;
@@ -50,23 +51,30 @@ public class ReasonerProducer implements Producer<ConceptMap> {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReasonerProducer.class);
 
+    private final ResolverRegistry resolverRegistry;
     private final Actor.Driver<? extends Resolver<?>> rootResolver;
     private final AtomicInteger required;
     private final AtomicInteger processing;
+    private final Context.Query context;
     private final Options.Query options;
     private final ExplainablesManager explainablesManager;
+    private final ReasonerCache.Recorder recorder;
     private final Request resolveRequest;
     private final int computeSize;
     private boolean requiresReiteration;
-    private boolean done;
+    private volatile boolean done;
     private int iteration;
     private Queue<ConceptMap> queue;
 
     // TODO: this class should not be a Producer, it implements a different async processing mechanism
-    public ReasonerProducer(Conjunction conjunction, TypeQLMatch.Modifiers modifiers, Options.Query options,
-                            ResolverRegistry resolverRegistry, ExplainablesManager explainablesManager) {
-        this.options = options;
+    public ReasonerProducer(Conjunction conjunction, TypeQLMatch.Modifiers modifiers, Context.Query context,
+                            ResolverRegistry resolverRegistry, ExplainablesManager explainablesManager,
+                            @Nullable ReasonerCache.Recorder recorder) {
+        this.context = context;
+        this.options = context.options();
+        this.resolverRegistry = resolverRegistry;
         this.explainablesManager = explainablesManager;
+        this.recorder = recorder;
         this.queue = null;
         this.iteration = 0;
         this.done = false;
@@ -77,13 +85,17 @@ public class ReasonerProducer implements Producer<ConceptMap> {
         assert computeSize > 0;
         Root<?, ?> downstream = InitialImpl.create(filter(modifiers.filter()), new ConceptMap(), this.rootResolver, options.explain()).toDownstream();
         this.resolveRequest = Request.create(rootResolver, downstream);
-        if (options.traceInference()) ResolutionTracer.initialise(options.logsDir());
+        if (options.traceInference()) resolverRegistry.profiler().start(rootResolver);
     }
 
-    public ReasonerProducer(Disjunction disjunction, TypeQLMatch.Modifiers modifiers, Options.Query options,
-                            ResolverRegistry resolverRegistry, ExplainablesManager explainablesManager) {
-        this.options = options;
+    public ReasonerProducer(Disjunction disjunction, TypeQLMatch.Modifiers modifiers, Context.Query context,
+                            ResolverRegistry resolverRegistry, ExplainablesManager explainablesManager,
+                            @Nullable ReasonerCache.Recorder recorder) {
+        this.context = context;
+        this.options = context.options();
+        this.resolverRegistry = resolverRegistry;
         this.explainablesManager = explainablesManager;
+        this.recorder = recorder;
         this.queue = null;
         this.iteration = 0;
         this.done = false;
@@ -94,7 +106,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
         assert computeSize > 0;
         Root<?, ?> downstream = InitialImpl.create(filter(modifiers.filter()), new ConceptMap(), this.rootResolver, options.explain()).toDownstream();
         this.resolveRequest = Request.create(rootResolver, downstream);
-        if (options.traceInference()) ResolutionTracer.initialise(options.logsDir());
+        if (options.traceInference()) resolverRegistry.profiler().start(rootResolver);
     }
 
     @Override
@@ -110,8 +122,21 @@ public class ReasonerProducer implements Producer<ConceptMap> {
         processing.addAndGet(toRequest);
     }
 
+    /**
+     * Called once the consumer needs no further answers, e.g. when a limit has been reached:
+     * stops requesting answers and cancels the resolution still outstanding under the root.
+     */
     @Override
     public void recycle() {
+        if (done) return;
+        done = true;
+        finishProfile();
+        required.set(0);
+        resolverRegistry.cancel(rootResolver);
+    }
+
+    Actor.Driver<? extends Resolver<?>> rootResolver() {
+        return rootResolver;
     }
 
     private Set<Identifier.Variable.Name> filter(List<UnboundVariable> filter) {
@@ -120,12 +145,13 @@ public class ReasonerProducer implements Producer<ConceptMap> {
 
     // note: root resolver calls this single-threaded, so is thread safe
     private void requestAnswered(Finished answer) {
-        if (options.traceInference()) ResolutionTracer.get().finish();
+        if (done) return;
         if (answer.requiresReiteration()) requiresReiteration = true;
         ConceptMap conceptMap = answer.conceptMap();
         if (options.explain() && !conceptMap.explainables().isEmpty()) {
             explainablesManager.setAndRecordExplainables(conceptMap);
         }
+        if (recorder != null) recorder.record(conceptMap);
         queue.put(conceptMap);
         if (required.decrementAndGet() > 0) requestAnswer();
         else processing.decrementAndGet();
@@ -134,10 +160,11 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     // note: root resolver calls this single-threaded, so is threads safe
     private void requestFailed(int iteration) {
         LOG.trace("Failed to find answer to request in iteration: " + iteration);
-        if (options.traceInference()) ResolutionTracer.get().finish();
         if (!done && iteration == this.iteration && !mustReiterate()) {
             // query is completely terminated
             done = true;
+            finishProfile();
+            if (recorder != null) recorder.complete();
             queue.done();
             required.set(0);
             return;
@@ -153,11 +180,20 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     private void exception(Throwable e) {
         if (!done) {
             done = true;
+            finishProfile();
             required.set(0);
             queue.done(e);
         }
     }
 
+    private void finishProfile() {
+        if (options.traceInference()) {
+            String profile = resolverRegistry.profiler().finish(rootResolver).toString();
+            context.profile(profile);
+            LOG.info("Resolution profile of {}:\n{}", rootResolver.name(), profile);
+        }
+    }
+
     private void prepareNextIteration() {
         iteration++;
         requiresReiteration = false;
@@ -182,7 +218,6 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     }
 
     private void requestAnswer() {
-        if (options.traceInference()) ResolutionTracer.get().start();
         rootResolver.execute(actor -> actor.receiveRequest(resolveRequest, iteration));
     }
 }
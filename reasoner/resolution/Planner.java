@@ -19,10 +19,15 @@ package com.vaticle.typedb.core.reasoner.resolution;
 
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.graph.ThingGraph;
 import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.logic.Rule;
 import com.vaticle.typedb.core.logic.resolvable.Concludable;
 import com.vaticle.typedb.core.logic.resolvable.Resolvable;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.constraint.thing.ValueConstraint;
 import com.vaticle.typedb.core.pattern.variable.ThingVariable;
+import com.vaticle.typedb.core.pattern.variable.Variable;
 import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
 
 import java.util.ArrayList;
@@ -34,25 +39,73 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import static com.vaticle.typedb.common.collection.Collections.set;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 
+/**
+ * Orders the resolvables of a conjunction so that each one is resolved with as many of its
+ * variables already answered as possible, and, among the candidates at each step, so that
+ * the cheapest one is resolved first.
+ *
+ * The cost of a resolvable is the number of answers it is estimated to produce for each
+ * answer it is given, taken from the number of instances of the types of its variables.
+ * A concludable additionally pays for every rule that may conclude it, in proportion to
+ * the number of instances of the types that the rule concludes.
+ */
 public class Planner {
+
+    private static final long RULE_COST = 10;
+
     private final ConceptManager conceptMgr;
     private final LogicManager logicMgr;
+    private final ThingGraph.Statistics statistics;
+    private final Map<Rule, Long> ruleCosts;
 
-    Planner(ConceptManager conceptMgr, LogicManager logicMgr) {
+    Planner(ConceptManager conceptMgr, LogicManager logicMgr, ThingGraph.Statistics statistics) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
+        this.statistics = statistics;
+        this.ruleCosts = new ConcurrentHashMap<>();
     }
 
     public List<Resolvable<?>> plan(Set<Resolvable<?>> resolvables, Set<Retrievable> bound) {
         return new Plan(resolvables, bound).plan;
     }
 
+    /**
+     * Estimate the number of answers a pattern produces for each answer to its bound variables, as the
+     * instance count of its largest unbound variable, relative to that of its smallest bound variable
+     */
+    public long answersPerInput(Conjunction conjunction, Set<Retrievable> bound) {
+        long unbound = 0;
+        long boundMin = Long.MAX_VALUE;
+        for (Variable variable : conjunction.variables()) {
+            if (!variable.isThing()) continue;
+            long count = instances(variable.asThing());
+            if (bound.contains(variable.id())) boundMin = Math.min(boundMin, count);
+            else unbound = Math.max(unbound, count);
+        }
+        if (boundMin == Long.MAX_VALUE) return unbound;
+        else return unbound / Math.max(1, boundMin);
+    }
+
+    private long ruleCost(Rule rule) {
+        long concluded = 0;
+        for (Variable variable : rule.then().variables()) {
+            if (variable.isThing()) concluded = Math.max(concluded, instances(variable.asThing()));
+        }
+        return RULE_COST * (1 + concluded);
+    }
+
+    private long instances(ThingVariable variable) {
+        if (variable.iid().isPresent() || iterate(variable.value()).anyMatch(ValueConstraint::isValueIdentity)) return 1;
+        return statistics.thingVertexSum(variable.resolvedTypes());
+    }
+
     class Plan {
         private final List<Resolvable<?>> plan;
         private final Map<Resolvable<?>, Set<Retrievable>> dependencies;
@@ -83,7 +136,8 @@ public class Planner {
 
                 // Retrievable where:
                 // all of it's dependencies are already satisfied,
-                // which will answer the most variables
+                // which will answer the most variables,
+                // and of those the cheapest
                 retrievable = mostAnsweredVars(dependenciesSatisfied(hasAnsweredVar(remaining.stream().filter(Resolvable::isRetrievable))))
                         .map(Resolvable::asRetrievable);
                 if (retrievable.isPresent()) {
@@ -93,10 +147,9 @@ public class Planner {
 
                 // Concludable where:
                 // all of it's dependencies are already satisfied,
-                // which has the least applicable rules,
-                // and of those the least unsatisfied variables
-                concludable = mostAnsweredVars(dependenciesSatisfied(hasAnsweredVar(remaining.stream().filter(Resolvable::isConcludable))))
-                        .map(Resolvable::asConcludable);
+                // which is the cheapest,
+                // and of those will answer the most variables
+                concludable = cheapest(dependenciesSatisfied(hasAnsweredVar(remaining.stream().filter(Resolvable::isConcludable))));
                 if (concludable.isPresent()) {
                     add(concludable.get());
                     continue;
@@ -105,7 +158,8 @@ public class Planner {
                 // Retrievable where:
                 // all of it's dependencies are already satisfied (should be moot),
                 // it can be disconnected
-                // which will answer the most variables
+                // which will answer the most variables,
+                // and of those the cheapest
                 retrievable = mostUnansweredVars(dependenciesSatisfied(remaining.stream().filter(Resolvable::isRetrievable)))
                         .map(Resolvable::asRetrievable);
                 if (retrievable.isPresent()) {
@@ -116,9 +170,9 @@ public class Planner {
                 // Concludable where:
                 // it can be disconnected
                 // all of it's dependencies are already satisfied,
-                // which has the least applicable rules,
-                // and of those the least unsatisfied variables
-                concludable = fewestRules(dependenciesSatisfied(remaining.stream().filter(Resolvable::isConcludable)));
+                // which is the cheapest,
+                // and of those has the least applicable rules
+                concludable = cheapestFewestRules(dependenciesSatisfied(remaining.stream().filter(Resolvable::isConcludable)));
                 if (concludable.isPresent()) {
                     add(concludable.get());
                     continue;
@@ -127,9 +181,9 @@ public class Planner {
                 // Concludable where:
                 // it can be disconnected
                 // all of it's dependencies are NOT already satisfied,
-                // which has the least applicable rules,
-                // and of those the least unsatisfied variables
-                concludable = fewestRules(remaining.stream().filter(Resolvable::isConcludable));
+                // which is the cheapest,
+                // and of those has the least applicable rules
+                concludable = cheapestFewestRules(remaining.stream().filter(Resolvable::isConcludable));
                 if (concludable.isPresent()) {
                     add(concludable.get());
                     continue;
@@ -147,20 +201,37 @@ public class Planner {
             return resolvableStream.filter(r -> !Collections.disjoint(r.retrieves(), answered));
         }
 
-        private Optional<Concludable> fewestRules(Stream<Resolvable<?>> resolvableStream) {
-            // TODO: Tie-break for Concludables with the same number of applicable rules
+        private Optional<Concludable> cheapest(Stream<Resolvable<?>> resolvableStream) {
+            return resolvableStream.map(Resolvable::asConcludable)
+                    .min(Comparator.comparingLong(this::cost).thenComparing(Comparator.comparingInt(this::answeredVars).reversed()));
+        }
+
+        private Optional<Concludable> cheapestFewestRules(Stream<Resolvable<?>> resolvableStream) {
             return resolvableStream.map(Resolvable::asConcludable)
-                    .min(Comparator.comparingInt(c -> (int) c.getApplicableRules(conceptMgr, logicMgr).count()));
+                    .min(Comparator.comparingLong(this::cost).thenComparingInt(c -> (int) c.getApplicableRules(conceptMgr, logicMgr).count()));
         }
 
         private Optional<Resolvable<?>> mostAnsweredVars(Stream<Resolvable<?>> resolvables) {
-            return resolvables.max(Comparator.comparingInt(r -> iterate(r.retrieves())
-                    .filter(answered::contains).toSet().size()));
+            return resolvables.min(Comparator.<Resolvable<?>>comparingInt(this::answeredVars).reversed().thenComparingLong(this::cost));
         }
 
         private Optional<Resolvable<?>> mostUnansweredVars(Stream<Resolvable<?>> resolvableStream) {
-            return resolvableStream.max(Comparator.comparingInt(r -> iterate(r.retrieves())
-                    .filter(id -> !answered.contains(id)).toSet().size()));
+            return resolvableStream.min(Comparator.<Resolvable<?>>comparingInt(r -> r.retrieves().size() - answeredVars(r)).reversed()
+                                                .thenComparingLong(this::cost));
+        }
+
+        private int answeredVars(Resolvable<?> resolvable) {
+            return iterate(resolvable.retrieves()).filter(answered::contains).toSet().size();
+        }
+
+        private long cost(Resolvable<?> resolvable) {
+            if (resolvable.isRetrievable()) return answersPerInput(resolvable.asRetrievable().pattern(), answered);
+            Concludable concludable = resolvable.asConcludable();
+            long cost = answersPerInput(concludable.pattern(), answered);
+            for (Rule rule : concludable.getApplicableRules(conceptMgr, logicMgr).toList()) {
+                cost += ruleCosts.computeIfAbsent(rule, Planner.this::ruleCost);
+            }
+            return cost;
         }
 
         /**
@@ -33,6 +33,7 @@ import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.pattern.equivalence.AlphaEquivalence;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Top.Explain;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Top.Match;
+import com.vaticle.typedb.core.reasoner.resolution.framework.ResolutionProfiler;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Resolver;
 import com.vaticle.typedb.core.reasoner.resolution.resolver.ConcludableResolver;
 import com.vaticle.typedb.core.reasoner.resolution.resolver.ConclusionResolver;
@@ -47,9 +48,11 @@ import com.vaticle.typedb.core.traversal.common.Identifier.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -72,14 +75,15 @@ public class ResolverRegistry {
     private final ConcurrentMap<Rule, Actor.Driver<ConditionResolver>> ruleConditions;
     private final ConcurrentMap<Rule, Actor.Driver<ConclusionResolver>> ruleConclusions; // by Rule not Rule.Conclusion because well defined equality exists
     private final Set<Actor.Driver<? extends Resolver<?>>> resolvers;
+    private final Set<Actor.Driver<? extends Resolver<?>>> cancelledRoots;
     private final TraversalEngine traversalEngine;
     private final Planner planner;
-    private final boolean resolutionTracing;
+    private final ResolutionProfiler profiler;
     private final AtomicBoolean terminated;
     private ActorExecutorGroup executorService;
 
     public ResolverRegistry(ActorExecutorGroup executorService, TraversalEngine traversalEngine, ConceptManager conceptMgr,
-                            LogicManager logicMgr, boolean resolutionTracing) {
+                            LogicManager logicMgr) {
         this.executorService = executorService;
         this.traversalEngine = traversalEngine;
         this.conceptMgr = conceptMgr;
@@ -88,9 +92,10 @@ public class ResolverRegistry {
         this.ruleConditions = new ConcurrentHashMap<>();
         this.ruleConclusions = new ConcurrentHashMap<>();
         this.resolvers = new ConcurrentSet<>();
-        this.planner = new Planner(conceptMgr, logicMgr);
+        this.cancelledRoots = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        this.planner = new Planner(conceptMgr, logicMgr, traversalEngine.graph().data().stats());
         this.terminated = new AtomicBoolean(false);
-        this.resolutionTracing = resolutionTracing;
+        this.profiler = new ResolutionProfiler();
     }
 
     public void terminateResolvers(Throwable cause) {
@@ -101,12 +106,31 @@ public class ResolverRegistry {
         }
     }
 
+    /**
+     * Stop resolving the query of a root resolver, releasing the state held for it across the resolvers.
+     * A cancelled root is only held weakly, so that it is pruned once neither its producer nor any request
+     * still in flight refers to it.
+     */
+    public void cancel(Actor.Driver<? extends Resolver<?>> root) {
+        if (!cancelledRoots.add(root)) return;
+        resolvers.remove(root);
+        root.execute(actor -> actor.receiveCancel(root));
+    }
+
+    public boolean isCancelled(Actor.Driver<? extends Resolver<?>> root) {
+        return cancelledRoots.contains(root);
+    }
+
+    public ResolutionProfiler profiler() {
+        return profiler;
+    }
+
     public Actor.Driver<RootResolver.Conjunction> root(Conjunction conjunction, Consumer<Match.Finished> onAnswer,
                                                        Consumer<Integer> onFail, Consumer<Throwable> onException) {
         LOG.debug("Creating Root.Conjunction for: '{}'", conjunction);
         Actor.Driver<RootResolver.Conjunction> resolver = Actor.driver(driver -> new RootResolver.Conjunction(
                 driver, conjunction, onAnswer, onFail, onException, this,
-                traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing
+                traversalEngine, conceptMgr, logicMgr, planner
         ), executorService);
         resolvers.add(resolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -118,7 +142,7 @@ public class ResolverRegistry {
         LOG.debug("Creating Root.Disjunction for: '{}'", disjunction);
         Actor.Driver<RootResolver.Disjunction> resolver = Actor.driver(driver -> new RootResolver.Disjunction(
                 driver, disjunction, onAnswer, onExhausted, onException,
-                this, traversalEngine, conceptMgr, resolutionTracing
+                this, traversalEngine, conceptMgr
         ), executorService);
         resolvers.add(resolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -128,7 +152,7 @@ public class ResolverRegistry {
     public ResolverView.FilteredNegation negated(Negated negated, Conjunction upstream) {
         LOG.debug("Creating Negation resolver for : {}", negated);
         Actor.Driver<NegationResolver> negatedResolver = Actor.driver(driver -> new NegationResolver(
-                driver, negated, this, traversalEngine, conceptMgr, resolutionTracing
+                driver, negated, this, traversalEngine, conceptMgr
         ), executorService);
         resolvers.add(negatedResolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -147,7 +171,7 @@ public class ResolverRegistry {
         LOG.debug("Register retrieval for rule condition actor: '{}'", ruleCondition);
         Actor.Driver<ConditionResolver> resolver = ruleConditions.computeIfAbsent(ruleCondition.rule(), (r) -> Actor.driver(
                 driver -> new ConditionResolver(driver, ruleCondition, this, traversalEngine,
-                                                conceptMgr, logicMgr, planner, resolutionTracing), executorService
+                                                conceptMgr, logicMgr, planner), executorService
         ));
         resolvers.add(resolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -159,7 +183,7 @@ public class ResolverRegistry {
         LOG.debug("Register retrieval for rule conclusion actor: '{}'", conclusion);
         Actor.Driver<ConclusionResolver> resolver = ruleConclusions.computeIfAbsent(conclusion.rule(), r -> Actor.driver(
                 driver -> new ConclusionResolver(driver, conclusion, this,
-                                                 traversalEngine, conceptMgr, resolutionTracing), executorService
+                                                 traversalEngine, conceptMgr), executorService
         ));
         resolvers.add(resolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -178,7 +202,7 @@ public class ResolverRegistry {
     private ResolverView.FilteredRetrievable registerRetrievable(com.vaticle.typedb.core.logic.resolvable.Retrievable retrievable) {
         LOG.debug("Register RetrievableResolver: '{}'", retrievable.pattern());
         Actor.Driver<RetrievableResolver> resolver = Actor.driver(driver -> new RetrievableResolver(
-                driver, retrievable, this, traversalEngine, conceptMgr, resolutionTracing
+                driver, retrievable, this, traversalEngine, conceptMgr, planner
         ), executorService);
         resolvers.add(resolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -197,7 +221,7 @@ public class ResolverRegistry {
         }
         Actor.Driver<ConcludableResolver> resolver = Actor.driver(driver -> new ConcludableResolver(
                 driver, concludable, this, traversalEngine,
-                conceptMgr, logicMgr, resolutionTracing
+                conceptMgr, logicMgr
         ), executorService);
         concludableResolvers.put(concludable, resolver);
         resolvers.add(resolver);
@@ -208,7 +232,7 @@ public class ResolverRegistry {
     public Actor.Driver<ConjunctionResolver.Nested> nested(Conjunction conjunction) {
         LOG.debug("Creating Conjunction resolver for : {}", conjunction);
         Actor.Driver<ConjunctionResolver.Nested> resolver = Actor.driver(driver -> new ConjunctionResolver.Nested(
-                driver, conjunction, this, traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing
+                driver, conjunction, this, traversalEngine, conceptMgr, logicMgr, planner
         ), executorService);
         resolvers.add(resolver);
         if (terminated.get()) throw TypeDBException.of(RESOLUTION_TERMINATED); // guard races without synchronized
@@ -218,7 +242,7 @@ public class ResolverRegistry {
     public Actor.Driver<DisjunctionResolver.Nested> nested(Disjunction disjunction) {
         LOG.debug("Creating Disjunction resolver for : {}", disjunction);
         return Actor.driver(driver -> new DisjunctionResolver.Nested(
-                driver, disjunction, this, traversalEngine, conceptMgr, resolutionTracing
+                driver, disjunction, this, traversalEngine, conceptMgr
         ), executorService);
     }
 
@@ -230,7 +254,7 @@ public class ResolverRegistry {
                                                         Consumer<Integer> requestFailed, Consumer<Throwable> exception) {
         return Actor.driver(driver -> new RootResolver.Explain(
                 driver, conjunction, requestAnswered, requestFailed, exception,
-                this, traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing
+                this, traversalEngine, conceptMgr, logicMgr, planner
         ), executorService);
     }
 
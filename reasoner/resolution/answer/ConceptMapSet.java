@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.reasoner.resolution.answer;
+
+import com.vaticle.typedb.core.common.collection.ByteArraySet;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.answer.ConceptMapCodec;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records the answers a resolver has seen, to deduplicate the answers it receives or produces. Rather than holding
+ * on to the answers, and through them to their concepts and vertices, it holds each answer as a single byte array,
+ * encoded by a {@link ConceptMapCodec} of its own.
+ *
+ * Answers carrying explainables are held as they are, as their explainables take part in their equality.
+ */
+public class ConceptMapSet {
+
+    private final ConceptMapCodec codec;
+    private final ByteArraySet encoded;
+    private final Set<ConceptMap> explainable;
+
+    public ConceptMapSet() {
+        this.codec = new ConceptMapCodec();
+        this.encoded = new ByteArraySet();
+        this.explainable = new HashSet<>();
+    }
+
+    public boolean add(ConceptMap conceptMap) {
+        if (!conceptMap.explainables().isEmpty()) return explainable.add(conceptMap);
+        else return encoded.add(codec.encode(conceptMap));
+    }
+
+    public boolean contains(ConceptMap conceptMap) {
+        if (!conceptMap.explainables().isEmpty()) return explainable.contains(conceptMap);
+        else return encoded.contains(codec.encode(conceptMap));
+    }
+
+    public int size() {
+        return encoded.size() + explainable.size();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.reasoner.resolution.framework;
+
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.concurrent.actor.Actor;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Profiles the resolution of the queries it has been started for, counting the work each
+ * resolver does on their behalf.
+ *
+ * Work is attributed to a query through the root of the requests it is done for, so resolvers
+ * shared between queries keep separate counts for each of them. Negations resolve their negated
+ * patterns under their own root, which is shared by every query they appear in, so that work is
+ * not attributed to any one query. Counters are striped across the
+ * threads that update them, so that resolvers never contend on a lock to record their work, and
+ * time spent in traversals is only measured on a sample of the steps taken through them.
+ */
+public class ResolutionProfiler {
+
+    private static final int TRAVERSAL_SAMPLE_RATE = 16;
+
+    private final ConcurrentMap<Actor.Driver<? extends Resolver<?>>, Profile> profiles;
+
+    public ResolutionProfiler() {
+        this.profiles = new ConcurrentHashMap<>();
+    }
+
+    public void start(Actor.Driver<? extends Resolver<?>> root) {
+        profiles.putIfAbsent(root, new Profile());
+    }
+
+    public Profile finish(Actor.Driver<? extends Resolver<?>> root) {
+        Profile profile = profiles.remove(root);
+        return profile != null ? profile : new Profile();
+    }
+
+    Counters counters(Actor.Driver<? extends Resolver<?>> root, String resolver) {
+        if (profiles.isEmpty()) return null;
+        Profile profile = profiles.get(root);
+        if (profile == null) return null;
+        return profile.counters.computeIfAbsent(resolver, r -> new Counters());
+    }
+
+    public static class Profile {
+
+        private final ConcurrentMap<String, Counters> counters;
+
+        private Profile() {
+            this.counters = new ConcurrentHashMap<>();
+        }
+
+        public Map<String, Counters> counters() {
+            return counters;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("%12s %12s %12s %10s %14s %12s  %s%n", "requests", "answers", "fails",
+                                         "iterations", "traversal-ms", "duplicates", "resolver"));
+            counters.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, Counters> e) -> e.getValue().traversalNanos()).reversed())
+                    .forEach(e -> builder.append(String.format(
+                            "%12d %12d %12d %10d %14.1f %12d  %s%n", e.getValue().requests(), e.getValue().answers(),
+                            e.getValue().fails(), e.getValue().iterations(), e.getValue().traversalNanos() / 1_000_000.0,
+                            e.getValue().deduplicated(), e.getKey()
+                    )));
+            return builder.toString();
+        }
+    }
+
+    public static class Counters {
+
+        private final LongAdder requests;
+        private final LongAdder answers;
+        private final LongAdder fails;
+        private final LongAdder deduplicated;
+        private final LongAdder traversalNanos;
+        private final LongAccumulator iterations;
+
+        private Counters() {
+            this.requests = new LongAdder();
+            this.answers = new LongAdder();
+            this.fails = new LongAdder();
+            this.deduplicated = new LongAdder();
+            this.traversalNanos = new LongAdder();
+            this.iterations = new LongAccumulator(Math::max, 0);
+        }
+
+        void request(int iteration) {
+            requests.increment();
+            iterations.accumulate(iteration + 1);
+        }
+
+        void answer() {
+            answers.increment();
+        }
+
+        void fail() {
+            fails.increment();
+        }
+
+        void deduplicated() {
+            deduplicated.increment();
+        }
+
+        <T> FunctionalIterator<T> traversal(FunctionalIterator<T> iterator) {
+            return new SampledIterator<>(iterator, traversalNanos);
+        }
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public long answers() {
+            return answers.sum();
+        }
+
+        public long fails() {
+            return fails.sum();
+        }
+
+        public long deduplicated() {
+            return deduplicated.sum();
+        }
+
+        /**
+         * @return the estimated time spent stepping through traversals, scaled up from the sampled steps
+         */
+        public long traversalNanos() {
+            return traversalNanos.sum();
+        }
+
+        public long iterations() {
+            return iterations.get();
+        }
+    }
+
+    private static class SampledIterator<T> extends AbstractFunctionalIterator<T> {
+
+        private final FunctionalIterator<T> iterator;
+        private final LongAdder nanos;
+
+        private SampledIterator(FunctionalIterator<T> iterator, LongAdder nanos) {
+            this.iterator = iterator;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ThreadLocalRandom.current().nextInt(TRAVERSAL_SAMPLE_RATE) != 0) return iterator.hasNext();
+            long start = System.nanoTime();
+            boolean hasNext = iterator.hasNext();
+            nanos.add((System.nanoTime() - start) * TRAVERSAL_SAMPLE_RATE);
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void recycle() {
+            iterator.recycle();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.vaticle.typedb.core.reasoner.resolution.framework;
+
+import com.vaticle.typedb.common.concurrent.NamedThreadFactory;
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.concurrent.actor.Actor;
+import com.vaticle.typedb.core.concurrent.actor.ActorExecutorGroup;
+import com.vaticle.typedb.core.reasoner.resolution.resolver.RootResolver;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResolutionProfilerTest {
+
+    private static ActorExecutorGroup executor;
+
+    @BeforeClass
+    public static void setUp() {
+        executor = new ActorExecutorGroup(1, new NamedThreadFactory("resolution-profiler-test"));
+    }
+
+    @AfterClass
+    public static void tearDown() throws InterruptedException {
+        executor.stop();
+    }
+
+    private static Actor.Driver<RootResolver.Conjunction> root() {
+        return Actor.driver(driver -> null, executor);
+    }
+
+    @Test
+    public void test_counters_are_only_kept_for_started_roots() {
+        ResolutionProfiler profiler = new ResolutionProfiler();
+        Actor.Driver<RootResolver.Conjunction> started = root();
+        Actor.Driver<RootResolver.Conjunction> unstarted = root();
+        profiler.start(started);
+
+        assertNotNull(profiler.counters(started, "resolver"));
+        assertNull(profiler.counters(unstarted, "resolver"));
+        assertTrue(profiler.finish(unstarted).counters().isEmpty());
+    }
+
+    @Test
+    public void test_counters_are_kept_per_root_and_resolver() {
+        ResolutionProfiler profiler = new ResolutionProfiler();
+        Actor.Driver<RootResolver.Conjunction> root1 = root();
+        Actor.Driver<RootResolver.Conjunction> root2 = root();
+        profiler.start(root1);
+        profiler.start(root2);
+
+        assertSame(profiler.counters(root1, "a"), profiler.counters(root1, "a"));
+        assertNotSame(profiler.counters(root1, "a"), profiler.counters(root1, "b"));
+        assertNotSame(profiler.counters(root1, "a"), profiler.counters(root2, "a"));
+
+        profiler.counters(root1, "a").answer();
+        assertEquals(1, profiler.finish(root1).counters().get("a").answers());
+        assertEquals(0, profiler.finish(root2).counters().get("a").answers());
+        assertNull(profiler.counters(root1, "a"));
+    }
+
+    @Test
+    public void test_counters_record_work() {
+        ResolutionProfiler profiler = new ResolutionProfiler();
+        Actor.Driver<RootResolver.Conjunction> root = root();
+        profiler.start(root);
+        ResolutionProfiler.Counters counters = profiler.counters(root, "resolver");
+
+        counters.request(0);
+        counters.request(2);
+        counters.request(1);
+        counters.answer();
+        counters.answer();
+        counters.fail();
+        counters.deduplicated();
+
+        assertEquals(3, counters.requests());
+        assertEquals(2, counters.answers());
+        assertEquals(1, counters.fails());
+        assertEquals(1, counters.deduplicated());
+        assertEquals(3, counters.iterations());
+    }
+
+    @Test
+    public void test_traversal_time_is_estimated_from_a_sample_of_steps() {
+        ResolutionProfiler profiler = new ResolutionProfiler();
+        Actor.Driver<RootResolver.Conjunction> root = root();
+        profiler.start(root);
+        ResolutionProfiler.Counters counters = profiler.counters(root, "resolver");
+
+        int steps = 800;
+        long stepNanos = 1_000_000;
+        FunctionalIterator<Integer> traversal = counters.traversal(new SlowIterator(steps, stepNanos));
+        int count = 0;
+        while (traversal.hasNext()) {
+            traversal.next();
+            count++;
+        }
+        assertEquals(steps, count);
+
+        // one in 16 steps is timed and scaled up, so about 50 samples estimate the time of all steps
+        long actualNanos = (steps + 1) * stepNanos;
+        assertTrue(counters.traversalNanos() > actualNanos / 2);
+        assertTrue(counters.traversalNanos() < actualNanos * 2);
+    }
+
+    private static class SlowIterator extends AbstractFunctionalIterator<Integer> {
+
+        private final int size;
+        private final long stepNanos;
+        private int next;
+
+        private SlowIterator(int size, long stepNanos) {
+            this.size = size;
+            this.stepNanos = stepNanos;
+            this.next = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long end = System.nanoTime() + stepNanos;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+            return next < size;
+        }
+
+        @Override
+        public Integer next() {
+            if (next >= size) throw new NoSuchElementException();
+            return next++;
+        }
+
+        @Override
+        public void recycle() {}
+    }
+}
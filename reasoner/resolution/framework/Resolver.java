@@ -26,12 +26,13 @@ import com.vaticle.typedb.core.concept.Concept;
 import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concurrent.actor.Actor;
-import com.vaticle.typedb.core.concurrent.producer.Producer;
+import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
 import com.vaticle.typedb.core.concurrent.producer.Producers;
 import com.vaticle.typedb.core.pattern.Conjunction;
 import com.vaticle.typedb.core.pattern.variable.Variable;
 import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState;
+import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Response.Answer;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
@@ -39,34 +40,61 @@ import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.RESOURCE_CLOSED;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Query.Producer.INCREMENTAL;
 
+/**
+ * Requests to downstream resolvers are sent in batches: a request asks for a number of answers,
+ * which are returned together in a single {@link Response.Batch}. Answers that the requester
+ * has not asked for yet are buffered, and handed out to its later identical requests without
+ * sending any message. The size of the batch starts at one, so that a request which only ever
+ * needs a single answer is not answered ahead, and doubles every time the batch before has
+ * been used up, so that the number of messages grows logarithmically with the number of
+ * answers. The resolver answering a batch request answers it as many times as it was asked to,
+ * by requesting from itself again, before sending the batch back.
+ *
+ * Once the query a request was made for no longer needs answers, its root is cancelled through the
+ * {@link ResolverRegistry}. Each resolver that made requests for that root releases the state it
+ * holds for them and passes the cancellation on to the resolvers it made them to, and messages for
+ * the cancelled root that are still in flight are dropped when they arrive.
+ */
 public abstract class Resolver<RESOLVER extends Resolver<RESOLVER>> extends Actor<RESOLVER> {
     private static final Logger LOG = LoggerFactory.getLogger(Resolver.class);
+    private static final int MAX_BATCH_SIZE = 64;
 
     private final Map<Request, Request> requestRouter;
+    private final Map<Request, Batch> batches;
+    private final Map<Request, Buffer> buffers;
+    private final ArrayDeque<Runnable> pending;
+    private boolean isReceiving;
     protected final ResolverRegistry registry;
     protected final TraversalEngine traversalEngine;
     protected final ConceptManager conceptMgr;
-    private final boolean resolutionTracing;
     private boolean terminated;
 
     protected Resolver(Driver<RESOLVER> driver, String name, ResolverRegistry registry, TraversalEngine traversalEngine,
-                       ConceptManager conceptMgr, boolean resolutionTracing) {
+                       ConceptManager conceptMgr) {
         super(driver, name);
         this.registry = registry;
         this.traversalEngine = traversalEngine;
         this.conceptMgr = conceptMgr;
-        this.resolutionTracing = resolutionTracing;
         this.terminated = false;
         this.requestRouter = new HashMap<>();
+        this.batches = new HashMap<>();
+        this.buffers = new HashMap<>();
+        this.pending = new ArrayDeque<>();
+        this.isReceiving = false;
         // Note: initialising downstream actors in constructor will create all actors ahead of time, so it is non-lazy
         // additionally, it can cause deadlock within ResolverRegistry as different threads initialise actors
     }
@@ -107,32 +135,233 @@ public abstract class Resolver<RESOLVER extends Resolver<RESOLVER>> extends Acto
 
     protected void requestFromDownstream(Request request, Request fromUpstream, int iteration) {
         LOG.trace("{} : Sending a new answer Request to downstream: {}", name(), request);
-        if (resolutionTracing) ResolutionTracer.get().request(this.name(), request.receiver().name(), iteration,
-                                                              request.partialAnswer().conceptMap().concepts().keySet().toString());
+        if (isCancelled(request)) return;
         // TODO: we may overwrite if multiple identical requests are sent, when to clean up?
         requestRouter.put(request, fromUpstream);
+        Buffer buffer = buffers.get(request);
+        if (buffer == null || buffer.iteration != iteration) {
+            buffer = new Buffer(iteration);
+            buffers.put(request, buffer);
+        }
+        buffer.requested++;
+        if (buffer.isAwaiting) return;
+        if (buffer.hasResponse()) {
+            Buffer buffered = buffer;
+            receiveLater(() -> respondFromBuffer(request, buffered));
+        } else {
+            requestBatch(request, buffer);
+        }
+    }
+
+    private void requestBatch(Request request, Buffer buffer) {
+        int size = buffer.nextBatchSize();
+        buffer.isAwaiting = true;
         Driver<? extends Resolver<?>> receiver = request.receiver();
-        receiver.execute(actor -> actor.receiveRequest(request, iteration));
+        receiver.execute(actor -> actor.receive(() -> actor.receiveBatchRequest(request, size, buffer.iteration)));
+    }
+
+    void receiveBatchRequest(Request fromUpstream, int size, int iteration) {
+        if (isCancelled(fromUpstream)) return;
+        Batch previous = batches.put(fromUpstream, new Batch(size, iteration));
+        if (previous != null) sendBatch(fromUpstream, previous, false);
+        receiveProfiledRequest(fromUpstream, iteration);
+    }
+
+    void receiveBatch(Response.Batch fromDownstream, int iteration) {
+        Request request = fromDownstream.sourceRequest();
+        if (isCancelled(request)) return;
+        Buffer buffer = buffers.get(request);
+        if (buffer == null || buffer.iteration != iteration) {
+            // the request was superseded by a later iteration, which only needs the first response
+            if (!fromDownstream.answers().isEmpty()) receiveAnswer(Answer.create(request, fromDownstream.answers().get(0)), iteration);
+            else receiveFail(new Response.Fail(request), iteration);
+        } else {
+            buffer.isAwaiting = false;
+            buffer.answers.addAll(fromDownstream.answers());
+            buffer.isExhausted = fromDownstream.isExhausted();
+            respondFromBuffer(request, buffer);
+        }
+    }
+
+    private void respondFromBuffer(Request request, Buffer buffer) {
+        if (isCancelled(request)) return;
+        while (buffer.requested > 0 && buffer.hasResponse()) {
+            buffer.requested--;
+            if (!buffer.answers.isEmpty()) receiveAnswer(Answer.create(request, buffer.answers.poll()), buffer.iteration);
+            else receiveFail(new Response.Fail(request), buffer.iteration);
+        }
+        if (buffers.get(request) != buffer) return;
+        // an exhausted request holds nothing more to hand out, and a later identical request is failed from downstream
+        if (buffer.isExhausted && buffer.answers.isEmpty()) buffers.remove(request);
+        else if (buffer.requested > 0 && !buffer.isAwaiting) requestBatch(request, buffer);
     }
 
     protected void answerToUpstream(AnswerState answer, Request fromUpstream, int iteration) {
         assert answer.isPartial();
         Answer response = Answer.create(fromUpstream, answer.asPartial());
         LOG.trace("{} : Sending a new Response.Answer to upstream", name());
-        if (resolutionTracing) ResolutionTracer.get().responseAnswer(
-                this.name(), fromUpstream.sender().name(), iteration,
-                response.asAnswer().answer().conceptMap().concepts().keySet().toString()
-        );
-        fromUpstream.sender().execute(actor -> actor.receiveAnswer(response, iteration));
+        ResolutionProfiler.Counters counters = counters(fromUpstream);
+        if (counters != null) counters.answer();
+        Batch batch = batches.get(fromUpstream);
+        if (batch == null || batch.iteration != iteration) {
+            fromUpstream.sender().execute(actor -> actor.receive(() -> {
+                if (!actor.isCancelled(fromUpstream)) actor.receiveAnswer(response, iteration);
+            }));
+        } else {
+            batch.answers.add(answer.asPartial());
+            if (batch.answers.size() == batch.size) {
+                batches.remove(fromUpstream);
+                sendBatch(fromUpstream, batch, false);
+            } else {
+                receiveLater(() -> {
+                    if (batches.get(fromUpstream) == batch) receiveProfiledRequest(fromUpstream, iteration);
+                });
+            }
+        }
     }
 
     protected void failToUpstream(Request fromUpstream, int iteration) {
         Response.Fail response = new Response.Fail(fromUpstream);
         LOG.trace("{} : Sending a new Response.Answer to upstream", name());
-        if (resolutionTracing) ResolutionTracer.get().responseExhausted(
-                this.name(), fromUpstream.sender().name(), iteration
-        );
-        fromUpstream.sender().execute(actor -> actor.receiveFail(response, iteration));
+        ResolutionProfiler.Counters counters = counters(fromUpstream);
+        if (counters != null) counters.fail();
+        Batch batch = batches.get(fromUpstream);
+        if (batch == null || batch.iteration != iteration) {
+            fromUpstream.sender().execute(actor -> actor.receive(() -> {
+                if (!actor.isCancelled(fromUpstream)) actor.receiveFail(response, iteration);
+            }));
+        } else {
+            batches.remove(fromUpstream);
+            sendBatch(fromUpstream, batch, true);
+        }
+    }
+
+    private void sendBatch(Request fromUpstream, Batch batch, boolean isExhausted) {
+        Response.Batch response = new Response.Batch(fromUpstream, batch.answers, isExhausted);
+        fromUpstream.sender().execute(actor -> actor.receive(() -> actor.receiveBatch(response, batch.iteration)));
+    }
+
+    /**
+     * Release the state held for the requests made for a root, and cancel them in the resolvers they were made to.
+     * A resolver that holds nothing for the root does not pass the cancellation on, which ends it in cycles.
+     *
+     * @param root the root resolver of the query that no longer needs answers
+     */
+    public void receiveCancel(Driver<? extends Resolver<?>> root) {
+        Set<Driver<? extends Resolver<?>>> downstream = new HashSet<>();
+        requestRouter.keySet().removeIf(request -> {
+            if (!request.partialAnswer().root().equals(root)) return false;
+            downstream.add(request.receiver());
+            return true;
+        });
+        buffers.keySet().removeIf(request -> request.partialAnswer().root().equals(root));
+        batches.keySet().removeIf(request -> request.partialAnswer().root().equals(root));
+        cancelled(root);
+        downstream.forEach(resolver -> resolver.execute(actor -> actor.receive(() -> actor.receiveCancel(root))));
+    }
+
+    /**
+     * Release the state held for the requests received for a root, closing any iterators it holds open
+     */
+    protected void cancelled(Driver<? extends Resolver<?>> root) {}
+
+    protected boolean isCancelled(Request request) {
+        return registry.isCancelled(request.partialAnswer().root());
+    }
+
+    private void receiveProfiledRequest(Request fromUpstream, int iteration) {
+        ResolutionProfiler.Counters counters = counters(fromUpstream);
+        if (counters != null) counters.request(iteration);
+        receiveRequest(fromUpstream, iteration);
+    }
+
+    /**
+     * Record that an answer was dropped for the request, having already been produced for it
+     */
+    protected void recordDeduplicated(Request fromUpstream) {
+        ResolutionProfiler.Counters counters = counters(fromUpstream);
+        if (counters != null) counters.deduplicated();
+    }
+
+    /**
+     * Measure the time spent in a traversal made for the request, if its query is being profiled
+     */
+    protected <T> FunctionalIterator<T> profiledTraversal(Request fromUpstream, FunctionalIterator<T> traversal) {
+        ResolutionProfiler.Counters counters = counters(fromUpstream);
+        return counters != null ? counters.traversal(traversal) : traversal;
+    }
+
+    /**
+     * Measure the time spent in each of the iterators of a traversal producer made for the request,
+     * if its query is being profiled
+     */
+    protected <T> FunctionalProducer<T> profiledTraversal(Request fromUpstream, FunctionalProducer<T> traversal) {
+        ResolutionProfiler.Counters counters = counters(fromUpstream);
+        return counters != null ? traversal.mapIterators(counters::traversal) : traversal;
+    }
+
+    private ResolutionProfiler.Counters counters(Request request) {
+        return registry.profiler().counters(request.partialAnswer().root(), name());
+    }
+
+    /**
+     * Handles a message, followed by the work it deferred to this resolver: requests answered
+     * from the buffer, and requests repeated to fill a batch.
+     */
+    void receive(Runnable message) {
+        isReceiving = true;
+        try {
+            message.run();
+            while (!pending.isEmpty()) pending.poll().run();
+        } finally {
+            isReceiving = false;
+        }
+    }
+
+    private void receiveLater(Runnable work) {
+        pending.add(work);
+        if (!isReceiving) driver().execute(actor -> actor.receive(() -> {}));
+    }
+
+    private static class Batch {
+
+        private final int size;
+        private final int iteration;
+        private final List<Partial<?>> answers;
+
+        private Batch(int size, int iteration) {
+            this.size = size;
+            this.iteration = iteration;
+            this.answers = new ArrayList<>(size);
+        }
+    }
+
+    private static class Buffer {
+
+        private final int iteration;
+        private final ArrayDeque<Partial<?>> answers;
+        private int requested;
+        private int batchSize;
+        private boolean isAwaiting;
+        private boolean isExhausted;
+
+        private Buffer(int iteration) {
+            this.iteration = iteration;
+            this.answers = new ArrayDeque<>();
+            this.requested = 0;
+            this.batchSize = 0;
+            this.isAwaiting = false;
+            this.isExhausted = false;
+        }
+
+        private boolean hasResponse() {
+            return !answers.isEmpty() || isExhausted;
+        }
+
+        private int nextBatchSize() {
+            batchSize = Math.max(requested, Math.min(batchSize * 2, MAX_BATCH_SIZE));
+            return Math.max(batchSize, 1);
+        }
     }
 
     protected FunctionalIterator<ConceptMap> traversalIterator(Conjunction conjunction, ConceptMap bounds) {
@@ -142,7 +371,7 @@ public abstract class Resolver<RESOLVER extends Resolver<RESOLVER>> extends Acto
         }).orElse(Iterators.empty());
     }
 
-    protected Producer<ConceptMap> traversalProducer(Conjunction conjunction, ConceptMap bounds, int parallelisation) {
+    protected FunctionalProducer<ConceptMap> traversalProducer(Conjunction conjunction, ConceptMap bounds, int parallelisation) {
         return compatibleBounds(conjunction, bounds).map(b -> {
             Traversal traversal = boundTraversal(conjunction.traversal(), b);
             return traversalEngine.producer(traversal, Either.first(INCREMENTAL), parallelisation).map(conceptMgr::conceptMap);
@@ -21,6 +21,7 @@ package com.vaticle.typedb.core.reasoner.resolution.framework;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial;
 
+import java.util.List;
 import java.util.Objects;
 
 import static com.vaticle.typedb.common.util.Objects.className;
@@ -33,6 +34,8 @@ public interface Response {
 
     boolean isFail();
 
+    boolean isBatch();
+
     default Answer asAnswer() {
         throw TypeDBException.of(INVALID_CASTING, className(this.getClass()), className(Answer.class));
     }
@@ -41,6 +44,10 @@ public interface Response {
         throw TypeDBException.of(INVALID_CASTING, className(this.getClass()), className(Fail.class));
     }
 
+    default Batch asBatch() {
+        throw TypeDBException.of(INVALID_CASTING, className(this.getClass()), className(Batch.class));
+    }
+
     class Answer implements Response {
         private final Request sourceRequest;
         private final Partial<?> answer;
@@ -77,6 +84,11 @@ public interface Response {
             return false;
         }
 
+        @Override
+        public boolean isBatch() {
+            return false;
+        }
+
         @Override
         public Answer asAnswer() {
             return this;
@@ -127,6 +139,11 @@ public interface Response {
             return true;
         }
 
+        @Override
+        public boolean isBatch() {
+            return false;
+        }
+
         @Override
         public Fail asFail() {
             return this;
@@ -140,4 +157,62 @@ public interface Response {
                     '}';
         }
     }
+
+    /**
+     * Answers to a number of identical requests, sent together in a single message. If the
+     * batch is exhausted, the request failed after its answers.
+     */
+    class Batch implements Response {
+        private final Request sourceRequest;
+        private final List<Partial<?>> answers;
+        private final boolean isExhausted;
+
+        public Batch(Request sourceRequest, List<Partial<?>> answers, boolean isExhausted) {
+            this.sourceRequest = sourceRequest;
+            this.answers = answers;
+            this.isExhausted = isExhausted;
+        }
+
+        @Override
+        public Request sourceRequest() {
+            return sourceRequest;
+        }
+
+        public List<Partial<?>> answers() {
+            return answers;
+        }
+
+        public boolean isExhausted() {
+            return isExhausted;
+        }
+
+        @Override
+        public boolean isAnswer() {
+            return false;
+        }
+
+        @Override
+        public boolean isFail() {
+            return false;
+        }
+
+        @Override
+        public boolean isBatch() {
+            return true;
+        }
+
+        @Override
+        public Batch asBatch() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Batch{" +
+                    "sourceRequest=" + sourceRequest +
+                    ", answers=" + answers.size() +
+                    ", isExhausted=" + isExhausted +
+                    '}';
+        }
+    }
 }
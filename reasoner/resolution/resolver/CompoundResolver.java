@@ -42,8 +42,8 @@ public abstract class CompoundResolver<
     boolean isInitialised;
 
     protected CompoundResolver(Driver<RESOLVER> driver, String name, ResolverRegistry registry,
-                               TraversalEngine traversalEngine, ConceptManager conceptMgr, boolean resolutionTracing) {
-        super(driver, name, registry, traversalEngine, conceptMgr, resolutionTracing);
+                               TraversalEngine traversalEngine, ConceptManager conceptMgr) {
+        super(driver, name, registry, traversalEngine, conceptMgr);
         this.requestStates = new HashMap<>();
         this.isInitialised = false;
     }
@@ -84,6 +84,11 @@ public abstract class CompoundResolver<
         nextAnswer(fromUpstream, requestState, iteration);
     }
 
+    @Override
+    protected void cancelled(Driver<? extends Resolver<?>> root) {
+        requestStates.keySet().removeIf(request -> request.partialAnswer().root().equals(root));
+    }
+
     private REQ_STATE getOrUpdateRequestState(Request fromUpstream, int iteration) {
         if (!requestStates.containsKey(fromUpstream)) {
             requestStates.put(fromUpstream, requestStateCreate(fromUpstream, iteration));
@@ -29,6 +29,7 @@ import com.vaticle.typedb.core.logic.resolvable.Unifier;
 import com.vaticle.typedb.core.pattern.Conjunction;
 import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial;
+import com.vaticle.typedb.core.reasoner.resolution.answer.ConceptMapSet;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Resolver;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Response;
@@ -64,9 +65,9 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
 
     public ConcludableResolver(Driver<ConcludableResolver> driver, com.vaticle.typedb.core.logic.resolvable.Concludable concludable,
                                ResolverRegistry registry, TraversalEngine traversalEngine, ConceptManager conceptMgr,
-                               LogicManager logicMgr, boolean resolutionTracing) {
+                               LogicManager logicMgr) {
         super(driver, ConcludableResolver.class.getSimpleName() + "(pattern: " + concludable.pattern() + ")",
-              registry, traversalEngine, conceptMgr, resolutionTracing);
+              registry, traversalEngine, conceptMgr);
         this.logicMgr = logicMgr;
         this.concludable = concludable;
         this.applicableRules = new LinkedHashMap<>();
@@ -110,6 +111,7 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
             requestState.recordProduced(upstreamAnswer.conceptMap());
             answerFound(upstreamAnswer, fromUpstream, iteration);
         } else {
+            recordDeduplicated(fromUpstream);
             nextAnswer(fromUpstream, requestState, iteration);
         }
     }
@@ -188,6 +190,16 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         }
     }
 
+    @Override
+    protected void cancelled(Driver<? extends Resolver<?>> root) {
+        requestStates.entrySet().removeIf(entry -> {
+            if (!entry.getKey().partialAnswer().root().equals(root)) return false;
+            entry.getValue().upstreamAnswers().recycle();
+            return true;
+        });
+        recursionStates.remove(root);
+    }
+
     private RequestState getOrUpdateRequestState(Request fromUpstream, int iteration) {
         if (!requestStates.containsKey(fromUpstream)) {
             requestStates.put(fromUpstream, requestStateCreate(fromUpstream, iteration));
@@ -215,7 +227,7 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         assert fromUpstream.partialAnswer().isConcludable();
         FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers = fromUpstream.partialAnswer().asConcludable().isExplain() ?
                 Iterators.empty() :
-                traversalIterator(concludable.pattern(), fromUpstream.partialAnswer().conceptMap())
+                profiledTraversal(fromUpstream, traversalIterator(concludable.pattern(), fromUpstream.partialAnswer().conceptMap()))
                         .map(conceptMap -> fromUpstream.partialAnswer().asConcludable().asMatch()
                                 .toUpstreamLookup(conceptMap, concludable.isInferredAnswer(conceptMap))
                         );
@@ -260,7 +272,7 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
     }
 
     private static class RequestState {
-        private final Set<ConceptMap> produced;
+        private final ConceptMapSet produced;
         private final FunctionalIterator<Partial.Compound<?, ?>> newUpstreamAnswers;
         private final LinkedHashSet<Request> downstreamProducer;
         private final int iteration;
@@ -268,11 +280,11 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         private Iterator<Request> downstreamProducerSelector;
 
         public RequestState(FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers, int iteration, boolean singleAnswerRequired) {
-            this(upstreamAnswers, iteration, singleAnswerRequired, new HashSet<>());
+            this(upstreamAnswers, iteration, singleAnswerRequired, new ConceptMapSet());
         }
 
         private RequestState(FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers, int iteration, boolean singleAnswerRequired,
-                             Set<ConceptMap> produced) {
+                             ConceptMapSet produced) {
             this.newUpstreamAnswers = upstreamAnswers.filter(partial -> !hasProduced(partial.conceptMap()));
             this.iteration = iteration;
             this.produced = produced;
@@ -340,12 +352,12 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
      * while maintaining the ability to do loop termination within a single query
      */
     private static class RecursionState {
-        private Set<ConceptMap> receivedMaps;
+        private ConceptMapSet receivedMaps;
         private int iteration;
 
         RecursionState(int iteration) {
             this.iteration = iteration;
-            this.receivedMaps = new HashSet<>();
+            this.receivedMaps = new ConceptMapSet();
         }
 
         public int iteration() {
@@ -355,7 +367,7 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         public void nextIteration(int newIteration) {
             assert newIteration > iteration;
             iteration = newIteration;
-            receivedMaps = new HashSet<>();
+            receivedMaps = new ConceptMapSet();
         }
 
         public void recordReceived(ConceptMap conceptMap) {
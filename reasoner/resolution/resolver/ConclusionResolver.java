@@ -56,9 +56,9 @@ public class ConclusionResolver extends Resolver<ConclusionResolver> {
     private boolean isInitialised;
 
     public ConclusionResolver(Driver<ConclusionResolver> driver, Rule.Conclusion conclusion, ResolverRegistry registry,
-                              TraversalEngine traversalEngine, ConceptManager conceptMgr, boolean resolutionTracing) {
+                              TraversalEngine traversalEngine, ConceptManager conceptMgr) {
         super(driver, ConclusionResolver.class.getSimpleName() + "(" + conclusion + ")",
-              registry, traversalEngine, conceptMgr, resolutionTracing);
+              registry, traversalEngine, conceptMgr);
         this.conclusion = conclusion;
         this.requestStates = new HashMap<>();
         this.isInitialised = false;
@@ -90,8 +90,8 @@ public class ConclusionResolver extends Resolver<ConclusionResolver> {
         Request fromUpstream = fromUpstream(toDownstream);
         RequestState requestState = this.requestStates.get(fromUpstream);
 
-        FunctionalIterator<Map<Identifier.Variable, Concept>> materialisations = conclusion
-                .materialise(fromDownstream.answer().conceptMap(), traversalEngine, conceptMgr);
+        FunctionalIterator<Map<Identifier.Variable, Concept>> materialisations = profiledTraversal(fromUpstream, conclusion
+                .materialise(fromDownstream.answer().conceptMap(), traversalEngine, conceptMgr));
         if (!materialisations.hasNext()) throw TypeDBException.of(ILLEGAL_STATE);
 
         FunctionalIterator<Partial.Concludable<?>> materialisedAnswers = materialisations
@@ -149,6 +149,15 @@ public class ConclusionResolver extends Resolver<ConclusionResolver> {
         }
     }
 
+    @Override
+    protected void cancelled(Driver<? extends Resolver<?>> root) {
+        requestStates.entrySet().removeIf(entry -> {
+            if (!entry.getKey().partialAnswer().root().equals(root)) return false;
+            entry.getValue().recycle();
+            return true;
+        });
+    }
+
     private RequestState getOrUpdateRequestState(Request fromUpstream, int iteration) {
         if (!requestStates.containsKey(fromUpstream)) {
             requestStates.put(fromUpstream, createRequestState(fromUpstream, iteration));
@@ -176,7 +185,7 @@ public class ConclusionResolver extends Resolver<ConclusionResolver> {
         assert conclusion.retrievableIds().containsAll(partialAnswer.conceptMap().concepts().keySet());
         if (conclusion.generating().isPresent() && conclusion.retrievableIds().size() > partialAnswer.conceptMap().concepts().size() &&
                 partialAnswer.conceptMap().concepts().containsKey(conclusion.generating().get().id())) {
-            FunctionalIterator<Partial.Compound<?, ?>> completedDownstreamAnswers = candidateAnswers(partialAnswer);
+            FunctionalIterator<Partial.Compound<?, ?>> completedDownstreamAnswers = profiledTraversal(fromUpstream, candidateAnswers(partialAnswer));
             completedDownstreamAnswers.forEachRemaining(answer -> requestState.addDownstream(Request.create(driver(), ruleResolver,
                                                                                                             answer)));
         } else {
@@ -234,6 +243,11 @@ public class ConclusionResolver extends Resolver<ConclusionResolver> {
             return !materialisedAnswers.isEmpty();
         }
 
+        private void recycle() {
+            materialisedAnswers.forEach(FunctionalIterator::recycle);
+            materialisedAnswers.clear();
+        }
+
         public boolean hasDownstream() {
             return !downstreams.isEmpty();
         }
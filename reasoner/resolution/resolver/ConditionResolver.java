@@ -42,9 +42,9 @@ public class ConditionResolver extends ConjunctionResolver<ConditionResolver> {
 
     public ConditionResolver(Driver<ConditionResolver> driver, Rule.Condition condition,
                              ResolverRegistry registry, TraversalEngine traversalEngine, ConceptManager conceptMgr,
-                             LogicManager logicMgr, Planner planner, boolean resolutionTracing) {
+                             LogicManager logicMgr, Planner planner) {
         super(driver, ConditionResolver.class.getSimpleName() + "(" + condition + ")",
-              registry, traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing);
+              registry, traversalEngine, conceptMgr, logicMgr, planner);
         this.condition = condition;
     }
 
@@ -81,6 +81,7 @@ public class ConditionResolver extends ConjunctionResolver<ConditionResolver> {
             answerToUpstream(upstreamAnswer, fromUpstream, iteration);
             return true;
         } else {
+            recordDeduplicated(fromUpstream);
             return false;
         }
     }
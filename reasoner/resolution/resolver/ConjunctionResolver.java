@@ -33,6 +33,7 @@ import com.vaticle.typedb.core.reasoner.resolution.Planner;
 import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial;
+import com.vaticle.typedb.core.reasoner.resolution.answer.ConceptMapSet;
 import com.vaticle.typedb.core.reasoner.resolution.answer.Mapping;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Response;
@@ -64,8 +65,8 @@ public abstract class ConjunctionResolver<RESOLVER extends ConjunctionResolver<R
     final Map<Resolvable<?>, ResolverRegistry.ResolverView> downstreamResolvers;
 
     public ConjunctionResolver(Driver<RESOLVER> driver, String name, ResolverRegistry registry, TraversalEngine traversalEngine,
-                               ConceptManager conceptMgr, LogicManager logicMgr, Planner planner, boolean resolutionTracing) {
-        super(driver, name, registry, traversalEngine, conceptMgr, resolutionTracing);
+                               ConceptManager conceptMgr, LogicManager logicMgr, Planner planner) {
+        super(driver, name, registry, traversalEngine, conceptMgr);
         this.logicMgr = logicMgr;
         this.planner = planner;
         this.resolvables = new HashSet<>();
@@ -216,13 +217,13 @@ public abstract class ConjunctionResolver<RESOLVER extends ConjunctionResolver<R
 
     public static class RequestState extends CompoundResolver.RequestState {
 
-        private final Set<ConceptMap> produced;
+        private final ConceptMapSet produced;
 
         public RequestState(int iteration) {
-            this(iteration, new HashSet<>());
+            this(iteration, new ConceptMapSet());
         }
 
-        public RequestState(int iteration, Set<ConceptMap> produced) {
+        public RequestState(int iteration, ConceptMapSet produced) {
             super(iteration);
             this.produced = produced;
         }
@@ -235,7 +236,7 @@ public abstract class ConjunctionResolver<RESOLVER extends ConjunctionResolver<R
             return produced.contains(conceptMap);
         }
 
-        public Set<ConceptMap> produced() {
+        public ConceptMapSet produced() {
             return produced;
         }
 
@@ -287,9 +288,9 @@ public abstract class ConjunctionResolver<RESOLVER extends ConjunctionResolver<R
 
         public Nested(Driver<Nested> driver, Conjunction conjunction,
                       ResolverRegistry registry, TraversalEngine traversalEngine, ConceptManager conceptMgr,
-                      LogicManager logicMgr, Planner planner, boolean resolutionTracing) {
+                      LogicManager logicMgr, Planner planner) {
             super(driver, Nested.class.getSimpleName() + "(pattern: " + conjunction + ")",
-                  registry, traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing);
+                  registry, traversalEngine, conceptMgr, logicMgr, planner);
             this.conjunction = conjunction;
         }
 
@@ -327,6 +328,7 @@ public abstract class ConjunctionResolver<RESOLVER extends ConjunctionResolver<R
                 answerToUpstream(upstreamAnswer, fromUpstream, iteration);
                 return true;
             } else {
+                recordDeduplicated(fromUpstream);
                 return false;
             }
         }
@@ -24,6 +24,7 @@ import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial.Compound;
+import com.vaticle.typedb.core.reasoner.resolution.answer.ConceptMapSet;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Response;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
@@ -32,7 +33,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -47,9 +47,8 @@ public abstract class DisjunctionResolver<RESOLVER extends DisjunctionResolver<R
     final com.vaticle.typedb.core.pattern.Disjunction disjunction;
 
     public DisjunctionResolver(Driver<RESOLVER> driver, String name, com.vaticle.typedb.core.pattern.Disjunction disjunction,
-                               ResolverRegistry registry, TraversalEngine traversalEngine, ConceptManager conceptMgr,
-                               boolean resolutionTracing) {
-        super(driver, name, registry, traversalEngine, conceptMgr, resolutionTracing);
+                               ResolverRegistry registry, TraversalEngine traversalEngine, ConceptManager conceptMgr) {
+        super(driver, name, registry, traversalEngine, conceptMgr);
         this.disjunction = disjunction;
         this.downstreamResolvers = new HashMap<>();
     }
@@ -128,13 +127,13 @@ public abstract class DisjunctionResolver<RESOLVER extends DisjunctionResolver<R
 
     static class RequestState extends CompoundResolver.RequestState {
 
-        private final Set<ConceptMap> produced;
+        private final ConceptMapSet produced;
 
         public RequestState(int iteration) {
-            this(iteration, new HashSet<>());
+            this(iteration, new ConceptMapSet());
         }
 
-        public RequestState(int iteration, Set<ConceptMap> produced) {
+        public RequestState(int iteration, ConceptMapSet produced) {
             super(iteration);
             this.produced = produced;
         }
@@ -147,7 +146,7 @@ public abstract class DisjunctionResolver<RESOLVER extends DisjunctionResolver<R
             return produced.contains(conceptMap);
         }
 
-        public Set<ConceptMap> produced() {
+        public ConceptMapSet produced() {
             return produced;
         }
     }
@@ -155,9 +154,9 @@ public abstract class DisjunctionResolver<RESOLVER extends DisjunctionResolver<R
     public static class Nested extends DisjunctionResolver<Nested> {
 
         public Nested(Driver<Nested> driver, Disjunction disjunction, ResolverRegistry registry,
-                      TraversalEngine traversalEngine, ConceptManager conceptMgr, boolean explanations) {
+                      TraversalEngine traversalEngine, ConceptManager conceptMgr) {
             super(driver, Nested.class.getSimpleName() + "(pattern: " + disjunction + ")", disjunction,
-                  registry, traversalEngine, conceptMgr, explanations);
+                  registry, traversalEngine, conceptMgr);
         }
 
         @Override
@@ -49,10 +49,9 @@ public class NegationResolver extends Resolver<NegationResolver> {
     private Driver<? extends Resolver<?>> downstream;
 
     public NegationResolver(Driver<NegationResolver> driver, Negated negated, ResolverRegistry registry,
-                            TraversalEngine traversalEngine, ConceptManager conceptMgr,
-                            boolean resolutionTracing) {
+                            TraversalEngine traversalEngine, ConceptManager conceptMgr) {
         super(driver, NegationResolver.class.getSimpleName() + "(pattern: " + negated.pattern() + ")",
-              registry, traversalEngine, conceptMgr, resolutionTracing);
+              registry, traversalEngine, conceptMgr);
         this.negated = negated;
         this.boundsStates = new HashMap<>();
         this.isInitialised = false;
@@ -20,7 +20,10 @@ package com.vaticle.typedb.core.reasoner.resolution.resolver;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concurrent.producer.Producer;
 import com.vaticle.typedb.core.logic.resolvable.Retrievable;
+import com.vaticle.typedb.core.reasoner.resolution.Planner;
 import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
@@ -28,27 +31,45 @@ import com.vaticle.typedb.core.reasoner.resolution.framework.Resolver;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Response;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Response.Answer;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
+import com.vaticle.typedb.core.traversal.common.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.PARALLELISATION_FACTOR;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.async1;
 
+/**
+ * Retrieves the answers to a pattern without rules, for each request from upstream.
+ *
+ * Requests that the statistics predict will retrieve many answers are answered from a traversal
+ * producer, which retrieves in parallel on the async executors and sends its answers back to this
+ * resolver as messages. All other requests are answered from a traversal iterator on the actor.
+ */
 public class RetrievableResolver extends Resolver<RetrievableResolver> {
 
     private static final Logger LOG = LoggerFactory.getLogger(RetrievableResolver.class);
+    private static final long PRODUCER_MIN_ANSWERS = 10_000;
+    private static final int PRODUCER_BATCH_SIZE = 64;
 
     private final Retrievable retrievable;
-    private final Map<Request, RequestStates> requestStates;
+    private final Planner planner;
+    private final Map<Request, RequestState> requestStates;
+    private final Map<Set<Identifier.Variable.Retrievable>, Boolean> isLarge;
 
     public RetrievableResolver(Driver<RetrievableResolver> driver, Retrievable retrievable, ResolverRegistry registry,
-                               TraversalEngine traversalEngine, ConceptManager conceptMgr, boolean resolutionTracing) {
+                               TraversalEngine traversalEngine, ConceptManager conceptMgr, Planner planner) {
         super(driver, RetrievableResolver.class.getSimpleName() + "(pattern: " + retrievable.pattern() + ")",
-              registry, traversalEngine, conceptMgr, resolutionTracing);
+              registry, traversalEngine, conceptMgr);
         this.retrievable = retrievable;
+        this.planner = planner;
         this.requestStates = new HashMap<>();
+        this.isLarge = new HashMap<>();
     }
 
     @Override
@@ -56,13 +77,13 @@ public class RetrievableResolver extends Resolver<RetrievableResolver> {
         LOG.trace("{}: received Request: {}", name(), fromUpstream);
         if (isTerminated()) return;
 
-        RequestStates requestStates = getOrUpdateRequestState(fromUpstream, iteration);
-        if (iteration < requestStates.iteration()) {
+        RequestState requestState = getOrUpdateRequestState(fromUpstream, iteration);
+        if (iteration < requestState.iteration()) {
             // short circuit old iteration failed messages to upstream
             failToUpstream(fromUpstream, iteration);
         } else {
-            assert iteration == requestStates.iteration();
-            nextAnswer(fromUpstream, requestStates, iteration);
+            assert iteration == requestState.iteration();
+            requestState.nextAnswer();
         }
     }
 
@@ -76,65 +97,177 @@ public class RetrievableResolver extends Resolver<RetrievableResolver> {
         throw TypeDBException.of(ILLEGAL_STATE);
     }
 
+    private void receiveProduced(Produced requestState, ConceptMap answer) {
+        if (isTerminated() || requestStates.get(requestState.fromUpstream) != requestState) return;
+        requestState.receiveAnswer(answer);
+    }
+
+    private void receiveProducerDone(Produced requestState) {
+        if (isTerminated() || requestStates.get(requestState.fromUpstream) != requestState) return;
+        requestState.receiveDone();
+    }
+
     @Override
     protected void initialiseDownstreamResolvers() {
         throw TypeDBException.of(ILLEGAL_STATE);
     }
 
-    private RequestStates getOrUpdateRequestState(Request fromUpstream, int iteration) {
+    @Override
+    protected void cancelled(Driver<? extends Resolver<?>> root) {
+        requestStates.entrySet().removeIf(entry -> {
+            if (!entry.getKey().partialAnswer().root().equals(root)) return false;
+            entry.getValue().recycle();
+            return true;
+        });
+    }
+
+    private RequestState getOrUpdateRequestState(Request fromUpstream, int iteration) {
         if (!requestStates.containsKey(fromUpstream)) {
             requestStates.put(fromUpstream, createRequestState(fromUpstream, iteration));
         } else {
-            RequestStates requestStates = this.requestStates.get(fromUpstream);
+            RequestState requestState = this.requestStates.get(fromUpstream);
 
-            if (requestStates.iteration() < iteration) {
+            if (requestState.iteration() < iteration) {
                 // when the same request for the next iteration the first time, re-initialise required state
-                RequestStates responseProducerNextIter = createRequestState(fromUpstream, iteration);
-                this.requestStates.put(fromUpstream, responseProducerNextIter);
+                requestState.recycle();
+                RequestState requestStateNextIter = createRequestState(fromUpstream, iteration);
+                this.requestStates.put(fromUpstream, requestStateNextIter);
             }
         }
         return requestStates.get(fromUpstream);
     }
 
-    protected RequestStates createRequestState(Request fromUpstream, int iteration) {
-        LOG.debug("{}: Creating a new ResponseProducer for iteration:{}, request: {}", name(), iteration, fromUpstream);
+    protected RequestState createRequestState(Request fromUpstream, int iteration) {
+        LOG.debug("{}: Creating a new RequestState for iteration:{}, request: {}", name(), iteration, fromUpstream);
         assert fromUpstream.partialAnswer().isRetrievable();
+        ConceptMap bounds = fromUpstream.partialAnswer().conceptMap();
+        if (isLarge(bounds.concepts().keySet())) {
+            LOG.debug("{}: Retrieving answers in parallel for request: {}", name(), fromUpstream);
+            Producer<ConceptMap> producer = profiledTraversal(
+                    fromUpstream, traversalProducer(retrievable.pattern(), bounds, PARALLELISATION_FACTOR)
+            );
+            return new Produced(fromUpstream, producer, iteration);
+        }
         FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers =
-                traversalIterator(retrievable.pattern(), fromUpstream.partialAnswer().conceptMap())
+                profiledTraversal(fromUpstream, traversalIterator(retrievable.pattern(), bounds))
                         .map(conceptMap -> fromUpstream.partialAnswer().asRetrievable().aggregateToUpstream(conceptMap));
-        return new RequestStates(upstreamAnswers, iteration);
+        return new Iterated(fromUpstream, upstreamAnswers, iteration);
     }
 
-    private void nextAnswer(Request fromUpstream, RequestStates responseProducer, int iteration) {
-        if (responseProducer.hasUpstreamAnswer()) {
-            Partial.Compound<?, ?> upstreamAnswer = responseProducer.upstreamAnswers().next();
-            answerToUpstream(upstreamAnswer, fromUpstream, iteration);
-        } else {
-            failToUpstream(fromUpstream, iteration);
-        }
+    private boolean isLarge(Set<Identifier.Variable.Retrievable> bound) {
+        return PARALLELISATION_FACTOR > 1 && isLarge.computeIfAbsent(
+                bound, b -> planner.answersPerInput(retrievable.pattern(), b) >= PRODUCER_MIN_ANSWERS
+        );
     }
 
-    private static class RequestStates {
+    private abstract class RequestState {
 
-        private final FunctionalIterator<Partial.Compound<?, ?>> newUpstreamAnswers;
+        final Request fromUpstream;
         private final int iteration;
 
-        public RequestStates(FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers, int iteration) {
-            this.newUpstreamAnswers = upstreamAnswers;
+        private RequestState(Request fromUpstream, int iteration) {
+            this.fromUpstream = fromUpstream;
             this.iteration = iteration;
         }
 
-        public boolean hasUpstreamAnswer() {
-            return newUpstreamAnswers.hasNext();
+        abstract void nextAnswer();
+
+        abstract void recycle();
+
+        int iteration() {
+            return iteration;
         }
+    }
 
-        public FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers() {
-            return newUpstreamAnswers;
+    private class Iterated extends RequestState {
+
+        private final FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers;
+
+        private Iterated(Request fromUpstream, FunctionalIterator<Partial.Compound<?, ?>> upstreamAnswers, int iteration) {
+            super(fromUpstream, iteration);
+            this.upstreamAnswers = upstreamAnswers;
         }
 
-        public int iteration() {
-            return iteration;
+        @Override
+        void nextAnswer() {
+            if (upstreamAnswers.hasNext()) answerToUpstream(upstreamAnswers.next(), fromUpstream, iteration());
+            else failToUpstream(fromUpstream, iteration());
+        }
+
+        @Override
+        void recycle() {
+            upstreamAnswers.recycle();
+        }
+    }
+
+    /**
+     * Answers a request from a traversal producer. Each request from upstream is answered once the producer
+     * has delivered an answer for it, or has been exhausted, and answers are produced in batches ahead of them.
+     */
+    private class Produced extends RequestState implements Producer.Queue<ConceptMap> {
+
+        private final Producer<ConceptMap> producer;
+        private final ArrayDeque<Partial.Compound<?, ?>> answers;
+        private int requested;
+        private int producing;
+        private boolean isDone;
+
+        private Produced(Request fromUpstream, Producer<ConceptMap> producer, int iteration) {
+            super(fromUpstream, iteration);
+            this.producer = producer;
+            this.answers = new ArrayDeque<>();
+            this.requested = 0;
+            this.producing = 0;
+            this.isDone = false;
+        }
+
+        @Override
+        void nextAnswer() {
+            requested++;
+            respond();
+        }
+
+        void receiveAnswer(ConceptMap answer) {
+            producing--;
+            answers.add(fromUpstream.partialAnswer().asRetrievable().aggregateToUpstream(answer));
+            respond();
+        }
+
+        void receiveDone() {
+            isDone = true;
+            respond();
         }
 
+        private void respond() {
+            while (requested > 0 && (!answers.isEmpty() || isDone)) {
+                requested--;
+                if (!answers.isEmpty()) answerToUpstream(answers.poll(), fromUpstream, iteration());
+                else failToUpstream(fromUpstream, iteration());
+            }
+            if (!isDone && requested > producing) {
+                producing += PRODUCER_BATCH_SIZE;
+                producer.produce(this, PRODUCER_BATCH_SIZE, async1());
+            }
+        }
+
+        @Override
+        void recycle() {
+            producer.recycle();
+        }
+
+        @Override
+        public void put(ConceptMap answer) {
+            driver().execute(resolver -> resolver.receiveProduced(this, answer));
+        }
+
+        @Override
+        public void done() {
+            driver().execute(resolver -> resolver.receiveProducerDone(this));
+        }
+
+        @Override
+        public void done(Throwable e) {
+            driver().execute(resolver -> resolver.exception(e));
+        }
     }
 }
@@ -59,9 +59,9 @@ public interface RootResolver<TOP extends Top> {
                            Consumer<Finished> onAnswer, Consumer<Integer> onFail, Consumer<Throwable> onException,
                            ResolverRegistry registry,
                            TraversalEngine traversalEngine, ConceptManager conceptMgr, LogicManager logicMgr,
-                           Planner planner, boolean resolutionTracing) {
+                           Planner planner) {
             super(driver, Conjunction.class.getSimpleName() + "(pattern:" + conjunction + ")",
-                  registry, traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing);
+                  registry, traversalEngine, conceptMgr, logicMgr, planner);
             this.conjunction = conjunction;
             this.onAnswer = onAnswer;
             this.onFail = onFail;
@@ -132,6 +132,7 @@ public interface RootResolver<TOP extends Top> {
                 answerToUpstream(upstreamAnswer, fromUpstream, iteration);
                 return true;
             } else {
+                recordDeduplicated(fromUpstream);
                 return false;
             }
         }
@@ -158,9 +159,9 @@ public interface RootResolver<TOP extends Top> {
         public Disjunction(Driver<Disjunction> driver, com.vaticle.typedb.core.pattern.Disjunction disjunction,
                            Consumer<Finished> onAnswer, Consumer<Integer> onFail, Consumer<Throwable> onException,
                            ResolverRegistry registry,
-                           TraversalEngine traversalEngine, ConceptManager conceptMgr, boolean resolutionTracing) {
+                           TraversalEngine traversalEngine, ConceptManager conceptMgr) {
             super(driver, Disjunction.class.getSimpleName() + "(pattern:" + disjunction + ")", disjunction,
-                  registry, traversalEngine, conceptMgr, resolutionTracing);
+                  registry, traversalEngine, conceptMgr);
             this.onAnswer = onAnswer;
             this.onFail = onFail;
             this.onException = onException;
@@ -212,6 +213,7 @@ public interface RootResolver<TOP extends Top> {
                 answerToUpstream(upstreamAnswer, fromUpstream, iteration);
                 return true;
             } else {
+                recordDeduplicated(fromUpstream);
                 return false;
             }
         }
@@ -243,9 +245,8 @@ public interface RootResolver<TOP extends Top> {
 
         public Explain(Driver<Explain> driver, com.vaticle.typedb.core.pattern.Conjunction conjunction, Consumer<Top.Explain.Finished> onAnswer,
                        Consumer<Integer> onFail, Consumer<Throwable> onException, ResolverRegistry registry,
-                       TraversalEngine traversalEngine, ConceptManager conceptMgr, LogicManager logicMgr, Planner planner,
-                       boolean resolutionTracing) {
-            super(driver, "Explain(" + conjunction + ")", registry, traversalEngine, conceptMgr, logicMgr, planner, resolutionTracing);
+                       TraversalEngine traversalEngine, ConceptManager conceptMgr, LogicManager logicMgr, Planner planner) {
+            super(driver, "Explain(" + conjunction + ")", registry, traversalEngine, conceptMgr, logicMgr, planner);
             this.conjunction = conjunction;
             this.onAnswer = onAnswer;
             this.onFail = onFail;
@@ -305,6 +306,7 @@ public interface RootResolver<TOP extends Top> {
                 answerToUpstream(upstreamAnswer, fromUpstream, iteration);
                 return true;
             } else {
+                recordDeduplicated(fromUpstream);
                 return false;
             }
         }
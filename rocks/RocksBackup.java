@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.rocks;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.graph.common.Encoding;
+import org.rocksdb.Checkpoint;
+import org.rocksdb.LiveFileMetaData;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.BACKUP_CORRUPTED;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.BACKUP_EXISTS;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.BACKUP_NOT_FOUND;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.BACKUP_SCHEMA_LOCK_TIMEOUT;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.reverseOrder;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Online backups of a database, taken from RocksDB checkpoints of its schema and data storages.
+ *
+ * A checkpoint is created inside the database directory, where its SST files are hard links
+ * to the live ones, so taking it neither copies data nor blocks writers. The backup then only
+ * copies the SST files that the backup directory does not hold yet, as the directory is shared
+ * by all the backups of a database:
+ *
+ * <pre>
+ * backup directory
+ * ├── shared/schema/*.sst
+ * ├── shared/data/*.sst
+ * └── [backup id]
+ *     ├── schema/     files of the schema checkpoint other than its SST files, and SST_FILES
+ *     ├── data/       files of the data checkpoint other than its SST files, and SST_FILES
+ *     └── COMPLETED
+ * </pre>
+ *
+ * Shared SST files are keyed by the number, the size and the largest sequence number of the SST
+ * file, as read from the live file metadata of the storage, so that a backup finds the files it
+ * shares without reading them. The sequence number tells apart the files that a database restored
+ * from an older backup writes under numbers that the original database has used since. A shared
+ * file is named {@code [number]_[size]_[sequence]_[checksum].sst}, where the CRC32C checksum is
+ * computed while the file is copied, and is only verified when a restore uses the file.
+ *
+ * Backup ids are increasing numbers, one above the largest id in the backup directory, and a
+ * backup never overwrites the directory of another.
+ */
+public class RocksBackup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RocksBackup.class);
+
+    static final String HIDDEN_PREFIX = ".";
+    private static final String CHECKPOINT_PREFIX = HIDDEN_PREFIX + "checkpoint-";
+    private static final String SHARED = "shared";
+    private static final String SST_EXTENSION = ".sst";
+    private static final String SST_FILES = "SST_FILES";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final int CHECKSUM_BUFFER_SIZE = 1 << 16;
+
+    private RocksBackup() {}
+
+    /**
+     * Backs up the given database into a new backup inside the given backup directory.
+     *
+     * Schema sessions are held off while the two checkpoints are taken, so that the
+     * schema and the data of the backup are consistent with each other.
+     *
+     * @param database  the database to back up
+     * @param directory the backup directory of the database
+     * @return the directory of the new backup
+     */
+    static Path create(RocksDatabase database, Path directory) {
+        Path backup = createBackupDirectory(directory);
+        Path checkpoint = database.directory().resolve(CHECKPOINT_PREFIX + backup.getFileName());
+        boolean completed = false;
+        try {
+            Files.createDirectories(checkpoint);
+            long lock = database.schemaLock().tryReadLock(new Options.Session().schemaLockTimeoutMillis(), MILLISECONDS);
+            if (lock == 0) throw TypeDBException.of(BACKUP_SCHEMA_LOCK_TIMEOUT, database.name());
+            Map<String, Map<String, LiveFileMetaData>> metadata = new HashMap<>();
+            try {
+                Path schema = checkpoint.resolve(Encoding.ROCKS_SCHEMA);
+                Path data = checkpoint.resolve(Encoding.ROCKS_DATA);
+                metadata.put(Encoding.ROCKS_SCHEMA, checkpoint(database.rocksSchema(), schema));
+                metadata.put(Encoding.ROCKS_DATA, checkpoint(database.rocksData(), data));
+            } finally {
+                database.schemaLock().unlockRead(lock);
+            }
+            for (String storage : new String[]{Encoding.ROCKS_SCHEMA, Encoding.ROCKS_DATA}) {
+                copyToBackup(checkpoint.resolve(storage), metadata.get(storage),
+                             directory.resolve(SHARED).resolve(storage), backup.resolve(storage));
+            }
+            Files.createFile(backup.resolve(COMPLETED));
+            completed = true;
+            LOG.info("Backed up database '{}' to '{}'", database.name(), backup);
+            return backup;
+        } catch (IOException | RocksDBException e) {
+            throw TypeDBException.of(e);
+        } catch (InterruptedException e) {
+            throw TypeDBException.of(UNEXPECTED_INTERRUPTION);
+        } finally {
+            delete(checkpoint);
+            if (!completed) delete(backup);
+        }
+    }
+
+    /**
+     * Assembles a database directory from a backup, linking the backed up SST files
+     * where the file system allows it, and copying them otherwise. Every shared SST
+     * file is checked against the checksum in its name before it is used.
+     *
+     * @param backup    the directory of the backup to restore
+     * @param directory the database directory to create, which must not exist
+     */
+    static void restore(Path backup, Path directory) {
+        if (!Files.exists(backup.resolve(COMPLETED))) throw TypeDBException.of(BACKUP_NOT_FOUND, backup);
+        try {
+            for (String storage : new String[]{Encoding.ROCKS_SCHEMA, Encoding.ROCKS_DATA}) {
+                copyFromBackup(backup.resolve(storage), backup.getParent().resolve(SHARED).resolve(storage),
+                               directory.resolve(storage));
+            }
+        } catch (IOException e) {
+            delete(directory);
+            throw TypeDBException.of(e);
+        } catch (TypeDBException e) {
+            delete(directory);
+            throw e;
+        }
+    }
+
+    private static synchronized Path createBackupDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            long id = list(directory).stream().map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("[0-9]+")).mapToLong(Long::parseLong).max().orElse(0) + 1;
+            Path backup = directory.resolve(String.valueOf(id));
+            Files.createDirectory(backup);
+            return backup;
+        } catch (FileAlreadyExistsException e) {
+            throw TypeDBException.of(BACKUP_EXISTS, e.getFile());
+        } catch (IOException e) {
+            throw TypeDBException.of(e);
+        }
+    }
+
+    /**
+     * Creates a checkpoint of the storage, and returns the metadata of its live SST files by file name.
+     * File deletions are disabled until the metadata is read, so that it covers every SST file of the checkpoint.
+     */
+    private static Map<String, LiveFileMetaData> checkpoint(RocksDB rocksDB, Path directory) throws RocksDBException {
+        rocksDB.disableFileDeletions();
+        try (Checkpoint checkpoint = Checkpoint.create(rocksDB)) {
+            checkpoint.createCheckpoint(directory.toString());
+            Map<String, LiveFileMetaData> metadata = new HashMap<>();
+            for (LiveFileMetaData file : rocksDB.getLiveFilesMetaData()) {
+                metadata.put(Paths.get(file.fileName()).getFileName().toString(), file);
+            }
+            return metadata;
+        } finally {
+            rocksDB.enableFileDeletions(false);
+        }
+    }
+
+    private static void copyToBackup(Path checkpoint, Map<String, LiveFileMetaData> metadata,
+                                     Path shared, Path backup) throws IOException {
+        Files.createDirectories(shared);
+        Files.createDirectories(backup);
+        Map<String, String> sharedByKey = new HashMap<>();
+        for (Path file : list(shared)) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(SST_EXTENSION)) sharedByKey.put(name.substring(0, name.lastIndexOf('_')), name);
+        }
+        List<String> sharedFiles = new ArrayList<>();
+        for (Path file : list(checkpoint)) {
+            String name = file.getFileName().toString();
+            if (!name.endsWith(SST_EXTENSION)) {
+                Files.copy(file, backup.resolve(name));
+                continue;
+            }
+            LiveFileMetaData meta = metadata.get(name);
+            if (meta == null) throw TypeDBException.of(ILLEGAL_STATE);
+            String key = stem(name) + "_" + meta.size() + "_" + meta.largestSeqno();
+            String sharedName = sharedByKey.get(key);
+            if (sharedName == null) {
+                Path partial = shared.resolve(key + PARTIAL_SUFFIX);
+                try (CheckedInputStream input = new CheckedInputStream(Files.newInputStream(file), new CRC32C())) {
+                    Files.copy(input, partial, REPLACE_EXISTING);
+                    sharedName = key + "_" + Long.toHexString(input.getChecksum().getValue()) + SST_EXTENSION;
+                }
+                Files.move(partial, shared.resolve(sharedName), ATOMIC_MOVE);
+                sharedByKey.put(key, sharedName);
+            }
+            sharedFiles.add(sharedName);
+        }
+        Files.write(backup.resolve(SST_FILES), sharedFiles);
+    }
+
+    private static void copyFromBackup(Path backup, Path shared, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Path file : list(backup)) {
+            String name = file.getFileName().toString();
+            if (!name.equals(SST_FILES)) Files.copy(file, directory.resolve(name));
+        }
+        for (String sharedName : Files.readAllLines(backup.resolve(SST_FILES))) {
+            Path sharedFile = shared.resolve(sharedName);
+            String[] parts = stem(sharedName).split("_");
+            if (parts.length != 4 || !Files.exists(sharedFile) || Files.size(sharedFile) != Long.parseLong(parts[1])
+                    || !Long.toHexString(checksum(sharedFile)).equals(parts[3])) {
+                throw TypeDBException.of(BACKUP_CORRUPTED, sharedFile);
+            }
+            linkOrCopy(sharedFile, directory.resolve(parts[0] + SST_EXTENSION));
+        }
+    }
+
+    private static String stem(String name) {
+        return name.substring(0, name.length() - SST_EXTENSION.length());
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) crc.update(buffer, 0, read);
+        }
+        return crc.getValue();
+    }
+
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, target);
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(toList());
+        }
+    }
+
+    static void delete(Path directory) {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete directory '{}'", directory, e);
+        }
+    }
+}
@@ -24,12 +24,16 @@ import com.vaticle.typedb.common.concurrent.NamedThreadFactory;
 import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.exception.ErrorMessage;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.graph.ThingGraph;
 import com.vaticle.typedb.core.graph.TypeGraph;
 import com.vaticle.typedb.core.graph.common.Encoding;
 import com.vaticle.typedb.core.graph.common.KeyGenerator;
 import com.vaticle.typedb.core.logic.LogicCache;
+import com.vaticle.typedb.core.query.QueryCache;
+import com.vaticle.typedb.core.reasoner.ReasonerCache;
 import com.vaticle.typedb.core.traversal.TraversalCache;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDBException;
@@ -42,22 +46,31 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Stream;
 
 import static com.vaticle.typedb.common.collection.Collections.hasIntersection;
+import static com.vaticle.typedb.core.common.collection.Bytes.bytesHavePrefix;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.DATABASE_CLOSED;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.DIRTY_INITIALISATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
@@ -71,8 +84,10 @@ import static com.vaticle.typedb.core.common.parameters.Arguments.Session.Type.D
 import static com.vaticle.typedb.core.common.parameters.Arguments.Session.Type.SCHEMA;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.READ;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.scheduled;
 import static java.util.Comparator.reverseOrder;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class RocksDatabase implements TypeDB.Database {
 
@@ -90,7 +105,11 @@ public class RocksDatabase implements TypeDB.Database {
     private final RocksTypeDB typedb;
     private final ConsistencyManager consistencyMgr;
     private final AtomicInteger schemaLockWriteRequests;
+    private final ExecutorService rangeCompactor;
     private Cache cache;
+    private ReadSnapshot readSnapshot;
+    private final AtomicLong readSnapshotsCreated;
+    private final AtomicLong readSnapshotsReused;
 
     private final Factory.Session sessionFactory;
     protected final AtomicBoolean isOpen;
@@ -105,6 +124,9 @@ public class RocksDatabase implements TypeDB.Database {
         schemaLock = new StampedLock();
         schemaLockWriteRequests = new AtomicInteger(0);
         consistencyMgr = new ConsistencyManager();
+        rangeCompactor = Executors.newSingleThreadExecutor(NamedThreadFactory.create(name + "::range-compaction"));
+        readSnapshotsCreated = new AtomicLong(0);
+        readSnapshotsReused = new AtomicLong(0);
 
         try {
             String schemaDirPath = directory().resolve(Encoding.ROCKS_SCHEMA).toString();
@@ -114,6 +136,7 @@ public class RocksDatabase implements TypeDB.Database {
         } catch (RocksDBException e) {
             throw TypeDBException.of(e);
         }
+        deleteSpillFiles();
         isOpen = new AtomicBoolean(true);
     }
 
@@ -202,12 +225,69 @@ public class RocksDatabase implements TypeDB.Database {
             cache.invalidate();
             cache = null;
         }
+        if (readSnapshot != null) readSnapshotRetire();
     }
 
     private synchronized void cacheClose() {
+        if (readSnapshot != null) readSnapshot.close();
         if (cache != null) cache.close();
     }
 
+    /**
+     * Borrow the data snapshot shared by read transactions, taking a new one if the current
+     * one is older than the given staleness, or does not include the given sequence number.
+     * The snapshot taken is retired once it is older than the given staleness.
+     *
+     * @param maxStalenessMillis the maximum age of the snapshot to reuse
+     * @param minSnapshot the sequence number the snapshot must include, to read one's own writes
+     * @return the shared snapshot, to be returned with {@link #readSnapshotUnborrow}
+     */
+    synchronized ReadSnapshot readSnapshotBorrow(long maxStalenessMillis, long minSnapshot) {
+        if (!isOpen.get()) throw TypeDBException.of(DATABASE_CLOSED, name);
+
+        if (readSnapshot == null || !readSnapshot.isReusable(maxStalenessMillis, minSnapshot)) {
+            if (readSnapshot != null) readSnapshotRetire();
+            Cache cache = cacheBorrow();
+            ReadSnapshot created = new ReadSnapshot(cache, new RocksStorage.SharedRead(rocksData));
+            scheduled().schedule(() -> readSnapshotExpire(created), maxStalenessMillis, MILLISECONDS);
+            readSnapshot = created;
+            readSnapshotsCreated.incrementAndGet();
+        } else {
+            readSnapshotsReused.incrementAndGet();
+        }
+        readSnapshot.borrow();
+        return readSnapshot;
+    }
+
+    synchronized void readSnapshotUnborrow(ReadSnapshot readSnapshot) {
+        readSnapshot.unborrow();
+        if (readSnapshot != this.readSnapshot) readSnapshot.mayClose();
+    }
+
+    private synchronized void readSnapshotExpire(ReadSnapshot readSnapshot) {
+        if (readSnapshot == this.readSnapshot) readSnapshotRetire();
+    }
+
+    private void readSnapshotRetire() {
+        assert Thread.holdsLock(this) && readSnapshot != null;
+        readSnapshot.mayClose();
+        readSnapshot = null;
+    }
+
+    public long readSnapshotsCreated() {
+        return readSnapshotsCreated.get();
+    }
+
+    public long readSnapshotsReused() {
+        return readSnapshotsReused.get();
+    }
+
+    public double readSnapshotReuseRate() {
+        long reused = readSnapshotsReused.get();
+        long total = reused + readSnapshotsCreated.get();
+        return total == 0 ? 0 : (double) reused / total;
+    }
+
     protected void statisticsBgCounterStart() {
         assert statisticsBackgroundCounterSession == null;
         assert statisticsBackgroundCounter == null;
@@ -226,10 +306,36 @@ public class RocksDatabase implements TypeDB.Database {
         statisticsBackgroundCounterSession = null;
     }
 
+    protected void rangeCompactorStop() {
+        try {
+            rangeCompactor.shutdown();
+            rangeCompactor.awaitTermination(Long.MAX_VALUE, MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw TypeDBException.of(UNEXPECTED_INTERRUPTION);
+        }
+    }
+
     protected Path directory() {
         return typedb.directory().resolve(name);
     }
 
+    /**
+     * The directory that queries spill their intermediate answers to when they exceed their memory budget.
+     * Spill files never outlive the query that wrote them, so any found here were left by a crash.
+     */
+    public Path spillDirectory() {
+        return directory().resolve(Encoding.ROCKS_SPILL);
+    }
+
+    private void deleteSpillFiles() {
+        if (!Files.exists(spillDirectory())) return;
+        try (Stream<Path> files = Files.walk(spillDirectory())) {
+            files.sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw TypeDBException.of(e);
+        }
+    }
+
     public Options.Database options() {
         return typedb.options();
     }
@@ -242,11 +348,44 @@ public class RocksDatabase implements TypeDB.Database {
         return rocksSchema;
     }
 
+    public StatisticsBackgroundCounter statisticsBackgroundCounter() {
+        return statisticsBackgroundCounter;
+    }
+
+    /**
+     * Compact the key ranges that a committed data transaction deleted, in the background,
+     * so that the range tombstones and the data under them are dropped from the SST files
+     * rather than being skipped over by every read until a regular compaction gets there.
+     *
+     * @param prefixes of the deleted key ranges
+     */
+    void compactPrefixes(Set<ByteBuffer> prefixes) {
+        for (ByteBuffer prefix : prefixes) {
+            byte[] from = prefix.array(), to = prefixUpperBound(from);
+            rangeCompactor.submit(() -> {
+                try {
+                    if (isOpen.get()) rocksData.compactRange(from, to);
+                } catch (RocksDBException e) {
+                    LOG.warn("Failed to compact deleted range", e);
+                }
+            });
+        }
+    }
+
+    static byte[] prefixUpperBound(byte[] prefix) {
+        byte[] upperBound = Arrays.copyOf(prefix, prefix.length);
+        int i = upperBound.length - 1;
+        while (i >= 0 && upperBound[i] == (byte) 0xFF) upperBound[i--] = 0;
+        assert i >= 0;
+        upperBound[i] = (byte) (upperBound[i] + 1);
+        return upperBound;
+    }
+
     KeyGenerator.Schema schemaKeyGenerator() {
         return schemaKeyGenerator;
     }
 
-    KeyGenerator.Data dataKeyGenerator() {
+    KeyGenerator.Data.Persisted dataKeyGenerator() {
         return dataKeyGenerator;
     }
 
@@ -299,6 +438,18 @@ public class RocksDatabase implements TypeDB.Database {
         }
     }
 
+    /**
+     * Takes an online backup of this database into the given backup directory, copying
+     * only the storage files that earlier backups in the same directory do not hold yet.
+     *
+     * @param directory the backup directory of this database
+     * @return the directory of the new backup, to be given to {@link RocksDatabaseManager#restore}
+     */
+    public Path backup(Path directory) {
+        if (!isOpen.get()) throw TypeDBException.of(DATABASE_CLOSED, name);
+        return RocksBackup.create(this, directory);
+    }
+
     void remove(RocksSession session) {
         if (session != statisticsBackgroundCounterSession) {
             long lock = sessions.remove(session.uuid()).second();
@@ -319,6 +470,7 @@ public class RocksDatabase implements TypeDB.Database {
     protected void closeResources() {
         sessions.values().forEach(p -> p.first().close());
         statisticsBgCounterStop();
+        rangeCompactorStop();
         cacheClose();
         rocksData.close();
         rocksSchema.close();
@@ -368,6 +520,7 @@ public class RocksDatabase implements TypeDB.Database {
             synchronized (this) {
                 for (RocksStorage.Data committed : concurrent) {
                     validateModifiedKeys(storage, committed);
+                    validateDeletedPrefixes(storage, committed);
                     if (hasIntersection(storage.deletedKeys(), committed.modifiedKeys())) {
                         throw TypeDBException.of(TRANSACTION_CONSISTENCY_DELETE_MODIFY_VIOLATION);
                     } else if (hasIntersection(storage.exclusiveInsertKeys(), committed.exclusiveInsertKeys())) {
@@ -399,6 +552,32 @@ public class RocksDatabase implements TypeDB.Database {
             }
         }
 
+        private void validateDeletedPrefixes(RocksStorage.Data storage, RocksStorage.Data committed) {
+            for (ByteBuffer prefix : storage.deletedPrefixes()) {
+                if (hasKeyWithPrefix(committed.modifiedKeys(), prefix) ||
+                        hasKeyWithPrefix(committed.exclusiveInsertKeys(), prefix)) {
+                    throw TypeDBException.of(TRANSACTION_CONSISTENCY_DELETE_MODIFY_VIOLATION);
+                }
+            }
+            for (ByteBuffer prefix : committed.deletedPrefixes()) {
+                for (ByteBuffer key : storage.modifiedKeys().tailSet(prefix)) {
+                    if (!bytesHavePrefix(key.array(), prefix.array())) break;
+                    else if (storage.isModifiedValidatedKey(key)) {
+                        throw TypeDBException.of(TRANSACTION_CONSISTENCY_MODIFY_DELETE_VIOLATION);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Keys sharing a prefix are contiguous under any lexicographic order, including the
+         * signed byte order of {@code ByteBuffer}, and the prefix itself sorts before all of them.
+         */
+        private static boolean hasKeyWithPrefix(NavigableSet<ByteBuffer> keys, ByteBuffer prefix) {
+            ByteBuffer key = keys.ceiling(prefix);
+            return key != null && bytesHavePrefix(key.array(), prefix.array());
+        }
+
         // visible for testing
         public int committedEventCount() {
             return storageTimeline.committedEventCount();
@@ -535,6 +714,8 @@ public class RocksDatabase implements TypeDB.Database {
 
         private final TraversalCache traversalCache;
         private final LogicCache logicCache;
+        private final ReasonerCache reasonerCache;
+        private final QueryCache queryCache;
         private final TypeGraph typeGraph;
         private final RocksStorage schemaStorage;
         private long borrowerCount;
@@ -545,6 +726,8 @@ public class RocksDatabase implements TypeDB.Database {
             typeGraph = new TypeGraph(schemaStorage, true);
             traversalCache = new TraversalCache();
             logicCache = new LogicCache();
+            reasonerCache = new ReasonerCache(database.options().reasonerCacheSize());
+            queryCache = new QueryCache(database.options().queryCacheSize());
             borrowerCount = 0L;
             invalidated = false;
         }
@@ -557,6 +740,14 @@ public class RocksDatabase implements TypeDB.Database {
             return logicCache;
         }
 
+        public ReasonerCache reasoner() {
+            return reasonerCache;
+        }
+
+        public QueryCache query() {
+            return queryCache;
+        }
+
         public TypeGraph typeGraph() {
             return typeGraph;
         }
@@ -586,50 +777,206 @@ public class RocksDatabase implements TypeDB.Database {
         }
     }
 
+    /**
+     * A data snapshot shared by the read transactions opened within a staleness bound of
+     * each other, together with the schema cache it was taken with. The snapshot stays open
+     * while no transaction borrows it, so that sequential transactions reuse it and its warm
+     * caches. It is retired once it becomes too stale, or the schema changes, and it is then
+     * released as soon as the last transaction reading from it has been closed, so that
+     * RocksDB does not keep old versions of the data alive for it.
+     */
+    static class ReadSnapshot {
+
+        private final Cache cache;
+        private final RocksStorage.SharedRead storage;
+        private final long createdNanos;
+        private long borrowerCount;
+        private boolean isClosed;
+
+        private ReadSnapshot(Cache cache, RocksStorage.SharedRead storage) {
+            this.cache = cache;
+            this.storage = storage;
+            this.createdNanos = System.nanoTime();
+            this.borrowerCount = 0L;
+            this.isClosed = false;
+        }
+
+        Cache cache() {
+            return cache;
+        }
+
+        RocksStorage.SharedRead storage() {
+            return storage;
+        }
+
+        private boolean isReusable(long maxStalenessMillis, long minSnapshot) {
+            return MILLISECONDS.convert(System.nanoTime() - createdNanos, NANOSECONDS) <= maxStalenessMillis &&
+                    storage.snapshotStart() >= minSnapshot;
+        }
+
+        private void borrow() {
+            assert !isClosed;
+            borrowerCount++;
+        }
+
+        private void unborrow() {
+            assert borrowerCount > 0;
+            borrowerCount--;
+        }
+
+        private void mayClose() {
+            if (borrowerCount == 0) close();
+        }
+
+        private void close() {
+            if (isClosed) return;
+            isClosed = true;
+            storage.close();
+            cache.unborrow();
+        }
+    }
+
+    /**
+     * Processes the count jobs written by committed transactions in the background.
+     *
+     * A single coordinating thread reads a batch of count jobs, and partitions it across
+     * a fixed number of workers. Every worker processes its partition in its own transaction.
+     * Jobs are partitioned by their counted key, so that concurrent workers never write to
+     * the same counted key, and therefore never conflict with each other.
+     */
     public static class StatisticsBackgroundCounter {
 
+        private static final int COUNT_JOB_BATCH_SIZE = 10_000;
+        private static final int COUNT_JOB_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        private static final double PROCESSING_RATE_SMOOTHING = 0.5;
+
         private final RocksSession.Data session;
         private final Thread thread;
+        private final ExecutorService workers;
         private final Semaphore countJobNotifications;
+        private final AtomicLong backlog;
+        private final AtomicLong processed;
+        private volatile double processingRate;
+        private long lastProcessed;
         private boolean isStopped;
 
         StatisticsBackgroundCounter(RocksSession.Data session) {
             this.session = session;
             countJobNotifications = new Semaphore(0);
+            backlog = new AtomicLong(0);
+            processed = new AtomicLong(0);
+            processingRate = 0;
+            workers = Executors.newFixedThreadPool(
+                    COUNT_JOB_WORKERS, NamedThreadFactory.create(session.database().name + "::statistics-background-counter-worker")
+            );
             thread = NamedThreadFactory.create(session.database().name + "::statistics-background-counter")
                     .newThread(this::countFn);
             thread.start();
         }
 
-        public void needsBackgroundCounting() {
+        public void needsBackgroundCounting(long countJobs) {
+            backlog.addAndGet(countJobs);
             countJobNotifications.release();
         }
 
+        /**
+         * @return the approximate number of count jobs that are waiting to be processed
+         */
+        public long backlogSize() {
+            return backlog.get();
+        }
+
+        /**
+         * @return the total number of count jobs processed since the database was opened
+         */
+        public long processedCount() {
+            return processed.get();
+        }
+
+        /**
+         * @return the smoothed number of count jobs processed per second, over the recent batches
+         */
+        public double processingRate() {
+            return processingRate;
+        }
+
+        public boolean isCaughtUp() {
+            return backlog.get() == 0;
+        }
+
         private void countFn() {
             do {
-                try (RocksTransaction.Data tx = session.transaction(WRITE)) {
-                    boolean shouldRestart = tx.graphMgr.data().stats().processCountJobs();
+                try {
+                    boolean shouldRestart = processBatch();
                     if (shouldRestart) countJobNotifications.release();
-                    tx.commit();
                 } catch (TypeDBException e) {
-                    if (e.code().isPresent() && e.code().get().equals(DATABASE_CLOSED.code())) {
-                        break;
-                    } else {
-                        // TODO: Add specific code indicating rocksdb conflict to TypeDBException status code
-                        boolean txConflicted = e.getCause() instanceof RocksDBException &&
-                                ((RocksDBException) e.getCause()).getStatus().getCode() == Status.Code.Busy;
-                        if (txConflicted) {
-                            countJobNotifications.release();
-                        } else {
-                            throw e;
-                        }
-                    }
+                    if (e.code().isPresent() && e.code().get().equals(DATABASE_CLOSED.code())) break;
+                    else throw e;
                 }
                 waitForCountJob();
                 mayHoldBackForSchemaSession();
             } while (!isStopped);
         }
 
+        private boolean processBatch() {
+            List<List<ThingGraph.Statistics.CountJob>> partitions = new ArrayList<>(COUNT_JOB_WORKERS);
+            for (int i = 0; i < COUNT_JOB_WORKERS; i++) partitions.add(new ArrayList<>());
+            boolean hasMore;
+            long read = 0;
+            try (RocksTransaction.Data tx = session.transaction(READ)) {
+                FunctionalIterator<ThingGraph.Statistics.CountJob> countJobs = tx.graphMgr.data().stats().countJobs();
+                for (; read < (long) COUNT_JOB_BATCH_SIZE * COUNT_JOB_WORKERS && countJobs.hasNext(); read++) {
+                    ThingGraph.Statistics.CountJob countJob = countJobs.next();
+                    partitions.get(Math.floorMod(Arrays.hashCode(countJob.countedKey()), COUNT_JOB_WORKERS)).add(countJob);
+                }
+                hasMore = countJobs.hasNext();
+                countJobs.recycle();
+            }
+            if (!hasMore) backlog.set(read);
+            if (read == 0) return false;
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Boolean>> futures = iterate(partitions).filter(partition -> !partition.isEmpty())
+                    .map(partition -> CompletableFuture.supplyAsync(() -> processPartition(partition), workers)).toList();
+            boolean conflicted = false;
+            for (CompletableFuture<Boolean> future : futures) {
+                try {
+                    conflicted |= !future.join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof TypeDBException) throw (TypeDBException) e.getCause();
+                    else throw TypeDBException.of(e.getCause());
+                }
+            }
+            recordProcessingRate(System.nanoTime() - start);
+            return hasMore || conflicted;
+        }
+
+        private boolean processPartition(List<ThingGraph.Statistics.CountJob> partition) {
+            try (RocksTransaction.Data tx = session.transaction(WRITE)) {
+                tx.graphMgr.data().stats().processCountJobs(partition);
+                tx.commit();
+                processed.addAndGet(partition.size());
+                backlog.updateAndGet(count -> Math.max(0, count - partition.size()));
+                return true;
+            } catch (TypeDBException e) {
+                // TODO: Add specific code indicating rocksdb conflict to TypeDBException status code
+                boolean txConflicted = e.getCause() instanceof RocksDBException &&
+                        ((RocksDBException) e.getCause()).getStatus().getCode() == Status.Code.Busy;
+                if (txConflicted) return false;
+                else throw e;
+            }
+        }
+
+        private void recordProcessingRate(long elapsedNanos) {
+            long batchProcessed = processed.get();
+            double rate = (batchProcessed - lastProcessed) / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9);
+            lastProcessed = batchProcessed;
+            processingRate = processingRate == 0 ? rate :
+                    PROCESSING_RATE_SMOOTHING * rate + (1 - PROCESSING_RATE_SMOOTHING) * processingRate;
+            LOG.debug("Database '{}' processed count jobs at {} jobs/s, with approximately {} jobs remaining",
+                      session.database().name, (long) processingRate, backlog.get());
+        }
+
         private void waitForCountJob() {
             try {
                 countJobNotifications.acquire();
@@ -654,6 +1001,7 @@ public class RocksDatabase implements TypeDB.Database {
                 isStopped = true;
                 countJobNotifications.release();
                 thread.join();
+                workers.shutdown();
             } catch (InterruptedException e) {
                 throw TypeDBException.of(UNEXPECTED_INTERRUPTION);
             }
@@ -22,6 +22,9 @@ import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -29,6 +32,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.DATABASE_EXISTS;
+import static com.vaticle.typedb.core.rocks.RocksBackup.HIDDEN_PREFIX;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 
 public class RocksDatabaseManager implements TypeDB.DatabaseManager {
 
@@ -43,7 +48,9 @@ public class RocksDatabaseManager implements TypeDB.DatabaseManager {
     }
 
     protected void loadAll() {
-        File[] databaseDirectories = typedb.directory().toFile().listFiles(File::isDirectory);
+        File[] databaseDirectories = typedb.directory().toFile().listFiles(
+                file -> file.isDirectory() && !file.getName().startsWith(HIDDEN_PREFIX)
+        );
         if (databaseDirectories != null && databaseDirectories.length > 0) {
             Arrays.stream(databaseDirectories).parallel().forEach(directory -> {
                 String name = directory.getName();
@@ -77,6 +84,50 @@ public class RocksDatabaseManager implements TypeDB.DatabaseManager {
         return new HashSet<>(databases.values());
     }
 
+    /**
+     * Restores a database from a backup, replacing the database of the same name if it exists.
+     *
+     * The backup is first assembled into a hidden directory next to the databases, which is
+     * then swapped in place of the database directory, so that the existing database is only
+     * closed for the duration of the swap. Its open sessions are closed. If the swap fails,
+     * the existing database is moved back and reopened.
+     *
+     * @param name   the name of the database to restore
+     * @param backup the directory of the backup, as returned by {@link RocksDatabase#backup}
+     * @return the restored database
+     */
+    public synchronized RocksDatabase restore(String name, Path backup) {
+        Path directory = typedb.directory().resolve(name);
+        Path restoring = typedb.directory().resolve(HIDDEN_PREFIX + name + ".restoring");
+        Path replaced = typedb.directory().resolve(HIDDEN_PREFIX + name + ".replaced");
+        RocksBackup.delete(restoring);
+        RocksBackup.restore(backup, restoring);
+
+        RocksDatabase existing = databases.remove(name);
+        boolean isReplaced = false;
+        try {
+            if (existing != null) {
+                existing.close();
+                Files.move(directory, replaced, ATOMIC_MOVE);
+                isReplaced = true;
+            }
+            Files.move(restoring, directory, ATOMIC_MOVE);
+        } catch (IOException e) {
+            RocksBackup.delete(restoring);
+            try {
+                if (isReplaced) Files.move(replaced, directory, ATOMIC_MOVE);
+                if (existing != null) databases.put(name, databaseFactory.databaseLoadAndOpen(typedb, name));
+            } catch (IOException | TypeDBException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw TypeDBException.of(e);
+        }
+        RocksDatabase database = databaseFactory.databaseLoadAndOpen(typedb, name);
+        databases.put(name, database);
+        RocksBackup.delete(replaced);
+        return database;
+    }
+
     void remove(RocksDatabase database) {
         databases.remove(database.name());
     }
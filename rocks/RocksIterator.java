@@ -21,6 +21,8 @@ package com.vaticle.typedb.core.rocks;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.function.BiFunction;
 
@@ -30,6 +32,8 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.RES
 public final class RocksIterator<T> extends AbstractFunctionalIterator<T> implements AutoCloseable {
 
     private final byte[] prefix;
+    private final byte[] from;
+    private final byte[] to;
     private final RocksStorage storage;
     private final BiFunction<byte[], byte[], T> constructor;
     private org.rocksdb.RocksIterator internalRocksIterator;
@@ -40,8 +44,16 @@ public final class RocksIterator<T> extends AbstractFunctionalIterator<T> implem
     private enum State {INIT, EMPTY, FETCHED, COMPLETED}
 
     RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor) {
+        this(storage, prefix, prefix, null, constructor);
+    }
+
+    RocksIterator(RocksStorage storage, byte[] prefix, byte[] from, @Nullable byte[] to,
+                  BiFunction<byte[], byte[], T> constructor) {
+        assert bytesHavePrefix(from, prefix) && (to == null || bytesHavePrefix(to, prefix));
         this.storage = storage;
         this.prefix = prefix;
+        this.from = from;
+        this.to = to;
         this.constructor = constructor;
         state = State.INIT;
         isClosed = false;
@@ -85,7 +97,7 @@ public final class RocksIterator<T> extends AbstractFunctionalIterator<T> implem
     private synchronized boolean initialiseAndCheck() {
         if (state != State.COMPLETED) {
             this.internalRocksIterator = storage.getInternalRocksIterator();
-            this.internalRocksIterator.seek(prefix);
+            this.internalRocksIterator.seek(from);
             state = State.EMPTY;
             return hasValidNext();
         } else {
@@ -104,7 +116,7 @@ public final class RocksIterator<T> extends AbstractFunctionalIterator<T> implem
 
     private synchronized boolean hasValidNext() {
         byte[] key;
-        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix)) {
+        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix) || isAfterTo(key)) {
             recycle();
             return false;
         }
@@ -113,6 +125,10 @@ public final class RocksIterator<T> extends AbstractFunctionalIterator<T> implem
         return true;
     }
 
+    private boolean isAfterTo(byte[] key) {
+        return to != null && Arrays.compareUnsigned(key, 0, Math.min(key.length, to.length), to, 0, to.length) > 0;
+    }
+
     @Override
     public void recycle() {
         close();
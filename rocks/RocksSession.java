@@ -30,6 +30,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.StampedLock;
 
@@ -184,10 +185,12 @@ public abstract class RocksSession implements TypeDB.Session {
     public static class Data extends RocksSession {
 
         private final Factory.TransactionData txDataFactory;
+        private final AtomicLong lastCommitSnapshot;
 
         public Data(RocksDatabase database, Arguments.Session.Type type, Options.Session options, Factory.TransactionData txDataFactory) {
             super(database, type, options);
             this.txDataFactory = txDataFactory;
+            this.lastCommitSnapshot = new AtomicLong(0);
         }
 
         @Override
@@ -223,6 +226,18 @@ public abstract class RocksSession implements TypeDB.Session {
             return transaction;
         }
 
+        void committed(long snapshotEnd) {
+            lastCommitSnapshot.accumulateAndGet(snapshotEnd, Math::max);
+        }
+
+        /**
+         * @return the sequence number of the latest data commit through this session, which
+         * a shared read snapshot must include for the session to read its own writes
+         */
+        long lastCommitSnapshot() {
+            return lastCommitSnapshot.get();
+        }
+
         @Override
         void remove(RocksTransaction transaction) {
             long lock = transactions.remove(transaction);
@@ -31,6 +31,7 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
 import org.rocksdb.Transaction;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,7 +39,10 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentNavigableMap;
@@ -91,6 +95,19 @@ public abstract class RocksStorage implements Storage {
         return isOpen.get();
     }
 
+    @Override
+    public List<byte[]> get(List<byte[]> keys) {
+        try {
+            deleteCloseSchemaWriteLock.readLock().lock();
+            if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+            return Arrays.asList(storageTransaction.multiGet(readOptions, keys.toArray(new byte[0][])));
+        } catch (RocksDBException e) {
+            throw exception(e);
+        } finally {
+            deleteCloseSchemaWriteLock.readLock().unlock();
+        }
+    }
+
     @Override
     public byte[] getLastKey(byte[] prefix) {
         throw exception(ILLEGAL_OPERATION);
@@ -180,13 +197,189 @@ public abstract class RocksStorage implements Storage {
 
         @Override
         public <G> FunctionalIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
-            RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
+            return iterate(new RocksIterator<>(this, key, constructor));
+        }
+
+        @Override
+        public <G> FunctionalIterator<G> iterate(byte[] prefix, byte[] from, byte[] to, BiFunction<byte[], byte[], G> constructor) {
+            return iterate(new RocksIterator<>(this, prefix, from, to, constructor));
+        }
+
+        private <G> FunctionalIterator<G> iterate(RocksIterator<G> iterator) {
             iterators.add(iterator);
             if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED); //guard against close() race conditions
             return iterator.onFinalise(iterator::close);
         }
     }
 
+    /**
+     * A read-only view of the data storage at a single snapshot, which may be shared
+     * by many concurrent read transactions, each through its own {@link Reader}. It is
+     * only closed once the last transaction using it has been closed.
+     */
+    static class SharedRead extends Cache {
+
+        private final long snapshotStart;
+
+        SharedRead(OptimisticTransactionDB rocksDB) {
+            super(rocksDB);
+            this.snapshotStart = storageTransaction.getSnapshot().getSequenceNumber();
+        }
+
+        long snapshotStart() {
+            return snapshotStart;
+        }
+
+        Reader reader() {
+            return new Reader(this);
+        }
+
+        /**
+         * A read transaction's view of a shared snapshot. It is never bound to a transaction:
+         * any attempt to write through it is a read violation. Closing it closes the iterators
+         * that the transaction opened, and leaves the shared snapshot open.
+         */
+        static class Reader implements Storage.Data {
+
+            private final SharedRead shared;
+            private final ConcurrentSet<RocksIterator<?>> iterators;
+            private final AtomicBoolean isOpen;
+
+            private Reader(SharedRead shared) {
+                this.shared = shared;
+                this.iterators = new ConcurrentSet<>();
+                this.isOpen = new AtomicBoolean(true);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return isOpen.get() && shared.isOpen();
+            }
+
+            @Override
+            public byte[] get(byte[] key) {
+                if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+                return shared.get(key);
+            }
+
+            @Override
+            public List<byte[]> get(List<byte[]> keys) {
+                if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+                return shared.get(keys);
+            }
+
+            @Override
+            public byte[] getLastKey(byte[] prefix) {
+                return shared.getLastKey(prefix);
+            }
+
+            @Override
+            public <G> FunctionalIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+                return iterate(new RocksIterator<>(shared, key, constructor));
+            }
+
+            @Override
+            public <G> FunctionalIterator<G> iterate(byte[] prefix, byte[] from, byte[] to, BiFunction<byte[], byte[], G> constructor) {
+                return iterate(new RocksIterator<>(shared, prefix, from, to, constructor));
+            }
+
+            private <G> FunctionalIterator<G> iterate(RocksIterator<G> iterator) {
+                iterators.add(iterator);
+                shared.iterators.add(iterator);
+                if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED); //guard against close() race conditions
+                return iterator.onFinalise(() -> {
+                    iterator.close();
+                    iterators.remove(iterator);
+                });
+            }
+
+            @Override
+            public KeyGenerator.Data dataKeyGenerator() {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void putTracked(byte[] key) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void putTracked(byte[] key, byte[] value) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void putTracked(byte[] key, byte[] value, boolean checkConsistency) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void putUntracked(byte[] key) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void putUntracked(byte[] key, byte[] value) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void deleteUntracked(byte[] key) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void deleteTracked(byte[] key) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public void deletePrefix(byte[] prefix) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            /**
+             * Reasoning in a read transaction puts inferred edges on persisted vertices, which
+             * marks them as modified. Nothing is ever committed from a shared snapshot, so there
+             * are no modifications to track for consistency.
+             */
+            @Override
+            public void trackModified(byte[] bytes) {
+            }
+
+            @Override
+            public void trackModified(byte[] bytes, boolean checkConsistency) {
+            }
+
+            @Override
+            public void trackExclusiveCreate(byte[] key) {
+            }
+
+            @Override
+            public void mergeUntracked(byte[] key, byte[] value) {
+                throw exception(TRANSACTION_DATA_READ_VIOLATION);
+            }
+
+            @Override
+            public TypeDBException exception(ErrorMessage error) {
+                return shared.exception(error);
+            }
+
+            @Override
+            public TypeDBException exception(Exception exception) {
+                return shared.exception(exception);
+            }
+
+            @Override
+            public void close() {
+                if (isOpen.compareAndSet(true, false)) {
+                    iterators.forEach(RocksIterator::close);
+                    iterators.clear();
+                }
+            }
+        }
+    }
+
     static abstract class TransactionBounded extends RocksStorage {
 
         protected final RocksTransaction transaction;
@@ -249,7 +442,15 @@ public abstract class RocksStorage implements Storage {
 
         @Override
         public <G> FunctionalIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
-            RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
+            return iterate(new RocksIterator<>(this, key, constructor));
+        }
+
+        @Override
+        public <G> FunctionalIterator<G> iterate(byte[] prefix, byte[] from, byte[] to, BiFunction<byte[], byte[], G> constructor) {
+            return iterate(new RocksIterator<>(this, prefix, from, to, constructor));
+        }
+
+        private <G> FunctionalIterator<G> iterate(RocksIterator<G> iterator) {
             iterators.add(iterator);
             if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED); //guard against close() race conditions
             return iterator;
@@ -317,22 +518,26 @@ public abstract class RocksStorage implements Storage {
     public static class Data extends TransactionBounded implements Storage.Data {
 
         private final RocksDatabase database;
-        private final KeyGenerator.Data dataKeyGenerator;
+        private final KeyGenerator.Data.Leased dataKeyGenerator;
 
         private final ConcurrentNavigableMap<ByteBuffer, Boolean> modifiedKeys;
         private final ConcurrentSkipListSet<ByteBuffer> deletedKeys;
         private final ConcurrentSkipListSet<ByteBuffer> exclusiveInsertKeys;
+        private final ConcurrentNavigableMap<ByteBuffer, Integer> deletedPrefixes;
+        private final ConcurrentSkipListSet<ByteBuffer> rewrittenKeys;
         private final long snapshotStart;
         private volatile Long snapshotEnd;
 
         public Data(RocksDatabase database, RocksTransaction transaction) {
             super(database.rocksData, transaction);
             this.database = database;
-            this.dataKeyGenerator = database.dataKeyGenerator();
+            this.dataKeyGenerator = new KeyGenerator.Data.Leased(database.dataKeyGenerator());
             this.snapshotStart = storageTransaction.getSnapshot().getSequenceNumber();
             this.modifiedKeys = new ConcurrentSkipListMap<>();
             this.deletedKeys = new ConcurrentSkipListSet<>();
             this.exclusiveInsertKeys = new ConcurrentSkipListSet<>();
+            this.deletedPrefixes = new ConcurrentSkipListMap<>();
+            this.rewrittenKeys = new ConcurrentSkipListSet<>();
             this.snapshotEnd = null;
             this.database.consistencyMgr().register(this);
         }
@@ -370,6 +575,7 @@ public abstract class RocksStorage implements Storage {
                 deleteCloseSchemaWriteLock.readLock().lock();
                 if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
                 storageTransaction.putUntracked(key, value);
+                trackRewritten(key);
             } catch (RocksDBException e) {
                 throw exception(e);
             } finally {
@@ -377,6 +583,12 @@ public abstract class RocksStorage implements Storage {
             }
         }
 
+        @Override
+        public void deleteUntracked(byte[] key) {
+            super.deleteUntracked(key);
+            if (!rewrittenKeys.isEmpty()) rewrittenKeys.remove(ByteBuffer.wrap(key));
+        }
+
         @Override
         public void deleteTracked(byte[] key) {
             deleteUntracked(key);
@@ -386,6 +598,75 @@ public abstract class RocksStorage implements Storage {
             this.exclusiveInsertKeys.remove(bytes);
         }
 
+        /**
+         * Delete every key starting with the given prefix, as a single range deletion.
+         *
+         * RocksDB transactions cannot hold range deletions, so the range is only recorded
+         * here, together with the number of writes this transaction had made when it was
+         * deleted. Reads in this transaction stop seeing the keys in the range immediately,
+         * except for keys that are written again afterwards. On commit, the range deletion
+         * and the writes made after it are written to the database in one atomic batch.
+         *
+         * @param prefix of the keys to delete
+         */
+        @Override
+        public void deletePrefix(byte[] prefix) {
+            assert isOpen() && !isReadOnly;
+            try {
+                deleteCloseSchemaWriteLock.readLock().lock();
+                if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+                ByteBuffer bytes = ByteBuffer.wrap(prefix);
+                this.deletedPrefixes.put(bytes, storageTransaction.getWriteBatch().count());
+                this.modifiedKeys.tailMap(bytes).keySet().removeIf(key -> bytesHavePrefix(key.array(), prefix));
+                this.rewrittenKeys.tailSet(bytes).removeIf(key -> bytesHavePrefix(key.array(), prefix));
+            } finally {
+                deleteCloseSchemaWriteLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public byte[] get(byte[] key) {
+            if (isDeletedByPrefix(key)) return null;
+            else return super.get(key);
+        }
+
+        @Override
+        public List<byte[]> get(List<byte[]> keys) {
+            List<byte[]> values = super.get(keys);
+            if (deletedPrefixes.isEmpty()) return values;
+            for (int i = 0; i < keys.size(); i++) {
+                if (isDeletedByPrefix(keys.get(i))) values.set(i, null);
+            }
+            return values;
+        }
+
+        @Override
+        public <G> FunctionalIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+            if (deletedPrefixes.isEmpty()) return super.iterate(key, constructor);
+            else return super.iterate(key, (k, v) -> isDeletedByPrefix(k) ? null : constructor.apply(k, v))
+                        .filter(Objects::nonNull);
+        }
+
+        @Override
+        public <G> FunctionalIterator<G> iterate(byte[] prefix, byte[] from, byte[] to, BiFunction<byte[], byte[], G> constructor) {
+            if (deletedPrefixes.isEmpty()) return super.iterate(prefix, from, to, constructor);
+            else return super.iterate(prefix, from, to, (k, v) -> isDeletedByPrefix(k) ? null : constructor.apply(k, v))
+                        .filter(Objects::nonNull);
+        }
+
+        private boolean isDeletedByPrefix(byte[] key) {
+            if (deletedPrefixes.isEmpty()) return false;
+            return hasDeletedPrefix(key) && !rewrittenKeys.contains(ByteBuffer.wrap(key));
+        }
+
+        private boolean hasDeletedPrefix(byte[] key) {
+            return deletedPrefixes.keySet().stream().anyMatch(prefix -> bytesHavePrefix(key, prefix.array()));
+        }
+
+        private void trackRewritten(byte[] key) {
+            if (!deletedPrefixes.isEmpty() && hasDeletedPrefix(key)) rewrittenKeys.add(ByteBuffer.wrap(key));
+        }
+
         @Override
         public void trackModified(byte[] key) {
             trackModified(key, true);
@@ -410,14 +691,38 @@ public abstract class RocksStorage implements Storage {
         @Override
         public void commit() throws RocksDBException {
             database.consistencyMgr().tryCommitOptimistically(this);
-            super.commit();
+            if (deletedPrefixes.isEmpty()) super.commit();
+            else commitWithDeletedPrefixes();
             snapshotEnd = database.rocksData.getLatestSequenceNumber();
             database.consistencyMgr().commitCompletely(this);
         }
 
+        /**
+         * Commit the range deletions and the writes of this transaction in one atomic batch.
+         *
+         * The batch starts with the range deletions, followed by a replay of the transaction's
+         * writes. Writes into a deleted range that were made before the range was deleted are
+         * left out, so that they are not brought back by the replay. The transaction itself is
+         * rolled back once the batch is written, as all of its writes are untracked.
+         */
+        private void commitWithDeletedPrefixes() throws RocksDBException {
+            try (WriteBatch batch = new WriteBatch();
+                 WriteOptions writeOptions = new WriteOptions();
+                 Replay replay = new Replay(batch)) {
+                for (ByteBuffer prefix : deletedPrefixes.keySet()) {
+                    batch.deleteRange(prefix.array(), RocksDatabase.prefixUpperBound(prefix.array()));
+                }
+                storageTransaction.getWriteBatch().getWriteBatch().iterate(replay);
+                database.rocksData.write(writeOptions, batch);
+            }
+            storageTransaction.rollback();
+            database.compactPrefixes(deletedPrefixes.keySet());
+        }
+
         @Override
         public void close() {
             super.close();
+            dataKeyGenerator.release();
             database.consistencyMgr().closed(this);
         }
 
@@ -428,6 +733,7 @@ public abstract class RocksStorage implements Storage {
                 deleteCloseSchemaWriteLock.readLock().lock();
                 if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
                 storageTransaction.mergeUntracked(key, value);
+                trackRewritten(key);
             } catch (RocksDBException e) {
                 throw exception(e);
             } finally {
@@ -458,5 +764,112 @@ public abstract class RocksStorage implements Storage {
         public NavigableSet<ByteBuffer> exclusiveInsertKeys() {
             return exclusiveInsertKeys;
         }
+
+        public NavigableSet<ByteBuffer> deletedPrefixes() {
+            return deletedPrefixes.keySet();
+        }
+
+        private class Replay extends WriteBatch.Handler {
+
+            private final WriteBatch batch;
+            private int index;
+
+            private Replay(WriteBatch batch) {
+                this.batch = batch;
+                this.index = 0;
+            }
+
+            private boolean isDeletedAfter(byte[] key) {
+                int position = index++;
+                for (Map.Entry<ByteBuffer, Integer> deleted : deletedPrefixes.entrySet()) {
+                    if (deleted.getValue() > position && bytesHavePrefix(key, deleted.getKey().array())) return true;
+                }
+                return false;
+            }
+
+            @Override
+            public void put(int columnFamilyId, byte[] key, byte[] value) throws RocksDBException {
+                if (!isDeletedAfter(key)) batch.put(key, value);
+            }
+
+            @Override
+            public void put(byte[] key, byte[] value) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void merge(int columnFamilyId, byte[] key, byte[] value) throws RocksDBException {
+                if (!isDeletedAfter(key)) batch.merge(key, value);
+            }
+
+            @Override
+            public void merge(byte[] key, byte[] value) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void delete(int columnFamilyId, byte[] key) throws RocksDBException {
+                if (!isDeletedAfter(key)) batch.delete(key);
+            }
+
+            @Override
+            public void delete(byte[] key) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void singleDelete(int columnFamilyId, byte[] key) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void singleDelete(byte[] key) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void deleteRange(int columnFamilyId, byte[] beginKey, byte[] endKey) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void deleteRange(byte[] beginKey, byte[] endKey) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void logData(byte[] blob) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void putBlobIndex(int columnFamilyId, byte[] key, byte[] value) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void markBeginPrepare() {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void markEndPrepare(byte[] xid) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void markNoop(boolean emptyBatch) {
+            }
+
+            @Override
+            public void markRollback(byte[] xid) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+
+            @Override
+            public void markCommit(byte[] xid) {
+                throw TypeDBException.of(ILLEGAL_STATE);
+            }
+        }
     }
 }
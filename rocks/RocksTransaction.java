@@ -22,6 +22,7 @@ import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.graph.GraphManager;
@@ -29,12 +30,15 @@ import com.vaticle.typedb.core.graph.ThingGraph;
 import com.vaticle.typedb.core.graph.TypeGraph;
 import com.vaticle.typedb.core.logic.LogicCache;
 import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.query.QueryCache;
 import com.vaticle.typedb.core.query.QueryManager;
 import com.vaticle.typedb.core.reasoner.Reasoner;
+import com.vaticle.typedb.core.reasoner.ReasonerCache;
 import com.vaticle.typedb.core.traversal.TraversalCache;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
 import org.rocksdb.RocksDBException;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.vaticle.typedb.common.util.Objects.className;
@@ -61,12 +65,14 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
         this.context = new Context.Transaction(session.context(), options).type(type);
     }
 
-    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache) {
+    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache,
+                    ReasonerCache reasonerCache, QueryCache queryCache, long snapshot) {
         traversalEng = new TraversalEngine(graphMgr, traversalCache);
         conceptMgr = new ConceptManager(graphMgr);
         logicMgr = new LogicManager(graphMgr, conceptMgr, traversalEng, logicCache);
-        reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, context);
-        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context);
+        reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, reasonerCache, snapshot,
+                                session.database().spillDirectory(), context);
+        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, queryCache, snapshot, session.uuid(), context);
         isOpen = new AtomicBoolean(true);
     }
 
@@ -156,7 +162,8 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
             ThingGraph thingGraph = new ThingGraph(dataStorage, typeGraph);
 
             graphMgr = new GraphManager(typeGraph, thingGraph);
-            initialise(graphMgr, new TraversalCache(), new LogicCache());
+            initialise(graphMgr, new TraversalCache(), new LogicCache(), new ReasonerCache(0),
+                    new QueryCache(0), dataStorage.snapshotStart());
         }
 
         @Override
@@ -244,17 +251,34 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
 
         protected final RocksStorage.Data dataStorage;
         private final RocksDatabase.Cache cache;
+        private final RocksDatabase.ReadSnapshot readSnapshot;
+        private final RocksStorage.SharedRead.Reader readStorage;
 
         public Data(RocksSession.Data session, Arguments.Transaction.Type type,
                     Options.Transaction options, Factory.Storage storageFactory) {
             super(session, type, options);
 
-            cache = session.database().cacheBorrow();
-            dataStorage = storageFactory.storageData(session.database(), this);
-            ThingGraph thingGraph = new ThingGraph(dataStorage, cache.typeGraph());
+            ThingGraph thingGraph;
+            long snapshot;
+            int stalenessMillis = context.options().readSnapshotStalenessMillis();
+            if (type.isRead() && stalenessMillis > 0) {
+                readSnapshot = session.database().readSnapshotBorrow(stalenessMillis, session.lastCommitSnapshot());
+                cache = readSnapshot.cache();
+                dataStorage = null;
+                readStorage = readSnapshot.storage().reader();
+                thingGraph = new ThingGraph(readStorage, cache.typeGraph());
+                snapshot = readSnapshot.storage().snapshotStart();
+            } else {
+                readSnapshot = null;
+                readStorage = null;
+                cache = session.database().cacheBorrow();
+                dataStorage = storageFactory.storageData(session.database(), this);
+                thingGraph = new ThingGraph(dataStorage, cache.typeGraph());
+                snapshot = dataStorage.snapshotStart();
+            }
             graphMgr = new GraphManager(cache.typeGraph(), thingGraph);
 
-            initialise(graphMgr, cache.traversal(), cache.logic());
+            initialise(graphMgr, cache.traversal(), cache.logic(), cache.reasoner(), cache.query(), snapshot);
         }
 
         @Override
@@ -291,9 +315,14 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
                     if (type().isRead()) throw TypeDBException.of(ILLEGAL_COMMIT);
                     else if (graphMgr.schema().isModified()) throw TypeDBException.of(SESSION_DATA_VIOLATION);
 
+                    boolean materialise = session.database().options().materialiseInference();
+                    if (materialise) logicMgr.materialiser().materialise();
                     conceptMgr.validateThings();
+                    Set<Label> modifiedTypes = graphMgr.data().modifiedTypes();
                     graphMgr.data().commit();
-                    dataStorage.commit();
+                    if (materialise) logicMgr.materialiser().record();
+                    commitStorage(modifiedTypes);
+                    session.asData().committed(dataStorage.snapshotEnd().get());
                     triggerStatisticBgCounter();
                 } catch (RocksDBException e) {
                     rollback();
@@ -307,11 +336,28 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
             }
         }
 
+        /**
+         * Writes the transaction into storage, dropping the cached reasoning and query answers that
+         * depend on the modified types before the writes become visible to other transactions.
+         */
+        private void commitStorage(Set<Label> modifiedTypes) throws RocksDBException {
+            Long committed = null;
+            cache.reasoner().invalidate(modifiedTypes);
+            cache.query().invalidate(modifiedTypes);
+            try {
+                dataStorage.commit();
+                committed = dataStorage.snapshotEnd().get();
+            } finally {
+                cache.reasoner().committed(modifiedTypes, committed);
+                cache.query().committed(modifiedTypes, committed);
+            }
+        }
+
         @Override
         public void rollback() {
             try {
                 graphMgr.data().clear();
-                dataStorage.rollback();
+                if (readSnapshot == null) dataStorage.rollback();
             } catch (RocksDBException e) {
                 throw TypeDBException.of(e);
             }
@@ -319,8 +365,13 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
 
         @Override
         void closeStorage() {
-            session.database().cacheUnborrow(cache);
-            dataStorage.close();
+            if (readSnapshot != null) {
+                readStorage.close();
+                session.database().readSnapshotUnborrow(readSnapshot);
+            } else {
+                session.database().cacheUnborrow(cache);
+                dataStorage.close();
+            }
         }
 
         /**
@@ -329,7 +380,9 @@ public abstract class RocksTransaction implements TypeDB.Transaction {
          */
         protected void triggerStatisticBgCounter() {
             if (graphMgr.data().stats().needsBackgroundCounting()) {
-                session.database().statisticsBackgroundCounter.needsBackgroundCounting();
+                session.database().statisticsBackgroundCounter.needsBackgroundCounting(
+                        graphMgr.data().stats().committedCountJobs()
+                );
             }
         }
     }
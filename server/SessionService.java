@@ -19,14 +19,17 @@ package com.vaticle.typedb.core.server;
 
 import com.vaticle.typedb.common.collection.ConcurrentSet;
 import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.cache.CommonCache;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.query.Matcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.UUID;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.StampedLock;
 
@@ -37,8 +40,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 public class SessionService implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(SessionService.class);
+    private static final int PREPARED_QUERY_LIMIT = 1_000;
+    private static final int PREPARED_QUERY_TIMEOUT_MINUTES = 60;
 
     private final ConcurrentSet<TransactionService> transactionServices;
+    private final CommonCache<String, Matcher.Prepared> preparedQueries;
     private final TypeDBService typeDBSvc;
     private final Options.Session options;
     private final TypeDB.Session session;
@@ -53,6 +59,7 @@ public class SessionService implements AutoCloseable {
         this.accessLock = new StampedLock().asReadWriteLock();
         this.isOpen = new AtomicBoolean(true);
         this.transactionServices = new ConcurrentSet<>();
+        this.preparedQueries = new CommonCache<>(PREPARED_QUERY_LIMIT, PREPARED_QUERY_TIMEOUT_MINUTES);
         mayStartIdleTimeout();
     }
 
@@ -89,6 +96,14 @@ public class SessionService implements AutoCloseable {
         return options;
     }
 
+    /**
+     * @return the query prepared in this session from the given query string, by any of its transactions,
+     * preparing it with the given function if it has not been prepared yet, or has not been used for a while
+     */
+    public Matcher.Prepared prepared(String query, Function<String, Matcher.Prepared> prepare) {
+        return preparedQueries.get(query, prepare);
+    }
+
     public synchronized void resetIdleTimeout() {
         cancelIdleTimeout();
         mayStartIdleTimeout();
@@ -119,6 +134,7 @@ public class SessionService implements AutoCloseable {
             if (idleTimeoutTask != null) idleTimeoutTask.cancel(false);
             if (isOpen.compareAndSet(true, false)) {
                 transactionServices.forEach(TransactionService::close);
+                preparedQueries.clear();
                 session.close();
                 typeDBSvc.remove(this);
             }
@@ -132,6 +148,7 @@ public class SessionService implements AutoCloseable {
             accessLock.writeLock().lock();
             if (isOpen.compareAndSet(true, false)) {
                 transactionServices.forEach(tr -> tr.close(error));
+                preparedQueries.clear();
                 session.close();
                 typeDBSvc.remove(this);
             }
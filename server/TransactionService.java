@@ -109,6 +109,10 @@ public class TransactionService implements StreamObserver<TransactionProto.Trans
         return transaction.context();
     }
 
+    public SessionService session() {
+        return sessionSvc;
+    }
+
     @Override
     public void onNext(TransactionProto.Transaction.Client requests) {
         if (requests.getReqsList().isEmpty()) close(TypeDBException.of(EMPTY_TRANSACTION_REQUEST));
@@ -84,7 +84,9 @@ public class TypeDBServer implements AutoCloseable {
         Options.Database options = new Options.Database()
                 .typeDBDir(ServerDefaults.TYPEDB_DIR)
                 .dataDir(command.dataDir())
-                .logsDir(command.logsDir());
+                .logsDir(command.logsDir())
+                .queryCacheSize(command.queryCacheSize())
+                .reasonerCacheSize(command.reasonerCacheSize());
         this.factory = factory;
         typedb = factory.typedb(options);
         server = rpcServer();
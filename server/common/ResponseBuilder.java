@@ -18,6 +18,7 @@
 package com.vaticle.typedb.core.server.common;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.common.exception.ErrorMessage;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
@@ -182,10 +183,14 @@ public class ResponseBuilder {
         }
 
         public static TransactionProto.Transaction.ResPart matchResPart(UUID reqID, List<ConceptMap> answers) {
+            return matchProtoResPart(reqID, iterate(answers).map(Answer::conceptMap).toList());
+        }
+
+        public static TransactionProto.Transaction.ResPart matchProtoResPart(UUID reqID,
+                                                                             List<AnswerProto.ConceptMap> answers) {
             return queryMgrResPart(reqID, QueryProto.QueryManager.ResPart.newBuilder().setMatchResPart(
-                    QueryProto.QueryManager.Match.ResPart.newBuilder().addAllAnswers(
-                            iterate(answers).map(Answer::conceptMap).toList()
-                    )));
+                    QueryProto.QueryManager.Match.ResPart.newBuilder().addAllAnswers(answers)
+            ));
         }
 
         public static TransactionProto.Transaction.Res matchAggregateRes(UUID reqID, Numeric answer) {
@@ -773,6 +778,14 @@ public class ResponseBuilder {
             return conceptMapProto.build();
         }
 
+        public static AnswerProto.ConceptMap conceptMap(byte[] serialised) {
+            try {
+                return AnswerProto.ConceptMap.parseFrom(serialised);
+            } catch (InvalidProtocolBufferException e) {
+                throw TypeDBException.of(e);
+            }
+        }
+
         private static AnswerProto.Explainables explainables(ConceptMap.Explainables explainables) {
             AnswerProto.Explainables.Builder builder = AnswerProto.Explainables.newBuilder();
             explainables.relations().forEach(
@@ -79,6 +79,18 @@ public abstract class RunOptions {
                 description = "Port number of database server in which GRPC clients will connect to")
         private int port;
 
+        @CommandLine.Option(descriptionKey = "server.query-cache-size",
+                names = {"--query-cache-size"},
+                defaultValue = "0",
+                description = "Megabytes of answers to read queries held by each database to answer repeated queries, or 0 to disable the cache")
+        private long queryCacheSize;
+
+        @CommandLine.Option(descriptionKey = "server.reasoner-cache-size",
+                names = {"--reasoner-cache-size"},
+                defaultValue = "64",
+                description = "Megabytes of answers to reasoning queries held by each database to answer repeated queries, or 0 to disable the cache")
+        private long reasonerCacheSize;
+
         @CommandLine.Option(descriptionKey = "vaticle.factory.trace",
                 names = {"--vaticle-factory-trace"},
                 negatable = true,
@@ -124,6 +136,14 @@ public abstract class RunOptions {
             return port;
         }
 
+        public long queryCacheSize() {
+            return queryCacheSize * 1024 * 1024;
+        }
+
+        public long reasonerCacheSize() {
+            return reasonerCacheSize * 1024 * 1024;
+        }
+
         public boolean debug() {
             return debug;
         }
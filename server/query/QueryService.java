@@ -18,6 +18,7 @@
 package com.vaticle.typedb.core.server.query;
 
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic;
+import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Context;
@@ -25,9 +26,13 @@ import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concept.answer.ConceptMapGroup;
 import com.vaticle.typedb.core.concept.answer.NumericGroup;
+import com.vaticle.typedb.core.query.Matcher;
+import com.vaticle.typedb.core.query.QueryCache;
 import com.vaticle.typedb.core.query.QueryManager;
 import com.vaticle.typedb.core.reasoner.resolution.answer.Explanation;
 import com.vaticle.typedb.core.server.TransactionService;
+import com.vaticle.typedb.core.server.common.ResponseBuilder.Answer;
+import com.vaticle.typedb.protocol.AnswerProto;
 import com.vaticle.typedb.protocol.QueryProto;
 import com.vaticle.typedb.protocol.TransactionProto;
 import com.vaticle.typeql.lang.TypeQL;
@@ -38,10 +43,13 @@ import com.vaticle.typeql.lang.query.TypeQLMatch;
 import com.vaticle.typeql.lang.query.TypeQLUndefine;
 import com.vaticle.typeql.lang.query.TypeQLUpdate;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Server.UNKNOWN_REQUEST_TYPE;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.server.common.RequestReader.applyDefaultOptions;
 import static com.vaticle.typedb.core.server.common.RequestReader.applyQueryOptions;
 import static com.vaticle.typedb.core.server.common.RequestReader.byteStringAsUUID;
@@ -52,7 +60,7 @@ import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager
 import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.matchAggregateRes;
 import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.matchGroupAggregateResPart;
 import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.matchGroupResPart;
-import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.matchResPart;
+import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.matchProtoResPart;
 import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.undefineRes;
 import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.updateResPart;
 
@@ -102,7 +110,7 @@ public class QueryService {
                     this.update(queryReq.getUpdateReq().getQuery(), options, reqID);
                     return;
                 case EXPLAIN_REQ:
-                    this.explain(queryReq.getExplainReq().getExplainableId(), reqID);
+                    this.explain(queryReq.getExplainReq().getExplainableId(), options, reqID);
                     return;
                 case REQ_NOT_SET:
                 default:
@@ -126,10 +134,48 @@ public class QueryService {
     }
 
     private void match(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLMatch query = TypeQL.parseQuery(queryStr).asMatch();
+        Matcher.Prepared prepared = transactionSvc.session().prepared(
+                queryStr, str -> queryMgr.prepare(TypeQL.parseQuery(str).asMatch())
+        );
+        TypeQLMatch query = prepared.query();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
-        FunctionalIterator<ConceptMap> answers = queryMgr.match(query, context);
-        transactionSvc.stream(answers, reqID, context.options(), a -> matchResPart(reqID, a));
+        transactionSvc.stream(matchAnswers(queryMgr, prepared, context), reqID, context.options(),
+                              a -> matchProtoResPart(reqID, a));
+    }
+
+    /**
+     * Answers a match query in the serialised form in which its answers are streamed: from the query cache
+     * if it holds them, and otherwise by answering the query and recording its answers into the cache.
+     */
+    public static FunctionalIterator<AnswerProto.ConceptMap> matchAnswers(QueryManager queryMgr, TypeQLMatch query,
+                                                                          Context.Query context) {
+        Optional<List<byte[]>> cached = queryMgr.cached(query, context);
+        if (cached.isPresent()) return iterate(cached.get()).map(Answer::conceptMap);
+        Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> answers = queryMgr.matchRecorded(query, context);
+        if (answers.second().isPresent()) return record(answers.first(), answers.second().get());
+        else return answers.first().map(Answer::conceptMap);
+    }
+
+    /**
+     * Answers a prepared match query as {@link #matchAnswers(QueryManager, TypeQLMatch, Context.Query)} answers
+     * the query it was prepared from, without parsing or resolving the types of the query again.
+     */
+    public static FunctionalIterator<AnswerProto.ConceptMap> matchAnswers(QueryManager queryMgr, Matcher.Prepared query,
+                                                                          Context.Query context) {
+        Optional<List<byte[]>> cached = queryMgr.cached(query.query(), context);
+        if (cached.isPresent()) return iterate(cached.get()).map(Answer::conceptMap);
+        Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> answers = queryMgr.matchRecorded(query, context);
+        if (answers.second().isPresent()) return record(answers.first(), answers.second().get());
+        else return answers.first().map(Answer::conceptMap);
+    }
+
+    private static FunctionalIterator<AnswerProto.ConceptMap> record(FunctionalIterator<ConceptMap> answers,
+                                                                     QueryCache.Recorder recorder) {
+        return answers.map(answer -> {
+            AnswerProto.ConceptMap proto = Answer.conceptMap(answer);
+            recorder.record(answer, proto.toByteArray());
+            return proto;
+        }).onConsumed(recorder::complete);
     }
 
     private void matchAggregate(String queryStr, Options.Query options, UUID reqID) {
@@ -173,8 +219,9 @@ public class QueryService {
         transactionSvc.stream(answers, reqID, context.options(), a -> updateResPart(reqID, a));
     }
 
-    private void explain(long explainableId, UUID reqID) {
-        FunctionalIterator<Explanation> explanations = queryMgr.explain(explainableId);
+    private void explain(long explainableId, Options.Query options, UUID reqID) {
+        Context.Query context = new Context.Query(transactionSvc.context(), options);
+        FunctionalIterator<Explanation> explanations = queryMgr.explain(explainableId, context);
         transactionSvc.stream(explanations, reqID, a -> explainResPart(reqID, a));
     }
 
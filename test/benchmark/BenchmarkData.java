@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.rocks.RocksSession;
+import com.vaticle.typedb.core.rocks.RocksTransaction;
+import com.vaticle.typedb.core.rocks.RocksTypeDB;
+import com.vaticle.typeql.lang.TypeQL;
+import com.vaticle.typeql.lang.query.TypeQLInsert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.READ;
+import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.WRITE;
+
+/**
+ * A generated dataset that every benchmark runs against.
+ *
+ * The data is generated from a fixed seed, so that every fork, and every release, measures
+ * the same graph: a population of people with names, ages and friendships between them, and
+ * a chain of nodes linked to each other, whose reachability is inferred by recursive rules.
+ */
+public class BenchmarkData implements AutoCloseable {
+
+    static final long SEED = 20211019L;
+    static final int PERSONS = 1_000;
+    static final int FRIENDS_PER_PERSON = 5;
+    static final int NODES = 50;
+    static final int SHORTCUTS = 10;
+
+    private static final String DATABASE = "benchmark";
+    private static final int BATCH_SIZE = 250;
+
+    private final Path directory;
+    private final RocksTypeDB typedb;
+    private final RocksSession session;
+
+    private BenchmarkData(Path directory, RocksTypeDB typedb, RocksSession session) {
+        this.directory = directory;
+        this.typedb = typedb;
+        this.session = session;
+    }
+
+    public static BenchmarkData generate() throws IOException {
+        return generate(false);
+    }
+
+    public static BenchmarkData generate(boolean materialiseInference) throws IOException {
+        Path directory = Files.createTempDirectory(DATABASE);
+        RocksTypeDB typedb = RocksTypeDB.open(new Options.Database().dataDir(directory)
+                                                      .logsDir(directory.resolve("logs"))
+                                                      .materialiseInference(materialiseInference));
+        typedb.databases().create(DATABASE);
+        try (RocksSession session = typedb.session(DATABASE, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                transaction.query().define(TypeQL.parseQuery(schema()).asDefine());
+                transaction.commit();
+            }
+        }
+        RocksSession session = typedb.session(DATABASE, Arguments.Session.Type.DATA);
+        insert(session, data(new Random(SEED)));
+        return new BenchmarkData(directory, typedb, session);
+    }
+
+    public RocksTransaction read() {
+        return session.transaction(READ);
+    }
+
+    public RocksTransaction read(Options.Transaction options) {
+        return session.transaction(READ, options);
+    }
+
+    public RocksTransaction write() {
+        return session.transaction(WRITE);
+    }
+
+    static String person(int index) {
+        return "person-" + index;
+    }
+
+    static String node(int index) {
+        return "node-" + index;
+    }
+
+    private static String schema() {
+        return "define " +
+                "name sub attribute, value string; " +
+                "age sub attribute, value long; " +
+                "person sub entity, owns name @key, owns age, plays friendship:friend; " +
+                "friendship sub relation, relates friend; " +
+                "node sub entity, owns name @key, plays link:from, plays link:to, " +
+                "  plays reachable:from, plays reachable:to; " +
+                "link sub relation, relates from, relates to; " +
+                "reachable sub relation, relates from, relates to; " +
+                "rule reachable-link: when { (from: $x, to: $y) isa link; } " +
+                "  then { (from: $x, to: $y) isa reachable; }; " +
+                "rule reachable-transitive: when { (from: $x, to: $z) isa link; (from: $z, to: $y) isa reachable; } " +
+                "  then { (from: $x, to: $y) isa reachable; };";
+    }
+
+    private static List<String> data(Random random) {
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            queries.add("insert $p isa person, has name \"" + person(i) + "\", has age " + random.nextInt(100) + ";");
+        }
+        for (int i = 0; i < PERSONS; i++) {
+            for (int f = 0; f < FRIENDS_PER_PERSON; f++) {
+                int j = random.nextInt(PERSONS - 1);
+                queries.add(match("person", person(i), person(j < i ? j : j + 1)) +
+                                    "insert (friend: $x, friend: $y) isa friendship;");
+            }
+        }
+        for (int i = 0; i < NODES; i++) {
+            queries.add("insert $n isa node, has name \"" + node(i) + "\";");
+        }
+        for (int i = 0; i + 1 < NODES; i++) {
+            queries.add(match("node", node(i), node(i + 1)) + "insert (from: $x, to: $y) isa link;");
+        }
+        for (int s = 0; s < SHORTCUTS; s++) {
+            int i = random.nextInt(NODES - 2);
+            int j = i + 2 + random.nextInt(NODES - i - 2);
+            queries.add(match("node", node(i), node(j)) + "insert (from: $x, to: $y) isa link;");
+        }
+        return queries;
+    }
+
+    private static String match(String type, String x, String y) {
+        return "match $x isa " + type + ", has name \"" + x + "\"; $y isa " + type + ", has name \"" + y + "\"; ";
+    }
+
+    private static void insert(RocksSession session, List<String> queries) {
+        for (int from = 0; from < queries.size(); from += BATCH_SIZE) {
+            try (RocksTransaction transaction = session.transaction(WRITE)) {
+                for (String query : queries.subList(from, Math.min(from + BATCH_SIZE, queries.size()))) {
+                    TypeQLInsert insert = TypeQL.parseQuery(query).asInsert();
+                    transaction.query().insert(insert).toList();
+                }
+                transaction.commit();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        session.close();
+        typedb.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
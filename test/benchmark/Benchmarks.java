@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.server.Version;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs the benchmarks, accepting the standard JMH command line arguments.
+ *
+ * Unless a result file is given, the results are written, as JSON by default, to a file named
+ * after the version under benchmark, in the workspace directory when run through Bazel, so
+ * that the results of two releases can be compared with each other.
+ */
+public class Benchmarks {
+
+    private static final String WORKSPACE_DIRECTORY = "BUILD_WORKSPACE_DIRECTORY";
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions arguments = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(arguments);
+        ResultFormatType format = arguments.getResultFormat().orElse(ResultFormatType.JSON);
+        options.resultFormat(format);
+        if (!arguments.getResult().hasValue()) options.result(resultFile(format).toString());
+        new Runner(options.build()).run();
+    }
+
+    private static Path resultFile(ResultFormatType format) {
+        String workspace = System.getenv(WORKSPACE_DIRECTORY);
+        Path directory = workspace != null ? Paths.get(workspace) : Paths.get(System.getProperty("user.dir"));
+        return directory.resolve("benchmark-" + Version.VERSION + "." + format.name().toLowerCase());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.graph.common.Encoding;
+import com.vaticle.typedb.core.graph.iid.VertexIID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.doubleToSortedBytes;
+import static com.vaticle.typedb.core.common.collection.Bytes.join;
+import static com.vaticle.typedb.core.common.collection.Bytes.longToSortedBytes;
+import static com.vaticle.typedb.core.common.collection.Bytes.shortToSortedBytes;
+import static com.vaticle.typedb.core.common.collection.Bytes.sortedBytesToDouble;
+import static com.vaticle.typedb.core.common.collection.Bytes.sortedBytesToLong;
+
+/**
+ * Measures the sorted byte encodings of values, and the parsing of thing IIDs out of
+ * the keys that hold them, which every storage read goes through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    private long longValue;
+    private double doubleValue;
+    private byte[] longBytes;
+    private byte[] doubleBytes;
+    private byte[] thingIID;
+    private byte[] edgeKey;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(BenchmarkData.SEED);
+        longValue = random.nextLong();
+        doubleValue = random.nextDouble();
+        longBytes = longToSortedBytes(longValue);
+        doubleBytes = doubleToSortedBytes(doubleValue);
+        thingIID = join(Encoding.Vertex.Thing.ENTITY.prefix().bytes(),
+                        Encoding.Vertex.Type.ENTITY_TYPE.prefix().bytes(),
+                        shortToSortedBytes(random.nextInt(Short.MAX_VALUE)),
+                        longToSortedBytes(random.nextLong()));
+        edgeKey = join(thingIID, Encoding.Edge.Thing.HAS.out().bytes(), thingIID);
+    }
+
+    @Benchmark
+    public byte[] longToBytes() {
+        return longToSortedBytes(longValue);
+    }
+
+    @Benchmark
+    public long bytesToLong() {
+        return sortedBytesToLong(longBytes);
+    }
+
+    @Benchmark
+    public byte[] doubleToBytes() {
+        return doubleToSortedBytes(doubleValue);
+    }
+
+    @Benchmark
+    public double bytesToDouble() {
+        return sortedBytesToDouble(doubleBytes);
+    }
+
+    @Benchmark
+    public VertexIID.Thing thingIIDOf() {
+        return VertexIID.Thing.of(thingIID);
+    }
+
+    @Benchmark
+    public VertexIID.Thing thingIIDExtract() {
+        return VertexIID.Thing.extract(edgeKey, thingIID.length + Encoding.Edge.Thing.HAS.out().bytes().length);
+    }
+}
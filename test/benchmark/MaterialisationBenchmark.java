@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.rocks.RocksTransaction;
+import com.vaticle.typeql.lang.TypeQL;
+import com.vaticle.typeql.lang.query.TypeQLMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
+
+/**
+ * Compares the reachability rules answered by the reasoner with the same rules materialised
+ * on commit: the latency of a query over all inferred pairs, and the latency of a commit that
+ * links a new node to the end of the chain, which the materialised mode extends to every node
+ * that reaches it.
+ *
+ * The query retrieves the inferred relations, so that its answers are never served from the
+ * reasoner cache of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterialisationBenchmark {
+
+    @Param({"reasoned", "materialised"})
+    public String inference;
+
+    private BenchmarkData data;
+    private TypeQLMatch query;
+    private int inserted;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        data = BenchmarkData.generate(isMaterialised(inference));
+        query = TypeQL.parseQuery("match $r (from: $x, to: $y) isa reachable;").asMatch();
+        inserted = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        data.close();
+    }
+
+    @Benchmark
+    public long query() {
+        try (RocksTransaction transaction = data.read(new Options.Transaction().infer(true))) {
+            return transaction.query().match(query).count();
+        }
+    }
+
+    @Benchmark
+    public void commit() {
+        try (RocksTransaction transaction = data.write()) {
+            String node = "extra-" + inserted++;
+            transaction.query().insert(TypeQL.parseQuery(
+                    "match $x isa node, has name \"" + BenchmarkData.node(BenchmarkData.NODES - 1) + "\"; " +
+                            "insert $y isa node, has name \"" + node + "\"; (from: $x, to: $y) isa link;"
+            ).asInsert()).toList();
+            transaction.commit();
+        }
+    }
+
+    private static boolean isMaterialised(String inference) {
+        switch (inference) {
+            case "reasoned":
+                return false;
+            case "materialised":
+                return true;
+            default:
+                throw TypeDBException.of(UNRECOGNISED_VALUE);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.rocks.RocksTransaction;
+import com.vaticle.typeql.lang.TypeQL;
+import com.vaticle.typeql.lang.query.TypeQLMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
+
+/**
+ * Measures resolution of the recursive reachability rules over the chain of nodes, from a
+ * single bound node and over all pairs of nodes.
+ *
+ * Every invocation runs in a new transaction, so that no inferred concepts are carried over,
+ * and the queries retrieve the inferred relations, so that their answers are never served
+ * from the reasoner cache of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReasonerBenchmark {
+
+    @Param({"bound", "unbound"})
+    public String pattern;
+
+    private BenchmarkData data;
+    private TypeQLMatch query;
+    private RocksTransaction transaction;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        data = BenchmarkData.generate();
+        query = TypeQL.parseQuery(query(pattern)).asMatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        data.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void open() {
+        transaction = data.read(new Options.Transaction().infer(true));
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        transaction.close();
+    }
+
+    @Benchmark
+    public long resolve() {
+        return transaction.query().match(query).count();
+    }
+
+    private static String query(String pattern) {
+        switch (pattern) {
+            case "bound":
+                return "match $x isa node, has name \"" + BenchmarkData.node(0) + "\"; " +
+                        "$r (from: $x, to: $y) isa reachable;";
+            case "unbound":
+                return "match $r (from: $x, to: $y) isa reachable;";
+            default:
+                throw TypeDBException.of(UNRECOGNISED_VALUE);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.rocks.RocksTransaction;
+import com.vaticle.typedb.core.server.common.ResponseBuilder;
+import com.vaticle.typedb.protocol.TransactionProto;
+import com.vaticle.typeql.lang.TypeQL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of a batch of match answers into a single response part,
+ * as the server streams them to a client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private BenchmarkData data;
+    private RocksTransaction transaction;
+    private UUID requestID;
+    private List<ConceptMap> answers;
+
+    @Setup
+    public void setup() throws IOException {
+        data = BenchmarkData.generate();
+        transaction = data.read();
+        requestID = new UUID(BenchmarkData.SEED, BenchmarkData.SEED);
+        answers = transaction.query().match(TypeQL.parseQuery(
+                "match $p isa person, has name $n, has age $a; (friend: $p, friend: $f) isa friendship;"
+        ).asMatch()).limit(batchSize).toList();
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        transaction.close();
+        data.close();
+    }
+
+    @Benchmark
+    public TransactionProto.Transaction.ResPart matchResPart() {
+        return ResponseBuilder.QueryManager.matchResPart(requestID, answers);
+    }
+}
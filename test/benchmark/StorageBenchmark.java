@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.graph.ThingGraph;
+import com.vaticle.typedb.core.graph.common.Encoding;
+import com.vaticle.typedb.core.graph.iid.VertexIID;
+import com.vaticle.typedb.core.graph.vertex.ThingVertex;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
+import com.vaticle.typedb.core.rocks.RocksTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.join;
+
+/**
+ * Measures prefix scans over the storage iterators, and the iteration of the persisted
+ * edges of a thing vertex through its adjacency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+    private BenchmarkData data;
+    private RocksTransaction transaction;
+    private ThingGraph graph;
+    private byte[] instances;
+    private List<VertexIID.Thing> persons;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        data = BenchmarkData.generate();
+        transaction = data.read();
+        graph = transaction.traversal().graph().data();
+        TypeVertex person = transaction.traversal().graph().schema().getType("person");
+        instances = join(person.encoding().instance().prefix().bytes(), person.iid().bytes());
+        persons = graph.storage().iterate(instances, (key, value) -> key)
+                .filter(key -> key.length == VertexIID.Thing.DEFAULT_LENGTH).map(VertexIID.Thing::of).toList();
+        next = 0;
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        transaction.close();
+        data.close();
+    }
+
+    @Benchmark
+    public long prefixScan() {
+        return graph.storage().iterate(instances, (key, value) -> key).count();
+    }
+
+    @Benchmark
+    public long adjacencyHas() {
+        return nextPerson().outs().edge(Encoding.Edge.Thing.HAS).to().count();
+    }
+
+    @Benchmark
+    public long adjacencyPlaying() {
+        return nextPerson().outs().edge(Encoding.Edge.Thing.PLAYING).to().count();
+    }
+
+    private ThingVertex nextPerson() {
+        next = (next + 1) % persons.size();
+        return graph.get(persons.get(next));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.Disjunction;
+import com.vaticle.typedb.core.rocks.RocksTransaction;
+import com.vaticle.typedb.core.traversal.TraversalCache;
+import com.vaticle.typedb.core.traversal.TraversalEngine;
+import com.vaticle.typedb.core.traversal.common.VertexMap;
+import com.vaticle.typeql.lang.TypeQL;
+import com.vaticle.typeql.lang.query.TypeQLMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
+
+/**
+ * Measures the traversal of a set of canonical patterns: a chain, a star and a cycle.
+ *
+ * Each pattern is measured on its own, as the iteration of its planned procedure over the
+ * graph, as the optimisation of its plan from a cold cache, and as a complete match query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+
+    @Param({"chain", "star", "triangle"})
+    public String pattern;
+
+    private BenchmarkData data;
+    private RocksTransaction transaction;
+    private TypeQLMatch query;
+    private Conjunction conjunction;
+
+    @Setup
+    public void setup() throws IOException {
+        data = BenchmarkData.generate();
+        transaction = data.read();
+        query = TypeQL.parseQuery(query(pattern)).asMatch();
+        Disjunction disjunction = Disjunction.create(query.conjunction().normalise());
+        transaction.logic().typeResolver().resolve(disjunction);
+        assert disjunction.conjunctions().size() == 1;
+        conjunction = disjunction.conjunctions().get(0);
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        transaction.close();
+        data.close();
+    }
+
+    @Benchmark
+    public long iterate() {
+        return transaction.traversal().iterator(conjunction.traversal()).count();
+    }
+
+    @Benchmark
+    public FunctionalIterator<VertexMap> plan() {
+        TraversalEngine engine = new TraversalEngine(transaction.traversal().graph(), new TraversalCache());
+        return engine.iterator(conjunction.traversal());
+    }
+
+    @Benchmark
+    public long match() {
+        return transaction.query().match(query).count();
+    }
+
+    private static String query(String pattern) {
+        switch (pattern) {
+            case "chain":
+                return "match $a isa person, has name \"" + BenchmarkData.person(0) + "\"; " +
+                        "(friend: $a, friend: $b) isa friendship; " +
+                        "(friend: $b, friend: $c) isa friendship; " +
+                        "(friend: $c, friend: $d) isa friendship; " +
+                        "$d has age $age;";
+            case "star":
+                return "match $p isa person, has name $n, has age $a; " +
+                        "(friend: $p, friend: $f) isa friendship;";
+            case "triangle":
+                return "match $a isa person; $b isa person; $c isa person; " +
+                        "(friend: $a, friend: $b) isa friendship; " +
+                        "(friend: $b, friend: $c) isa friendship; " +
+                        "(friend: $c, friend: $a) isa friendship;";
+            default:
+                throw TypeDBException.of(UNRECOGNISED_VALUE);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark.load;
+
+import com.google.protobuf.ByteString;
+import com.vaticle.typedb.common.collection.Either;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.protocol.CoreDatabaseProto.CoreDatabaseManager;
+import com.vaticle.typedb.protocol.OptionsProto;
+import com.vaticle.typedb.protocol.QueryProto;
+import com.vaticle.typedb.protocol.SessionProto;
+import com.vaticle.typedb.protocol.TransactionProto;
+import com.vaticle.typedb.protocol.TypeDBGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.TRANSACTION_CLOSED;
+import static com.vaticle.typedb.core.server.common.ResponseBuilder.UUIDAsByteString;
+
+/**
+ * A minimal client of the gRPC protocol of the server, which runs one request at a time
+ * in each transaction and consumes every answer of the queries it runs.
+ */
+class LoadClient implements AutoCloseable {
+
+    private static final int SESSION_IDLE_TIMEOUT_MILLIS = (int) TimeUnit.HOURS.toMillis(1);
+
+    private final ManagedChannel channel;
+    private final TypeDBGrpc.TypeDBBlockingStub blockingStub;
+    private final TypeDBGrpc.TypeDBStub streamingStub;
+
+    LoadClient(int serverPort) {
+        channel = ManagedChannelBuilder.forTarget("localhost:" + serverPort).usePlaintext().build();
+        blockingStub = TypeDBGrpc.newBlockingStub(channel);
+        streamingStub = TypeDBGrpc.newStub(channel);
+    }
+
+    void createDatabase(String database) {
+        blockingStub.databasesCreate(CoreDatabaseManager.Create.Req.newBuilder().setName(database).build());
+    }
+
+    ByteString openSession(String database, SessionProto.Session.Type type) {
+        return blockingStub.sessionOpen(SessionProto.Session.Open.Req.newBuilder().setDatabase(database).setType(type)
+                                                .setOptions(OptionsProto.Options.newBuilder()
+                                                                    .setSessionIdleTimeoutMillis(SESSION_IDLE_TIMEOUT_MILLIS))
+                                                .build()).getSessionId();
+    }
+
+    void closeSession(ByteString sessionID) {
+        blockingStub.sessionClose(SessionProto.Session.Close.Req.newBuilder().setSessionId(sessionID).build());
+    }
+
+    Transaction transaction(ByteString sessionID, TransactionProto.Transaction.Type type, boolean infer) {
+        return new Transaction(sessionID, type, infer);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        channel.shutdown().awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    class Transaction implements AutoCloseable {
+
+        private final StreamObserver<TransactionProto.Transaction.Client> requests;
+        private final BlockingQueue<Either<TransactionProto.Transaction.Server, Throwable>> responses;
+        private boolean isOpen;
+
+        private Transaction(ByteString sessionID, TransactionProto.Transaction.Type type, boolean infer) {
+            responses = new LinkedBlockingQueue<>();
+            requests = streamingStub.transaction(new StreamObserver<TransactionProto.Transaction.Server>() {
+                @Override
+                public void onNext(TransactionProto.Transaction.Server response) {
+                    responses.add(Either.first(response));
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    responses.add(Either.second(error));
+                }
+
+                @Override
+                public void onCompleted() {
+                    responses.add(Either.second(TypeDBException.of(TRANSACTION_CLOSED)));
+                }
+            });
+            isOpen = true;
+            execute(TransactionProto.Transaction.Req.newBuilder().setOpenReq(
+                    TransactionProto.Transaction.Open.Req.newBuilder().setSessionId(sessionID).setType(type)
+                            .setOptions(OptionsProto.Options.newBuilder().setInfer(infer))
+            ));
+        }
+
+        void define(String query) {
+            execute(TransactionProto.Transaction.Req.newBuilder().setQueryManagerReq(
+                    QueryProto.QueryManager.Req.newBuilder().setDefineReq(
+                            QueryProto.QueryManager.Define.Req.newBuilder().setQuery(query)
+                    )
+            ));
+        }
+
+        long match(String query) {
+            return stream(TransactionProto.Transaction.Req.newBuilder().setQueryManagerReq(
+                    QueryProto.QueryManager.Req.newBuilder().setMatchReq(
+                            QueryProto.QueryManager.Match.Req.newBuilder().setQuery(query)
+                    )
+            ));
+        }
+
+        long insert(String query) {
+            return stream(TransactionProto.Transaction.Req.newBuilder().setQueryManagerReq(
+                    QueryProto.QueryManager.Req.newBuilder().setInsertReq(
+                            QueryProto.QueryManager.Insert.Req.newBuilder().setQuery(query)
+                    )
+            ));
+        }
+
+        void commit() {
+            execute(TransactionProto.Transaction.Req.newBuilder().setCommitReq(
+                    TransactionProto.Transaction.Commit.Req.getDefaultInstance()
+            ));
+            close();
+        }
+
+        private TransactionProto.Transaction.Res execute(TransactionProto.Transaction.Req.Builder request) {
+            send(request.setReqId(UUIDAsByteString(UUID.randomUUID())));
+            TransactionProto.Transaction.Server response = receive();
+            if (!response.hasRes()) throw TypeDBException.of(ILLEGAL_STATE);
+            return response.getRes();
+        }
+
+        private long stream(TransactionProto.Transaction.Req.Builder request) {
+            ByteString requestID = UUIDAsByteString(UUID.randomUUID());
+            send(request.setReqId(requestID));
+            long answers = 0;
+            while (true) {
+                TransactionProto.Transaction.Server response = receive();
+                if (!response.hasResPart()) throw TypeDBException.of(ILLEGAL_STATE);
+                TransactionProto.Transaction.ResPart part = response.getResPart();
+                if (part.hasQueryManagerResPart()) {
+                    QueryProto.QueryManager.ResPart queryPart = part.getQueryManagerResPart();
+                    answers += queryPart.getMatchResPart().getAnswersCount();
+                    answers += queryPart.getInsertResPart().getAnswersCount();
+                } else if (part.hasStreamResPart()) {
+                    switch (part.getStreamResPart().getState()) {
+                        case CONTINUE:
+                            send(TransactionProto.Transaction.Req.newBuilder().setReqId(requestID).setStreamReq(
+                                    TransactionProto.Transaction.Stream.Req.getDefaultInstance()
+                            ));
+                            break;
+                        case DONE:
+                            return answers;
+                        default:
+                            throw TypeDBException.of(ILLEGAL_STATE);
+                    }
+                } else {
+                    throw TypeDBException.of(ILLEGAL_STATE);
+                }
+            }
+        }
+
+        private void send(TransactionProto.Transaction.Req.Builder request) {
+            if (!isOpen) throw TypeDBException.of(TRANSACTION_CLOSED);
+            requests.onNext(TransactionProto.Transaction.Client.newBuilder().addReqs(request).build());
+        }
+
+        private TransactionProto.Transaction.Server receive() {
+            try {
+                Either<TransactionProto.Transaction.Server, Throwable> response = responses.take();
+                if (response.isSecond()) {
+                    isOpen = false;
+                    throw TypeDBException.of(response.second());
+                }
+                return response.first();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw TypeDBException.of(UNEXPECTED_INTERRUPTION);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (isOpen) {
+                isOpen = false;
+                requests.onCompleted();
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark.load;
+
+import com.google.protobuf.ByteString;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.test.benchmark.load.Workload.QueryClass;
+import com.vaticle.typedb.protocol.SessionProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
+import static com.vaticle.typedb.protocol.TransactionProto.Transaction.Type.READ;
+import static com.vaticle.typedb.protocol.TransactionProto.Transaction.Type.WRITE;
+
+/**
+ * Boots a server on a temporary data directory, loads a synthetic dataset into it, and drives
+ * a mix of read, write and reasoning queries through its gRPC protocol from a number of
+ * concurrent clients, each running one query per transaction.
+ *
+ * Queries that complete during the warmup period are not measured. The throughput and
+ * latencies of every query class, and the resource usage of the process, are written as JSON.
+ */
+@CommandLine.Command(name = "typedb load", mixinStandardHelpOptions = true)
+public class LoadGenerator implements Callable<Integer> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final String DATABASE = "load";
+    private static final String WORKSPACE_DIRECTORY = "BUILD_WORKSPACE_DIRECTORY";
+    private static final int BATCH_SIZE = 500;
+
+    @CommandLine.Option(names = {"--workload"}, defaultValue = Workload.Social.NAME,
+            description = "Synthetic workload to run: social or financial")
+    private String workload;
+
+    @CommandLine.Option(names = {"--scale"}, defaultValue = "1000",
+            description = "Number of people, or accounts, in the generated dataset")
+    private int scale;
+
+    @CommandLine.Option(names = {"--seed"}, defaultValue = "20211019",
+            description = "Seed of the generated dataset and queries")
+    private long seed;
+
+    @CommandLine.Option(names = {"--concurrency"}, defaultValue = "8",
+            description = "Number of concurrent clients")
+    private int concurrency;
+
+    @CommandLine.Option(names = {"--warmup"}, defaultValue = "10",
+            description = "Seconds of load before measurements start")
+    private int warmup;
+
+    @CommandLine.Option(names = {"--duration"}, defaultValue = "60",
+            description = "Seconds of measured load")
+    private int duration;
+
+    @CommandLine.Option(names = {"--mix"}, split = ",", defaultValue = "READ=70,WRITE=20,REASONING=10",
+            description = "Relative weights of the query classes")
+    private Map<QueryClass, Integer> mix;
+
+    @CommandLine.Option(names = {"--port"}, defaultValue = "0",
+            description = "Port of the server, or 0 for any free port")
+    private int port;
+
+    @CommandLine.Option(names = {"--output"},
+            description = "File to write the results to")
+    private Path output;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    public static void main(String[] args) {
+        CommandLine commandLine = new CommandLine(new LoadGenerator()).setCaseInsensitiveEnumValuesAllowed(true);
+        System.exit(commandLine.execute(args));
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        validateMix();
+        Workload workload = Workload.of(this.workload, scale);
+        mix = new EnumMap<>(mix);
+        if (port == 0) port = freePort();
+        LoadServer server = LoadServer.start(port);
+        try (LoadClient client = new LoadClient(port)) {
+            load(client, workload);
+            ByteString session = client.openSession(DATABASE, SessionProto.Session.Type.DATA);
+            Report.Resources resources = new Report.Resources();
+            Report report = run(client, session, workload, resources);
+            client.closeSession(session);
+            Path file = output != null ? output : resultFile(workload);
+            Report.write(report.toJson(workload, seed, concurrency, resources), file);
+            LOG.info("Results written to {}", file);
+        } finally {
+            server.close();
+        }
+        return 0;
+    }
+
+    private void validateMix() {
+        if (mix.values().stream().anyMatch(weight -> weight < 0)) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(), "Invalid value for option '--mix': no weight may be negative, but got " + mix
+            );
+        } else if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(), "Invalid value for option '--mix': some weight must be positive, but got " + mix
+            );
+        }
+    }
+
+    private void load(LoadClient client, Workload workload) {
+        client.createDatabase(DATABASE);
+        ByteString schemaSession = client.openSession(DATABASE, SessionProto.Session.Type.SCHEMA);
+        LoadClient.Transaction schemaTransaction = client.transaction(schemaSession, WRITE, false);
+        schemaTransaction.define(workload.schema());
+        schemaTransaction.commit();
+        client.closeSession(schemaSession);
+
+        List<String> data = workload.data(new Random(seed));
+        ByteString dataSession = client.openSession(DATABASE, SessionProto.Session.Type.DATA);
+        for (int from = 0; from < data.size(); from += BATCH_SIZE) {
+            LoadClient.Transaction transaction = client.transaction(dataSession, WRITE, false);
+            for (String query : data.subList(from, Math.min(from + BATCH_SIZE, data.size()))) {
+                transaction.insert(query);
+            }
+            transaction.commit();
+        }
+        client.closeSession(dataSession);
+        LOG.info("Loaded {} queries of the {} workload at scale {}", data.size(), workload.name(), scale);
+    }
+
+    private Report run(LoadClient client, ByteString session, Workload workload, Report.Resources resources)
+            throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long measureTo = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.schedule(() -> {
+            resources.start();
+            sampler.scheduleAtFixedRate(resources::sample, 0, 1, TimeUnit.SECONDS);
+        }, warmup, TimeUnit.SECONDS);
+        try {
+            List<Future<Report>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Random random = new Random(seed + i + 1);
+                futures.add(workers.submit(() -> work(client, session, workload, random, measureFrom, measureTo)));
+            }
+            List<Report> reports = new ArrayList<>();
+            for (Future<Report> future : futures) reports.add(future.get());
+            resources.stop();
+            return Report.merge(reports, measureTo - measureFrom);
+        } finally {
+            sampler.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    private Report work(LoadClient client, ByteString session, Workload workload, Random random,
+                        long measureFrom, long measureTo) {
+        Report report = new Report();
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long now;
+        while ((now = System.nanoTime()) < measureTo) {
+            QueryClass queryClass = queryClass(random.nextInt(totalWeight));
+            String query = workload.query(queryClass, random);
+            try {
+                execute(client, session, queryClass, query);
+                long end = System.nanoTime();
+                if (now >= measureFrom && end <= measureTo) report.record(queryClass, end - now);
+            } catch (RuntimeException e) {
+                LOG.debug(e.getMessage(), e);
+                if (now >= measureFrom) report.error(queryClass);
+            }
+        }
+        return report;
+    }
+
+    private QueryClass queryClass(int weight) {
+        for (Map.Entry<QueryClass, Integer> entry : mix.entrySet()) {
+            if (weight < entry.getValue()) return entry.getKey();
+            weight -= entry.getValue();
+        }
+        throw TypeDBException.of(ILLEGAL_STATE);
+    }
+
+    private static void execute(LoadClient client, ByteString session, QueryClass queryClass, String query) {
+        switch (queryClass) {
+            case READ:
+                try (LoadClient.Transaction transaction = client.transaction(session, READ, false)) {
+                    transaction.match(query);
+                }
+                break;
+            case WRITE:
+                try (LoadClient.Transaction transaction = client.transaction(session, WRITE, false)) {
+                    transaction.insert(query);
+                    transaction.commit();
+                }
+                break;
+            case REASONING:
+                try (LoadClient.Transaction transaction = client.transaction(session, READ, true)) {
+                    transaction.match(query);
+                }
+                break;
+            default:
+                throw TypeDBException.of(UNRECOGNISED_VALUE);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Path resultFile(Workload workload) {
+        String workspace = System.getenv(WORKSPACE_DIRECTORY);
+        Path directory = workspace != null ? Paths.get(workspace) : Paths.get(System.getProperty("user.dir"));
+        return directory.resolve("load-" + workload.name() + ".json");
+    }
+}
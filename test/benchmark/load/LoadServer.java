@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark.load;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.rocks.RocksFactory;
+import com.vaticle.typedb.core.server.TypeDBServer;
+import com.vaticle.typedb.core.server.common.RunOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_ARGUMENT;
+import static com.vaticle.typedb.core.server.common.Util.parseCommandLine;
+
+/**
+ * A server that runs in the process of the load generator, on a temporary data directory
+ * that is deleted when the server is closed.
+ */
+class LoadServer extends TypeDBServer {
+
+    private final Path directory;
+    private final AtomicBoolean isOpen;
+
+    private LoadServer(RunOptions.Server command, Path directory) {
+        super(command, new RocksFactory());
+        this.directory = directory;
+        this.isOpen = new AtomicBoolean(true);
+    }
+
+    static LoadServer start(int port) throws IOException {
+        Path directory = Files.createTempDirectory("typedb-load");
+        Path data = Files.createDirectory(directory.resolve("data"));
+        String[] args = new String[]{
+                "--data", data.toString(), "--logs", directory.resolve("logs").toString(), "--port", Integer.toString(port)
+        };
+        RunOptions command = parseCommandLine(new Properties(), args)
+                .orElseThrow(() -> TypeDBException.of(ILLEGAL_ARGUMENT));
+        LoadServer server = new LoadServer(command.asServer(), directory);
+        server.start();
+        return server;
+    }
+
+    @Override
+    protected String name() {
+        return "TypeDB Load Server";
+    }
+
+    @Override
+    public void close() {
+        if (!isOpen.compareAndSet(true, false)) return;
+        super.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw TypeDBException.of(e);
+        }
+    }
+}
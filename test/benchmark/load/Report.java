@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark.load;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.WriterConfig;
+import com.sun.management.OperatingSystemMXBean;
+import com.vaticle.typedb.core.server.Version;
+import com.vaticle.typedb.core.test.benchmark.load.Workload.QueryClass;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The measurements of a load run: the latencies and errors of every query class, and the
+ * resource usage of the process, which hosts both the server and the load generator.
+ */
+class Report {
+
+    private final Map<QueryClass, Latencies> latencies;
+    private final Map<QueryClass, Long> errors;
+    private long durationNanos;
+
+    Report() {
+        latencies = new EnumMap<>(QueryClass.class);
+        errors = new EnumMap<>(QueryClass.class);
+        for (QueryClass queryClass : QueryClass.values()) {
+            latencies.put(queryClass, new Latencies());
+            errors.put(queryClass, 0L);
+        }
+    }
+
+    void record(QueryClass queryClass, long latencyNanos) {
+        latencies.get(queryClass).add(latencyNanos);
+    }
+
+    void error(QueryClass queryClass) {
+        errors.merge(queryClass, 1L, Long::sum);
+    }
+
+    static Report merge(List<Report> reports, long durationNanos) {
+        Report merged = new Report();
+        for (Report report : reports) {
+            for (QueryClass queryClass : QueryClass.values()) {
+                merged.latencies.get(queryClass).addAll(report.latencies.get(queryClass));
+                merged.errors.merge(queryClass, report.errors.get(queryClass), Long::sum);
+            }
+        }
+        merged.durationNanos = durationNanos;
+        return merged;
+    }
+
+    JsonObject toJson(Workload workload, long seed, int concurrency, Resources resources) {
+        JsonObject classes = Json.object();
+        Latencies total = new Latencies();
+        long totalErrors = 0;
+        for (QueryClass queryClass : QueryClass.values()) {
+            classes.add(queryClass.key(), json(latencies.get(queryClass), errors.get(queryClass)));
+            total.addAll(latencies.get(queryClass));
+            totalErrors += errors.get(queryClass);
+        }
+        return Json.object()
+                .add("version", Version.VERSION)
+                .add("workload", workload.name())
+                .add("scale", workload.scale)
+                .add("seed", seed)
+                .add("concurrency", concurrency)
+                .add("duration_seconds", durationNanos / 1e9)
+                .add("classes", classes)
+                .add("total", json(total, totalErrors))
+                .add("resources", resources.toJson());
+    }
+
+    static void write(JsonObject json, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            json.writeTo(writer, WriterConfig.PRETTY_PRINT);
+        }
+    }
+
+    private JsonObject json(Latencies latencies, long errors) {
+        latencies.sort();
+        return Json.object()
+                .add("count", latencies.size)
+                .add("errors", errors)
+                .add("throughput_per_second", durationNanos == 0 ? 0 : latencies.size / (durationNanos / 1e9))
+                .add("latency_millis", Json.object()
+                        .add("mean", millis(latencies.mean()))
+                        .add("p50", millis(latencies.percentile(0.5)))
+                        .add("p99", millis(latencies.percentile(0.99)))
+                        .add("p999", millis(latencies.percentile(0.999)))
+                        .add("max", millis(latencies.percentile(1.0))));
+    }
+
+    private static double millis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static class Latencies {
+
+        private long[] nanos;
+        private int size;
+
+        private Latencies() {
+            nanos = new long[1024];
+            size = 0;
+        }
+
+        private void add(long latency) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = latency;
+        }
+
+        private void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) add(other.nanos[i]);
+        }
+
+        private void sort() {
+            Arrays.sort(nanos, 0, size);
+        }
+
+        private double mean() {
+            if (size == 0) return 0;
+            double sum = 0;
+            for (int i = 0; i < size; i++) sum += nanos[i];
+            return sum / size;
+        }
+
+        private double percentile(double percentile) {
+            if (size == 0) return 0;
+            return nanos[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * Samples the CPU, heap and thread usage of the process while the load runs, and the
+     * garbage collection between the start and the end of the run.
+     */
+    static class Resources {
+
+        private final OperatingSystemMXBean os;
+        private final MemoryMXBean memory;
+        private final ThreadMXBean threads;
+        private final List<GarbageCollectorMXBean> collectors;
+        private long samples;
+        private double cpuLoadSum;
+        private double cpuLoadMax;
+        private long heapUsedMax;
+        private int threadsMax;
+        private long gcCountStart;
+        private long gcTimeStart;
+        private long gcCount;
+        private long gcTime;
+
+        Resources() {
+            os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+            memory = ManagementFactory.getMemoryMXBean();
+            threads = ManagementFactory.getThreadMXBean();
+            collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        }
+
+        synchronized void start() {
+            gcCountStart = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+            gcTimeStart = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        }
+
+        synchronized void sample() {
+            double cpuLoad = os.getProcessCpuLoad();
+            if (cpuLoad >= 0) {
+                samples++;
+                cpuLoadSum += cpuLoad;
+                cpuLoadMax = Math.max(cpuLoadMax, cpuLoad);
+            }
+            heapUsedMax = Math.max(heapUsedMax, memory.getHeapMemoryUsage().getUsed());
+            threadsMax = Math.max(threadsMax, threads.getThreadCount());
+        }
+
+        synchronized void stop() {
+            gcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCountStart;
+            gcTime = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcTimeStart;
+        }
+
+        private synchronized JsonObject toJson() {
+            return Json.object()
+                    .add("processors", os.getAvailableProcessors())
+                    .add("cpu_load_mean", samples == 0 ? 0 : cpuLoadSum / samples)
+                    .add("cpu_load_max", cpuLoadMax)
+                    .add("heap_used_max_bytes", heapUsedMax)
+                    .add("threads_max", threadsMax)
+                    .add("gc_count", gcCount)
+                    .add("gc_time_millis", gcTime);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark.load;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
+
+/**
+ * A synthetic schema and dataset, scaled by a single parameter, and the queries of each
+ * class that are run against it.
+ *
+ * All data and queries are drawn from the given random generators, so that a workload is
+ * reproduced exactly by the same seed.
+ */
+abstract class Workload {
+
+    enum QueryClass {
+        READ, WRITE, REASONING;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    final int scale;
+
+    Workload(int scale) {
+        this.scale = scale;
+    }
+
+    static Workload of(String name, int scale) {
+        switch (name) {
+            case Social.NAME:
+                return new Social(scale);
+            case Financial.NAME:
+                return new Financial(scale);
+            default:
+                throw TypeDBException.of(UNRECOGNISED_VALUE);
+        }
+    }
+
+    abstract String name();
+
+    abstract String schema();
+
+    abstract List<String> data(Random random);
+
+    abstract String query(QueryClass queryClass, Random random);
+
+    /**
+     * People with ages, friendships between them and the companies they work at. Colleagues
+     * are inferred from people working at the same company.
+     */
+    static class Social extends Workload {
+
+        static final String NAME = "social";
+        private static final int FRIENDS_PER_PERSON = 5;
+        private static final int PERSONS_PER_COMPANY = 50;
+
+        Social(int scale) {
+            super(scale);
+        }
+
+        @Override
+        String name() {
+            return NAME;
+        }
+
+        @Override
+        String schema() {
+            return "define " +
+                    "name sub attribute, value string; " +
+                    "age sub attribute, value long; " +
+                    "person sub entity, owns name @key, owns age, plays friendship:friend, " +
+                    "  plays employment:employee, plays colleagueship:colleague; " +
+                    "company sub entity, owns name @key, plays employment:employer; " +
+                    "friendship sub relation, relates friend; " +
+                    "employment sub relation, relates employee, relates employer; " +
+                    "colleagueship sub relation, relates colleague; " +
+                    "rule colleagues: when { " +
+                    "  (employee: $x, employer: $c) isa employment; (employee: $y, employer: $c) isa employment; " +
+                    "  not { $x is $y; }; " +
+                    "} then { (colleague: $x, colleague: $y) isa colleagueship; };";
+        }
+
+        @Override
+        List<String> data(Random random) {
+            List<String> queries = new ArrayList<>();
+            int companies = Math.max(1, scale / PERSONS_PER_COMPANY);
+            for (int c = 0; c < companies; c++) {
+                queries.add("insert $c isa company, has name \"" + company(c) + "\";");
+            }
+            for (int p = 0; p < scale; p++) {
+                queries.add("match $c isa company, has name \"" + company(random.nextInt(companies)) + "\"; " +
+                                    "insert $p isa person, has name \"" + person(p) + "\", has age " + random.nextInt(100) + "; " +
+                                    "(employee: $p, employer: $c) isa employment;");
+            }
+            for (int p = 0; p < scale; p++) {
+                for (int f = 0; f < FRIENDS_PER_PERSON; f++) queries.add(friendship(p, other(p, random)));
+            }
+            return queries;
+        }
+
+        @Override
+        String query(QueryClass queryClass, Random random) {
+            String person = person(random.nextInt(scale));
+            switch (queryClass) {
+                case READ:
+                    return random.nextBoolean()
+                            ? "match $p isa person, has name \"" + person + "\", has age $a;"
+                            : "match $p isa person, has name \"" + person + "\"; " +
+                            "(friend: $p, friend: $f) isa friendship; (friend: $f, friend: $g) isa friendship; " +
+                            "$g has name $n;";
+                case WRITE:
+                    int friend = random.nextInt(scale);
+                    return friendship(friend, other(friend, random));
+                case REASONING:
+                    return "match $p isa person, has name \"" + person + "\"; " +
+                            "(colleague: $p, colleague: $c) isa colleagueship; $c has name $n;";
+                default:
+                    throw TypeDBException.of(UNRECOGNISED_VALUE);
+            }
+        }
+
+        private int other(int index, Random random) {
+            int other = random.nextInt(scale - 1);
+            return other < index ? other : other + 1;
+        }
+
+        private static String person(int index) {
+            return "person-" + index;
+        }
+
+        private static String company(int index) {
+            return "company-" + index;
+        }
+
+        private static String friendship(int x, int y) {
+            return "match $x isa person, has name \"" + person(x) + "\"; " +
+                    "$y isa person, has name \"" + person(y) + "\"; " +
+                    "insert (friend: $x, friend: $y) isa friendship;";
+        }
+    }
+
+    /**
+     * Accounts with balances and the transfers of amounts between them. Accounts are
+     * inferred to be flagged when they send a transfer of a large amount.
+     */
+    static class Financial extends Workload {
+
+        static final String NAME = "financial";
+        private static final int TRANSFERS_PER_ACCOUNT = 10;
+        private static final int MAX_AMOUNT = 10_000;
+        private static final int LARGE_AMOUNT = 9_500;
+
+        Financial(int scale) {
+            super(scale);
+        }
+
+        @Override
+        String name() {
+            return NAME;
+        }
+
+        @Override
+        String schema() {
+            return "define " +
+                    "number sub attribute, value long; " +
+                    "balance sub attribute, value long; " +
+                    "amount sub attribute, value long; " +
+                    "flag sub attribute, value string; " +
+                    "account sub entity, owns number @key, owns balance, owns flag, " +
+                    "  plays transfer:source, plays transfer:target; " +
+                    "transfer sub relation, relates source, relates target, owns amount; " +
+                    "rule large-transfer: when { " +
+                    "  (source: $a, target: $b) isa transfer, has amount $m; $m > " + LARGE_AMOUNT + "; " +
+                    "} then { $a has flag \"large-transfer\"; };";
+        }
+
+        @Override
+        List<String> data(Random random) {
+            List<String> queries = new ArrayList<>();
+            for (int a = 0; a < scale; a++) {
+                queries.add("insert $a isa account, has number " + a + ", has balance " + random.nextInt() + ";");
+            }
+            for (int a = 0; a < scale; a++) {
+                for (int t = 0; t < TRANSFERS_PER_ACCOUNT; t++) queries.add(transfer(a, random.nextInt(scale), random));
+            }
+            return queries;
+        }
+
+        @Override
+        String query(QueryClass queryClass, Random random) {
+            int account = random.nextInt(scale);
+            switch (queryClass) {
+                case READ:
+                    return random.nextBoolean()
+                            ? "match $a isa account, has number " + account + ", has balance $b;"
+                            : "match $a isa account, has number " + account + "; " +
+                            "(source: $a, target: $b) isa transfer, has amount $m; $b has number $n;";
+                case WRITE:
+                    return transfer(account, random.nextInt(scale), random);
+                case REASONING:
+                    return "match $a isa account, has number " + account + "; " +
+                            "(source: $a, target: $b) isa transfer; $b has flag $f;";
+                default:
+                    throw TypeDBException.of(UNRECOGNISED_VALUE);
+            }
+        }
+
+        private static String transfer(int source, int target, Random random) {
+            return "match $x isa account, has number " + source + "; $y isa account, has number " + target + "; " +
+                    "insert (source: $x, target: $y) isa transfer, has amount " + (1 + random.nextInt(MAX_AMOUNT)) + ";";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2021 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.integration;
+
+import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.rocks.RocksTypeDB;
+import com.vaticle.typedb.core.test.integration.util.Util;
+import com.vaticle.typeql.lang.TypeQL;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Database.BACKUP_CORRUPTED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BackupTest {
+
+    private static final String database = "backup-test";
+    private static final Path dataDir = Paths.get(System.getProperty("user.dir")).resolve(database);
+    private static final Path logDir = dataDir.resolve("logs");
+    private static final Path backupDir = Paths.get(System.getProperty("user.dir")).resolve(database + "-backups");
+    private static final Options.Database options = new Options.Database().dataDir(dataDir).logsDir(logDir);
+
+    private RocksTypeDB typeDB;
+
+    @Before
+    public void setup() throws IOException {
+        Util.resetDirectory(dataDir);
+        Util.resetDirectory(backupDir);
+        typeDB = RocksTypeDB.open(options);
+        typeDB.databases().create(database);
+        try (TypeDB.Session session = typeDB.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(TypeQL.parseQuery("define person sub entity, owns name; " +
+                                                             "name sub attribute, value string;").asDefine());
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        typeDB.close();
+    }
+
+    @Test
+    public void restore_returns_database_to_state_of_backup() {
+        insertPeople(10);
+        Path first = typeDB.databases().get(database).backup(backupDir);
+        insertPeople(10);
+        Path second = typeDB.databases().get(database).backup(backupDir);
+        insertPeople(10);
+        assertEquals(30, countPeople());
+
+        typeDB.databases().restore(database, first);
+        assertEquals(10, countPeople());
+        typeDB.databases().restore(database, second);
+        assertEquals(20, countPeople());
+        insertPeople(10);
+        assertEquals(30, countPeople());
+    }
+
+    @Test
+    public void backups_have_increasing_ids() {
+        Path first = typeDB.databases().get(database).backup(backupDir);
+        Path second = typeDB.databases().get(database).backup(backupDir);
+        assertTrue(Long.parseLong(second.getFileName().toString()) > Long.parseLong(first.getFileName().toString()));
+    }
+
+    @Test
+    public void backup_only_copies_new_sst_files() throws IOException {
+        insertPeople(10);
+        Path first = typeDB.databases().get(database).backup(backupDir);
+        Map<Path, FileTime> shared = sharedFiles();
+        insertPeople(10);
+        Path second = typeDB.databases().get(database).backup(backupDir);
+        Map<Path, FileTime> sharedAfter = sharedFiles();
+
+        Set<String> newFiles = new HashSet<>(sstFiles(second));
+        newFiles.removeAll(sstFiles(first));
+        assertFalse(newFiles.isEmpty());
+        assertEquals(shared.size() + newFiles.size(), sharedAfter.size());
+        shared.forEach((file, modified) -> assertEquals(modified, sharedAfter.get(file)));
+    }
+
+    @Test
+    public void restore_rejects_shared_file_not_matching_its_checksum() throws IOException {
+        insertPeople(10);
+        Path backup = typeDB.databases().get(database).backup(backupDir);
+        Path corrupted;
+        try (Stream<Path> files = Files.list(backupDir.resolve("shared").resolve("data"))) {
+            corrupted = files.filter(file -> file.toString().endsWith(".sst")).findFirst().get();
+        }
+        byte[] bytes = Files.readAllBytes(corrupted);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(corrupted, bytes);
+
+        try {
+            typeDB.databases().restore(database, backup);
+            fail();
+        } catch (TypeDBException e) {
+            assertEquals(BACKUP_CORRUPTED.code(), e.code().get());
+        }
+        assertEquals(10, countPeople());
+    }
+
+    private Map<Path, FileTime> sharedFiles() throws IOException {
+        Map<Path, FileTime> files = new HashMap<>();
+        for (String storage : new String[]{"schema", "data"}) {
+            try (Stream<Path> stored = Files.list(backupDir.resolve("shared").resolve(storage))) {
+                for (Path file : stored.collect(toList())) files.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+        return files;
+    }
+
+    private Set<String> sstFiles(Path backup) throws IOException {
+        Set<String> files = new HashSet<>();
+        for (String storage : new String[]{"schema", "data"}) {
+            for (String file : Files.readAllLines(backup.resolve(storage).resolve("SST_FILES"))) {
+                files.add(storage + "/" + file);
+            }
+        }
+        return files;
+    }
+
+    private void insertPeople(int count) {
+        try (TypeDB.Session session = typeDB.session(database, Arguments.Session.Type.DATA)) {
+            try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < count; i++) {
+                    txn.query().insert(TypeQL.parseQuery("insert $x isa person, has name 'name-" + i + "';").asInsert());
+                }
+                txn.commit();
+            }
+        }
+    }
+
+    private long countPeople() {
+        try (TypeDB.Session session = typeDB.session(database, Arguments.Session.Type.DATA)) {
+            try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                return txn.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count();
+            }
+        }
+    }
+}
@@ -42,6 +42,11 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -828,4 +833,105 @@ public class BasicTest {
             tx.query().match(TypeQL.parseQuery("match $x sub thing;").asMatch());
         }
     }
+
+    @Test
+    public void thing_keys_are_unique_across_concurrent_transactions_and_reopening() throws IOException, InterruptedException {
+        Util.resetDirectory(dataDir);
+        Set<String> iids = new HashSet<>();
+        int threads = 4, transactions = 10, things = 10;
+        try (RocksTypeDB typedb = RocksTypeDB.open(options)) {
+            typedb.databases().create(database);
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    txn.query().define(TypeQL.parseQuery("define person sub entity;").asDefine());
+                    txn.commit();
+                }
+            }
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                List<Thread> writers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    writers.add(new Thread(() -> {
+                        for (int j = 0; j < transactions; j++) {
+                            try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                                EntityType person = txn.concepts().getEntityType("person");
+                                for (int k = 0; k < things; k++) person.create();
+                                txn.commit();
+                            }
+                        }
+                    }));
+                }
+                for (Thread writer : writers) writer.start();
+                for (Thread writer : writers) writer.join();
+                try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                    txn.concepts().getEntityType("person").getInstances()
+                            .forEachRemaining(person -> iids.add(Arrays.toString(person.getIID())));
+                }
+            }
+        }
+        assertEquals(threads * transactions * things, iids.size());
+
+        // the ranges released by the transactions above are forgotten, and keys continue after the last one stored,
+        // so the new things do not overwrite existing ones
+        try (RocksTypeDB typedb = RocksTypeDB.open(options)) {
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    EntityType person = txn.concepts().getEntityType("person");
+                    for (int k = 0; k < things; k++) person.create();
+                    txn.commit();
+                }
+                try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                    txn.concepts().getEntityType("person").getInstances()
+                            .forEachRemaining(person -> iids.add(Arrays.toString(person.getIID())));
+                }
+            }
+        }
+        assertEquals((threads * transactions + 1) * things, iids.size());
+    }
+
+    @Test
+    public void read_transactions_share_snapshot_within_staleness_bound() throws IOException {
+        Util.resetDirectory(dataDir);
+        try (RocksTypeDB typedb = RocksTypeDB.open(options)) {
+            typedb.databases().create(database);
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    txn.query().define(TypeQL.parseQuery("define person sub entity;").asDefine());
+                    txn.commit();
+                }
+            }
+            Options.Session pooled = new Options.Session().readSnapshotStalenessMillis(60_000);
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA, pooled)) {
+                try (TypeDB.Transaction held = session.transaction(Arguments.Transaction.Type.READ)) {
+                    for (int i = 0; i < 4; i++) {
+                        try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                            assertEquals(0, txn.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count());
+                        }
+                    }
+                    assertEquals(0, held.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count());
+                }
+                assertEquals(1, typedb.databases().get(database).readSnapshotsCreated());
+                assertEquals(4, typedb.databases().get(database).readSnapshotsReused());
+
+                for (int i = 0; i < 2; i++) {
+                    try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                        assertEquals(0, txn.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count());
+                    }
+                }
+                assertEquals(1, typedb.databases().get(database).readSnapshotsCreated());
+                assertEquals(6, typedb.databases().get(database).readSnapshotsReused());
+
+                try (TypeDB.Transaction held = session.transaction(Arguments.Transaction.Type.READ)) {
+                    try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        txn.query().insert(TypeQL.parseQuery("insert $x isa person;").asInsert());
+                        txn.commit();
+                    }
+                    try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                        assertEquals(1, txn.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count());
+                    }
+                    assertEquals(0, held.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count());
+                }
+                assertEquals(2, typedb.databases().get(database).readSnapshotsCreated());
+            }
+        }
+    }
 }
@@ -18,9 +18,12 @@
 
 package com.vaticle.typedb.core.test.integration;
 
+import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.common.parameters.Options.Database;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concept.thing.Attribute;
@@ -29,8 +32,13 @@ import com.vaticle.typedb.core.concept.type.AttributeType;
 import com.vaticle.typedb.core.concept.type.EntityType;
 import com.vaticle.typedb.core.concept.type.RelationType;
 import com.vaticle.typedb.core.concept.type.RoleType;
+import com.vaticle.typedb.core.query.Matcher;
+import com.vaticle.typedb.core.query.QueryCache;
 import com.vaticle.typedb.core.rocks.RocksTypeDB;
+import com.vaticle.typedb.core.server.common.ResponseBuilder;
+import com.vaticle.typedb.core.server.query.QueryService;
 import com.vaticle.typedb.core.test.integration.util.Util;
+import com.vaticle.typedb.protocol.AnswerProto;
 import com.vaticle.typeql.lang.TypeQL;
 import com.vaticle.typeql.lang.query.TypeQLDefine;
 import com.vaticle.typeql.lang.query.TypeQLDelete;
@@ -43,8 +51,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Optional;
+
+import static com.vaticle.typedb.common.collection.Collections.list;
+import static com.vaticle.typedb.common.collection.Collections.map;
+import static com.vaticle.typedb.common.collection.Collections.pair;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingWrite.THING_KEY_MISSING;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.PREPARED_QUERY_SESSION_MISMATCH;
+import static com.vaticle.typedb.core.common.test.Util.assertThrowsTypeDBException;
 import static com.vaticle.typedb.core.test.integration.util.Util.assertNotNulls;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
@@ -261,6 +277,189 @@ public class QueryTest {
         }
     }
 
+    @Test
+    public void test_query_match_prepared() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB typedb = RocksTypeDB.open(options)) {
+            typedb.databases().create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert " +
+                            "$u1 isa user, has name 'butler', has email 'butler@vaticle.com'; " +
+                            "$u2 isa user, has name 'jenkins', has email 'jenkins@vaticle.com';";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                Matcher.Prepared prepared;
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    prepared = transaction.query().prepare(TypeQL.parseQuery("match $u isa user, has name $n, has email $e;").asMatch());
+                    List<ConceptMap> answers = transaction.query().match(prepared, map(pair("n", "butler"))).toList();
+                    assertEquals(1, answers.size());
+                    assertEquals("butler@vaticle.com", answers.get(0).get("e").asAttribute().asString().getValue());
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    List<ConceptMap> answers = transaction.query().match(prepared, map(pair("n", "jenkins"))).toList();
+                    assertEquals(1, answers.size());
+                    assertEquals("jenkins@vaticle.com", answers.get(0).get("e").asAttribute().asString().getValue());
+                    assertEquals(2, transaction.query().match(prepared, map()).toList().size());
+                }
+
+                try (TypeDB.Session other = typedb.session(database, Arguments.Session.Type.DATA)) {
+                    try (TypeDB.Transaction transaction = other.transaction(Arguments.Transaction.Type.READ)) {
+                        assertThrowsTypeDBException(
+                                () -> transaction.query().match(prepared, map(pair("n", "butler"))),
+                                PREPARED_QUERY_SESSION_MISMATCH.code()
+                        );
+                    }
+                }
+
+                try (TypeDB.Session schemaSession = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                    try (TypeDB.Transaction transaction = schemaSession.transaction(Arguments.Transaction.Type.WRITE)) {
+                        transaction.query().define(TypeQL.parseQuery("define admin sub user;").asDefine());
+                        transaction.commit();
+                    }
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert $a isa admin, has name 'hudson', has email 'hudson@vaticle.com';";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                // the schema commit added a subtype of user, which is only matched once the query is resolved again
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    List<ConceptMap> answers = transaction.query().match(prepared, map(pair("n", "hudson"))).toList();
+                    assertEquals(1, answers.size());
+                    assertEquals("hudson@vaticle.com", answers.get(0).get("e").asAttribute().asString().getValue());
+                    assertEquals(3, transaction.query().match(prepared, map()).toList().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_cached_until_modified() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB typedb = RocksTypeDB.open(new Database().dataDir(dataDir).logsDir(logDir).queryCacheSize(1 << 20))) {
+            typedb.databases().create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert " +
+                            "$o isa organisation, has name 'vaticle'; " +
+                            "$u1 isa user, has name 'butler', has email 'butler@vaticle.com'; " +
+                            "$u2 isa user, has name 'jenkins', has email 'jenkins@vaticle.com';";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                TypeQLMatch users = TypeQL.parseQuery("match $u isa user, has name $n;").asMatch();
+                TypeQLMatch organisations = TypeQL.parseQuery("match $o isa organisation;").asMatch();
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    for (TypeQLMatch query : list(users, organisations)) {
+                        assertFalse(transaction.query().cached(query).isPresent());
+                        Pair<FunctionalIterator<ConceptMap>, Optional<QueryCache.Recorder>> answers =
+                                transaction.query().matchRecorded(query);
+                        QueryCache.Recorder recorder = answers.second().get();
+                        answers.first().forEachRemaining(answer -> recorder.record(answer, answer.toString().getBytes(UTF_8)));
+                        recorder.complete();
+                    }
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(2, transaction.query().cached(users).get().size());
+                    assertEquals(1, transaction.query().cached(organisations).get().size());
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    assertFalse(transaction.query().cached(users).isPresent());
+                    transaction.query().insert(TypeQL.parseQuery("insert $u isa user, has name 'bob';").asInsert());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertFalse(transaction.query().cached(users).isPresent());
+                    assertEquals(1, transaction.query().cached(organisations).get().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_cached_answers_equal_uncached_answers() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB typedb = RocksTypeDB.open(new Database().dataDir(dataDir).logsDir(logDir).queryCacheSize(1 << 20))) {
+            typedb.databases().create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert " +
+                            "$o isa organisation, has name 'vaticle'; " +
+                            "$t isa team, has name 'engineers', has symbol 'vaticle/engineers'; " +
+                            "$u isa user, has name 'butler', has email 'butler@vaticle.com'; " +
+                            "($o, $t) isa org-team; " +
+                            "($o, $u) isa org-member; " +
+                            "($t, $u) isa team-member;";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                TypeQLMatch query = TypeQL.parseQuery("match $x isa thing; $r ($x) isa relation;").asMatch();
+                List<AnswerProto.ConceptMap> uncached, recorded, cached, prepared;
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Context.Query context = new Context.Query(transaction.context(), new Options.Query());
+                    uncached = transaction.query().match(query).map(ResponseBuilder.Answer::conceptMap).toList();
+                    assertFalse(transaction.query().cached(query, context).isPresent());
+                    recorded = QueryService.matchAnswers(transaction.query(), query, context).toList();
+                }
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Context.Query context = new Context.Query(transaction.context(), new Options.Query());
+                    assertTrue(transaction.query().cached(query, context).isPresent());
+                    cached = QueryService.matchAnswers(transaction.query(), query, context).toList();
+                }
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    Context.Query context = new Context.Query(transaction.context(), new Options.Query());
+                    Matcher.Prepared handle = transaction.query().prepare(query);
+                    prepared = QueryService.matchAnswers(transaction.query(), handle, context).toList();
+                }
+                assertEquals(6, uncached.size());
+                assertEquals(new HashSet<>(uncached), new HashSet<>(recorded));
+                assertEquals(new HashSet<>(uncached), new HashSet<>(cached));
+                assertEquals(new HashSet<>(uncached), new HashSet<>(prepared));
+            }
+        }
+    }
+
     @Test
     public void test_query_delete() throws IOException {
         Util.resetDirectory(dataDir);
@@ -306,4 +505,59 @@ public class QueryTest {
             }
         }
     }
+
+    @Test
+    public void test_query_delete_all_instances_of_type() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB typedb = RocksTypeDB.open(options)) {
+            typedb.databases().create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String insertString = "insert " +
+                            "$o isa organisation, has name 'vaticle'; " +
+                            "$u1 isa user, has name 'butler'; " +
+                            "$u2 isa user, has name 'jenkins';";
+                    transaction.query().insert(TypeQL.parseQuery(insertString).asInsert());
+                    transaction.commit();
+                }
+
+                TypeQLMatch users = TypeQL.parseQuery("match $u isa user, has name $n;").asMatch();
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(TypeQL.parseQuery("insert $u isa user, has name 'before';").asInsert());
+                    transaction.query().delete(TypeQL.parseQuery("match $u isa user; delete $u isa user;").asDelete());
+                    assertFalse(transaction.query().match(users).hasNext());
+                    transaction.query().insert(TypeQL.parseQuery("insert $u isa user, has name 'after';").asInsert());
+                    assertEquals(1, transaction.query().match(users).count());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    List<ConceptMap> answers = transaction.query().match(users).toList();
+                    assertEquals(1, answers.size());
+                    assertEquals("after", answers.get(0).get("n").asAttribute().asString().getValue());
+                    assertEquals(1, transaction.query().match(TypeQL.parseQuery("match $o isa organisation;").asMatch()).count());
+                    assertEquals(5, transaction.query().match(TypeQL.parseQuery("match $n isa name;").asMatch()).count());
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().delete(TypeQL.parseQuery("match $n isa name; delete $n isa name;").asDelete());
+                    assertThrowsTypeDBException(transaction::commit, THING_KEY_MISSING.code());
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(5, transaction.query().match(TypeQL.parseQuery("match $n isa name;").asMatch()).count());
+                }
+            }
+        }
+    }
 }
@@ -66,6 +66,7 @@ import static com.vaticle.typedb.core.logic.resolvable.Util.getStringMapping;
 import static com.vaticle.typedb.core.logic.resolvable.Util.resolvedConjunction;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class UnifyRelationConcludableTest {
@@ -788,5 +789,23 @@ public class UnifyRelationConcludableTest {
     }
 
 
+    @Test
+    public void equal_concludables_share_unifiers_until_rules_change() {
+        String conjunction = "{ $r (employee: $y) isa employment; }";
+        Rule rule = createRule("people-are-employed", "{ $p isa person; }",
+                               "(employee: $p) isa employment", logicMgr);
+
+        Concludable concludable = Concludable.create(resolvedConjunction(conjunction, logicMgr)).iterator().next();
+        Concludable concludable2 = Concludable.create(resolvedConjunction(conjunction, logicMgr)).iterator().next();
+        assertEquals(list(rule), concludable.getApplicableRules(conceptMgr, logicMgr).toList());
+        assertEquals(list(rule), concludable2.getApplicableRules(conceptMgr, logicMgr).toList());
+        assertSame(concludable.getUnifiers(rule).next(), concludable2.getUnifiers(rule).next());
+
+        Rule rule2 = createRule("people-are-employed-again", "{ $p isa person; }",
+                                "(employee: $p) isa employment", logicMgr);
+        Concludable concludable3 = Concludable.create(resolvedConjunction(conjunction, logicMgr)).iterator().next();
+        assertEquals(list(rule, rule2), concludable3.getApplicableRules(conceptMgr, logicMgr).toList());
+    }
+
     // TODO: rule unification pruning tests based based on types
 }
@@ -20,6 +20,7 @@ package com.vaticle.typedb.core.reasoner;
 import com.vaticle.typedb.common.concurrent.NamedThreadFactory;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.common.parameters.Options.Database;
 import com.vaticle.typedb.core.concept.ConceptManager;
@@ -28,7 +29,11 @@ import com.vaticle.typedb.core.concept.type.AttributeType;
 import com.vaticle.typedb.core.concept.type.EntityType;
 import com.vaticle.typedb.core.concept.type.RelationType;
 import com.vaticle.typedb.core.concurrent.actor.ActorExecutorGroup;
+import com.vaticle.typedb.core.concurrent.producer.Producer;
 import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.reasoner.resolution.ResolverRegistry;
+import com.vaticle.typedb.core.reasoner.resolution.framework.ResolutionProfiler;
 import com.vaticle.typedb.core.rocks.RocksSession;
 import com.vaticle.typedb.core.rocks.RocksTransaction;
 import com.vaticle.typedb.core.rocks.RocksTypeDB;
@@ -42,10 +47,18 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Reasoner.RESOLUTION_TERMINATED;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.TRANSACTION_CONSISTENCY_EXCLUSIVE_CREATE_VIOLATION;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static com.vaticle.typedb.core.common.test.Util.assertThrowsTypeDBException;
+import static com.vaticle.typedb.core.reasoner.resolution.Util.resolvedConjunction;
 import static junit.framework.TestCase.assertFalse;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ReasonerTest {
@@ -105,6 +118,32 @@ public class ReasonerTest {
         }
     }
 
+    @Test
+    public void test_negation_without_rules() {
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                EntityType milk = conceptMgr.putEntityType("milk");
+                AttributeType ageInDays = conceptMgr.putAttributeType("age-in-days", AttributeType.ValueType.LONG);
+                milk.setOwns(ageInDays);
+                txn.commit();
+            }
+        }
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $x isa milk, has age-in-days 5;").asInsert());
+                txn.query().insert(TypeQL.parseQuery("insert $x isa milk, has age-in-days 10;").asInsert());
+                txn.query().insert(TypeQL.parseQuery("insert $x isa milk, has age-in-days 10;").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                List<ConceptMap> ans = txn.query().match(TypeQL.parseQuery(
+                        "match $x isa milk; not { $x has age-in-days 10; };").asMatch()).toList();
+                assertEquals(1, ans.size());
+            }
+        }
+    }
+
     @Test
     public void test_offset_limit() {
         try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
@@ -218,6 +257,48 @@ public class ReasonerTest {
         }
     }
 
+    @Test
+    public void test_reasoning_answers_follow_commits_across_transactions() {
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                LogicManager logicMgr = txn.logic();
+
+                EntityType milk = conceptMgr.putEntityType("milk");
+                AttributeType ageInDays = conceptMgr.putAttributeType("age-in-days", AttributeType.ValueType.LONG);
+                AttributeType isStillGood = conceptMgr.putAttributeType("is-still-good", AttributeType.ValueType.BOOLEAN);
+                milk.setOwns(ageInDays);
+                milk.setOwns(isStillGood);
+                logicMgr.putRule(
+                        "old-milk-is-not-good",
+                        TypeQL.parsePattern("{ $x isa milk, has age-in-days >= 10; }").asConjunction(),
+                        TypeQL.parseVariable("$x has is-still-good false").asThing());
+                txn.commit();
+            }
+        }
+
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $x isa milk, has age-in-days 5;").asInsert());
+                txn.query().insert(TypeQL.parseQuery("insert $x isa milk, has age-in-days 10;").asInsert());
+                txn.commit();
+            }
+            String query = "match $x isa milk, has is-still-good false; get $x;";
+            for (int i = 0; i < 2; i++) {
+                try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                    assertEquals(1, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+                }
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $x isa milk, has age-in-days 15;").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                assertEquals(2, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+        }
+    }
+
     @Test
     public void test_relation_rule() {
         try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
@@ -262,4 +343,236 @@ public class ReasonerTest {
             }
         }
     }
+
+    @Test
+    public void test_materialised_relation_rule_follows_inserts_and_deletes() {
+        typedb.close();
+        typedb = RocksTypeDB.open(new Database().dataDir(dataDir).logsDir(logDir).materialiseInference(true));
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                LogicManager logicMgr = txn.logic();
+
+                EntityType person = conceptMgr.putEntityType("person");
+                AttributeType name = conceptMgr.putAttributeType("name", AttributeType.ValueType.STRING);
+                person.setOwns(name);
+                RelationType friendship = conceptMgr.putRelationType("friendship");
+                friendship.setRelates("friend");
+                RelationType marriage = conceptMgr.putRelationType("marriage");
+                marriage.setRelates("husband");
+                marriage.setRelates("wife");
+                person.setPlays(friendship.getRelates("friend"));
+                person.setPlays(marriage.getRelates("husband"));
+                person.setPlays(marriage.getRelates("wife"));
+                logicMgr.putRule(
+                        "marriage-is-friendship",
+                        TypeQL.parsePattern("{ $x isa person; $y isa person; (husband: $x, wife: $y) isa marriage; }").asConjunction(),
+                        TypeQL.parseVariable("(friend: $x, friend: $y) isa friendship").asThing());
+                txn.commit();
+            }
+        }
+        String query = "match $f (friend: $p1, friend: $p2) isa friendship;";
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $x isa person, has name 'Zack'; $y isa person, has name 'Yasmin'; (husband: $x, wife: $y) isa marriage;").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                assertEquals(2, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                assertEquals(0, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+                assertEquals(2, txn.query().match(TypeQL.parseQuery("match $p isa person;").asMatch()).toList().size());
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().delete(TypeQL.parseQuery("match $m (husband: $x) isa marriage; delete $m isa marriage;").asDelete());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                assertEquals(0, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+        }
+    }
+
+    @Test
+    public void test_materialised_recursive_rule_reaches_fixpoint_and_rederives_after_delete() {
+        typedb.close();
+        typedb = RocksTypeDB.open(new Database().dataDir(dataDir).logsDir(logDir).materialiseInference(true));
+        defineAncestry();
+        String query = "match $a (ancestor: $x, descendant: $y) isa ancestry;";
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $a isa person, has name 'a'; $b isa person, has name 'b'; " +
+                                                             "$c isa person, has name 'c'; $d isa person, has name 'd'; " +
+                                                             "(parent: $a, child: $b) isa parenthood; " +
+                                                             "(parent: $b, child: $c) isa parenthood; " +
+                                                             "(parent: $c, child: $d) isa parenthood;").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                assertEquals(6, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                assertEquals(0, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().delete(TypeQL.parseQuery("match $b isa person, has name 'b'; $c isa person, has name 'c'; " +
+                                                             "$p (parent: $b, child: $c) isa parenthood; " +
+                                                             "delete $p isa parenthood;").asDelete());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                assertEquals(2, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+        }
+    }
+
+    @Test
+    public void test_concurrent_commits_evaluating_the_same_materialised_rule_conflict() {
+        typedb.close();
+        typedb = RocksTypeDB.open(new Database().dataDir(dataDir).logsDir(logDir).materialiseInference(true));
+        defineAncestry();
+        String query = "match $a (ancestor: $x, descendant: $y) isa ancestry;";
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $a isa person, has name 'a'; $b isa person, has name 'b'; " +
+                                                             "$c isa person, has name 'c';").asInsert());
+                txn.commit();
+            }
+            String parentOfB = "match $a isa person, has name 'a'; $b isa person, has name 'b'; " +
+                    "insert (parent: $a, child: $b) isa parenthood;";
+            String childOfB = "match $b isa person, has name 'b'; $c isa person, has name 'c'; " +
+                    "insert (parent: $b, child: $c) isa parenthood;";
+            try (RocksTransaction first = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE);
+                 RocksTransaction second = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                first.query().insert(TypeQL.parseQuery(parentOfB).asInsert());
+                second.query().insert(TypeQL.parseQuery(childOfB).asInsert());
+                first.commit();
+                assertThrowsTypeDBException(second::commit, TRANSACTION_CONSISTENCY_EXCLUSIVE_CREATE_VIOLATION.code());
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery(childOfB).asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                assertEquals(3, txn.query().match(TypeQL.parseQuery(query).asMatch()).toList().size());
+            }
+        }
+    }
+
+    @Test
+    public void test_traced_query_records_its_resolution_profile() {
+        defineAncestry();
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(TypeQL.parseQuery("insert $a isa person, has name 'a'; $b isa person, has name 'b'; " +
+                                                             "(parent: $a, child: $b) isa parenthood;").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                String query = "match $a (ancestor: $x, descendant: $y) isa ancestry;";
+                Context.Query traced = new Context.Query(txn.context(), new Options.Query().traceInference(true));
+                Context.Query untraced = new Context.Query(txn.context(), new Options.Query());
+                assertFalse(traced.profile().isPresent());
+                assertEquals(1, txn.query().match(TypeQL.parseQuery(query).asMatch(), traced).toList().size());
+                assertTrue(traced.profile().isPresent());
+                assertEquals(1, txn.query().match(TypeQL.parseQuery(query).asMatch(), untraced).toList().size());
+                assertFalse(untraced.profile().isPresent());
+            }
+        }
+    }
+
+    private void defineAncestry() {
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                LogicManager logicMgr = txn.logic();
+
+                EntityType person = conceptMgr.putEntityType("person");
+                AttributeType name = conceptMgr.putAttributeType("name", AttributeType.ValueType.STRING);
+                person.setOwns(name);
+                RelationType parenthood = conceptMgr.putRelationType("parenthood");
+                parenthood.setRelates("parent");
+                parenthood.setRelates("child");
+                RelationType ancestry = conceptMgr.putRelationType("ancestry");
+                ancestry.setRelates("ancestor");
+                ancestry.setRelates("descendant");
+                person.setPlays(parenthood.getRelates("parent"));
+                person.setPlays(parenthood.getRelates("child"));
+                person.setPlays(ancestry.getRelates("ancestor"));
+                person.setPlays(ancestry.getRelates("descendant"));
+                logicMgr.putRule(
+                        "parent-is-ancestor",
+                        TypeQL.parsePattern("{ $x isa person; $y isa person; (parent: $x, child: $y) isa parenthood; }").asConjunction(),
+                        TypeQL.parseVariable("(ancestor: $x, descendant: $y) isa ancestry").asThing());
+                logicMgr.putRule(
+                        "ancestry-is-transitive",
+                        TypeQL.parsePattern("{ $x isa person; $y isa person; $z isa person; " +
+                                                    "(ancestor: $x, descendant: $y) isa ancestry; " +
+                                                    "(ancestor: $y, descendant: $z) isa ancestry; }").asConjunction(),
+                        TypeQL.parseVariable("(ancestor: $x, descendant: $z) isa ancestry").asThing());
+                txn.commit();
+            }
+        }
+    }
+
+    @Test
+    public void test_recycled_producer_stops_the_work_of_its_resolvers() throws InterruptedException {
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                LogicManager logicMgr = txn.logic();
+
+                EntityType person = conceptMgr.putEntityType("person");
+                RelationType friendship = conceptMgr.putRelationType("friendship");
+                friendship.setRelates("friend");
+                person.setPlays(friendship.getRelates("friend"));
+                logicMgr.putRule(
+                        "everyone-is-friends",
+                        TypeQL.parsePattern("{ $x isa person; $y isa person; }").asConjunction(),
+                        TypeQL.parseVariable("(friend: $x, friend: $y) isa friendship").asThing());
+                txn.commit();
+            }
+        }
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < 20; i++) txn.query().insert(TypeQL.parseQuery("insert $x isa person;").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                ResolverRegistry registry = txn.reasoner().resolverRegistry();
+                String query = "match $f (friend: $x, friend: $y) isa friendship;";
+                Conjunction conjunction = resolvedConjunction("{ $f (friend: $x, friend: $y) isa friendship; }", txn.logic());
+                ReasonerProducer producer = new ReasonerProducer(
+                        conjunction, TypeQL.parseQuery(query).asMatch().modifiers(),
+                        new Context.Query(txn.context(), new Options.Query()),
+                        registry, new ExplainablesManager(), null
+                );
+                LinkedBlockingQueue<ConceptMap> answers = new LinkedBlockingQueue<>();
+                Producer.Queue<ConceptMap> queue = new Producer.Queue<ConceptMap>() {
+                    @Override
+                    public void put(ConceptMap item) { answers.add(item); }
+
+                    @Override
+                    public void done() {}
+
+                    @Override
+                    public void done(Throwable e) { fail(); }
+                };
+                producer.produce(queue, 1, Runnable::run);
+                assertNotNull(answers.poll(1000, TimeUnit.MILLISECONDS));
+                producer.recycle();
+                assertTrue(registry.isCancelled(producer.rootResolver()));
+                Thread.sleep(500); // the cancellation reaches the resolvers asynchronously
+
+                // a request that reaches the root after it was cancelled is not passed on to its resolvers
+                registry.profiler().start(producer.rootResolver());
+                producer.produce(queue, 10, Runnable::run);
+                Thread.sleep(500);
+                ResolutionProfiler.Profile profile = registry.profiler().finish(producer.rootResolver());
+                assertEquals(0, iterate(profile.counters().values()).filter(c -> c.requests() > 0).count());
+                assertTrue(answers.isEmpty());
+            }
+        }
+    }
 }
@@ -86,13 +86,17 @@ public class PlannerTest {
         typedb.close();
     }
 
+    private static Planner planner() {
+        return new Planner(conceptMgr, logicMgr, rocksTransaction.traversal().graph().data().stats());
+    }
+
     @Test
     public void test_planner_retrievable_dependent_upon_concludable() {
         Concludable concludable = Concludable.create(resolvedConjunction("{ $a has $b; }", logicMgr)).iterator().next();
         Retrievable retrievable = new Retrievable(resolvedConjunction("{ $c($b); }", logicMgr));
 
         Set<Resolvable<?>> resolvables = set(concludable, retrievable);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
         assertEquals(list(concludable, retrievable), plan);
     }
 
@@ -103,7 +107,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(concludable, retrievable);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
         assertEquals(list(retrievable, concludable), plan);
     }
 
@@ -128,7 +132,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(retrievable, retrievable2, concludable);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
         assertEquals(list(retrievable, concludable, retrievable2), plan);
     }
 
@@ -153,7 +157,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(retrievable, retrievable2, concludable);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
         assertEquals(list(retrievable2, concludable, retrievable), plan);
     }
 
@@ -164,7 +168,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
         assertEquals(list(concludable, concludable2), plan);
     }
 
@@ -190,7 +194,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(resolvedConjunction("{ $e($c, $p2) isa employment; }", logicMgr)).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(retrievable, retrievable2, concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
 
         assertEquals(list(retrievable, concludable, retrievable2, concludable2), plan);
     }
@@ -201,7 +205,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(resolvedConjunction("{ $b has $a; }", logicMgr)).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
 
         assertEquals(2, plan.size());
         assertEquals(set(concludable, concludable2), set(plan));
@@ -213,7 +217,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(resolvedConjunction("{ $b($a); }", logicMgr)).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
 
         assertEquals(2, plan.size());
         assertEquals(set(concludable, concludable2), set(plan));
@@ -225,7 +229,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(resolvedConjunction("{ $c($d); }", logicMgr)).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
 
         assertEquals(2, plan.size());
         assertEquals(set(concludable, concludable2), set(plan));
@@ -250,10 +254,31 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(resolvedConjunction("{ $c($b) isa friendship; }", logicMgr)).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables, set());
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
 
         assertEquals(0, concludable.getApplicableRules(conceptMgr, logicMgr).toList().size());
         assertEquals(1, concludable2.getApplicableRules(conceptMgr, logicMgr).toList().size());
         assertEquals(list(concludable, concludable2), plan);
     }
+
+    @Test
+    public void test_planner_prioritises_concludable_with_fewest_instances() {
+        rocksTransaction.query().define(TypeQL.parseQuery("define employment sub relation, relates employee;" +
+                                                                  "person plays employment:employee;"));
+        rocksTransaction.commit();
+        session.close();
+        initialise(Arguments.Session.Type.DATA, Arguments.Transaction.Type.WRITE);
+        rocksTransaction.query().insert(TypeQL.parseQuery("insert $p isa person; " +
+                                                                  "(friend: $p) isa friendship; (friend: $p) isa friendship; " +
+                                                                  "(friend: $p) isa friendship; (friend: $p) isa friendship;").asInsert());
+
+        Retrievable retrievable = new Retrievable(resolvedConjunction("{ $p isa person; }", logicMgr));
+        Concludable concludable = Concludable.create(resolvedConjunction("{ $f($p) isa friendship; }", logicMgr)).iterator().next();
+        Concludable concludable2 = Concludable.create(resolvedConjunction("{ $e($p) isa employment; }", logicMgr)).iterator().next();
+
+        Set<Resolvable<?>> resolvables = set(retrievable, concludable, concludable2);
+        List<Resolvable<?>> plan = planner().plan(resolvables, set());
+
+        assertEquals(list(retrievable, concludable2, concludable), plan);
+    }
 }
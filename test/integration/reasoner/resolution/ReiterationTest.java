@@ -30,7 +30,6 @@ import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial.Co
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Top.Match;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerStateImpl.TopImpl.MatchImpl.InitialImpl;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
-import com.vaticle.typedb.core.reasoner.resolution.framework.ResolutionTracer;
 import com.vaticle.typedb.core.reasoner.resolution.resolver.RootResolver;
 import com.vaticle.typedb.core.rocks.RocksSession;
 import com.vaticle.typedb.core.rocks.RocksTransaction;
@@ -70,7 +69,6 @@ public class ReiterationTest {
         Util.resetDirectory(dataDir);
         typedb = RocksTypeDB.open(options);
         typedb.databases().create(database);
-        ResolutionTracer.initialise(logDir);
     }
 
     @After
@@ -128,7 +126,6 @@ public class ReiterationTest {
                 int[] doneInIteration = {0};
                 boolean[] receivedInferredAnswer = {false};
 
-                ResolutionTracer.get().start();
                 Actor.Driver<RootResolver.Conjunction> root = registry.root(conjunction, answer -> {
                     if (answer.requiresReiteration()) receivedInferredAnswer[0] = true;
                     responses.add(answer);
@@ -142,24 +139,19 @@ public class ReiterationTest {
                 // iteration 0
                 sendRootRequest(root, filter, iteration[0]);
                 answers.add(responses.take());
-                ResolutionTracer.get().finish();
 
-                ResolutionTracer.get().start();
                 sendRootRequest(root, filter, iteration[0]);
                 failed.take(); // Block and wait for an failed message
-                ResolutionTracer.get().finish();
                 assertTrue(receivedInferredAnswer[0]);
                 assertEquals(1, doneInIteration[0]);
 
                 // iteration 1 onwards
                 for (int j = 0; j <= 100; j++) {
-                    ResolutionTracer.get().start();
                     sendRootRequest(root, filter, iteration[0]);
                     Match.Finished re = responses.poll(100, MILLISECONDS);
                     if (re == null) {
                         Integer ex = failed.poll(100, MILLISECONDS);
                         if (ex == null) {
-                            ResolutionTracer.get().finish();
                             fail();
                         }
                         // Reset the iteration
@@ -167,7 +159,6 @@ public class ReiterationTest {
                         receivedInferredAnswer[0] = false;
                         doneInIteration[0] = 0;
                     }
-                    ResolutionTracer.get().finish();
                 }
             } catch (TypeDBException e) {
                 e.printStackTrace();
@@ -22,6 +22,9 @@ import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Options.Database;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.thing.Attribute;
+import com.vaticle.typedb.core.concept.thing.Entity;
+import com.vaticle.typedb.core.concept.type.EntityType;
 import com.vaticle.typedb.core.concurrent.actor.Actor;
 import com.vaticle.typedb.core.concurrent.actor.ActorExecutorGroup;
 import com.vaticle.typedb.core.pattern.Conjunction;
@@ -31,7 +34,11 @@ import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Partial.Co
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerState.Top.Match;
 import com.vaticle.typedb.core.reasoner.resolution.answer.AnswerStateImpl.TopImpl.MatchImpl.InitialImpl;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Request;
+import com.vaticle.typedb.core.reasoner.resolution.framework.ResolutionProfiler;
 import com.vaticle.typedb.core.reasoner.resolution.framework.Resolver;
+import com.vaticle.typedb.core.reasoner.resolution.resolver.ConcludableResolver;
+import com.vaticle.typedb.core.reasoner.resolution.resolver.ConclusionResolver;
+import com.vaticle.typedb.core.reasoner.resolution.resolver.ConditionResolver;
 import com.vaticle.typedb.core.reasoner.resolution.resolver.RootResolver;
 import com.vaticle.typedb.core.rocks.RocksSession;
 import com.vaticle.typedb.core.rocks.RocksTransaction;
@@ -46,6 +53,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -54,11 +62,13 @@ import java.util.stream.Stream;
 
 import static com.vaticle.typedb.common.collection.Collections.set;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.PARALLELISATION_FACTOR;
 import static com.vaticle.typedb.core.reasoner.resolution.Util.resolvedConjunction;
 import static com.vaticle.typedb.core.reasoner.resolution.Util.resolvedDisjunction;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 
 public class ResolutionTest {
 
@@ -243,6 +253,119 @@ public class ResolutionTest {
         }
     }
 
+    @Test
+    public void test_simple_rule_profile_counts_the_work_of_each_resolver() throws InterruptedException {
+        try (RocksSession session = schemaSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().define(TypeQL.parseQuery(
+                        "define person sub entity, owns name, owns age;" +
+                                "age sub attribute, value long;" +
+                                "name sub attribute, value string;" +
+                                "rule bobs-are-42: when { $p1 isa person, has name \"Bob\"; } then { $p1 has age 42; };"));
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = dataSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().insert(TypeQL.parseQuery("insert $p1 isa person, has name \"Bob\";"));
+                transaction.query().insert(TypeQL.parseQuery("insert $p1 isa person, has name \"Bob\";"));
+                transaction.query().insert(TypeQL.parseQuery("insert $p1 isa person, has name \"Bob\";"));
+                transaction.query().insert(TypeQL.parseQuery("insert $p1 isa person, has age 42;"));
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = dataSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                ResolverRegistry registry = transaction.reasoner().resolverRegistry();
+                Conjunction conjunction = resolvedConjunction("{ $p1 isa person, has age 42; }", transaction.logic());
+                LinkedBlockingQueue<Match.Finished> responses = new LinkedBlockingQueue<>();
+                AtomicLong doneReceived = new AtomicLong(0L);
+                Actor.Driver<RootResolver.Conjunction> root = registry.root(
+                        conjunction, responses::add, iterDone -> doneReceived.incrementAndGet(), (throwable) -> fail()
+                );
+                registry.profiler().start(root);
+                Set<Identifier.Variable.Name> filter = set(Identifier.Variable.name("p1"));
+                assertResponses(root, filter, responses, doneReceived, 4L, 3L);
+
+                Map<String, ResolutionProfiler.Counters> counters = registry.profiler().finish(root).counters();
+                assertEquals(3, answers(counters, ConditionResolver.class));
+                assertEquals(3, answers(counters, ConclusionResolver.class));
+                assertTrue(answers(counters, ConcludableResolver.class) >= 4);
+                assertTrue(counters.values().stream().allMatch(c -> c.iterations() <= 1));
+            }
+        }
+    }
+
+    private static long answers(Map<String, ResolutionProfiler.Counters> counters, Class<?> resolver) {
+        return counters.entrySet().stream().filter(e -> e.getKey().startsWith(resolver.getSimpleName() + "("))
+                .mapToLong(e -> e.getValue().answers()).sum();
+    }
+
+    @Test
+    public void test_answers_beyond_largest_batch_are_all_received() throws InterruptedException {
+        try (RocksSession session = schemaSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().define(TypeQL.parseQuery(
+                        "define person sub entity, owns name, owns age;" +
+                                "age sub attribute, value long;" +
+                                "name sub attribute, value string;" +
+                                "rule bobs-are-42: when { $p1 isa person, has name \"Bob\"; } then { $p1 has age 42; };"));
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = dataSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                for (int i = 0; i < 100; i++) {
+                    transaction.query().insert(TypeQL.parseQuery("insert $p1 isa person, has name \"Bob\";"));
+                    transaction.query().insert(TypeQL.parseQuery("insert $p1 isa person, has age 42;"));
+                }
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = dataSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                Conjunction conjunctionPattern = resolvedConjunction("{ $p1 isa person, has age 42; }", transaction.logic());
+                createRootAndAssertResponses(transaction, conjunctionPattern, 200L, 100L);
+            }
+        }
+    }
+
+    @Test
+    public void test_retrievables_are_answered_whether_iterated_or_produced() throws InterruptedException {
+        assumeTrue(PARALLELISATION_FACTOR > 1);
+        try (RocksSession session = schemaSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().define(TypeQL.parseQuery(
+                        "define person sub entity, owns name, owns nickname;" +
+                                "name sub attribute, value string;" +
+                                "nickname sub attribute, value string;"));
+                transaction.commit();
+            }
+        }
+        try (RocksSession session = dataSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                // enough people that the statistics predict an unbound retrieval of them to be large
+                int people = 10_000;
+                int nicknamed = 10;
+                EntityType person = transaction.concepts().getEntityType("person");
+                Attribute.String bob = transaction.concepts().getAttributeType("name").asString().put("Bob");
+                Attribute.String bobby = transaction.concepts().getAttributeType("nickname").asString().put("Bobby");
+                for (int i = 0; i < people; i++) {
+                    Entity p = person.create();
+                    p.setHas(bob);
+                    if (i < nicknamed) p.setHas(bobby);
+                }
+
+                // the people are retrieved unbound from a traversal producer, and the negated nickname is
+                // retrieved from a traversal iterator for each person that binds it
+                Conjunction conjunction = resolvedConjunction(
+                        "{ $p1 isa person, has name \"Bob\"; not { $p1 has nickname \"Bobby\"; }; }", transaction.logic()
+                );
+                createRootAndAssertResponses(transaction, conjunction, people - nicknamed, 0L);
+            }
+        }
+    }
+
     @Test
     public void test_nested_disjunction() throws InterruptedException {
         try (RocksSession session = schemaSession()) {
@@ -32,12 +32,14 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 public class StatisticsTest {
 
@@ -62,6 +64,92 @@ public class StatisticsTest {
         }
     }
 
+    @Test
+    public void test_statistics_after_deleting_instances() throws IOException {
+        Util.resetDirectory(dataDir);
+        try (RocksTypeDB typedb = RocksTypeDB.open(options)) {
+            typedb.databases().create(database);
+            setupSchema(typedb);
+            int personCount = 1000;
+            Set<Long> ages = new HashSet<>();
+            Random random = new Random(0);
+            insertPersonAndAges(typedb, personCount, ages, random);
+            assertStatistics(typedb, personCount, ages);
+            deleteInstances(typedb, "person");
+            waitForStatisticsCounter();
+            try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(0, tx.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count());
+                    assertEquals(0, tx.graphMgr.data().stats().thingVertexCount(Label.of("person")));
+                    assertEquals(ages.size(), tx.graphMgr.data().stats().thingVertexCount(Label.of("age")));
+                    assertEquals(0, tx.graphMgr.data().stats().hasEdgeCount(Label.of("person"), Label.of("age")));
+                }
+            }
+            deleteInstances(typedb, "age");
+            waitForStatisticsCounter();
+            try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(0, tx.query().match(TypeQL.parseQuery("match $x isa age;").asMatch()).count());
+                    assertEquals(0, tx.graphMgr.data().stats().thingVertexCount(Label.of("age")));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_statistics_converge_under_concurrent_commits() throws IOException, InterruptedException {
+        Util.resetDirectory(dataDir);
+        try (RocksTypeDB typedb = RocksTypeDB.open(options)) {
+            typedb.databases().create(database);
+            setupSchema(typedb);
+            int writers = 4, commits = 20, personsPerCommit = 25;
+            try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                List<Thread> threads = new ArrayList<>();
+                for (int i = 0; i < writers; i++) {
+                    Random random = new Random(i);
+                    threads.add(new Thread(() -> {
+                        for (int j = 0; j < commits; j++) {
+                            try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                                for (int k = 0; k < personsPerCommit; k++) {
+                                    // ages overlap across writers, so that the count jobs of attributes collide
+                                    long age = random.nextInt(100);
+                                    tx.query().insert(TypeQL.parseQuery("insert $x isa person, has age " + age + ";").asInsert());
+                                }
+                                tx.commit();
+                            }
+                        }
+                    }));
+                }
+                for (Thread thread : threads) thread.start();
+                for (Thread thread : threads) thread.join();
+            }
+
+            RocksDatabase.StatisticsBackgroundCounter counter = typedb.databases().get(database).statisticsBackgroundCounter();
+            for (int i = 0; i < 60 && !counter.isCaughtUp(); i++) waitForStatisticsCounter();
+            assertTrue(counter.isCaughtUp());
+            try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    long persons = tx.query().match(TypeQL.parseQuery("match $x isa person;").asMatch()).count();
+                    long ages = tx.query().match(TypeQL.parseQuery("match $x isa age;").asMatch()).count();
+                    long ownerships = tx.query().match(TypeQL.parseQuery("match $x isa person, has age $y;").asMatch()).count();
+                    assertEquals(writers * commits * personsPerCommit, persons);
+                    assertEquals(persons, tx.graphMgr.data().stats().thingVertexCount(Label.of("person")));
+                    assertEquals(ages, tx.graphMgr.data().stats().thingVertexCount(Label.of("age")));
+                    assertEquals(ownerships, tx.graphMgr.data().stats().hasEdgeCount(Label.of("person"), Label.of("age")));
+                }
+            }
+        }
+    }
+
+    private void deleteInstances(RocksTypeDB typedb, String type) {
+        try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                tx.concepts().getThingType(type).deleteInstances();
+                tx.commit();
+            }
+        }
+    }
+
     private void updateAges(RocksTypeDB typedb, Set<Long> ages) {
         try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
             try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
@@ -97,6 +185,7 @@ public class StatisticsTest {
 
     private void assertStatistics(RocksTypeDB typedb, int personCount, Set<Long> ages) {
         waitForStatisticsCounter();
+        assertTrue(typedb.databases().get(database).statisticsBackgroundCounter().isCaughtUp());
         try (RocksSession session = typedb.session(database, Arguments.Session.Type.DATA)) {
             try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
                 assertEquals(personCount, tx.graphMgr.data().stats().thingVertexCount(Label.of("person")));
@@ -18,21 +18,31 @@
 
 package com.vaticle.typedb.core.traversal;
 
+import com.vaticle.typedb.common.collection.Either;
 import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.concurrent.executor.Executors;
+import com.vaticle.typedb.core.concurrent.producer.Producers;
+import com.vaticle.typedb.core.graph.GraphManager;
+import com.vaticle.typedb.core.graph.iid.IndexIID;
+import com.vaticle.typedb.core.graph.iid.VertexIID;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
+import com.vaticle.typedb.core.rocks.RocksDatabase;
 import com.vaticle.typedb.core.rocks.RocksSession;
 import com.vaticle.typedb.core.rocks.RocksTransaction;
 import com.vaticle.typedb.core.rocks.RocksTypeDB;
 import com.vaticle.typedb.core.test.integration.util.Util;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
+import com.vaticle.typedb.core.traversal.planner.Planner;
 import com.vaticle.typedb.core.traversal.predicate.Predicate;
 import com.vaticle.typedb.core.traversal.predicate.PredicateArgument;
 import com.vaticle.typedb.core.traversal.procedure.GraphProcedure;
 import com.vaticle.typedb.core.traversal.procedure.ProcedureVertex;
+import com.vaticle.typedb.core.traversal.structure.Structure;
 import com.vaticle.typeql.lang.TypeQL;
 import com.vaticle.typeql.lang.common.TypeQLToken;
 import com.vaticle.typeql.lang.query.TypeQLDefine;
@@ -47,7 +57,10 @@ import java.nio.file.Paths;
 import java.util.Set;
 
 import static com.vaticle.typedb.common.collection.Collections.set;
+import static com.vaticle.typedb.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.READ;
+import static com.vaticle.typedb.core.graph.common.Encoding.Edge.Thing.HAS;
+import static org.junit.Assert.assertEquals;
 
 public class TraversalTest {
 
@@ -217,5 +230,427 @@ public class TraversalTest {
         }
     }
 
-}
+    @Test
+    public void test_intersection_of_cyclic_pattern() {
+        session = typedb.session(database, Arguments.Session.Type.SCHEMA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            TypeQLDefine query = TypeQL.parseQuery("define " +
+                                                           "colleagueship sub relation, relates colleague; " +
+                                                           "person sub entity, plays colleagueship:colleague; "
+            );
+            transaction.query().define(query);
+            transaction.commit();
+        }
+        session.close();
+
+        session = typedb.session(database, Arguments.Session.Type.DATA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            TypeQLInsert query = TypeQL.parseQuery("insert " +
+                                                           "$a isa person, has name \"Ann\";" +
+                                                           "$b isa person, has name \"Bob\";" +
+                                                           "$c isa person, has name \"Cat\";" +
+                                                           "(colleague: $a, colleague: $b) isa colleagueship;" +
+                                                           "(colleague: $a, colleague: $b) isa colleagueship;" +
+                                                           "(colleague: $b, colleague: $c) isa colleagueship;").asInsert();
+
+            transaction.query().insert(query);
+            transaction.commit();
+        }
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            GraphProcedure.Builder proc = GraphProcedure.builder(4);
+            /*
+            vertices:
+            $x [thing] { hasIID: false, types: [person], predicates: [] } (start)
+            $f1 [thing] { hasIID: false, types: [colleagueship], predicates: [] }
+            $f2 [thing] { hasIID: false, types: [colleagueship], predicates: [] }
+            $y [thing] { hasIID: false, types: [person], predicates: [] }
+             */
+            ProcedureVertex.Thing x = proc.namedThing("x", true);
+            x.props().types(set(Label.of("person")));
+
+            ProcedureVertex.Thing f1 = proc.namedThing("f1");
+            f1.props().types(set(Label.of("colleagueship")));
+
+            ProcedureVertex.Thing f2 = proc.namedThing("f2");
+            f2.props().types(set(Label.of("colleagueship")));
+
+            ProcedureVertex.Thing y = proc.namedThing("y");
+            y.props().types(set(Label.of("person")));
+
+            /*
+            edges:
+            1: ($x <--[ROLEPLAYER]--* $f1) { roleTypes: [colleagueship:colleague] }
+            2: ($f1 *--[ROLEPLAYER]--> $y) { roleTypes: [colleagueship:colleague] }
+            3: ($x <--[ROLEPLAYER]--* $f2) { roleTypes: [colleagueship:colleague] } { intersects: [4] }
+            4: ($y <--[ROLEPLAYER]--* $f2) { roleTypes: [colleagueship:colleague] }
+             */
+            proc.backwardRolePlayer(1, x, f1, set(Label.of("colleague", "colleagueship")));
+            proc.forwardRolePlayer(2, f1, y, set(Label.of("colleague", "colleagueship")));
+            proc.backwardRolePlayer(3, x, f2, set(Label.of("colleague", "colleagueship")));
+            proc.backwardRolePlayer(4, y, f2, set(Label.of("colleague", "colleagueship")));
+
+            Set<Identifier.Variable.Retrievable> filter = set(
+                    x.id().asVariable().asRetrievable(),
+                    f1.id().asVariable().asRetrievable(),
+                    f2.id().asVariable().asRetrievable(),
+                    y.id().asVariable().asRetrievable()
+            );
+
+            GraphProcedure procedure = proc.build();
+            assertEquals(1, procedure.intersection(3).size());
+            FunctionalIterator<VertexMap> vertices = transaction.traversal().iterator(procedure, new Traversal.Parameters(), filter);
+            // both orientations of: 2 x 2 pairs of the relations between Ann and Bob, and 1 between Bob and Cat
+            assertEquals(10, vertices.count());
+        }
+    }
+
+    @Test
+    public void test_partitioned_traversal_from_a_single_iid_matches_the_sequential_traversal() {
+        session = typedb.session(database, Arguments.Session.Type.DATA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            StringBuilder query = new StringBuilder("insert $hub isa person, has name \"hub\";");
+            for (int i = 0; i < 30; i++) {
+                query.append("$s").append(i).append(" isa person, has name \"spoke-").append(i).append("\";");
+                query.append("(friend: $hub, friend: $s").append(i).append(") isa friendship, has ref ")
+                        .append(1000 + i).append(";");
+            }
+            for (int i = 0; i < 3; i++) {
+                query.append("(friend: $hub, friend: $hub) isa friendship, has ref ").append(2000 + i).append(";");
+            }
+            transaction.query().insert(TypeQL.parseQuery(query.toString()).asInsert());
+            transaction.commit();
+        }
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            byte[] hubIID = transaction.query().match(TypeQL.parseQuery(
+                    "match $x isa person, has name \"hub\";"
+            ).asMatch()).next().get("x").asThing().getIID();
+
+            GraphProcedure.Builder proc = GraphProcedure.builder(3);
+            /*
+            vertices:
+            $x [thing] { hasIID: true, types: [person], predicates: [] } (start)
+            $f [thing] { hasIID: false, types: [friendship], predicates: [] }
+            $y [thing] { hasIID: false, types: [person], predicates: [] }
+            $n [thing] { hasIID: false, types: [name], predicates: [] }
+             */
+            ProcedureVertex.Thing x = proc.namedThing("x", true);
+            x.props().hasIID(true);
+            x.props().types(set(Label.of("person")));
+
+            ProcedureVertex.Thing f = proc.namedThing("f");
+            f.props().types(set(Label.of("friendship")));
+
+            ProcedureVertex.Thing y = proc.namedThing("y");
+            y.props().types(set(Label.of("person")));
+
+            ProcedureVertex.Thing n = proc.namedThing("n");
+            n.props().types(set(Label.of("name")));
+
+            /*
+            edges:
+            1: ($x <--[ROLEPLAYER]--* $f) { roleTypes: [friendship:friend] }
+            2: ($f *--[ROLEPLAYER]--> $y) { roleTypes: [friendship:friend] }
+            3: ($y *--[HAS]--> $n)
+             */
+            proc.backwardRolePlayer(1, x, f, set(Label.of("friend", "friendship")));
+            proc.forwardRolePlayer(2, f, y, set(Label.of("friend", "friendship")));
+            proc.forwardHas(3, y, n);
+
+            Traversal.Parameters params = new Traversal.Parameters();
+            params.putIID(x.id().asVariable(), VertexIID.Thing.of(hubIID));
+            Set<Identifier.Variable.Retrievable> filter = set(
+                    x.id().asVariable().asRetrievable(),
+                    f.id().asVariable().asRetrievable(),
+                    y.id().asVariable().asRetrievable(),
+                    n.id().asVariable().asRetrievable()
+            );
+
+            GraphProcedure procedure = proc.build();
+            Set<VertexMap> sequential = transaction.traversal().iterator(procedure, params, filter).toSet();
+            // a single start vertex is split at the relations, so the roles its relations' scopes have visited must
+            // be carried into every partition for a reflexive friendship not to pair the hub with its own role
+            Set<VertexMap> partitioned = Producers.produce(
+                    procedure.producer(transaction.traversal().graph(), params, filter, 4),
+                    Either.first(EXHAUSTIVE), Executors.async1()
+            ).toSet();
+            // one answer for each spoke, and one for each reflexive friendship whichever role binds the hub
+            assertEquals(33, sequential.size());
+            assertEquals(sequential, partitioned);
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_range_predicates_on_sorted_value_types() {
+        defineAndInsertMeasures();
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(4, count(transaction, "match $x isa measure-long; $x < 5;"));
+            assertEquals(5, count(transaction, "match $x isa measure-long; $x <= 5;"));
+            assertEquals(5, count(transaction, "match $x isa measure-long; $x > 5;"));
+            assertEquals(6, count(transaction, "match $x isa measure-long; $x >= 5;"));
+            assertEquals(3, count(transaction, "match $x isa measure-long; $x > 3; $x <= 6;"));
+
+            assertEquals(4, count(transaction, "match $x isa measure-double; $x < 2.5;"));
+            assertEquals(5, count(transaction, "match $x isa measure-double; $x <= 2.5;"));
+            assertEquals(5, count(transaction, "match $x isa measure-double; $x > 2.5;"));
+            assertEquals(6, count(transaction, "match $x isa measure-double; $x >= 2.5;"));
+
+            assertEquals(4, count(transaction, "match $x isa measure-date; $x < 2021-01-05;"));
+            assertEquals(5, count(transaction, "match $x isa measure-date; $x <= 2021-01-05;"));
+            assertEquals(5, count(transaction, "match $x isa measure-date; $x > 2021-01-05;"));
+            assertEquals(6, count(transaction, "match $x isa measure-date; $x >= 2021-01-05;"));
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_range_predicates_compare_longs_and_doubles() {
+        defineAndInsertMeasures();
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(6, count(transaction, "match $x isa measure-long; $x > 4.5;"));
+            assertEquals(4, count(transaction, "match $x isa measure-long; $x < 4.5;"));
+            assertEquals(6, count(transaction, "match $x isa measure-long; $x >= 5.0;"));
+            assertEquals(5, count(transaction, "match $x isa measure-double; $x >= 3;"));
+            assertEquals(5, count(transaction, "match $x isa measure-double; $x < 3;"));
+            assertEquals(3, count(transaction, "match $x isa measure-double; $x > 1; $x <= 2.5;"));
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_empty_and_inverted_ranges() {
+        defineAndInsertMeasures();
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(0, count(transaction, "match $x isa measure-long; $x > 100;"));
+            assertEquals(0, count(transaction, "match $x isa measure-long; $x < 1;"));
+            assertEquals(0, count(transaction, "match $x isa measure-long; $x > 5; $x < 6;"));
+            assertEquals(0, count(transaction, "match $x isa measure-long; $x > 7; $x < 3;"));
+            assertEquals(0, count(transaction, "match $x isa measure-double; $x >= 4.0; $x <= 1.0;"));
+            assertEquals(0, count(transaction, "match $x isa measure-date; $x > 2021-01-08; $x < 2021-01-02;"));
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_range_predicates_include_uncommitted_attributes() {
+        defineAndInsertMeasures();
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().insert(TypeQL.parseQuery("insert " +
+                                                                 "$a 50 isa measure-long; " +
+                                                                 "$b 2.75 isa measure-double; " +
+                                                                 "$c 2021-02-01 isa measure-date;").asInsert());
+            assertEquals(1, count(transaction, "match $x isa measure-long; $x > 40;"));
+            assertEquals(6, count(transaction, "match $x isa measure-long; $x >= 6;"));
+            assertEquals(1, count(transaction, "match $x isa measure-double; $x > 2.5; $x < 3;"));
+            assertEquals(1, count(transaction, "match $x isa measure-date; $x >= 2021-01-15;"));
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_range_predicates_change_the_starting_vertex() {
+        session = typedb.session(database, Arguments.Session.Type.SCHEMA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().define(TypeQL.parseQuery("define " +
+                                                                 "rank sub attribute, value long; " +
+                                                                 "person sub entity, owns rank; ").asDefine());
+            transaction.commit();
+        }
+        session.close();
+
+        // three times as many ranks as people, so that people are the cheaper start unless the ranks are bounded
+        session = typedb.session(database, Arguments.Session.Type.DATA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            for (int i = 0; i < 60; i++) {
+                if (i < 20) {
+                    transaction.query().insert(TypeQL.parseQuery(
+                            "insert $p isa person, has name \"ranked-" + i + "\", has rank " + i + ";"
+                    ).asInsert());
+                } else {
+                    transaction.query().insert(TypeQL.parseQuery("insert $r " + i + " isa rank;").asInsert());
+                }
+            }
+            transaction.commit();
+        }
+        RocksDatabase.StatisticsBackgroundCounter counter = typedb.databases().get(database).statisticsBackgroundCounter();
+        for (int i = 0; i < 60 && !counter.isCaughtUp(); i++) {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            Identifier.Variable.Name p = Identifier.Variable.name("p");
+            Identifier.Variable.Name r = Identifier.Variable.name("r");
+            Planner unbounded = Planner.create(personHasRank(p, r, false));
+            unbounded.tryOptimise(transaction.traversal().graph(), false);
+            assertEquals(p, unbounded.asGraph().procedure().startVertex().id());
+
+            Planner bounded = Planner.create(personHasRank(p, r, true));
+            bounded.tryOptimise(transaction.traversal().graph(), false);
+            assertEquals(r, bounded.asGraph().procedure().startVertex().id());
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_contains_shorter_than_a_trigram_scans_text_indexed_attributes() {
+        defineTextIndexed("text-short", true, "abc", "xaby", "ab", "zzz");
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(3, count(transaction, "match $x isa text-short; $x contains \"ab\";"));
+            assertEquals(3, count(transaction, "match $x isa text-short; $x contains \"b\";"));
+            assertEquals(1, count(transaction, "match $x isa text-short; $x contains \"abc\";"));
+        }
+        session.close();
+    }
 
+    @Test
+    public void test_contains_seeks_through_the_trigram_index() {
+        defineTextIndexed("text-seek", true, "the quick brown fox", "quick silver", "slow brown dog");
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(2, count(transaction, "match $x isa text-seek; $x contains \"quick\";"));
+            assertEquals(2, count(transaction, "match $x isa text-seek; $x contains \"BROWN\";"));
+            assertEquals(0, count(transaction, "match $x isa text-seek; $x contains \"quick dog\";"));
+        }
+
+        // an attribute that is missing from the index can only be found by a scan, so it is not found by a seek
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            GraphManager graph = transaction.traversal().graph();
+            TypeVertex type = graph.schema().getType("text-seek");
+            graph.data().deleteTrigrams(type.iid(), graph.data().get(type, "quick silver").iid().asString());
+            transaction.commit();
+        }
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(1, count(transaction, "match $x \"quick silver\" isa text-seek;"));
+            assertEquals(1, count(transaction, "match $x isa text-seek; $x contains \"quick\";"));
+            assertEquals(2, count(transaction, "match $x isa text-seek; $x contains \"i\";"));
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_deleting_attributes_deletes_their_trigrams() {
+        defineTextIndexed("text-deleted", true, "hello world", "goodbye world");
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(IndexIID.Trigram.trigrams("hello world").size() +
+                                 IndexIID.Trigram.trigrams("goodbye world").size(), trigrams(transaction, "text-deleted"));
+        }
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().delete(TypeQL.parseQuery("match $x \"hello world\" isa text-deleted; " +
+                                                                 "delete $x isa text-deleted;").asDelete());
+            transaction.commit();
+        }
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(IndexIID.Trigram.trigrams("goodbye world").size(), trigrams(transaction, "text-deleted"));
+            assertEquals(0, count(transaction, "match $x isa text-deleted; $x contains \"hello\";"));
+            assertEquals(1, count(transaction, "match $x isa text-deleted; $x contains \"world\";"));
+        }
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().delete(TypeQL.parseQuery("match $x isa text-deleted; " +
+                                                                 "delete $x isa text-deleted;").asDelete());
+            transaction.commit();
+        }
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(0, trigrams(transaction, "text-deleted"));
+        }
+        session.close();
+    }
+
+    @Test
+    public void test_text_indexing_backfills_existing_attributes() {
+        defineTextIndexed("text-backfill", false, "first value", "second value", "third");
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(0, trigrams(transaction, "text-backfill"));
+        }
+        session.close();
+
+        session = typedb.session(database, Arguments.Session.Type.SCHEMA);
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.concepts().getAttributeType("text-backfill").asString().setTextIndexed(true);
+            transaction.commit();
+        }
+        session.close();
+
+        session = typedb.session(database, Arguments.Session.Type.DATA);
+        try (RocksTransaction transaction = session.transaction(READ)) {
+            assertEquals(IndexIID.Trigram.trigrams("first value").size() +
+                                 IndexIID.Trigram.trigrams("second value").size() +
+                                 IndexIID.Trigram.trigrams("third").size(), trigrams(transaction, "text-backfill"));
+            assertEquals(2, count(transaction, "match $x isa text-backfill; $x contains \"value\";"));
+            assertEquals(1, count(transaction, "match $x isa text-backfill; $x contains \"hir\";"));
+        }
+        session.close();
+    }
+
+    private static void defineTextIndexed(String label, boolean isTextIndexed, String... values) {
+        session = typedb.session(database, Arguments.Session.Type.SCHEMA);
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().define(TypeQL.parseQuery("define " + label + " sub attribute, value string;").asDefine());
+            if (isTextIndexed) transaction.concepts().getAttributeType(label).asString().setTextIndexed(true);
+            transaction.commit();
+        }
+        session.close();
+
+        session = typedb.session(database, Arguments.Session.Type.DATA);
+        try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            for (String value : values) {
+                transaction.query().insert(TypeQL.parseQuery("insert $x \"" + value + "\" isa " + label + ";").asInsert());
+            }
+            transaction.commit();
+        }
+    }
+
+    private static long trigrams(RocksTransaction transaction, String label) {
+        GraphManager graph = transaction.traversal().graph();
+        TypeVertex type = graph.schema().getType(label);
+        return graph.data().storage().iterate(IndexIID.Trigram.prefix(type.iid()), (key, value) -> key).count();
+    }
+
+    private static Structure personHasRank(Identifier.Variable p, Identifier.Variable r, boolean isRange) {
+        Structure structure = new Structure();
+        structure.thingVertex(p).props().types(set(Label.of("person")));
+        structure.thingVertex(r).props().types(set(Label.of("rank")));
+        if (isRange) {
+            structure.thingVertex(r).props().predicate(Predicate.Value.Numerical.of(
+                    TypeQLToken.Predicate.Equality.GT, PredicateArgument.Value.LONG
+            ));
+            structure.thingVertex(r).props().predicate(Predicate.Value.Numerical.of(
+                    TypeQLToken.Predicate.Equality.LT, PredicateArgument.Value.LONG
+            ));
+        }
+        structure.nativeEdge(structure.thingVertex(p), structure.thingVertex(r), HAS);
+        return structure;
+    }
+
+    private static void defineAndInsertMeasures() {
+        session = typedb.session(database, Arguments.Session.Type.SCHEMA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            transaction.query().define(TypeQL.parseQuery("define " +
+                                                                 "measure-long sub attribute, value long; " +
+                                                                 "measure-double sub attribute, value double; " +
+                                                                 "measure-date sub attribute, value datetime; ").asDefine());
+            transaction.commit();
+        }
+        session.close();
+
+        session = typedb.session(database, Arguments.Session.Type.DATA);
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            if (transaction.query().match(TypeQL.parseQuery("match $x isa measure-long;").asMatch()).hasNext()) return;
+            for (int i = 1; i <= 10; i++) {
+                transaction.query().insert(TypeQL.parseQuery("insert " +
+                                                                     "$l " + i + " isa measure-long; " +
+                                                                     "$d " + (i * 0.5) + " isa measure-double; " +
+                                                                     "$t 2021-01-" + String.format("%02d", i) + " isa measure-date;").asInsert());
+            }
+            transaction.commit();
+        }
+    }
+
+    private static long count(TypeDB.Transaction transaction, String query) {
+        return transaction.query().match(TypeQL.parseQuery(query).asMatch()).count();
+    }
+}
@@ -21,40 +21,74 @@ package com.vaticle.typedb.core.traversal.common;
 import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.BiConsumer;
 
 import static java.util.Collections.unmodifiableMap;
 
+/**
+ * An immutable answer of a traversal, held as a row of vertices in the order of a {@link Layout}. The answers of a
+ * single traversal share its layout, so each of them is only the row, and a map of the answer is only built if one
+ * is asked for.
+ */
 public class VertexMap {
 
-    private final Map<Retrievable, Vertex<?, ?>> map;
-    private final int hash;
+    private final Layout layout;
+    private final Vertex<?, ?>[] row;
+    private Map<Retrievable, Vertex<?, ?>> map;
+    private int hash;
+
+    private VertexMap(Layout layout, Vertex<?, ?>[] row) {
+        assert layout.size() == row.length;
+        this.layout = layout;
+        this.row = row;
+    }
 
     public VertexMap(Map<Retrievable, Vertex<?, ?>> map) {
+        this.layout = Layout.of(map.keySet());
+        this.row = new Vertex<?, ?>[layout.size()];
+        for (int i = 0; i < row.length; i++) row[i] = map.get(layout.ids[i]);
         this.map = unmodifiableMap(map);
-        this.hash = Objects.hash(this.map);
     }
 
     public static VertexMap of(Map<Retrievable, Vertex<?, ?>> map) {
         return new VertexMap(map);
     }
 
+    /**
+     * @param layout the retrievables that the row holds the vertices of, in order
+     * @param row the vertices of the answer, which must not be modified afterwards
+     */
+    public static VertexMap of(Layout layout, Vertex<?, ?>[] row) {
+        return new VertexMap(layout, row);
+    }
+
     public Map<Retrievable, Vertex<?, ?>> map() {
+        if (map == null) {
+            Map<Retrievable, Vertex<?, ?>> map = new HashMap<>(row.length * 2);
+            for (int i = 0; i < row.length; i++) map.put(layout.ids[i], row[i]);
+            this.map = unmodifiableMap(map);
+        }
         return map;
     }
 
     public Vertex<?, ?> get(Retrievable id) {
-        return map.get(id);
+        Integer index = layout.indices.get(id);
+        return index == null ? null : row[index];
     }
 
     public boolean containsKey(Retrievable id) {
-        return map.containsKey(id);
+        return layout.indices.containsKey(id);
+    }
+
+    public int size() {
+        return row.length;
     }
 
     public void forEach(BiConsumer<Retrievable, Vertex<?, ?>> action) {
-        map.forEach(action);
+        for (int i = 0; i < row.length; i++) action.accept(layout.ids[i], row[i]);
     }
 
     @Override
@@ -63,11 +97,48 @@ public class VertexMap {
         if (o == null || getClass() != o.getClass()) return false;
 
         VertexMap that = (VertexMap) o;
-        return this.map.equals(that.map);
+        if (this.row.length != that.row.length || this.hashCode() != that.hashCode()) return false;
+        for (int i = 0; i < row.length; i++) {
+            Vertex<?, ?> other = this.layout == that.layout ? that.row[i] : that.get(layout.ids[i]);
+            if (!row[i].equals(other)) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
+        if (hash == 0) {
+            int h = 0;
+            for (int i = 0; i < row.length; i++) h += layout.ids[i].hashCode() ^ row[i].hashCode();
+            hash = h;
+        }
         return hash;
     }
+
+    /**
+     * The retrievables of the answers of a traversal, each at the index of the row that holds its vertex.
+     */
+    public static class Layout {
+
+        private final Retrievable[] ids;
+        private final Map<Retrievable, Integer> indices;
+
+        private Layout(Retrievable[] ids) {
+            this.ids = ids;
+            this.indices = new HashMap<>(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) indices.put(ids[i], i);
+        }
+
+        public static Layout of(Collection<Retrievable> ids) {
+            return new Layout(ids.toArray(new Retrievable[0]));
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public Retrievable id(int index) {
+            return ids[index];
+        }
+    }
 }
@@ -26,16 +26,17 @@ import com.vaticle.typedb.core.graph.vertex.ThingVertex;
 import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
-import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 import com.vaticle.typedb.core.traversal.procedure.GraphProcedure;
 import com.vaticle.typedb.core.traversal.procedure.ProcedureEdge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -43,7 +44,7 @@ import java.util.TreeMap;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.RESOURCE_CLOSED;
-import static java.util.stream.Collectors.toMap;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 
 public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
 
@@ -52,38 +53,44 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
     private final GraphManager graphMgr;
     private final GraphProcedure procedure;
     private final Traversal.Parameters params;
-    private final Set<Retrievable> filter;
-    private final Map<Identifier, FunctionalIterator<? extends Vertex<?, ?>>> iterators;
-    private final Map<Identifier, Vertex<?, ?>> answer;
+    private final GraphProcedure.Slots slots;
+    private final GraphProcedure.Slots.Row row;
+    private final FunctionalIterator<? extends Vertex<?, ?>>[] iterators;
+    private final Vertex<?, ?>[] answer;
     private final Scopes scopes;
     private final BranchSeekStack branchSeekStack;
-    private final int edgeCount;
+    private final int firstPos;
+    private final int lastPos;
     private int computeNextSeekPos;
     private State state;
 
     enum State {INIT, EMPTY, FETCHED, COMPLETED}
 
     public GraphIterator(GraphManager graphMgr, Vertex<?, ?> start, GraphProcedure procedure,
-                         Traversal.Parameters params, Set<Retrievable> filter) {
-        assert procedure.edgesCount() > 0;
+                         Traversal.Parameters params, GraphProcedure.Slots.Row row) {
+        this(graphMgr, Partition.of(start, procedure), procedure, params, row, procedure.edgesCount());
+    }
+
+    /**
+     * Traverses the edges of the procedure that follow the given partition, up to and including the edge at the given
+     * last position. The edges before it are already bound by the partition, and are never revisited.
+     */
+    @SuppressWarnings("unchecked")
+    public GraphIterator(GraphManager graphMgr, Partition partition, GraphProcedure procedure,
+                         Traversal.Parameters params, GraphProcedure.Slots.Row row, int lastPos) {
+        assert procedure.edgesCount() > 0 && partition.pos < lastPos && lastPos <= procedure.edgesCount();
         this.graphMgr = graphMgr;
         this.procedure = procedure;
         this.params = params;
-        this.filter = filter;
-        this.edgeCount = procedure.edgesCount();
-        this.iterators = new HashMap<>();
-        this.scopes = new Scopes();
-        this.branchSeekStack = new BranchSeekStack(edgeCount);
+        this.slots = procedure.slots();
+        this.row = row;
+        this.firstPos = partition.pos + 1;
+        this.lastPos = lastPos;
+        this.iterators = (FunctionalIterator<? extends Vertex<?, ?>>[]) new FunctionalIterator<?>[slots.size()];
+        this.scopes = partition.scopes.copy();
+        this.branchSeekStack = new BranchSeekStack(procedure.edgesCount());
         this.state = State.INIT;
-        this.answer = new HashMap<>();
-
-        Identifier startId = procedure.startVertex().id();
-        this.answer.put(startId, start);
-        if (startId.isScoped()) {
-            Identifier.Variable scope = startId.asScoped().scope();
-            Scopes.Scoped scoped = scopes.getOrInitialise(scope);
-            scoped.push(start.asThing(), 0);
-        }
+        this.answer = partition.answer.clone();
     }
 
     @Override
@@ -92,11 +99,11 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
             if (state == State.COMPLETED) return false;
             else if (state == State.FETCHED) return true;
             else if (state == State.INIT) {
-                if (computeFirst(1)) state = State.FETCHED;
+                if (computeFirst(firstPos)) state = State.FETCHED;
                 else state = State.COMPLETED;
             } else if (state == State.EMPTY) {
-                computeNextSeekPos = edgeCount;
-                if (computeNext(edgeCount)) state = State.FETCHED;
+                computeNextSeekPos = lastPos;
+                if (computeNext(lastPos)) state = State.FETCHED;
                 else state = State.COMPLETED;
             } else {
                 throw TypeDBException.of(ILLEGAL_STATE);
@@ -116,48 +123,46 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
     }
 
     private boolean computeFirst(int pos) {
-        if (answer.containsKey(procedure.edge(pos).to().id())) return computeFirstClosure(pos);
+        if (answer[slots.to(pos)] != null) return computeFirstClosure(pos);
         else return computeFirstBranch(pos);
     }
 
     private boolean computeFirstBranch(int pos) {
-        ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        Identifier toID = edge.to().id();
-        Identifier fromId = edge.from().id();
-        FunctionalIterator<? extends Vertex<?, ?>> toIter = branch(answer.get(fromId), edge);
+        int toSlot = slots.to(pos);
+        FunctionalIterator<? extends Vertex<?, ?>> toIter = branch(pos);
 
         if (toIter.hasNext()) {
-            iterators.put(toID, toIter);
-            answer.put(toID, toIter.next());
-            if (pos == edgeCount) return true;
+            iterators[toSlot] = toIter;
+            answer[toSlot] = toIter.next();
+            if (pos == lastPos) return true;
             while (!computeFirst(pos + 1)) {
                 if (pos == branchSeekStack.peekLastPos()) {
                     branchSeekStack.popLastPos();
-                    if (toIter.hasNext()) answer.put(toID, toIter.next());
+                    if (toIter.hasNext()) answer[toSlot] = toIter.next();
                     else {
                         popScope(pos);
-                        answer.remove(toID);
-                        branchFailure(edge);
+                        answer[toSlot] = null;
+                        branchFailure(pos);
                         return false;
                     }
                 } else {
                     popScope(pos);
-                    answer.remove(toID);
+                    answer[toSlot] = null;
                     toIter.recycle();
                     return false;
                 }
             }
             return true;
         } else {
-            branchFailure(edge);
+            branchFailure(pos);
             return false;
         }
     }
 
     private boolean computeFirstClosure(int pos) {
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        if (isClosure(edge, answer.get(edge.from().id()), answer.get(edge.to().id()))) {
-            if (pos == edgeCount) return true;
+        if (isClosure(edge, answer[slots.from(pos)], answer[slots.to(pos)])) {
+            if (pos == lastPos) return true;
             else if (computeFirst(pos + 1)) return true;
             else {
                 popScope(pos);
@@ -169,14 +174,16 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         }
     }
 
-    private void branchFailure(ProcedureEdge<?, ?> edge) {
+    private void branchFailure(int pos) {
+        ProcedureEdge<?, ?> edge = procedure.edge(pos);
         if (edge.onlyStartsFromRelation()) {
             assert edge.from().id().isVariable();
-            scopes.get(edge.from().id().asVariable()).edgeOrders().forEach(pos -> {
-                if (!procedure.edge(pos).isClosureEdge()) branchSeekStack.addSeek(pos);
+            scopes.get(edge.from().id().asVariable()).edgeOrders().forEach(order -> {
+                if (!procedure.edge(order).isClosureEdge()) branchSeekStack.addSeek(order);
             });
         }
         branchSeekStack.addSeeks(edge.from().dependedEdgeOrders());
+        procedure.intersection(pos).forEach(closure -> branchSeekStack.addSeeks(closure.from().dependedEdgeOrders()));
     }
 
     private void closureFailure(ProcedureEdge<?, ?> edge) {
@@ -194,32 +201,29 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
     }
 
     private boolean computeNext(int pos) {
-        if (pos == 0) return false;
+        if (pos < firstPos) return false;
 
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        Identifier toID = edge.to().id();
+        int toSlot = slots.to(pos);
 
         if (pos == computeNextSeekPos) {
-            computeNextSeekPos = edgeCount;
+            computeNextSeekPos = lastPos;
         } else if (pos > computeNextSeekPos) {
-            if (!edge.isClosureEdge()) iterators.get(toID).recycle();
+            if (!edge.isClosureEdge()) iterators[toSlot].recycle();
             if (!backTrack(pos)) return false;
 
             if (edge.isClosureEdge()) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                Vertex<?, ?> toVertex = answer.get(edge.to().id());
-                if (isClosure(edge, fromVertex, toVertex)) return true;
+                if (isClosure(edge, answer[slots.from(pos)], answer[toSlot])) return true;
                 else return computeNextClosure(pos);
             } else {
-                FunctionalIterator<? extends Vertex<?, ?>> toIter = branch(answer.get(edge.from().id()), edge);
-                iterators.put(toID, toIter);
+                iterators[toSlot] = branch(pos);
             }
         }
 
         if (edge.isClosureEdge()) {
             return computeNextClosure(pos);
-        } else if (iterators.get(toID).hasNext()) {
-            answer.put(toID, iterators.get(toID).next());
+        } else if (iterators[toSlot].hasNext()) {
+            answer[toSlot] = iterators[toSlot].next();
             return true;
         } else {
             return computeNextBranch(pos);
@@ -231,9 +235,7 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         do {
 
             if (backTrack(pos)) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                Vertex<?, ?> toVertex = answer.get(edge.to().id());
-                if (isClosure(edge, fromVertex, toVertex)) return true;
+                if (isClosure(edge, answer[slots.from(pos)], answer[slots.to(pos)])) return true;
             } else {
                 return false;
             }
@@ -246,8 +248,7 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
 
         do {
             if (backTrack(pos)) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                newIter = branch(fromVertex, edge);
+                newIter = branch(pos);
                 if (!newIter.hasNext()) {
                     if (edge.onlyStartsFromRelation() && !scopes.get(edge.from().id().asVariable()).isEmpty()) {
                         computeNextSeekPos = scopes.get(edge.from().id().asVariable()).lastEdgeOrder();
@@ -257,13 +258,18 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
                         assert edge.from().isStartingVertex() && !edge.onlyStartsFromRelation();
                         computeNextSeekPos = 0;
                     }
+                    for (ProcedureEdge<?, ?> closure : procedure.intersection(pos)) {
+                        if (!closure.from().ins().isEmpty()) {
+                            computeNextSeekPos = Math.max(computeNextSeekPos, closure.from().branchEdge().order());
+                        }
+                    }
                 }
             } else {
                 return false;
             }
         } while (!newIter.hasNext());
-        iterators.put(edge.to().id(), newIter);
-        answer.put(edge.to().id(), newIter.next());
+        iterators[slots.to(pos)] = newIter;
+        answer[slots.to(pos)] = newIter.next();
         return true;
     }
 
@@ -276,6 +282,73 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         }
     }
 
+    private FunctionalIterator<? extends Vertex<?, ?>> branch(int pos) {
+        ProcedureEdge<?, ?> edge = procedure.edge(pos);
+        List<ProcedureEdge<?, ?>> intersection = procedure.intersection(pos);
+        if (intersection.isEmpty()) return branch(answer[slots.from(pos)], edge);
+        else return intersect(edge, intersection);
+    }
+
+    /**
+     * Finds the vertex at the end of the given edge by intersecting the vertices adjacent to the bound ends of the edge
+     * and of the closure edges into the same vertex. The adjacencies are read in turns until the smallest of them is
+     * exhausted, and each of its vertices is then checked against the others. The closure edges are still checked at
+     * their own position, which also visits their roles in scope.
+     */
+    private FunctionalIterator<? extends Vertex<?, ?>> intersect(ProcedureEdge<?, ?> edge,
+                                                                 List<ProcedureEdge<?, ?>> closures) {
+        List<ProcedureEdge<?, ?>> edges = new ArrayList<>(closures.size() + 1);
+        edges.add(edge);
+        edges.addAll(closures);
+        List<FunctionalIterator<? extends Vertex<?, ?>>> adjacents = new ArrayList<>(edges.size());
+        List<Set<Vertex<?, ?>>> found = new ArrayList<>(edges.size());
+        for (ProcedureEdge<?, ?> e : edges) {
+            adjacents.add(adjacent(e));
+            found.add(new HashSet<>());
+        }
+
+        int smallest = -1;
+        while (smallest < 0) {
+            for (int i = 0; i < adjacents.size(); i++) {
+                if (adjacents.get(i).hasNext()) found.get(i).add(adjacents.get(i).next());
+                else {
+                    smallest = i;
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < adjacents.size(); i++) {
+            if (i != smallest) adjacents.get(i).recycle();
+        }
+
+        int driver = smallest;
+        FunctionalIterator<Vertex<?, ?>> toIter = iterate(found.get(driver)).filter(vertex -> {
+            for (int i = 0; i < edges.size(); i++) {
+                if (i == driver || (i == 0 && edge.isRolePlayer())) continue;
+                ProcedureEdge<?, ?> e = edges.get(i);
+                if (!e.isAdjacent(graphMgr, answer[slots.from(e.order())], vertex, params)) return false;
+            }
+            return true;
+        });
+        if (edge.isRolePlayer()) {
+            Vertex<?, ?> fromVertex = answer[slots.from(edge.order())];
+            Scopes.Scoped scoped = scopes.getOrInitialise(edge.asRolePlayer().scope());
+            toIter = toIter.flatMap(vertex -> edge.asRolePlayer().closingEdges(graphMgr, fromVertex, vertex, scoped)
+                    .map(e -> vertex));
+        }
+        return toIter;
+    }
+
+    private FunctionalIterator<? extends Vertex<?, ?>> adjacent(ProcedureEdge<?, ?> edge) {
+        Vertex<?, ?> fromVertex = answer[slots.from(edge.order())];
+        if (edge.isRolePlayer()) {
+            return edge.asRolePlayer().branchEdge(graphMgr, fromVertex, params)
+                    .map(e -> edge.direction().isForward() ? e.to() : e.from());
+        } else {
+            return edge.branch(graphMgr, fromVertex, params);
+        }
+    }
+
     private FunctionalIterator<? extends Vertex<?, ?>> branch(Vertex<?, ?> fromVertex, ProcedureEdge<?, ?> edge) {
         FunctionalIterator<? extends Vertex<?, ?>> toIter;
         if (edge.to().id().isScoped()) {
@@ -331,20 +404,72 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
     public VertexMap next() {
         if (!hasNext()) throw new NoSuchElementException();
         state = State.EMPTY;
-        return toVertexMap(answer);
+        return row.answer(answer);
     }
 
-    private VertexMap toVertexMap(Map<Identifier, Vertex<?, ?>> answer) {
-        return VertexMap.of(
-                answer.entrySet().stream()
-                        .filter(e -> e.getKey().isRetrievable() && filter.contains(e.getKey().asVariable().asRetrievable()))
-                        .collect(toMap(e -> e.getKey().asVariable().asRetrievable(), Map.Entry::getValue))
-        );
+    /**
+     * @return the partial answers bound up to the last position of this iterator, each of which can be traversed
+     * through the rest of the procedure independently of the others
+     */
+    public FunctionalIterator<Partition> partitions() {
+        return new AbstractFunctionalIterator<Partition>() {
+
+            @Override
+            public boolean hasNext() {
+                return GraphIterator.this.hasNext();
+            }
+
+            @Override
+            public Partition next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                state = State.EMPTY;
+                return new Partition(answer.clone(), scopes.copy(), lastPos);
+            }
+
+            @Override
+            public void recycle() {
+                GraphIterator.this.recycle();
+            }
+        };
     }
 
     @Override
     public void recycle() {}
 
+    /**
+     * A partial answer, indexed by slot, that binds the procedure up to and including the edge at a given position,
+     * together with the roles it has visited in every scope.
+     */
+    public static class Partition {
+
+        private final Vertex<?, ?>[] answer;
+        private final Scopes scopes;
+        private final int pos;
+
+        private Partition(Vertex<?, ?>[] answer, Scopes scopes, int pos) {
+            this.answer = answer;
+            this.scopes = scopes;
+            this.pos = pos;
+        }
+
+        public static Partition of(Vertex<?, ?> start, GraphProcedure procedure) {
+            GraphProcedure.Slots slots = procedure.slots();
+            Vertex<?, ?>[] answer = new Vertex<?, ?>[slots.size()];
+            answer[slots.start()] = start;
+            Scopes scopes = new Scopes();
+            Identifier startId = procedure.startVertex().id();
+            if (startId.isScoped()) {
+                Identifier.Variable scope = startId.asScoped().scope();
+                scopes.getOrInitialise(scope).push(start.asThing(), 0);
+            }
+            return new Partition(answer, scopes, 0);
+        }
+
+        public int pos() {
+            return pos;
+        }
+    }
+
     public static class Scopes {
 
         private final Map<Identifier.Variable, Scoped> scoped;
@@ -362,6 +487,12 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
             return scoped.get(scope);
         }
 
+        private Scopes copy() {
+            Scopes copy = new Scopes();
+            scoped.forEach((scope, s) -> copy.scoped.put(scope, s.copy()));
+            return copy;
+        }
+
         public static class Scoped {
 
             Set<ThingVertex> roles;
@@ -372,6 +503,13 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
                 visited = new TreeMap<>();
             }
 
+            private Scoped copy() {
+                Scoped copy = new Scoped();
+                copy.roles.addAll(roles);
+                copy.visited.putAll(visited);
+                return copy;
+            }
+
             public Collection<Integer> edgeOrders() {
                 return visited.keySet();
             }
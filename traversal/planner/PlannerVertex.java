@@ -29,11 +29,18 @@ import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.graph.TraversalVertex;
 
 import javax.annotation.Nullable;
+import java.util.stream.Stream;
 
 import static com.vaticle.typedb.common.util.Objects.className;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.LTE;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.SubString.CONTAINS;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.SubString.LIKE;
 
 public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Properties>
         extends TraversalVertex<PlannerEdge.Directional<?, ?>, PROPERTIES> {
@@ -248,6 +255,9 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
 
     public static class Thing extends PlannerVertex<Properties.Thing> {
 
+        private static final double RANGE_SIDE_SELECTIVITY = 1.0 / 3;
+        private static final double TEXT_INDEX_SELECTIVITY = 0.01;
+
         Thing(Identifier id) {
             this(id, null);
         }
@@ -269,7 +279,8 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
                 if (iterate(props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(props().types().size());
                 } else {
-                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(props().types()));
+                    Stream<TypeVertex> types = props().types().stream().map(l -> graph.schema().getType(l));
+                    setObjectiveCoefficient(thingVertexCost(graph, types) * rangeSelectivity());
                 }
             } else if (!props().predicates().isEmpty()) {
                 FunctionalIterator<TypeVertex> attTypes = iterate(props().predicates())
@@ -278,13 +289,37 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
                 if (iterate(props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(attTypes.count());
                 } else {
-                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(attTypes.stream()));
+                    setObjectiveCoefficient(thingVertexCost(graph, attTypes.stream()) * rangeSelectivity());
                 }
             } else {
                 setObjectiveCoefficient(graph.data().stats().thingVertexTransitiveCount(graph.schema().rootThingType()));
             }
         }
 
+        /**
+         * Substring predicates on text-indexed types seek the trigram index for the attributes that may satisfy
+         * them, which are assumed to be a fixed fraction of the attributes of the type.
+         */
+        private double thingVertexCost(GraphManager graph, Stream<TypeVertex> types) {
+            boolean hasSubString = iterate(props().predicates())
+                    .anyMatch(p -> p.operator().equals(CONTAINS) || p.operator().equals(LIKE));
+            return types.mapToDouble(t -> graph.data().stats().thingVertexCount(t) *
+                    (hasSubString && t.isTextIndexed() ? TEXT_INDEX_SELECTIVITY : 1)).sum();
+        }
+
+        /**
+         * Inequality predicates on sorted values seek a range of the attribute index rather than scan every
+         * attribute. Plans are shared by queries of the same structure, so the predicate values are unknown here,
+         * and each bounded side of the range is assumed to keep a fixed fraction of the attributes.
+         */
+        private double rangeSelectivity() {
+            long sides = iterate(props().predicates()).filter(p -> p.valueType().isSorted())
+                    .map(p -> p.operator().equals(GT) || p.operator().equals(GTE) ? GT
+                            : p.operator().equals(LT) || p.operator().equals(LTE) ? LT : null)
+                    .noNulls().distinct().count();
+            return Math.pow(RANGE_SIDE_SELECTIVITY, sides);
+        }
+
         @Override
         public boolean isThing() { return true; }
 
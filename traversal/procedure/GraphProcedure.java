@@ -20,10 +20,12 @@ package com.vaticle.typedb.core.traversal.procedure;
 
 import com.vaticle.typedb.common.collection.ConcurrentSet;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
 import com.vaticle.typedb.core.graph.GraphManager;
+import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
@@ -43,6 +45,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -58,6 +61,8 @@ public class GraphProcedure implements Procedure {
     private final Map<Identifier, ProcedureVertex<?, ?>> vertices;
     private final ProcedureEdge<?, ?>[] edges;
     private ProcedureVertex<?, ?> startVertex;
+    private volatile Slots slots;
+    private volatile List<List<ProcedureEdge<?, ?>>> intersections;
 
     private GraphProcedure(int edgeSize) {
         vertices = new HashMap<>();
@@ -101,6 +106,48 @@ public class GraphProcedure implements Procedure {
         return edges.length;
     }
 
+    public Slots slots() {
+        if (slots == null) slots = new Slots();
+        return slots;
+    }
+
+    /**
+     * @return the closure edges that the edge at the given position is intersected with to find the vertex it branches
+     * to, or an empty list if the edge branches on its own
+     */
+    public List<ProcedureEdge<?, ?>> intersection(int pos) {
+        if (intersections == null) intersections = computeIntersections();
+        return intersections.get(pos - 1);
+    }
+
+    /**
+     * A thing vertex that has two or more edges coming in from vertices that are already bound by the time it is
+     * branched to, as in a cyclic pattern, is found by intersecting the adjacencies of all of its bound neighbours,
+     * rather than by branching through one of them and rejecting the answers that do not close the others.
+     */
+    private List<List<ProcedureEdge<?, ?>>> computeIntersections() {
+        List<List<ProcedureEdge<?, ?>>> intersections = new ArrayList<>(edges.length);
+        for (ProcedureEdge<?, ?> edge : edges) {
+            ProcedureVertex<?, ?> to = edge.to();
+            List<ProcedureEdge<?, ?>> closures = new ArrayList<>();
+            if (!edge.isClosureEdge() && edge.isIntersectable() && to.isThing() &&
+                    !to.isStartingVertex() && !to.id().isScoped()) {
+                for (ProcedureEdge<?, ?> in : to.ins()) {
+                    if (in.from() != edge.from() && in.isIntersectable() && boundOrder(in.from()) < edge.order()) {
+                        closures.add(in);
+                    }
+                }
+                closures.sort(Comparator.comparing(ProcedureEdge::order));
+            }
+            intersections.add(closures);
+        }
+        return intersections;
+    }
+
+    private static int boundOrder(ProcedureVertex<?, ?> vertex) {
+        return vertex.ins().isEmpty() ? 0 : vertex.branchEdge().order();
+    }
+
     private void registerVertex(PlannerVertex<?> plannerVertex, Set<PlannerVertex<?>> registeredVertices,
                                 Set<PlannerEdge.Directional<?, ?>> registeredEdges) {
         if (registeredVertices.contains(plannerVertex)) return;
@@ -137,6 +184,7 @@ public class GraphProcedure implements Procedure {
         edges[edge.order() - 1] = edge;
         edge.from().out(edge);
         edge.to().in(edge);
+        intersections = null;
     }
 
     private ProcedureVertex<?, ?> vertex(PlannerVertex<?> plannerVertex) {
@@ -177,9 +225,89 @@ public class GraphProcedure implements Procedure {
         }
         assertWithinFilterBounds(filter);
         ConcurrentSet<VertexMap> produced = new ConcurrentSet<>();
-        return async(startVertex().iterator(graphMgr, params).map(
-                v -> new GraphIterator(graphMgr, v, this, params, filter).distinct(produced)
-        ), parallelisation);
+        Slots.Row row = slots().row(filter);
+        Partitions partitions = new Partitions(graphMgr, params, row, parallelisation);
+        List<FunctionalIterator<VertexMap>> workers = new ArrayList<>(parallelisation);
+        for (int i = 0; i < parallelisation; i++) {
+            workers.add(partitions.iterator().flatMap(
+                    p -> new GraphIterator(graphMgr, p, this, params, row, edgesCount()).distinct(produced)
+            ));
+        }
+        return async(iterate(workers), parallelisation);
+    }
+
+    /**
+     * The partial answers that a traversal is split into, which are traversed through the rest of the procedure as
+     * separate jobs. A traversal that has fewer start vertices than it has workers, such as one that starts from a
+     * single IID, is split further down the procedure, one position at a time, until there is a partition for every
+     * worker. The partitions are shared by the workers of a producer, and are only found as a worker asks for its next
+     * one, so that finding them runs on the worker's thread rather than the caller's, and never holds up the producer.
+     * A supernode's fan-out is therefore shared across all workers without being held in memory.
+     */
+    private class Partitions {
+
+        private final GraphManager graphMgr;
+        private final Traversal.Parameters params;
+        private final Slots.Row row;
+        private final int parallelisation;
+        private FunctionalIterator<GraphIterator.Partition> partitions;
+
+        private Partitions(GraphManager graphMgr, Traversal.Parameters params, Slots.Row row, int parallelisation) {
+            this.graphMgr = graphMgr;
+            this.params = params;
+            this.row = row;
+            this.parallelisation = parallelisation;
+        }
+
+        private FunctionalIterator<GraphIterator.Partition> iterator() {
+            return new AbstractFunctionalIterator<GraphIterator.Partition>() {
+
+                private GraphIterator.Partition next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) next = poll();
+                    return next != null;
+                }
+
+                @Override
+                public GraphIterator.Partition next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    GraphIterator.Partition partition = next;
+                    next = null;
+                    return partition;
+                }
+
+                @Override
+                public void recycle() {
+                    Partitions.this.recycle();
+                }
+            };
+        }
+
+        private synchronized GraphIterator.Partition poll() {
+            if (partitions == null) partitions = split();
+            return partitions.hasNext() ? partitions.next() : null;
+        }
+
+        private FunctionalIterator<GraphIterator.Partition> split() {
+            FunctionalIterator<GraphIterator.Partition> partitions = startVertex().iterator(graphMgr, params)
+                    .map(v -> GraphIterator.Partition.of(v, GraphProcedure.this));
+            int pos = 0;
+            while (true) {
+                List<GraphIterator.Partition> first = new ArrayList<>(parallelisation);
+                while (first.size() < parallelisation && partitions.hasNext()) first.add(partitions.next());
+                if (partitions.hasNext() || pos + 1 >= edgesCount()) return iterate(first).link(partitions);
+                int splitPos = ++pos;
+                partitions = iterate(first).flatMap(
+                        p -> new GraphIterator(graphMgr, p, GraphProcedure.this, params, row, splitPos).partitions()
+                );
+            }
+        }
+
+        private synchronized void recycle() {
+            if (partitions != null) partitions.recycle();
+        }
     }
 
     @Override
@@ -190,11 +318,99 @@ public class GraphProcedure implements Procedure {
             LOG.debug(this.toString());
         }
         assertWithinFilterBounds(filter);
+        Slots.Row row = slots().row(filter);
+        if (filter.contains(startVertex().id())) {
+            // answers of different start vertices never coincide, so only one start vertex's answers are held
+            return startVertex().iterator(graphMgr, params).flatMap(
+                    sv -> new GraphIterator(graphMgr, sv, this, params, row).distinct()
+            );
+        }
         return startVertex().iterator(graphMgr, params).flatMap(
-                sv -> new GraphIterator(graphMgr, sv, this, params, filter)
+                sv -> new GraphIterator(graphMgr, sv, this, params, row)
         ).distinct();
     }
 
+    /**
+     * Numbers the vertices of the procedure, so that a partial answer is an array of vertices indexed by slot, and
+     * records the slots of the ends of every edge, so that the traversal does not look vertices up by identifier.
+     */
+    public class Slots {
+
+        private final Identifier[] identifiers;
+        private final int[] fromSlots;
+        private final int[] toSlots;
+        private final int startSlot;
+
+        private Slots() {
+            identifiers = vertices.keySet().toArray(new Identifier[0]);
+            Map<Identifier, Integer> slotOf = new HashMap<>();
+            for (int i = 0; i < identifiers.length; i++) slotOf.put(identifiers[i], i);
+            fromSlots = new int[edges.length];
+            toSlots = new int[edges.length];
+            for (int i = 0; i < edges.length; i++) {
+                fromSlots[i] = slotOf.get(edges[i].from().id());
+                toSlots[i] = slotOf.get(edges[i].to().id());
+            }
+            startSlot = slotOf.get(startVertex().id());
+        }
+
+        public int size() {
+            return identifiers.length;
+        }
+
+        public Identifier identifier(int slot) {
+            return identifiers[slot];
+        }
+
+        public int start() {
+            return startSlot;
+        }
+
+        public int from(int pos) {
+            return fromSlots[pos - 1];
+        }
+
+        public int to(int pos) {
+            return toSlots[pos - 1];
+        }
+
+        /**
+         * @return the layout of the answers that hold the given retrievables, and the slots they are copied from
+         */
+        public Row row(Set<Identifier.Variable.Retrievable> filter) {
+            List<Identifier.Variable.Retrievable> ids = new ArrayList<>();
+            List<Integer> columns = new ArrayList<>();
+            for (int slot = 0; slot < identifiers.length; slot++) {
+                Identifier id = identifiers[slot];
+                if (id.isRetrievable() && filter.contains(id.asVariable().asRetrievable())) {
+                    ids.add(id.asVariable().asRetrievable());
+                    columns.add(slot);
+                }
+            }
+            return new Row(VertexMap.Layout.of(ids), columns.stream().mapToInt(i -> i).toArray());
+        }
+
+        public class Row {
+
+            private final VertexMap.Layout layout;
+            private final int[] slots;
+
+            private Row(VertexMap.Layout layout, int[] slots) {
+                this.layout = layout;
+                this.slots = slots;
+            }
+
+            /**
+             * @return the answer that the given partial answer, indexed by slot, holds for the retrievables of the row
+             */
+            public VertexMap answer(Vertex<?, ?>[] partial) {
+                Vertex<?, ?>[] row = new Vertex<?, ?>[slots.length];
+                for (int i = 0; i < slots.length; i++) row[i] = partial[slots[i]];
+                return VertexMap.of(layout, row);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
@@ -211,6 +427,10 @@ public class GraphProcedure implements Procedure {
         str.append("\n\tedges:");
         for (ProcedureEdge<?, ?> e : procedureEdges) {
             str.append("\n\t\t").append(e);
+            List<ProcedureEdge<?, ?>> intersection = intersection(e.order());
+            if (!intersection.isEmpty()) {
+                str.append(" { intersects: ").append(iterate(intersection).map(ProcedureEdge::order).toList()).append(" }");
+            }
         }
         str.append("\n}");
         return str.toString();
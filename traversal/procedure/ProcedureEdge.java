@@ -107,6 +107,20 @@ public abstract class ProcedureEdge<
     public abstract boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
                                       Traversal.Parameters params);
 
+    /**
+     * @return true if the vertices are connected through this edge, regardless of the roles already visited in scope
+     */
+    public boolean isAdjacent(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
+                              Traversal.Parameters params) {
+        return isClosure(graphMgr, fromVertex, toVertex, params);
+    }
+
+    /**
+     * @return true if the edge only branches to vertices that satisfy the properties of the vertex it ends at,
+     * so that it can be intersected with the other edges that end at the same vertex
+     */
+    public boolean isIntersectable() { return false; }
+
     public int order() {
         return order;
     }
@@ -679,6 +693,9 @@ public abstract class ProcedureEdge<
                 super(from, to, order, direction, encoding);
             }
 
+            @Override
+            public boolean isIntersectable() { return true; }
+
             static Native.Thing of(ProcedureVertex.Thing from, ProcedureVertex.Thing to,
                                    PlannerEdge.Native.Thing.Directional edge) {
                 boolean isForward = edge.direction().isForward();
@@ -982,9 +999,39 @@ public abstract class ProcedureEdge<
                 public abstract FunctionalIterator<ThingEdge> branchEdge(GraphManager graphMgr, Vertex<?, ?> fromVertex,
                                                                          Traversal.Parameters params);
 
-                public abstract boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex,
-                                                  Vertex<?, ?> toVertex, Traversal.Parameters params,
-                                                  GraphIterator.Scopes.Scoped withinScope);
+                abstract FunctionalIterator<ThingEdge> closingEdges(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                                    Vertex<?, ?> toVertex);
+
+                public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
+                                         Traversal.Parameters params, GraphIterator.Scopes.Scoped scoped) {
+                    Optional<ThingEdge> validEdge = closingEdges(graphMgr, fromVertex, toVertex)
+                            .filter(e -> !scoped.contains(e.optimised().get())).first();
+                    validEdge.ifPresent(e -> scoped.push(e.optimised().get(), order()));
+                    return validEdge.isPresent();
+                }
+
+                /**
+                 * @return the role player edges that connect the given vertices and are not yet visited in scope,
+                 * after visiting each of them in turn as the edge at this order
+                 */
+                public FunctionalIterator<ThingEdge> closingEdges(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                                  Vertex<?, ?> toVertex,
+                                                                  GraphIterator.Scopes.Scoped scoped) {
+                    return closingEdges(graphMgr, fromVertex, toVertex).filter(e -> {
+                        if (scoped.contains(e.optimised().get())) return false;
+                        else {
+                            if (scoped.orderVisited(order())) scoped.replaceLast(e.optimised().get(), order());
+                            else scoped.push(e.optimised().get(), order());
+                            return true;
+                        }
+                    });
+                }
+
+                @Override
+                public boolean isAdjacent(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
+                                          Traversal.Parameters params) {
+                    return closingEdges(graphMgr, fromVertex, toVertex).first().isPresent();
+                }
 
                 @Override
                 public FunctionalIterator<? extends Vertex<?, ?>> branch(
@@ -1062,23 +1109,18 @@ public abstract class ProcedureEdge<
                         return iter;
                     }
 
-                    public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
-                                             Traversal.Parameters params, GraphIterator.Scopes.Scoped scoped) {
+                    @Override
+                    FunctionalIterator<ThingEdge> closingEdges(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                               Vertex<?, ?> toVertex) {
                         ThingVertex rel = fromVertex.asThing();
                         ThingVertex player = toVertex.asThing();
-                        Optional<ThingEdge> validEdge;
                         if (!roleTypes.isEmpty()) {
-                            validEdge = iterate(resolvedRoleTypes(graphMgr.schema())).flatMap(
+                            return iterate(resolvedRoleTypes(graphMgr.schema())).flatMap(
                                     rt -> rel.outs().edge(ROLEPLAYER, rt.iid(), player.iid().prefix(), player.iid().type()).get()
-                                            .filter(e -> e.to().equals(player) && !scoped.contains(e.optimised().get())))
-                                    .first();
+                                            .filter(e -> e.to().equals(player)));
                         } else {
-                            validEdge = rel.outs().edge(ROLEPLAYER).get().filter(
-                                    e -> e.to().equals(player) && !scoped.contains(e.optimised().get())
-                            ).first();
+                            return rel.outs().edge(ROLEPLAYER).get().filter(e -> e.to().equals(player));
                         }
-                        validEdge.ifPresent(e -> scoped.push(e.optimised().get(), order()));
-                        return validEdge.isPresent();
                     }
                 }
 
@@ -1123,23 +1165,18 @@ public abstract class ProcedureEdge<
                         return iter;
                     }
 
-                    public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
-                                             Traversal.Parameters params, GraphIterator.Scopes.Scoped scoped) {
+                    @Override
+                    FunctionalIterator<ThingEdge> closingEdges(GraphManager graphMgr, Vertex<?, ?> fromVertex,
+                                                               Vertex<?, ?> toVertex) {
                         ThingVertex player = fromVertex.asThing();
                         ThingVertex rel = toVertex.asThing();
-                        Optional<ThingEdge> validEdge;
                         if (!roleTypes.isEmpty()) {
-                            validEdge = iterate(resolvedRoleTypes(graphMgr.schema())).flatMap(
+                            return iterate(resolvedRoleTypes(graphMgr.schema())).flatMap(
                                     rt -> player.ins().edge(ROLEPLAYER, rt.iid(), rel.iid().prefix(), rel.iid().type()).get()
-                                            .filter(e -> e.from().equals(rel) && !scoped.contains(e.optimised().get())))
-                                    .first();
+                                            .filter(e -> e.from().equals(rel)));
                         } else {
-                            validEdge = player.ins().edge(ROLEPLAYER).get().filter(
-                                    e -> e.from().equals(rel) && !scoped.contains(e.optimised().get())
-                            ).first();
+                            return player.ins().edge(ROLEPLAYER).get().filter(e -> e.from().equals(rel));
                         }
-                        validEdge.ifPresent(e -> scoped.push(e.optimised().get(), order()));
-                        return validEdge.isPresent();
                     }
 
                     @Override
@@ -18,12 +18,14 @@
 
 package com.vaticle.typedb.core.traversal.procedure;
 
+import com.vaticle.typedb.core.common.collection.Bytes;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.graph.common.Encoding;
 import com.vaticle.typedb.core.graph.edge.ThingEdge;
+import com.vaticle.typedb.core.graph.iid.IndexIID;
 import com.vaticle.typedb.core.graph.vertex.AttributeVertex;
 import com.vaticle.typedb.core.graph.vertex.ThingVertex;
 import com.vaticle.typedb.core.graph.vertex.TypeVertex;
@@ -32,10 +34,14 @@ import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.graph.TraversalVertex;
 import com.vaticle.typedb.core.traversal.predicate.Predicate;
+import com.vaticle.typedb.core.traversal.predicate.PredicateOperator;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -53,9 +59,17 @@ import static com.vaticle.typedb.core.common.iterator.Iterators.link;
 import static com.vaticle.typedb.core.common.iterator.Iterators.single;
 import static com.vaticle.typedb.core.common.iterator.Iterators.tree;
 import static com.vaticle.typedb.core.graph.common.Encoding.Edge.Type.SUB;
+import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.DOUBLE_PRECISION;
 import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.STRING;
+import static com.vaticle.typedb.core.graph.common.Encoding.ValueType.TIME_ZONE_ID;
 import static com.vaticle.typedb.core.graph.common.Encoding.Vertex.Thing.ROLE;
 import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.Equality.LTE;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.SubString.CONTAINS;
+import static com.vaticle.typedb.core.traversal.predicate.PredicateOperator.SubString.LIKE;
 
 public abstract class ProcedureVertex<
         VERTEX extends Vertex<?, ?>,
@@ -124,6 +138,9 @@ public abstract class ProcedureVertex<
 
     public static class Thing extends ProcedureVertex<ThingVertex, Properties.Thing> {
 
+        private static final Set<PredicateOperator.Equality> RANGE_OPERATORS = set(GT, GTE, LT, LTE);
+        private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
         Thing(Identifier identifier, boolean isStartingVertex) {
             super(identifier, isStartingVertex);
         }
@@ -194,7 +211,14 @@ public abstract class ProcedureVertex<
                 } else {
                     attTypes = tree(graph.schema().rootAttributeType(), a -> a.ins().edge(SUB).from());
                 }
-                iter = attTypes.flatMap(t -> graph.data().get(t)).map(ThingVertex::asAttribute);
+                Set<String> trigrams = requiredTrigrams(parameters);
+                if (!trigrams.isEmpty()) {
+                    iter = iterateInTextIndex(graph, attTypes, trigrams).map(ThingVertex::asAttribute);
+                } else if (hasRangePredicates()) {
+                    iter = iterateInRanges(graph, attTypes, parameters).map(ThingVertex::asAttribute);
+                } else {
+                    iter = attTypes.flatMap(t -> graph.data().get(t)).map(ThingVertex::asAttribute);
+                }
             }
 
             if (props().predicates().isEmpty()) return iter;
@@ -220,15 +244,126 @@ public abstract class ProcedureVertex<
             FunctionalIterator<? extends ThingVertex> iter;
             Optional<Predicate.Value<?>> eq = iterate(props().predicates()).filter(p -> p.operator().equals(EQ)).first();
             if (eq.isPresent()) iter = iteratorOfAttributesWithTypes(graphMgr, parameters, eq.get());
-            else iter = iterate(props().types().iterator())
-                    .map(l -> assertTypeNotNull(graphMgr.schema().getType(l), l))
-                    .flatMap(t -> graphMgr.data().get(t));
+            else {
+                FunctionalIterator<TypeVertex> types = iterate(props().types().iterator())
+                        .map(l -> assertTypeNotNull(graphMgr.schema().getType(l), l));
+                Set<String> trigrams = requiredTrigrams(parameters);
+                if (!trigrams.isEmpty()) iter = iterateInTextIndex(graphMgr, types, trigrams);
+                else if (hasRangePredicates()) iter = iterateInRanges(graphMgr, types, parameters);
+                else iter = types.flatMap(t -> graphMgr.data().get(t));
+            }
 
             if (id().isVariable()) iter = filterReferableThings(iter);
             if (props().predicates().isEmpty()) return iter;
             else return filterPredicates(filterAttributes(iter), parameters, eq.orElse(null));
         }
 
+        private boolean hasRangePredicates() {
+            return iterate(props().predicates()).anyMatch(p -> RANGE_OPERATORS.contains(p.operator()));
+        }
+
+        /**
+         * Iterates the instances of the given types, seeking the attributes of the types whose values are sorted in
+         * the attribute index to the range of values that the inequality predicates bound them to. The bounds are
+         * inclusive and widened by the precision of doubles, so the predicates must still be applied to the results.
+         */
+        private FunctionalIterator<ThingVertex> iterateInRanges(GraphManager graphMgr, FunctionalIterator<TypeVertex> types,
+                                                               Traversal.Parameters parameters) {
+            Map<Encoding.ValueType, Set<TypeVertex>> sortedTypes = new HashMap<>();
+            List<FunctionalIterator<? extends ThingVertex>> iterators = new ArrayList<>();
+            for (TypeVertex type : types.toSet()) {
+                if (type.isAttributeType() && type.valueType().isSorted()) {
+                    sortedTypes.computeIfAbsent(type.valueType(), vt -> new HashSet<>()).add(type);
+                } else {
+                    iterators.add(graphMgr.data().get(type));
+                }
+            }
+            sortedTypes.forEach((valueType, typesOfValueType) -> {
+                byte[] from = rangeBound(valueType, parameters, true);
+                byte[] to = rangeBound(valueType, parameters, false);
+                if (from == null && to == null) typesOfValueType.forEach(t -> iterators.add(graphMgr.data().get(t)));
+                else iterators.add(graphMgr.data().getInRange(typesOfValueType, valueType, from, to));
+            });
+            return link(iterators);
+        }
+
+        @Nullable
+        private byte[] rangeBound(Encoding.ValueType valueType, Traversal.Parameters parameters, boolean isLower) {
+            Set<PredicateOperator.Equality> operators = isLower ? set(GT, GTE) : set(LT, LTE);
+            FunctionalIterator<Traversal.Parameters.Value> values = iterate(props().predicates())
+                    .filter(p -> operators.contains(p.operator()))
+                    .flatMap(p -> iterate(parameters.getValues(id().asVariable(), p)));
+            switch (valueType) {
+                case LONG:
+                    return values.filter(v -> v.isLong() || (v.isDouble() && !v.getDouble().isNaN()))
+                            .map(v -> v.isLong() ? v.getLong() : isLower
+                                    ? (long) Math.floor(v.getDouble() - DOUBLE_PRECISION)
+                                    : (long) Math.ceil(v.getDouble() + DOUBLE_PRECISION))
+                            .stream().reduce((a, b) -> isLower ? Math.max(a, b) : Math.min(a, b))
+                            .map(Bytes::longToSortedBytes).orElse(null);
+                case DOUBLE:
+                    return values.filter(v -> (v.isLong() || v.isDouble()) && !v.getDouble().isNaN())
+                            .map(v -> isLower
+                                    ? Math.nextDown(v.getDouble() - DOUBLE_PRECISION)
+                                    : Math.nextUp(v.getDouble() + DOUBLE_PRECISION))
+                            .stream().reduce((a, b) -> isLower ? Math.max(a, b) : Math.min(a, b))
+                            .map(Bytes::doubleToSortedBytes).orElse(null);
+                case DATETIME:
+                    return values.filter(Traversal.Parameters.Value::isDateTime).map(Traversal.Parameters.Value::getDateTime)
+                            .stream().reduce((a, b) -> isLower == a.isAfter(b) ? a : b)
+                            .map(d -> Bytes.dateTimeToBytes(d, TIME_ZONE_ID)).orElse(null);
+                default:
+                    throw TypeDBException.of(ILLEGAL_STATE);
+            }
+        }
+
+        /**
+         * @return the trigrams that every value satisfying the substring predicates must contain, from the
+         * predicate that requires the most of them, or none if no predicate can be answered by the text index
+         */
+        private Set<String> requiredTrigrams(Traversal.Parameters parameters) {
+            Set<String> required = set();
+            for (Predicate.Value<?> predicate : props().predicates()) {
+                if (!predicate.operator().equals(CONTAINS) && !predicate.operator().equals(LIKE)) continue;
+                for (Traversal.Parameters.Value value : parameters.getValues(id().asVariable(), predicate)) {
+                    Set<String> trigrams;
+                    if (value.isRegex()) trigrams = IndexIID.Trigram.trigrams(literalPrefix(value.getRegex().pattern()));
+                    else if (value.isString()) trigrams = IndexIID.Trigram.trigrams(value.getString());
+                    else continue;
+                    if (trigrams.size() > required.size()) required = trigrams;
+                }
+            }
+            return required;
+        }
+
+        /**
+         * @return the literal characters that every string matching the regex must begin with, which are none
+         * if the regex has an alternation, as then no single prefix is required
+         */
+        private static String literalPrefix(String regex) {
+            if (regex.indexOf('|') >= 0) return "";
+            int start = regex.startsWith("^") ? 1 : 0;
+            int end = start;
+            while (end < regex.length() && REGEX_METACHARACTERS.indexOf(regex.charAt(end)) < 0) end++;
+            // an optional quantifier makes the character before it optional too
+            if (end > start && end < regex.length() && "?*{".indexOf(regex.charAt(end)) >= 0) end--;
+            return regex.substring(start, end);
+        }
+
+        /**
+         * Iterates the instances of the given types, seeking the attributes of the text-indexed types to those
+         * that contain every one of the given trigrams. The substring predicates must still be applied to them.
+         */
+        private FunctionalIterator<ThingVertex> iterateInTextIndex(GraphManager graphMgr, FunctionalIterator<TypeVertex> types,
+                                                                  Set<String> trigrams) {
+            List<FunctionalIterator<? extends ThingVertex>> iterators = new ArrayList<>();
+            for (TypeVertex type : types.toSet()) {
+                if (type.isAttributeType() && type.isTextIndexed()) iterators.add(graphMgr.data().getContaining(type, trigrams));
+                else iterators.add(graphMgr.data().get(type));
+            }
+            return link(iterators);
+        }
+
         FunctionalIterator<? extends ThingVertex> filterReferableThings(FunctionalIterator<? extends ThingVertex> iterator) {
             assert id().isVariable();
             return iterator.filter(v -> !v.encoding().equals(ROLE));